@@ -0,0 +1,74 @@
+package com.example.demo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.application.directory.UserDirectory;
+import com.example.demo.application.follow.FollowRecommender;
+import com.example.demo.application.follow.FollowerMinHashIndex;
+import com.example.demo.application.timeline.TimelineCache;
+import com.example.demo.common.ApiResponse;
+import com.example.demo.infrastructure.cache.CachedUserRepository;
+import com.example.demo.infrastructure.graph.FollowExistenceFilter;
+import com.example.demo.infrastructure.graph.FollowGraph;
+import com.example.demo.infrastructure.graph.GraphFollowPathRepository;
+import com.example.demo.infrastructure.graph.InfluenceScorer;
+import com.example.demo.infrastructure.search.PostSearchIndex;
+import com.example.demo.infrastructure.search.UserFuzzyIndex;
+import com.example.demo.infrastructure.search.UserNameIndex;
+import com.example.demo.infrastructure.search.UserPrefixIndex;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 運用向け統計情報コントローラー
+ * 
+ * インメモリキャッシュなどの統計情報（ヒット数・ミス数・追い出し数など）をJSONで返します。
+ * 管理者ロールのユーザーのみアクセス可能です。
+ */
+@RestController
+@RequestMapping("/admin/stats")
+@RequiredArgsConstructor
+public class AdminStatsController {
+    private final TimelineCache timelineCache;
+    private final CachedUserRepository cachedUserRepository;
+    private final FollowGraph followGraph;
+    private final FollowExistenceFilter followExistenceFilter;
+    private final FollowRecommender followRecommender;
+    private final FollowerMinHashIndex followerMinHashIndex;
+    private final InfluenceScorer influenceScorer;
+    private final GraphFollowPathRepository graphFollowPathRepository;
+    private final UserNameIndex userNameIndex;
+    private final UserPrefixIndex userPrefixIndex;
+    private final PostSearchIndex postSearchIndex;
+    private final UserFuzzyIndex userFuzzyIndex;
+    private final UserDirectory userDirectory;
+
+    /**
+     * 統計情報を取得
+     * 
+     * @return コンポーネントごとの統計情報
+     */
+    @GetMapping
+    public ApiResponse<Map<String, Object>> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("timelineCache", timelineCache.stats());
+        stats.put("userCache", cachedUserRepository.stats());
+        stats.put("followGraph", followGraph.stats());
+        stats.put("followFilter", followExistenceFilter.stats());
+        stats.put("recommendation", followRecommender.stats());
+        stats.put("similarUsers", followerMinHashIndex.stats());
+        stats.put("influence", influenceScorer.stats());
+        stats.put("followPath", graphFollowPathRepository.stats());
+        stats.put("userSearch", userNameIndex.stats());
+        stats.put("userSuggest", userPrefixIndex.stats());
+        stats.put("postSearch", postSearchIndex.stats());
+        stats.put("userFuzzySearch", userFuzzyIndex.stats());
+        stats.put("userDirectory", userDirectory.stats());
+        return ApiResponse.success(stats);
+    }
+}
@@ -1,7 +1,5 @@
 package com.example.demo;
 
-import java.util.List;
-
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
@@ -12,17 +10,21 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
-import com.example.demo.application.dto.PostWithUserDto;
 import com.example.demo.application.form.ContentForm;
 import com.example.demo.application.usecase.PostUseCase;
 import com.example.demo.application.usecase.UserContentUseCase;
 import com.example.demo.application.usecase.UserProfileUseCase;
+import com.example.demo.common.PagedResponse;
+import com.example.demo.constants.AppConstants;
 import com.example.demo.domain.model.Post;
+import com.example.demo.domain.model.PostWithUserDto;
 import com.example.demo.domain.model.User;
 import com.example.demo.domain.model.UserContents;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -55,11 +57,13 @@ public class BoardController {
      * フォローしているユーザーの投稿と自分の投稿を時系列で表示します。
      * 後方互換性のため、従来のコメントシステムも併用しています。
      * 
+     * @param cursor 前のページの nextCursor（最初のページは省略）
      * @param userDetails 現在ログイン中のユーザー情報
      * @return タイムライン表示画面のModelAndView
      */
     @GetMapping
-    public ModelAndView viewBoard(@AuthenticationPrincipal UserDetails userDetails) {
+    public ModelAndView viewBoard(@RequestParam(required = false) String cursor,
+                                  @AuthenticationPrincipal UserDetails userDetails) {
         // 認証状態の確認
         if (!isAuthenticated(userDetails)) {
             log.warn("未認証ユーザーがボード画面にアクセスしようとしました");
@@ -69,10 +73,10 @@ public class BoardController {
         try {
             // 現在のユーザー情報を安全に取得
             String currentUserId = getCurrentUserIdSafely(userDetails);
-            User currentUser = userProfileUseCase.getUserProfileByUsername(userDetails.getUsername());
+            User currentUser = userProfileUseCase.getCurrentUser(userDetails);
             
-            // タイムラインデータを取得
-            List<PostWithUserDto> timeline = postUseCase.getTimeline(currentUserId);
+            // タイムラインデータを1ページ分取得
+            PagedResponse<PostWithUserDto> timeline = postUseCase.getTimelinePage(currentUserId, cursor);
             
             // 後方互換性のためのコメントデータを取得
             UserContents userContents = userContentUseCase.read();
@@ -81,7 +85,7 @@ public class BoardController {
             ModelAndView modelAndView = createBoardView(timeline, userContents, currentUser);
             
             log.debug("ボード画面を表示しました: user={}, timelineCount={}", 
-                      userDetails.getUsername(), timeline.size());
+                      userDetails.getUsername(), timeline.getItems().size());
             return modelAndView;
             
         } catch (Exception e) {
@@ -90,6 +94,44 @@ public class BoardController {
         }
     }
 
+    /**
+     * タイムラインの続きのページを、投稿の項目部分だけ表示（無限スクロール用）
+     * レイアウトや新規投稿フォーム、従来のコメントは含めず、次のページのカーソルは X-Next-Cursor ヘッダーで返します。
+     * 
+     * @param cursor 前のページの nextCursor
+     * @param userDetails 現在ログイン中のユーザー情報
+     * @param response 次のページのカーソルを設定するレスポンス
+     * @return 投稿の項目のフラグメント（未認証・カーソル不正の場合は本文なしのエラー応答）
+     */
+    @GetMapping("/page")
+    public ModelAndView viewTimelinePage(@RequestParam(required = false) String cursor,
+                                         @AuthenticationPrincipal UserDetails userDetails,
+                                         HttpServletResponse response) {
+        // 呼び出し元のスクリプトが項目として追加しないよう、エラー画面ではなくステータスだけを返す
+        if (!isAuthenticated(userDetails)) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return null;
+        }
+        
+        try {
+            User currentUser = userProfileUseCase.getCurrentUser(userDetails);
+            PagedResponse<PostWithUserDto> timeline = postUseCase.getTimelinePage(currentUser.getId().asString(), cursor);
+            if (timeline.getPageInfo().isHasNext()) {
+                response.setHeader(AppConstants.Paging.NEXT_CURSOR_HEADER, timeline.getPageInfo().getNextCursor());
+            }
+            
+            ModelAndView modelAndView = new ModelAndView("fragments/post :: timelineItems");
+            modelAndView.addObject("timeline", timeline.getItems());
+            modelAndView.addObject("currentUser", currentUser);
+            return modelAndView;
+        } catch (IllegalArgumentException e) {
+            log.warn("タイムラインの続きの取得でパラメータエラーが発生しました: user={}, error={}", 
+                     userDetails.getUsername(), e.getMessage());
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
+        }
+    }
+
     /**
      * 新しい投稿を作成
      * バリデーション済みの投稿内容を受け取り、新しい投稿としてシステムに保存します。
@@ -114,7 +156,7 @@ public class BoardController {
         try {
             // 現在のユーザー情報を安全に取得
             String currentUserId = getCurrentUserIdSafely(userDetails);
-            User currentUser = userProfileUseCase.getUserProfileByUsername(userDetails.getUsername());
+            User currentUser = userProfileUseCase.getCurrentUser(userDetails);
             
             // バリデーションエラーがある場合はボード画面に戻る
             if (bindingResult.hasErrors()) {
@@ -281,7 +323,7 @@ public class BoardController {
      * @throws IllegalArgumentException ユーザーIDが無効な場合
      */
     private String getCurrentUserIdSafely(UserDetails userDetails) {
-        User currentUser = userProfileUseCase.getUserProfileByUsername(userDetails.getUsername());
+        User currentUser = userProfileUseCase.getCurrentUser(userDetails);
         
         if (currentUser == null || currentUser.getId() == null || currentUser.getId().getValue() == null) {
             log.error("現在のユーザー情報が不正です: ユーザー名={}", userDetails.getUsername());
@@ -294,15 +336,16 @@ public class BoardController {
     /**
      * ボード表示用のModelAndViewを作成
      * 
-     * @param timeline タイムライン投稿リスト
+     * @param timeline タイムライン投稿の1ページ分とページング情報
      * @param userContents 従来のコメントデータ
      * @param currentUser 現在のユーザー
      * @return ボード表示用のModelAndView
      */
-    private ModelAndView createBoardView(List<PostWithUserDto> timeline, 
+    private ModelAndView createBoardView(PagedResponse<PostWithUserDto> timeline, 
                                        UserContents userContents, User currentUser) {
         ModelAndView modelAndView = new ModelAndView("board");
-        modelAndView.addObject("timeline", timeline);
+        modelAndView.addObject("timeline", timeline.getItems());
+        modelAndView.addObject("pageInfo", timeline.getPageInfo());
         modelAndView.addObject("contents", userContents.getValues());
         modelAndView.addObject("contentForm", new ContentForm());
         modelAndView.addObject("currentUser", currentUser);
@@ -320,11 +363,12 @@ public class BoardController {
      */
     private ModelAndView createBoardViewWithErrors(String currentUserId, User currentUser, 
                                                   ContentForm contentForm) {
-        List<PostWithUserDto> timeline = postUseCase.getTimeline(currentUserId);
+        PagedResponse<PostWithUserDto> timeline = postUseCase.getTimelinePage(currentUserId, null);
         UserContents userContents = userContentUseCase.read();
         
         ModelAndView modelAndView = new ModelAndView("board");
-        modelAndView.addObject("timeline", timeline);
+        modelAndView.addObject("timeline", timeline.getItems());
+        modelAndView.addObject("pageInfo", timeline.getPageInfo());
         modelAndView.addObject("contents", userContents.getValues());
         modelAndView.addObject("contentForm", contentForm);
         modelAndView.addObject("currentUser", currentUser);
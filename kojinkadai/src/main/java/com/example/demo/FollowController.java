@@ -1,6 +1,9 @@
 package com.example.demo;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -9,14 +12,19 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.ModelAndView;
 
 import com.example.demo.application.usecase.FollowUseCase;
 import com.example.demo.application.usecase.UserProfileUseCase;
+import com.example.demo.common.PagedResponse;
+import com.example.demo.constants.AppConstants;
 import com.example.demo.domain.model.User;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -54,7 +62,7 @@ public class FollowController {
         }
         
         // フォロー中ユーザー一覧へリダイレクト
-        return viewFollowing(userDetails);
+        return new ModelAndView("redirect:/follow/following");
     }
 
     /**
@@ -140,11 +148,13 @@ public class FollowController {
     /**
      * フォロー中のユーザー一覧を表示
      * 
+     * @param cursor 前のページの nextCursor（最初のページは省略）
      * @param userDetails 現在ログイン中のユーザー情報
      * @return フォロー中ユーザー一覧画面のModelAndView
      */
     @GetMapping("/following")
-    public ModelAndView viewFollowing(@AuthenticationPrincipal UserDetails userDetails) {
+    public ModelAndView viewFollowing(@RequestParam(required = false) String cursor,
+                                      @AuthenticationPrincipal UserDetails userDetails) {
         // 認証状態の確認
         if (!isAuthenticated(userDetails)) {
             log.warn("未認証ユーザーがフォロー中ユーザー一覧にアクセスしようとしました");
@@ -154,14 +164,16 @@ public class FollowController {
         try {
             // 現在のユーザー情報を安全に取得
             String currentUserId = getCurrentUserIdSafely(userDetails);
-            User currentUser = userProfileUseCase.getUserProfileByUsername(userDetails.getUsername());
+            User currentUser = userProfileUseCase.getCurrentUser(userDetails);
             
-            // フォロー中のユーザーリストを取得
-            List<User> followingUsers = followUseCase.getFollowingUsers(currentUserId);
+            // フォロー中のユーザーリストを1ページ分取得
+            PagedResponse<User> page = followUseCase.getFollowingUsers(currentUserId, cursor);
+            List<User> followingUsers = page.getItems();
             
             // ModelAndViewを構築
             ModelAndView modelAndView = new ModelAndView("follow/following");
             modelAndView.addObject("users", followingUsers);
+            modelAndView.addObject("pageInfo", page.getPageInfo());
             modelAndView.addObject("currentUser", currentUser);
             
             log.debug("フォロー中ユーザー一覧を表示しました: user={}, followingCount={}", 
@@ -178,11 +190,13 @@ public class FollowController {
     /**
      * フォロワー一覧を表示
      * 
+     * @param cursor 前のページの nextCursor（最初のページは省略）
      * @param userDetails 現在ログイン中のユーザー情報
      * @return フォロワー一覧画面のModelAndView
      */
     @GetMapping("/followers")
-    public ModelAndView viewFollowers(@AuthenticationPrincipal UserDetails userDetails) {
+    public ModelAndView viewFollowers(@RequestParam(required = false) String cursor,
+                                      @AuthenticationPrincipal UserDetails userDetails) {
         // 認証状態の確認
         if (!isAuthenticated(userDetails)) {
             log.warn("未認証ユーザーがフォロワー一覧にアクセスしようとしました");
@@ -192,14 +206,16 @@ public class FollowController {
         try {
             // 現在のユーザー情報を安全に取得
             String currentUserId = getCurrentUserIdSafely(userDetails);
-            User currentUser = userProfileUseCase.getUserProfileByUsername(userDetails.getUsername());
+            User currentUser = userProfileUseCase.getCurrentUser(userDetails);
             
-            // フォロワーリストを取得
-            List<User> followerUsers = followUseCase.getFollowerUsers(currentUserId);
+            // フォロワーリストを1ページ分取得
+            PagedResponse<User> page = followUseCase.getFollowerUsers(currentUserId, cursor);
+            List<User> followerUsers = page.getItems();
             
             // ModelAndViewを構築
             ModelAndView modelAndView = new ModelAndView("follow/followers");
             modelAndView.addObject("users", followerUsers);
+            modelAndView.addObject("pageInfo", page.getPageInfo());
             modelAndView.addObject("currentUser", currentUser);
             
             log.debug("フォロワー一覧を表示しました: user={}, followerCount={}", 
@@ -213,6 +229,64 @@ public class FollowController {
         }
     }
 
+    /**
+     * フォロー中のユーザー一覧の続きのページを、ユーザーの項目部分だけ表示（無限スクロール用）
+     * 次のページのカーソルは X-Next-Cursor ヘッダーで返します。
+     * 
+     * @param cursor 前のページの nextCursor
+     * @param userDetails 現在ログイン中のユーザー情報
+     * @param response 次のページのカーソルを設定するレスポンス
+     * @return ユーザーの項目のフラグメント（未認証・カーソル不正の場合は本文なしのエラー応答）
+     */
+    @GetMapping("/following/page")
+    public ModelAndView viewFollowingPage(@RequestParam(required = false) String cursor,
+                                          @AuthenticationPrincipal UserDetails userDetails,
+                                          HttpServletResponse response) {
+        if (!isAuthenticated(userDetails)) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return null;
+        }
+        
+        try {
+            PagedResponse<User> page = followUseCase.getFollowingUsers(getCurrentUserIdSafely(userDetails), cursor);
+            return createUserItemsView("fragments/user :: followingItems", page, response);
+        } catch (IllegalArgumentException e) {
+            log.warn("フォロー中ユーザーの続きの取得でパラメータエラーが発生しました: user={}, error={}", 
+                     userDetails.getUsername(), e.getMessage());
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
+        }
+    }
+
+    /**
+     * フォロワー一覧の続きのページを、ユーザーの項目部分だけ表示（無限スクロール用）
+     * 次のページのカーソルは X-Next-Cursor ヘッダーで返します。
+     * 
+     * @param cursor 前のページの nextCursor
+     * @param userDetails 現在ログイン中のユーザー情報
+     * @param response 次のページのカーソルを設定するレスポンス
+     * @return ユーザーの項目のフラグメント（未認証・カーソル不正の場合は本文なしのエラー応答）
+     */
+    @GetMapping("/followers/page")
+    public ModelAndView viewFollowersPage(@RequestParam(required = false) String cursor,
+                                          @AuthenticationPrincipal UserDetails userDetails,
+                                          HttpServletResponse response) {
+        if (!isAuthenticated(userDetails)) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return null;
+        }
+        
+        try {
+            PagedResponse<User> page = followUseCase.getFollowerUsers(getCurrentUserIdSafely(userDetails), cursor);
+            return createUserItemsView("fragments/user :: followerItems", page, response);
+        } catch (IllegalArgumentException e) {
+            log.warn("フォロワーの続きの取得でパラメータエラーが発生しました: user={}, error={}", 
+                     userDetails.getUsername(), e.getMessage());
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
+        }
+    }
+
     /**
      * 指定されたユーザーをフォローしているかどうかの状態を取得
      * AJAX経由で呼び出されるRESTエンドポイントです。
@@ -249,6 +323,52 @@ public class FollowController {
         }
     }
     
+    /**
+     * 複数ユーザーに対するフォロー状態をまとめて取得
+     * AJAX経由で呼び出されるRESTエンドポイントです。1回の問い合わせで全ユーザー分を判定します。
+     * 
+     * @param userIds 状態確認対象のユーザーIDのリスト
+     * @param userDetails 現在ログイン中のユーザー情報
+     * @return ユーザーIDごとのフォロー状態（true: フォロー中、false: 未フォロー）を含むResponseEntity
+     */
+    @PostMapping("/status/batch")
+    @ResponseBody
+    public ResponseEntity<Map<String, Boolean>> getFollowStatuses(@RequestBody List<String> userIds,
+                                                                @AuthenticationPrincipal UserDetails userDetails) {
+        // 認証状態の確認
+        if (!isAuthenticated(userDetails)) {
+            log.warn("未認証ユーザーがフォロー状態の一括確認を試行しました: count={}", userIds.size());
+            return ResponseEntity.status(401).build();
+        }
+        
+        if (userIds.size() > AppConstants.Follow.STATUS_BATCH_MAX_SIZE) {
+            log.warn("フォロー状態の一括確認件数が上限を超えています: user={}, count={}", 
+                     userDetails.getUsername(), userIds.size());
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            // 現在のユーザー情報を安全に取得
+            String currentUserId = getCurrentUserIdSafely(userDetails);
+            
+            // フォロー状態をまとめて確認
+            Set<String> followingIds = followUseCase.getFollowingIdsAmong(currentUserId, userIds);
+            Map<String, Boolean> statuses = new LinkedHashMap<>();
+            for (String userId : userIds) {
+                statuses.put(userId, followingIds.contains(userId));
+            }
+            
+            log.debug("フォロー状態を一括確認しました: user={}, count={}", 
+                      userDetails.getUsername(), statuses.size());
+            return ResponseEntity.ok(statuses);
+            
+        } catch (Exception e) {
+            log.error("フォロー状態の一括取得でエラーが発生しました: user={}", 
+                      userDetails.getUsername(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     /**
      * 認証状態を確認
      * 
@@ -267,7 +387,7 @@ public class FollowController {
      * @throws IllegalArgumentException ユーザーIDが無効な場合
      */
     private String getCurrentUserIdSafely(UserDetails userDetails) {
-        User currentUser = userProfileUseCase.getUserProfileByUsername(userDetails.getUsername());
+        User currentUser = userProfileUseCase.getCurrentUser(userDetails);
         
         if (currentUser == null || currentUser.getId() == null || currentUser.getId().getValue() == null) {
             log.error("現在のユーザー情報が不正です: ユーザー名={}", userDetails.getUsername());
@@ -276,4 +396,21 @@ public class FollowController {
         
         return currentUser.getId().asString();
     }
-}
\ No newline at end of file
+    
+    /**
+     * ユーザー一覧の項目部分だけのModelAndViewを作成し、次のページのカーソルをヘッダーに設定
+     * 
+     * @param fragment 表示するフラグメント
+     * @param page ユーザーの1ページ分とページング情報
+     * @param response 次のページのカーソルを設定するレスポンス
+     * @return ユーザーの項目のフラグメントのModelAndView
+     */
+    private ModelAndView createUserItemsView(String fragment, PagedResponse<User> page, HttpServletResponse response) {
+        if (page.getPageInfo().isHasNext()) {
+            response.setHeader(AppConstants.Paging.NEXT_CURSOR_HEADER, page.getPageInfo().getNextCursor());
+        }
+        ModelAndView modelAndView = new ModelAndView(fragment);
+        modelAndView.addObject("users", page.getItems());
+        return modelAndView;
+    }
+}
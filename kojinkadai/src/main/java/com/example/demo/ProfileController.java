@@ -12,13 +12,21 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
+import com.example.demo.application.auth.LoginUserRefresher;
 import com.example.demo.application.form.ProfileForm;
+import com.example.demo.application.usecase.FollowUseCase;
 import com.example.demo.application.usecase.UserProfileUseCase;
+import com.example.demo.common.PagedResponse;
+import com.example.demo.config.SimilarUserProperties;
+import com.example.demo.constants.AppConstants;
 import com.example.demo.domain.model.Post;
 import com.example.demo.domain.model.User;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -37,15 +45,20 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ProfileController {
     private final UserProfileUseCase userProfileUseCase;
+    private final LoginUserRefresher loginUserRefresher;
+    private final FollowUseCase followUseCase;
+    private final SimilarUserProperties similarUserProperties;
 
     /**
      * 現在ログイン中のユーザーのプロフィールを表示
      * 
+     * @param cursor 投稿一覧の前のページの nextCursor（最初のページは省略）
      * @param userDetails Spring Securityから取得した認証情報
      * @return プロフィール表示画面のModelAndView
      */
     @GetMapping
-    public ModelAndView viewMyProfile(@AuthenticationPrincipal UserDetails userDetails) {
+    public ModelAndView viewMyProfile(@RequestParam(required = false) String cursor,
+                                      @AuthenticationPrincipal UserDetails userDetails) {
         // 認証状態の確認
         if (!isAuthenticated(userDetails)) {
             log.warn("未認証ユーザーがプロフィールにアクセスしようとしました");
@@ -53,8 +66,8 @@ public class ProfileController {
         }
         
         try {
-            User user = userProfileUseCase.getUserProfileByUsername(userDetails.getUsername());
-            return createProfileView(user, true);
+            User user = userProfileUseCase.getCurrentUser(userDetails);
+            return createProfileView(user, true, cursor);
         } catch (Exception e) {
             log.error("自分のプロフィール表示でエラーが発生しました: ユーザー名={}", userDetails.getUsername(), e);
             return new ModelAndView("redirect:/user");
@@ -65,11 +78,13 @@ public class ProfileController {
      * プロフィール編集画面を表示する
      * 
      * @param userId 表示対象のユーザーID
+     * @param cursor 投稿一覧の前のページの nextCursor（最初のページは省略）
      * @param userDetails 現在ログイン中のユーザー情報
      * @return プロフィール表示画面のModelAndView
      */
     @GetMapping("/{userId}")
     public ModelAndView viewProfile(@PathVariable String userId, 
+                                  @RequestParam(required = false) String cursor,
                                   @AuthenticationPrincipal UserDetails userDetails) {
         // 認証状態の確認
         if (!isAuthenticated(userDetails)) {
@@ -80,12 +95,26 @@ public class ProfileController {
         try {
             // 表示対象ユーザーの情報を取得
             User profileUser = userProfileUseCase.getUserProfile(userId);
-            User currentUser = userProfileUseCase.getUserProfileByUsername(userDetails.getUsername());
+            User currentUser = userProfileUseCase.getCurrentUser(userDetails);
             
             // 自分のプロフィールかどうかを安全に判定
             boolean isOwnProfile = determineIsOwnProfile(currentUser, userId);
             
-            return createProfileView(profileUser, isOwnProfile);
+            ModelAndView modelAndView = createProfileView(profileUser, isOwnProfile, cursor);
+            if (!isOwnProfile) {
+                // 相互フォローかどうかと、自分のフォロー中ユーザーのうち何人がこのユーザーをフォローしているか
+                String currentUserId = currentUser.getId().asString();
+                modelAndView.addObject("mutualFollow", followUseCase.isMutualFollow(currentUserId, userId));
+                modelAndView.addObject("followedByFollowingCount",
+                    followUseCase.countFollowedByFollowing(currentUserId, userId));
+                // 自分から何ステップでたどり着けるかと、その経路
+                List<User> followPath = followUseCase.getFollowPath(currentUserId, userId);
+                if (!followPath.isEmpty()) {
+                    modelAndView.addObject("followPath", followPath);
+                    modelAndView.addObject("degreesOfSeparation", followPath.size() - 1);
+                }
+            }
+            return modelAndView;
         } catch (IllegalArgumentException e) {
             log.error("プロフィール表示でパラメータエラーが発生しました: userId={}, error={}", userId, e.getMessage());
             return new ModelAndView("redirect:/board");
@@ -95,6 +124,46 @@ public class ProfileController {
         }
     }
 
+    /**
+     * 投稿一覧の続きのページを、投稿の項目部分だけ表示（無限スクロール用）
+     * レイアウトやプロフィールのヘッダー（件数・似ているアカウントなど）は含めず、
+     * 次のページのカーソルは X-Next-Cursor ヘッダーで返します。
+     * 
+     * @param userId 表示対象のユーザーID
+     * @param cursor 前のページの nextCursor
+     * @param userDetails 現在ログイン中のユーザー情報
+     * @param response 次のページのカーソルを設定するレスポンス
+     * @return 投稿の項目のフラグメント（未認証・カーソル不正の場合は本文なしのエラー応答）
+     */
+    @GetMapping("/{userId}/posts")
+    public ModelAndView viewPostsPage(@PathVariable String userId,
+                                      @RequestParam(required = false) String cursor,
+                                      @AuthenticationPrincipal UserDetails userDetails,
+                                      HttpServletResponse response) {
+        // 呼び出し元のスクリプトが項目として追加しないよう、エラー画面ではなくステータスだけを返す
+        if (!isAuthenticated(userDetails)) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return null;
+        }
+        
+        try {
+            User currentUser = userProfileUseCase.getCurrentUser(userDetails);
+            PagedResponse<Post> posts = userProfileUseCase.getUserPosts(userId, cursor);
+            if (posts.getPageInfo().isHasNext()) {
+                response.setHeader(AppConstants.Paging.NEXT_CURSOR_HEADER, posts.getPageInfo().getNextCursor());
+            }
+            
+            ModelAndView modelAndView = new ModelAndView("fragments/post :: profilePostItems");
+            modelAndView.addObject("posts", posts.getItems());
+            modelAndView.addObject("isOwnProfile", determineIsOwnProfile(currentUser, userId));
+            return modelAndView;
+        } catch (IllegalArgumentException e) {
+            log.warn("投稿一覧の続きの取得でパラメータエラーが発生しました: userId={}, error={}", userId, e.getMessage());
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
+        }
+    }
+
     /**
      * プロフィール編集画面を表示
      * 
@@ -110,7 +179,7 @@ public class ProfileController {
         }
         
         try {
-            User user = userProfileUseCase.getUserProfileByUsername(userDetails.getUsername());
+            User user = userProfileUseCase.getCurrentUser(userDetails);
             
             // 編集フォームの初期化
             ProfileForm profileForm = initializeProfileForm(user);
@@ -132,12 +201,16 @@ public class ProfileController {
      * @param userDetails 現在ログイン中のユーザー情報
      * @param profileForm バリデーション済みのプロフィールフォーム
      * @param bindingResult バリデーション結果
+     * @param request 現在のリクエスト（ログイン情報の差し替えに使用）
+     * @param response 現在のレスポンス（ログイン情報の差し替えに使用）
      * @return 更新後の画面のModelAndView
      */
     @PostMapping("/edit")
     public ModelAndView updateProfile(@AuthenticationPrincipal UserDetails userDetails,
                                     @Validated @ModelAttribute ProfileForm profileForm,
-                                    BindingResult bindingResult) {
+                                    BindingResult bindingResult,
+                                    HttpServletRequest request,
+                                    HttpServletResponse response) {
         // 認証状態の確認
         if (!isAuthenticated(userDetails)) {
             log.warn("未認証ユーザーがプロフィール更新を試行しました");
@@ -145,7 +218,7 @@ public class ProfileController {
         }
         
         try {
-            User user = userProfileUseCase.getUserProfileByUsername(userDetails.getUsername());
+            User user = userProfileUseCase.getCurrentUser(userDetails);
             
             // バリデーションエラーがある場合は編集画面に戻る
             if (bindingResult.hasErrors()) {
@@ -154,11 +227,13 @@ public class ProfileController {
             }
     
             // プロフィール情報の更新
-            userProfileUseCase.updateProfile(
+            User updatedUser = userProfileUseCase.updateProfile(
                 user.getId().asString(),
                 profileForm.getDisplayName(),
                 profileForm.getBio()
             );
+            // ログイン中のプリンシパルが持つ表示項目も更新後の内容に差し替える
+            loginUserRefresher.refresh(updatedUser, request, response);
             // 更新後に自分のプロフィール画面へリダイレクト
             log.info("プロフィールが正常に更新されました: ユーザー名={}", userDetails.getUsername());
             return new ModelAndView("redirect:/profile");
@@ -168,7 +243,7 @@ public class ProfileController {
             
             // エラー時は編集画面に戻る
             try {
-                User user = userProfileUseCase.getUserProfileByUsername(userDetails.getUsername());
+                User user = userProfileUseCase.getCurrentUser(userDetails);
                 ModelAndView modelAndView = createEditViewWithErrors(profileForm, user);
                 modelAndView.addObject("errorMessage", "プロフィールの更新に失敗しました");
                 return modelAndView;
@@ -184,9 +259,10 @@ public class ProfileController {
      * 
      * @param user 表示対象のユーザー
      * @param isOwnProfile 自分のプロフィールかどうか
+     * @param cursor 投稿一覧の前のページの nextCursor（最初のページはnull）
      * @return プロフィール表示用のModelAndView
      */
-    private ModelAndView createProfileView(User user, boolean isOwnProfile) {
+    private ModelAndView createProfileView(User user, boolean isOwnProfile, String cursor) {
         ModelAndView modelAndView = new ModelAndView("profile/view");
         
         try {
@@ -194,12 +270,17 @@ public class ProfileController {
             String userIdString = extractUserId(user);
             
             // プロフィール関連データの取得
-            List<Post> posts = userProfileUseCase.getUserPosts(userIdString);
+            PagedResponse<Post> posts = userProfileUseCase.getUserPosts(userIdString, cursor);
+            int postCount = userProfileUseCase.getPostCount(userIdString);
             int followingCount = userProfileUseCase.getFollowingCount(userIdString);
             int followerCount = userProfileUseCase.getFollowerCount(userIdString);
             
             // ModelAndViewにデータを設定
-            populateProfileView(modelAndView, user, posts, followingCount, followerCount, isOwnProfile);
+            populateProfileView(modelAndView, user, posts, postCount, followingCount, followerCount, isOwnProfile);
+            
+            // フォロワー層が似ているアカウント
+            modelAndView.addObject("similarUsers",
+                followUseCase.getSimilarUsers(userIdString, similarUserProperties.getLimit()));
             
             return modelAndView;
         } catch (Exception e) {
@@ -286,15 +367,18 @@ public class ProfileController {
      * 
      * @param modelAndView 設定対象のModelAndView
      * @param user ユーザー情報
-     * @param posts 投稿一覧
+     * @param posts 投稿一覧の1ページ分とページング情報
+     * @param postCount 投稿数
      * @param followingCount フォロー中のユーザー数
      * @param followerCount フォロワー数
      * @param isOwnProfile 自分のプロフィールかどうか
      */
-    private void populateProfileView(ModelAndView modelAndView, User user, List<Post> posts, 
+    private void populateProfileView(ModelAndView modelAndView, User user, PagedResponse<Post> posts, int postCount,
                                    int followingCount, int followerCount, boolean isOwnProfile) {
         modelAndView.addObject("user", user);
-        modelAndView.addObject("posts", posts);
+        modelAndView.addObject("posts", posts.getItems());
+        modelAndView.addObject("pageInfo", posts.getPageInfo());
+        modelAndView.addObject("postCount", postCount);
         modelAndView.addObject("followingCount", followingCount);
         modelAndView.addObject("followerCount", followerCount);
         modelAndView.addObject("isOwnProfile", isOwnProfile);
@@ -311,6 +395,7 @@ public class ProfileController {
     private ModelAndView createMinimalProfileView(ModelAndView modelAndView, User user, boolean isOwnProfile) {
         modelAndView.addObject("user", user);
         modelAndView.addObject("posts", List.of());
+        modelAndView.addObject("postCount", 0);
         modelAndView.addObject("followingCount", 0);
         modelAndView.addObject("followerCount", 0);
         modelAndView.addObject("isOwnProfile", isOwnProfile);
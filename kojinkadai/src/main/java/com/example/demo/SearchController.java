@@ -1,7 +1,9 @@
 package com.example.demo;
 
 import java.util.List;
+import java.util.Set;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
@@ -9,12 +11,19 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.ModelAndView;
 
+import com.example.demo.application.dto.PostSearchResultDto;
+import com.example.demo.application.dto.UserSuggestionDto;
+import com.example.demo.application.usecase.PostUseCase;
 import com.example.demo.application.usecase.FollowUseCase;
+import com.example.demo.config.RecommendationProperties;
 import com.example.demo.application.usecase.UserProfileUseCase;
+import com.example.demo.common.PagedResponse;
+import com.example.demo.config.UserSuggestProperties;
+import com.example.demo.constants.AppConstants;
 import com.example.demo.domain.model.User;
-import com.example.demo.domain.model.UserRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,12 +31,22 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/search")
 @RequiredArgsConstructor
 public class SearchController {
-    private final UserRepository userRepository;
+    /** 検索対象: 投稿の本文 */
+    private static final String TYPE_POSTS = "posts";
+    /** 検索対象: ユーザー名・表示名（入力ミスを許す） */
+    private static final String TYPE_FUZZY = "fuzzy";
+
     private final UserProfileUseCase userProfileUseCase;
     private final FollowUseCase followUseCase;
+    private final PostUseCase postUseCase;
+    private final RecommendationProperties recommendationProperties;
+    private final UserSuggestProperties userSuggestProperties;
 
     @GetMapping
     public ModelAndView searchPage(@RequestParam(required = false) String keyword,
+                                 @RequestParam(defaultValue = "users") String type,
+                                 @RequestParam(defaultValue = "0") int page,
+                                 @RequestParam(required = false) String cursor,
                                  @AuthenticationPrincipal UserDetails userDetails) {
         // 認証チェック
         if (userDetails == null) {
@@ -36,28 +55,86 @@ public class SearchController {
         
         ModelAndView modelAndView = new ModelAndView("search/index");
         
-        User currentUser = userProfileUseCase.getUserProfileByUsername(userDetails.getUsername());
+        User currentUser = userProfileUseCase.getCurrentUser(userDetails);
+        modelAndView.addObject("currentUser", currentUser);
+        
+        // 投稿の本文を検索（ページ送りはカーソルで行う）
+        if (TYPE_POSTS.equals(type) && StringUtils.hasText(keyword)) {
+            PostSearchResultDto result = postUseCase.searchPosts(
+                keyword, cursor, AppConstants.Search.RESULTS_DEFAULT_LIMIT);
+            modelAndView.addObject("searchType", TYPE_POSTS);
+            modelAndView.addObject("keyword", keyword);
+            modelAndView.addObject("searchPerformed", true);
+            modelAndView.addObject("posts", result.getPosts());
+            modelAndView.addObject("nextCursor", result.getNextCursor());
+            modelAndView.addObject("users", List.of());
+            modelAndView.addObject("followingIds", Set.of());
+            return modelAndView;
+        }
+        modelAndView.addObject("searchType", TYPE_FUZZY.equals(type) ? TYPE_FUZZY : "users");
         
         List<User> users;
-        if (StringUtils.hasText(keyword)) {
-            users = userRepository.searchByDisplayName(keyword);
+        if (TYPE_FUZZY.equals(type) && StringUtils.hasText(keyword)) {
+            // 入力ミスを許す検索は近い順の上位だけを表示する（ページ送りなし）
+            users = userProfileUseCase.fuzzySearchUsers(keyword, currentUser.getId().asString());
+            modelAndView.addObject("keyword", keyword);
+            modelAndView.addObject("searchPerformed", true);
+        } else if (StringUtils.hasText(keyword)) {
+            // ログイン中のユーザーはページに分ける前に除く（ページの件数と総件数がずれないように）
+            PagedResponse<User> result = userProfileUseCase.searchUsers(keyword, page, currentUser.getId().asString());
+            users = result.getItems();
+            modelAndView.addObject("pageInfo", result.getPageInfo());
             modelAndView.addObject("keyword", keyword);
             modelAndView.addObject("searchPerformed", true);
         } else {
-            users = userRepository.findAll();
+            // キーワードなしはユーザー一覧をページ単位で表示する（ログイン中のユーザーは除外済み）
+            PagedResponse<User> directory = userProfileUseCase.getUserDirectory(
+                cursor, currentUser.getId().asString());
+            users = directory.getItems();
+            modelAndView.addObject("pageInfo", directory.getPageInfo());
             modelAndView.addObject("searchPerformed", false);
+            modelAndView.addObject("recommendedUsers", followUseCase.getRecommendedUsers(
+                currentUser.getId().asString(), recommendationProperties.getLimit()));
         }
         
-        // 自分を除外
-        users = users.stream()
-            .filter(user -> !user.getId().asString().equals(currentUser.getId().asString()))
-            .toList();
+        // 表示する全ユーザーのフォロー状態を1回の問い合わせでまとめて取得
+        Set<String> followingIds = followUseCase.getFollowingIdsAmong(
+            currentUser.getId().asString(),
+            users.stream().map(user -> user.getId().asString()).toList()
+        );
         
-        // フォロー状態を含めたユーザー情報を作成
         modelAndView.addObject("users", users);
-        modelAndView.addObject("currentUser", currentUser);
-        modelAndView.addObject("followUseCase", followUseCase);
+        modelAndView.addObject("followingIds", followingIds);
         
         return modelAndView;
     }
-}
\ No newline at end of file
+    
+    /**
+     * 検索欄の入力補完
+     * ユーザー名または表示名が入力途中の文字列で始まるユーザーを、フォロワー数の多い順に返します。
+     * 
+     * @param q 入力途中の文字列
+     * @param limit 返す件数（省略時は app.user-suggest.limit）
+     * @param userDetails 現在ログイン中のユーザー情報
+     * @return 候補のユーザーのリスト
+     */
+    @GetMapping("/suggest")
+    @ResponseBody
+    public ResponseEntity<List<UserSuggestionDto>> suggest(@RequestParam(defaultValue = "") String q,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (q.length() > AppConstants.Search.KEYWORD_MAX_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        int size = limit != null
+            ? Math.max(0, Math.min(limit, AppConstants.Search.SUGGEST_MAX_LIMIT))
+            : userSuggestProperties.getLimit();
+        List<UserSuggestionDto> suggestions = userProfileUseCase.suggestUsers(q, size).stream()
+            .map(UserSuggestionDto::from)
+            .toList();
+        return ResponseEntity.ok(suggestions);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.application.auth;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.example.demo.domain.model.User;
+
+import lombok.Getter;
+
+/**
+ * ログイン中のユーザーを表す認証プリンシパル
+ * 
+ * Spring Securityの認証情報に加えて、ログイン時に APP_USERS から読み込んだ
+ * ユーザーIDと表示用のプロフィール項目を保持します。
+ * コントローラーはこのプリンシパルから現在のユーザーを取得できるため、
+ * リクエストのたびにユーザー名でDBを検索する必要がありません。
+ * プロフィール更新時は {@link #withProfile(User)} で作り直したプリンシパルに差し替えます。
+ */
+@Getter
+public class LoginUser extends org.springframework.security.core.userdetails.User {
+    private static final long serialVersionUID = 1L;
+
+    /** APP_USERS のユーザーID */
+    private final String userId;
+
+    private final String email;
+    private final String displayName;
+    private final String bio;
+    private final String avatarUrl;
+
+    private LoginUser(String username, String password, boolean enabled, boolean accountNonExpired,
+                      boolean credentialsNonExpired, boolean accountNonLocked,
+                      Collection<? extends GrantedAuthority> authorities, User profile) {
+        super(username, password, enabled, accountNonExpired, credentialsNonExpired, accountNonLocked, authorities);
+        this.userId = profile.getId().asString();
+        this.email = profile.getEmail().toString();
+        this.displayName = profile.getDisplayName().getValue();
+        this.bio = profile.getBio();
+        this.avatarUrl = profile.getAvatarUrl();
+    }
+
+    /**
+     * 認証情報とプロフィールからプリンシパルを作成
+     * 
+     * @param userDetails Spring Security用テーブルから読み込んだ認証情報
+     * @param profile APP_USERS から読み込んだプロフィール
+     * @return プリンシパル
+     */
+    public static LoginUser of(UserDetails userDetails, User profile) {
+        return new LoginUser(
+            userDetails.getUsername(),
+            userDetails.getPassword(),
+            userDetails.isEnabled(),
+            userDetails.isAccountNonExpired(),
+            userDetails.isCredentialsNonExpired(),
+            userDetails.isAccountNonLocked(),
+            userDetails.getAuthorities(),
+            profile
+        );
+    }
+
+    /**
+     * プロフィールを更新したプリンシパルを作成
+     * 
+     * @param profile 更新後のプロフィール
+     * @return 新しいプリンシパル
+     */
+    public LoginUser withProfile(User profile) {
+        return new LoginUser(
+            getUsername(),
+            getPassword() != null ? getPassword() : "",
+            isEnabled(),
+            isAccountNonExpired(),
+            isCredentialsNonExpired(),
+            isAccountNonLocked(),
+            getAuthorities(),
+            profile
+        );
+    }
+
+    /**
+     * 画面表示用にドメインモデルのユーザーへ変換
+     * 
+     * @return プロフィール項目を持つユーザー（作成日時・更新日時は保持しない）
+     */
+    public User toUser() {
+        return User.from(userId, getUsername(), email, displayName, bio, avatarUrl, null, null);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.application.auth;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.domain.model.User;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * プロフィール更新後にログイン中のプリンシパルを最新の内容へ差し替えるコンポーネント
+ * 
+ * 差し替えた認証情報はセッションにも保存するため、次のリクエストからも更新後の表示名などが使われます。
+ */
+@Component
+public class LoginUserRefresher {
+    private final SecurityContextRepository securityContextRepository = new HttpSessionSecurityContextRepository();
+
+    /**
+     * ログイン中のプリンシパルを更新後のプロフィールで差し替える
+     * 
+     * @param profile 更新後のプロフィール
+     * @param request 現在のリクエスト
+     * @param response 現在のレスポンス
+     */
+    public void refresh(User profile, HttpServletRequest request, HttpServletResponse response) {
+        Authentication current = SecurityContextHolder.getContext().getAuthentication();
+        if (current == null || !(current.getPrincipal() instanceof LoginUser loginUser)) {
+            return;
+        }
+
+        LoginUser refreshed = loginUser.withProfile(profile);
+        UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+            refreshed, current.getCredentials(), refreshed.getAuthorities());
+        authentication.setDetails(current.getDetails());
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+        securityContextRepository.saveContext(context, request, response);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.demo.application.directory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.common.KeysetCursor;
+import com.example.demo.common.PagedResponse;
+import com.example.demo.config.UserDirectoryProperties;
+import com.example.demo.domain.model.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ユーザー一覧（キーワードなしの検索画面）のページング
+ *
+ * 一覧は登録日時の新しい順（同じならIDの大きい順）で、続きのページは前のページの最後のユーザーのキーを
+ * カーソルとして (登録日時, ID) の索引の途中から読むため、何ページ目でも問い合わせの重さは変わりません。
+ * よく見られる先頭の数ページ分（app.user-directory.snapshot-size 件）のキーは変更しないリストとして保持し、
+ * DBに問い合わせずに返します。並びが変わるのはユーザーの登録・削除時だけなので、UserRepository.save（登録）/ deleteById
+ * のコミット後に読み直します。
+ * ここで扱うのはキー（ユーザーID）だけで、ユーザー本体は呼び出し側がユーザーキャッシュ経由で読み込みます。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserDirectory {
+    private final UserRepository userRepository;
+    private final UserDirectoryProperties userDirectoryProperties;
+
+    /** 一覧の先頭のキー（まだ読み込んでいなければnull） */
+    private volatile Snapshot snapshot;
+
+    private final LongAdder snapshotPages = new LongAdder();
+    private final LongAdder databasePages = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+
+    /**
+     * 一覧の1ページ分のユーザーIDを取得
+     *
+     * @param cursor 前のページの nextCursor（最初のページはnull）
+     * @param excludeUserId 一覧から除くユーザーID（ログイン中のユーザー）
+     * @return ユーザーIDのリストとページング情報
+     * @throws IllegalArgumentException カーソルの形式が正しくない場合
+     */
+    public PagedResponse<String> page(String cursor, String excludeUserId) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = Math.max(1, userDirectoryProperties.getPageSize());
+        // 次のページの有無を判定する1件と、除外するユーザーが含まれていた場合の1件を余分に読む
+        int fetchSize = pageSize + 2;
+
+        List<KeysetCursor> keys = fromSnapshot(after, fetchSize);
+        if (keys != null) {
+            snapshotPages.increment();
+        } else {
+            keys = userRepository.findDirectoryKeys(after, fetchSize);
+            databasePages.increment();
+        }
+
+        List<String> userIds = new ArrayList<>(pageSize);
+        KeysetCursor last = null;
+        boolean hasNext = false;
+        for (KeysetCursor key : keys) {
+            if (key.getId().equals(excludeUserId)) {
+                continue;
+            }
+            if (userIds.size() == pageSize) {
+                hasNext = true;
+                break;
+            }
+            userIds.add(key.getId());
+            last = key;
+        }
+        return PagedResponse.ofCursor(userIds, pageSize, after != null, hasNext ? last.encode() : null);
+    }
+
+    /**
+     * 一覧の先頭のキーを読み直す（ユーザーの登録・削除のコミット後に呼ぶ）
+     * 読み直しは1つずつ順に行うため、後から登録したユーザーを含まない古い内容で上書きすることはありません。
+     */
+    public synchronized void refresh() {
+        int size = Math.max(1, userDirectoryProperties.getSnapshotSize());
+        List<KeysetCursor> keys = userRepository.findDirectoryKeys(null, size);
+        snapshot = new Snapshot(List.copyOf(keys), keys.size() < size);
+        refreshCount.increment();
+        log.debug("ユーザー一覧の先頭を読み直しました: users={}", keys.size());
+    }
+
+    /**
+     * 統計情報
+     */
+    public Map<String, Object> stats() {
+        Snapshot s = snapshot;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("snapshotUsers", s != null ? s.keys().size() : 0);
+        result.put("snapshotComplete", s != null && s.complete());
+        result.put("snapshotPages", snapshotPages.sum());
+        result.put("databasePages", databasePages.sum());
+        result.put("refreshCount", refreshCount.sum());
+        return result;
+    }
+
+    /**
+     * after より後ろの count 件を保持しているキーから取得（足りなければnull）
+     */
+    private List<KeysetCursor> fromSnapshot(KeysetCursor after, int count) {
+        Snapshot s = snapshot;
+        if (s == null) {
+            refresh();
+            s = snapshot;
+        }
+        List<KeysetCursor> keys = s.keys();
+        int from = KeysetCursor.indexAfter(keys, after);
+        if (from + count <= keys.size() || s.complete()) {
+            return keys.subList(from, Math.min(keys.size(), from + count));
+        }
+        return null;
+    }
+
+    /**
+     * 一覧の先頭のキー（作成後は変更しない）
+     *
+     * @param keys 一覧の並び順のキー
+     * @param complete すべてのユーザーを含んでいるか
+     */
+    private record Snapshot(List<KeysetCursor> keys, boolean complete) {
+    }
+}
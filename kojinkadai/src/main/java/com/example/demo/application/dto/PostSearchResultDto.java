@@ -0,0 +1,19 @@
+package com.example.demo.application.dto;
+
+import java.util.List;
+
+import com.example.demo.domain.model.PostWithUserDto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 投稿検索の1ページ分の結果
+ */
+@RequiredArgsConstructor
+@Getter
+public class PostSearchResultDto {
+    private final List<PostWithUserDto> posts;
+    /** 続きを取得するためのカーソル（続きが無い場合はnull） */
+    private final String nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.example.demo.application.dto;
+
+import com.example.demo.application.follow.FollowRecommendation;
+import com.example.demo.domain.model.User;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public class RecommendedUserDto {
+    private final User user;
+    private final int followedByFollowingCount;
+    private final int mutualFollowerCount;
+
+    public static RecommendedUserDto from(FollowRecommendation recommendation, User user) {
+        return new RecommendedUserDto(
+            user,
+            recommendation.getFollowedByFollowingCount(),
+            recommendation.getMutualFollowerCount()
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.application.dto;
+
+import com.example.demo.domain.model.User;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 検索欄の入力補完で返すユーザーの情報
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public class UserSuggestionDto {
+    private final String id;
+    private final String username;
+    private final String displayName;
+    private final String avatarUrl;
+
+    public static UserSuggestionDto from(User user) {
+        return new UserSuggestionDto(
+            user.getId().asString(),
+            user.getUsername(),
+            user.getDisplayName().getValue(),
+            user.getAvatarUrl()
+        );
+    }
+}
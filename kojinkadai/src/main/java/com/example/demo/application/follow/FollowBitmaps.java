@@ -0,0 +1,104 @@
+package com.example.demo.application.follow;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.FollowRepository;
+import com.example.demo.util.CompressedBitmap;
+import com.example.demo.util.StripedEpochs;
+import com.example.demo.util.TransactionUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * ユーザーごとのフォロー集合・フォロワー集合（圧縮ビットマップ）
+ *
+ * FollowRepositoryから取得したユーザーIDの一覧をCompressedBitmapに変換してキャッシュし、
+ * 相互フォローの判定や「フォロー中のユーザーにフォローされている」などの集合演算に使います。
+ * キャッシュ全体の上限は概算バイト数で管理し、フォロー・フォロー解除時は該当する2つの集合だけを破棄します。
+ * 読み込み中の集合は破棄の対象にならないため、破棄の前にユーザーごとの世代を進め、読み込みの前後で世代が
+ * 変わっていた場合は読み込んだ集合をキャッシュに残しません（TimelineCacheと同じ方式）。
+ * 返す集合はキャッシュと共有しているため、呼び出し側で変更しないでください（集合演算の結果は新しいインスタンスです）。
+ */
+@Component
+public class FollowBitmaps {
+    private final FollowRepository followRepository;
+    private final Cache<String, CompressedBitmap> followingSets;
+    private final Cache<String, CompressedBitmap> followerSets;
+    private final StripedEpochs followingEpochs = new StripedEpochs(AppConstants.Follow.BITMAP_CACHE_EPOCH_STRIPES);
+    private final StripedEpochs followerEpochs = new StripedEpochs(AppConstants.Follow.BITMAP_CACHE_EPOCH_STRIPES);
+
+    public FollowBitmaps(FollowRepository followRepository) {
+        this.followRepository = followRepository;
+        this.followingSets = newCache();
+        this.followerSets = newCache();
+    }
+
+    /**
+     * 指定ユーザーがフォローしているユーザーの集合
+     */
+    public CompressedBitmap following(String userId) {
+        return get(followingSets, followingEpochs, userId, followRepository::findFollowingIdsByFollowerId);
+    }
+
+    /**
+     * 指定ユーザーをフォローしているユーザーの集合
+     */
+    public CompressedBitmap followers(String userId) {
+        return get(followerSets, followerEpochs, userId, followRepository::findFollowerIdsByFollowingId);
+    }
+
+    /**
+     * フォロー関係の変更に合わせて該当する集合を破棄（コミット後に反映）
+     */
+    public void onFollowChanged(String followerId, String followingId) {
+        TransactionUtil.afterCommit(() -> {
+            followingEpochs.advance(followerId);
+            followerEpochs.advance(followingId);
+            followingSets.invalidate(followerId);
+            followerSets.invalidate(followingId);
+        });
+    }
+
+    private static Cache<String, CompressedBitmap> newCache() {
+        return CacheBuilder.newBuilder()
+            .maximumWeight(AppConstants.Follow.BITMAP_CACHE_MAX_BYTES / 2)
+            .<String, CompressedBitmap>weigher((userId, bitmap) ->
+                (int) Math.min(Integer.MAX_VALUE, bitmap.estimatedBytes()))
+            .expireAfterAccess(AppConstants.Follow.BITMAP_CACHE_EXPIRE_MINUTES, TimeUnit.MINUTES)
+            .build();
+    }
+
+    private static CompressedBitmap get(Cache<String, CompressedBitmap> cache, StripedEpochs epochs, String userId,
+                                        Function<String, List<String>> loader) {
+        // このスレッドで読み込んだ場合のみ、読み込み前の世代が入る
+        long[] loadedEpoch = {-1};
+        CompressedBitmap bitmap;
+        try {
+            bitmap = cache.get(userId, () -> {
+                loadedEpoch[0] = epochs.current(userId);
+                return toBitmap(loader.apply(userId));
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("フォロー集合の読み込みに失敗しました: userId=" + userId, e.getCause());
+        }
+        // 読み込み中に破棄が素通りしていた場合は、読み込んだ集合をキャッシュに残さない
+        if (loadedEpoch[0] >= 0 && epochs.changedSince(userId, loadedEpoch[0])) {
+            cache.asMap().remove(userId, bitmap);
+        }
+        return bitmap;
+    }
+
+    private static CompressedBitmap toBitmap(List<String> userIds) {
+        int[] values = new int[userIds.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Integer.parseInt(userIds.get(i));
+        }
+        return CompressedBitmap.of(values);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.application.follow;
+
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.FollowCounterProperties;
+import com.example.demo.domain.model.FollowCounterRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * フォロー数・フォロワー数カウンタの整合性チェック
+ *
+ * 通常はフォローの追加・削除に合わせてカウンタを更新するため件数はずれませんが、
+ * 書き出し前の差分がプロセスの異常終了で失われた場合や、手作業でのデータ修正などでずれが生じた場合に備え、
+ * 定期的に FOLLOWS の実件数と突き合わせて修正します。
+ * ユーザーIDの昇順に一定件数ずつ処理し、1バッチごとに短いUPDATEを1回発行するだけなので、
+ * 実行中も通常のフォロー操作を長時間ブロックすることはありません。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FollowCounterReconciler {
+    private final FollowCounterRepository followCounterRepository;
+    private final FollowCounterProperties followCounterProperties;
+
+    /**
+     * 全ユーザーのカウンタを一定件数ずつ突き合わせて修正
+     *
+     * @return 修正した行数
+     */
+    @Scheduled(fixedDelayString = "${app.follow-counter.reconcile-interval-ms:600000}",
+               initialDelayString = "${app.follow-counter.reconcile-interval-ms:600000}")
+    public int reconcileAll() {
+        int batchSize = followCounterProperties.getReconcileBatchSize();
+        int repaired = 0;
+        int checked = 0;
+        String afterId = null;
+        while (true) {
+            List<String> userIds = followCounterRepository.findUserIdsAfter(afterId, batchSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            repaired += followCounterRepository.reconcile(userIds);
+            checked += userIds.size();
+            afterId = userIds.get(userIds.size() - 1);
+            if (userIds.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (repaired > 0) {
+            log.warn("フォローカウンタのずれを修正しました: checked={}, repaired={}", checked, repaired);
+        } else {
+            log.debug("フォローカウンタの整合性チェックが完了しました: checked={}", checked);
+        }
+        return repaired;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.application.follow;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * おすすめユーザー1人分の計算結果
+ */
+@Getter
+@RequiredArgsConstructor
+public class FollowRecommendation {
+    /** おすすめユーザーのID */
+    private final String userId;
+
+    /** フォロー中のユーザーのうち、おすすめユーザーをフォローしている人数（友達の友達の経路数） */
+    private final int followedByFollowingCount;
+
+    /** 共通のフォロワー数 */
+    private final int mutualFollowerCount;
+}
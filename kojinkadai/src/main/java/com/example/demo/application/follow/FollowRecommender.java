@@ -0,0 +1,392 @@
+package com.example.demo.application.follow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.RecommendationProperties;
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.InfluenceScoreRepository;
+import com.example.demo.util.CompressedBitmap;
+import com.example.demo.util.TransactionUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Iterables;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 「おすすめユーザー」の計算
+ *
+ * フォロー中のユーザーがフォローしているユーザー（友達の友達）を、たどれる経路の数で数え上げ、
+ * 経路数の多い候補を共通のフォロワー数と影響力スコアと合わせて並べ替えます。
+ * フォロー中のユーザーの一覧を分割してfork/joinで並列にたどり、部分ごとの集計を最後にまとめます。
+ * フォロー集合はFollowBitmapsから取得するため、リクエストごとにSQLの結合は行いません。
+ *
+ * 計算結果は件数上限と最終アクセスからの保持時間（app.recommendation.cache-expire-minutes）付きのキャッシュに保持し、
+ * 保持時間内に表示されたユーザーをアクティブなユーザーとして一定間隔（app.recommendation.refresh-interval-ms）でまとめて計算し直します。
+ * 計算し直しでの置き換えもキャッシュへの書き込みとしてアクセス扱いになるため、表示されていないユーザーは計算し直しの対象から外し、
+ * 保持時間が過ぎたら追い出されるようにしています。
+ * フォローした時点で結果を古いものとして扱い、次に表示するときにその場で計算し直します。
+ */
+@Slf4j
+@Component
+public class FollowRecommender {
+    private final FollowBitmaps followBitmaps;
+    private final RecommendationProperties recommendationProperties;
+    private final InfluenceScoreRepository influenceScoreRepository;
+    private final ForkJoinPool pool;
+    private final Cache<String, Entry> cache;
+
+    private final LongAdder computeCount = new LongAdder();
+    private final LongAdder computeNanos = new LongAdder();
+    private volatile long lastRefreshMillis;
+
+    public FollowRecommender(FollowBitmaps followBitmaps, RecommendationProperties recommendationProperties,
+                             InfluenceScoreRepository influenceScoreRepository) {
+        this.followBitmaps = followBitmaps;
+        this.recommendationProperties = recommendationProperties;
+        this.influenceScoreRepository = influenceScoreRepository;
+        int parallelism = recommendationProperties.getParallelism() > 0
+            ? recommendationProperties.getParallelism()
+            : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism);
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(recommendationProperties.getCacheMaxSize())
+            .expireAfterAccess(recommendationProperties.getCacheExpireMinutes(), TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * おすすめユーザーを取得
+     * 事前計算した結果があればそれを返し、無い場合と古くなっている場合はその場で計算してキャッシュします。
+     *
+     * @param userId おすすめを表示するユーザーID
+     * @param limit 最大件数
+     * @return おすすめ順の一覧（フォロー済みのユーザーと自分自身は含まない）
+     */
+    public List<FollowRecommendation> recommend(String userId, int limit) {
+        Entry entry = cache.getIfPresent(userId);
+        if (entry == null || entry.stale) {
+            entry = compute(userId);
+            cache.put(userId, entry);
+        }
+        entry.lastReadAt = System.currentTimeMillis();
+        CompressedBitmap following = followBitmaps.following(userId);
+        List<FollowRecommendation> result = new ArrayList<>(Math.min(limit, entry.recommendations.size()));
+        for (FollowRecommendation recommendation : entry.recommendations) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (!following.contains(Integer.parseInt(recommendation.getUserId()))) {
+                result.add(recommendation);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * フォロー関係の変更に合わせて、フォローしたユーザーの結果を古いものとして扱う（コミット後に反映）
+     */
+    public void onFollowChanged(String followerId) {
+        TransactionUtil.afterCommit(() -> {
+            Entry entry = cache.getIfPresent(followerId);
+            if (entry != null) {
+                entry.stale = true;
+            }
+        });
+    }
+
+    /**
+     * アクティブなユーザー（保持時間内に表示されたユーザー）のうち、古くなった結果をまとめて計算し直す
+     */
+    @Scheduled(fixedDelayString = "${app.recommendation.refresh-interval-ms:300000}")
+    public void refresh() {
+        long started = System.currentTimeMillis();
+        long expiresBefore = started - recommendationProperties.getRefreshIntervalMs();
+        long activeSince = started - TimeUnit.MINUTES.toMillis(recommendationProperties.getCacheExpireMinutes());
+        List<String> userIds = new ArrayList<>();
+        cache.asMap().forEach((userId, entry) -> {
+            if (entry.lastReadAt > activeSince && (entry.stale || entry.computedAt <= expiresBefore)) {
+                userIds.add(userId);
+            }
+        });
+        for (List<String> batch : Iterables.partition(userIds, recommendationProperties.getRefreshBatchSize())) {
+            pool.invoke(new RefreshTask(batch, 0, batch.size()));
+        }
+        lastRefreshMillis = System.currentTimeMillis() - started;
+        if (!userIds.isEmpty()) {
+            log.debug("おすすめユーザーを計算し直しました: users={}, elapsedMs={}", userIds.size(), lastRefreshMillis);
+        }
+    }
+
+    /**
+     * 統計情報
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.size());
+        result.put("hitCount", cache.stats().hitCount());
+        result.put("missCount", cache.stats().missCount());
+        result.put("evictionCount", cache.stats().evictionCount());
+        long count = computeCount.sum();
+        result.put("computeCount", count);
+        result.put("averageComputeMicros", count == 0 ? 0 : computeNanos.sum() / count / 1000);
+        result.put("parallelism", pool.getParallelism());
+        result.put("lastRefreshMillis", lastRefreshMillis);
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private Entry compute(String userId) {
+        long started = System.nanoTime();
+        int self = Integer.parseInt(userId);
+        CompressedBitmap following = followBitmaps.following(userId);
+        int[] followees = following.toArray();
+
+        // 友達の友達への経路数を並列に数える（自分自身とフォロー済みのユーザーは除く）
+        IntCounter paths = followees.length == 0
+            ? new IntCounter()
+            : pool.invoke(new PathCountTask(followees, 0, followees.length, self, following));
+
+        int limit = recommendationProperties.getLimit();
+        int[] candidates = paths.topKeys(limit * AppConstants.Recommendation.CANDIDATE_POOL_FACTOR);
+
+        // 経路数の多い候補について共通のフォロワー数を求め、経路数 → 共通のフォロワー数 → 影響力スコア → IDの順に並べる
+        CompressedBitmap followers = followBitmaps.followers(userId);
+        List<FollowRecommendation> ranked = new ArrayList<>(candidates.length);
+        for (int candidate : candidates) {
+            String candidateId = Integer.toString(candidate);
+            ranked.add(new FollowRecommendation(candidateId, paths.get(candidate),
+                followers.andCardinality(followBitmaps.followers(candidateId))));
+        }
+        ranked.sort((a, b) -> {
+            if (a.getFollowedByFollowingCount() != b.getFollowedByFollowingCount()) {
+                return Integer.compare(b.getFollowedByFollowingCount(), a.getFollowedByFollowingCount());
+            }
+            if (a.getMutualFollowerCount() != b.getMutualFollowerCount()) {
+                return Integer.compare(b.getMutualFollowerCount(), a.getMutualFollowerCount());
+            }
+            int byInfluence = Double.compare(influenceScoreRepository.getInfluence(b.getUserId()),
+                influenceScoreRepository.getInfluence(a.getUserId()));
+            if (byInfluence != 0) {
+                return byInfluence;
+            }
+            return Integer.compare(Integer.parseInt(a.getUserId()), Integer.parseInt(b.getUserId()));
+        });
+        // 表示までにフォローされて除かれる分を見込み、表示件数の2倍まで保持する
+        List<FollowRecommendation> kept = List.copyOf(ranked.subList(0, Math.min(ranked.size(), limit * 2)));
+
+        computeCount.increment();
+        computeNanos.add(System.nanoTime() - started);
+        return new Entry(kept, System.currentTimeMillis());
+    }
+
+    /**
+     * 事前計算した結果
+     */
+    private static final class Entry {
+        final List<FollowRecommendation> recommendations;
+        final long computedAt;
+        volatile boolean stale;
+        /** 最後に表示された時刻 */
+        volatile long lastReadAt;
+
+        Entry(List<FollowRecommendation> recommendations, long computedAt) {
+            this.recommendations = recommendations;
+            this.computedAt = computedAt;
+        }
+    }
+
+    /**
+     * フォロー中のユーザーの一覧[from, to)をたどり、友達の友達ごとの経路数を数えるタスク
+     */
+    private final class PathCountTask extends RecursiveTask<IntCounter> {
+        private final int[] followees;
+        private final int from;
+        private final int to;
+        private final int self;
+        private final CompressedBitmap excluded;
+
+        PathCountTask(int[] followees, int from, int to, int self, CompressedBitmap excluded) {
+            this.followees = followees;
+            this.from = from;
+            this.to = to;
+            this.self = self;
+            this.excluded = excluded;
+        }
+
+        @Override
+        protected IntCounter compute() {
+            if (to - from <= AppConstants.Recommendation.TRAVERSAL_CHUNK_SIZE) {
+                IntCounter counter = new IntCounter();
+                for (int i = from; i < to; i++) {
+                    for (int candidate : followBitmaps.following(Integer.toString(followees[i])).toArray()) {
+                        if (candidate != self && !excluded.contains(candidate)) {
+                            counter.increment(candidate, 1);
+                        }
+                    }
+                }
+                return counter;
+            }
+            int mid = (from + to) >>> 1;
+            PathCountTask left = new PathCountTask(followees, from, mid, self, excluded);
+            left.fork();
+            IntCounter right = new PathCountTask(followees, mid, to, self, excluded).compute();
+            return IntCounter.merge(left.join(), right);
+        }
+    }
+
+    /**
+     * アクティブなユーザーの一覧[from, to)の結果を計算し直すタスク
+     */
+    private final class RefreshTask extends RecursiveAction {
+        private final List<String> userIds;
+        private final int from;
+        private final int to;
+
+        RefreshTask(List<String> userIds, int from, int to) {
+            this.userIds = userIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from == to) {
+                    return;
+                }
+                String userId = userIds.get(from);
+                try {
+                    Entry entry = FollowRecommender.this.compute(userId);
+                    // 計算中に追い出されたユーザーは戻さない
+                    cache.asMap().computeIfPresent(userId, (key, current) -> {
+                        entry.lastReadAt = current.lastReadAt;
+                        return entry;
+                    });
+                } catch (RuntimeException e) {
+                    log.warn("おすすめユーザーの計算に失敗しました: userId={}", userId, e);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RefreshTask(userIds, from, mid), new RefreshTask(userIds, mid, to));
+        }
+    }
+
+    /**
+     * int型のキーごとの件数（オープンアドレス法のハッシュ表）
+     */
+    static final class IntCounter {
+        private static final int EMPTY = -1;
+
+        private int[] keys = newKeys(16);
+        private int[] counts = new int[16];
+        private int size;
+
+        void increment(int key, int delta) {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    counts[slot] += delta;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            counts[slot] = delta;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+        }
+
+        int get(int key) {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    return counts[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return 0;
+        }
+
+        /**
+         * 件数の多い順（同数ならキーの昇順）に上位のキーを返す
+         */
+        int[] topKeys(int limit) {
+            long[] packed = new long[size];
+            int n = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY) {
+                    // 上位32ビットに件数の補数、下位32ビットにキーを詰め、昇順の並べ替えで件数の降順・キーの昇順にする
+                    packed[n++] = ((long) (Integer.MAX_VALUE - counts[slot]) << 32) | keys[slot];
+                }
+            }
+            Arrays.sort(packed);
+            int[] result = new int[Math.min(limit, n)];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = (int) packed[i];
+            }
+            return result;
+        }
+
+        /**
+         * 小さい方を大きい方へ足し込んで返す
+         */
+        static IntCounter merge(IntCounter a, IntCounter b) {
+            IntCounter larger = a.size >= b.size ? a : b;
+            IntCounter smaller = larger == a ? b : a;
+            for (int slot = 0; slot < smaller.keys.length; slot++) {
+                if (smaller.keys[slot] != EMPTY) {
+                    larger.increment(smaller.keys[slot], smaller.counts[slot]);
+                }
+            }
+            return larger;
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = newKeys(oldKeys.length * 2);
+            counts = new int[oldKeys.length * 2];
+            size = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != EMPTY) {
+                    increment(oldKeys[slot], oldCounts[slot]);
+                }
+            }
+        }
+
+        private static int[] newKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
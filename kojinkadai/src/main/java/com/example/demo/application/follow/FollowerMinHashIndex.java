@@ -0,0 +1,559 @@
+package com.example.demo.application.follow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.SimilarUserProperties;
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.FollowCounterRepository;
+import com.example.demo.domain.model.FollowRepository;
+import com.example.demo.util.TransactionUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * フォロワー集合のMinHashによる「似ているアカウント」の索引
+ *
+ * ユーザーごとにフォロワー集合のMinHash署名（SIGNATURE_SIZE個のハッシュ関数それぞれの最小値）を持ち、
+ * 署名をBANDS個の帯に分けて帯ごとにバケットへ振り分けます（LSH）。どれかの帯でバケットが一致したユーザーだけを候補とし、
+ * 署名の一致率（フォロワー集合のJaccard係数の推定値）で並べ替えるため、全ユーザーの組を比較する必要はありません。
+ * バケットは帯ごとに「バケット番号 << 32 | ユーザーID」を昇順に並べたlong配列で持ち、二分探索で引きます。
+ *
+ * 索引全体は起動時と一定間隔（app.similar-users.rebuild-interval-ms）で、全ユーザー分をfork/joinで並列に作り直します。
+ * フォロー時は署名の各値と新しいフォロワーのハッシュ値の小さい方を取るだけで更新でき、
+ * フォロー解除時は外れたフォロワーが最小値を与えていた場合と、フォロワー数が下限を下回った場合（索引から外す）だけ
+ * フォロワー集合から計算し直します。計算し直しはDBの読み込みをロックの外で行い、その間に署名が更新されていれば読み直します。
+ * 更新で所属するバケットが変わったユーザーは差分のバケットに追加します。土台のバケットに残った古い所属は、
+ * 候補の現在の署名で一致率を計算するため結果には影響せず、次に作り直すときに消えます。
+ */
+@Slf4j
+@Component
+public class FollowerMinHashIndex {
+    /** 署名の長さ（ハッシュ関数の数） */
+    private static final int SIGNATURE_SIZE = 16;
+    /** LSHの帯の数（1つの帯は SIGNATURE_SIZE / BANDS 個の値からなる） */
+    private static final int BANDS = 8;
+    private static final int ROWS_PER_BAND = SIGNATURE_SIZE / BANDS;
+
+    private static final int SIGNATURE_TASK_SIZE = 256;
+    /** 計算し直しの途中で署名が更新された場合に、ロックの外で読み直す回数の上限（超えたらロックを保持したまま計算する） */
+    private static final int MAX_RECOMPUTE_ATTEMPTS = 3;
+    private static final long HASH_SEED = 0x5DEECE66DL;
+
+    private final FollowRepository followRepository;
+    private final FollowCounterRepository followCounterRepository;
+    private final SimilarUserProperties similarUserProperties;
+
+    /**
+     * ハッシュ関数 h_i(x) = mix(mix(x) ^ seeds[i]) の上位31ビット
+     * 乗算と加算だけの変換では関数どうしの大小関係が独立にならず、最小値の一致率がJaccard係数から大きくずれるため、
+     * 関数ごとに拡散し直します。
+     */
+    private final long[] seeds = new long[SIGNATURE_SIZE];
+
+    private final Object rebuildLock = new Object();
+    private final Object writeLock = new Object();
+    /** 作り直し中に更新されたユーザー（作り直し中以外はnull、writeLockで保護） */
+    private Set<Integer> touchedDuringRebuild;
+
+    private volatile Index index = new Index(0);
+    private volatile boolean ready;
+    private volatile long lastRebuildMillis;
+
+    private final LongAdder queryCount = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+
+    public FollowerMinHashIndex(FollowRepository followRepository,
+                                FollowCounterRepository followCounterRepository,
+                                SimilarUserProperties similarUserProperties) {
+        this.followRepository = followRepository;
+        this.followCounterRepository = followCounterRepository;
+        this.similarUserProperties = similarUserProperties;
+        SplittableRandom random = new SplittableRandom(HASH_SEED);
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * 起動完了時に索引を構築
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * 索引全体を並列に作り直す
+     * 作り直し中に行われたフォロー・フォロー解除の対象ユーザーは、差し替え後に計算し直します。
+     */
+    @Scheduled(fixedDelayString = "${app.similar-users.rebuild-interval-ms:3600000}",
+               initialDelayString = "${app.similar-users.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long started = System.currentTimeMillis();
+            synchronized (writeLock) {
+                touchedDuringRebuild = new HashSet<>();
+            }
+            Index next;
+            try {
+                int[] userIds = loadUserIds();
+                next = new Index(userIds.length == 0 ? 0 : userIds[userIds.length - 1] + 1);
+                int parallelism = similarUserProperties.getParallelism() > 0
+                    ? similarUserProperties.getParallelism()
+                    : Runtime.getRuntime().availableProcessors();
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    pool.invoke(new SignatureTask(next, userIds, 0, userIds.length));
+                    List<ForkJoinTask<?>> bandTasks = new ArrayList<>(BANDS);
+                    for (int b = 0; b < BANDS; b++) {
+                        final int band = b;
+                        bandTasks.add(pool.submit(() -> next.bands[band] = buildBand(next, band)));
+                    }
+                    bandTasks.forEach(ForkJoinTask::join);
+                } finally {
+                    pool.shutdown();
+                }
+            } catch (RuntimeException e) {
+                synchronized (writeLock) {
+                    touchedDuringRebuild = null;
+                }
+                throw e;
+            }
+
+            Set<Integer> touched;
+            synchronized (writeLock) {
+                index = next;
+                touched = touchedDuringRebuild;
+                touchedDuringRebuild = null;
+            }
+            touched.forEach(this::recompute);
+            ready = true;
+            lastRebuildMillis = System.currentTimeMillis() - started;
+            log.info("似ているアカウントの索引を構築しました: users={}, elapsedMs={}", next.size(), lastRebuildMillis);
+        }
+    }
+
+    /**
+     * フォロー後に、フォローされたユーザーの署名を更新（コミット後に反映）
+     */
+    public void onFollow(String followerId, String followingId) {
+        int follower = toNode(followerId);
+        int following = toNode(followingId);
+        if (follower < 0 || following < 0) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> {
+            boolean needsRecompute;
+            synchronized (writeLock) {
+                markTouched(following);
+                int[] current = index.signature(following);
+                needsRecompute = current == null;
+                if (current != null) {
+                    int[] updated = current.clone();
+                    long hash = mix(follower);
+                    boolean changed = false;
+                    for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                        int value = hashValue(hash, i);
+                        if (value < updated[i]) {
+                            updated[i] = value;
+                            changed = true;
+                        }
+                    }
+                    if (changed) {
+                        apply(index, following, updated);
+                    }
+                }
+            }
+            // 索引に無いユーザーはフォロワー数が下限に達したかどうかをフォロワー集合から確認する
+            if (needsRecompute) {
+                recompute(following);
+            }
+        });
+    }
+
+    /**
+     * フォロー解除後に、フォローを外されたユーザーの署名を更新（コミット後に反映）
+     */
+    public void onUnfollow(String followerId, String followingId) {
+        int follower = toNode(followerId);
+        int following = toNode(followingId);
+        if (follower < 0 || following < 0) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> {
+            synchronized (writeLock) {
+                markTouched(following);
+            }
+            int[] current = index.signature(following);
+            if (current == null) {
+                return;
+            }
+            // フォロワー数が下限を下回ったユーザーは索引から外す（計算し直すと署名がnullになる）
+            if (followRepository.countByFollowingId(followingId) < Math.max(1, similarUserProperties.getMinFollowers())) {
+                recompute(following);
+                return;
+            }
+            long hash = mix(follower);
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                if (hashValue(hash, i) == current[i]) {
+                    recompute(following);
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     * フォロワー集合が似ているユーザーのIDを取得
+     *
+     * @param userId 基準のユーザーID
+     * @param limit 最大件数
+     * @return 類似度の高い順のユーザーID（基準のユーザー自身は含まない）
+     */
+    public List<String> findSimilar(String userId, int limit) {
+        int node = toNode(userId);
+        Index current = index;
+        int[] signature = node < 0 ? null : current.signature(node);
+        if (signature == null) {
+            return List.of();
+        }
+        long started = System.nanoTime();
+        int minMatches = (int) Math.ceil(similarUserProperties.getMinSimilarity() * SIGNATURE_SIZE);
+        Set<Integer> seen = new HashSet<>();
+        List<Long> matches = new ArrayList<>();
+        for (int b = 0; b < BANDS; b++) {
+            int bucket = bucketOf(signature, b);
+            long[] band = current.bands[b];
+            int scanned = 0;
+            for (int pos = lowerBound(band, (long) bucket << 32);
+                 pos < band.length && (int) (band[pos] >>> 32) == bucket
+                     && scanned < AppConstants.Similarity.MAX_BUCKET_SCAN;
+                 pos++, scanned++) {
+                collect(current, signature, node, (int) band[pos], minMatches, seen, matches);
+            }
+            Set<Integer> added = current.addedBuckets.get(bandBucketKey(b, bucket));
+            if (added != null) {
+                for (int candidate : added) {
+                    collect(current, signature, node, candidate, minMatches, seen, matches);
+                }
+            }
+        }
+        // 上位32ビットが一致しなかった数、下位32ビットがユーザーIDなので、昇順に並べると類似度の高い順・IDの昇順になる
+        matches.sort(null);
+        List<String> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && result.size() < limit; i++) {
+            result.add(Integer.toString((int) (long) matches.get(i)));
+        }
+        queryCount.increment();
+        queryNanos.add(System.nanoTime() - started);
+        return result;
+    }
+
+    /**
+     * 統計情報
+     */
+    public Map<String, Object> stats() {
+        Index current = index;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ready", ready);
+        result.put("users", current.size());
+        result.put("addedBuckets", current.addedBuckets.size());
+        long count = queryCount.sum();
+        result.put("queryCount", count);
+        result.put("averageQueryMicros", count == 0 ? 0 : queryNanos.sum() / count / 1000);
+        result.put("lastRebuildMillis", lastRebuildMillis);
+        return result;
+    }
+
+    private void collect(Index current, int[] signature, int node, int candidate, int minMatches,
+                         Set<Integer> seen, List<Long> matches) {
+        if (candidate == node || !seen.add(candidate)) {
+            return;
+        }
+        int[] other = current.signature(candidate);
+        if (other == null) {
+            return;
+        }
+        int matched = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (signature[i] == other[i]) {
+                matched++;
+            }
+        }
+        if (matched >= minMatches) {
+            matches.add(((long) (SIGNATURE_SIZE - matched) << 32) | candidate);
+        }
+    }
+
+    /**
+     * フォロワー集合から署名を計算し直して反映
+     * DBの読み込み中に他の更新で署名が差し替えられた場合（反映すると新しい方を古い署名で上書きしてしまう）は読み直します。
+     * 署名は更新のたびに新しい配列へ差し替えるため、配列の同一性で更新の有無を判定できます。
+     */
+    private void recompute(int node) {
+        for (int attempt = 0; attempt < MAX_RECOMPUTE_ATTEMPTS; attempt++) {
+            Index target = index;
+            int[] before = target.signature(node);
+            int[] signature = signatureOf(node);
+            synchronized (writeLock) {
+                if (index == target && target.signature(node) == before) {
+                    markTouched(node);
+                    apply(target, node, signature);
+                    return;
+                }
+            }
+        }
+        synchronized (writeLock) {
+            markTouched(node);
+            apply(index, node, signatureOf(node));
+        }
+    }
+
+    /**
+     * 作り直し中であれば、差し替え後に計算し直すユーザーとして記録（writeLockを保持して呼ぶ）
+     */
+    private void markTouched(int node) {
+        if (touchedDuringRebuild != null) {
+            touchedDuringRebuild.add(node);
+        }
+    }
+
+    /**
+     * 署名を差し替え、所属するバケットが変わった帯は差分のバケットに追加（writeLockを保持して呼ぶ）
+     */
+    private static void apply(Index target, int node, int[] signature) {
+        int[] previous = target.signature(node);
+        target.setSignature(node, signature);
+        if (signature == null) {
+            return;
+        }
+        for (int b = 0; b < BANDS; b++) {
+            int bucket = bucketOf(signature, b);
+            if (previous == null || bucketOf(previous, b) != bucket) {
+                target.addedBuckets.computeIfAbsent(bandBucketKey(b, bucket), key -> ConcurrentHashMap.newKeySet())
+                    .add(node);
+            }
+        }
+    }
+
+    private int[] signatureOf(int node) {
+        List<String> followerIds = followRepository.findFollowerIdsByFollowingId(Integer.toString(node));
+        if (followerIds.size() < Math.max(1, similarUserProperties.getMinFollowers())) {
+            return null;
+        }
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String followerId : followerIds) {
+            long hash = mix(Integer.parseInt(followerId));
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                signature[i] = Math.min(signature[i], hashValue(hash, i));
+            }
+        }
+        return signature;
+    }
+
+    private int hashValue(long hash, int i) {
+        return (int) (mix(hash ^ seeds[i]) >>> 33);
+    }
+
+    private int[] loadUserIds() {
+        int pageSize = AppConstants.Similarity.REBUILD_PAGE_SIZE;
+        int[] userIds = new int[pageSize];
+        int size = 0;
+        String after = null;
+        while (true) {
+            List<String> page = followCounterRepository.findUserIdsAfter(after, pageSize);
+            for (String userId : page) {
+                int node = toNode(userId);
+                if (node >= 0) {
+                    if (size == userIds.length) {
+                        userIds = Arrays.copyOf(userIds, size * 2);
+                    }
+                    userIds[size++] = node;
+                }
+            }
+            if (page.size() < pageSize) {
+                break;
+            }
+            after = page.get(page.size() - 1);
+        }
+        int[] result = Arrays.copyOf(userIds, size);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static long[] buildBand(Index target, int band) {
+        long[] entries = new long[target.size()];
+        int[] size = {0};
+        target.forEachSignature((node, signature) -> {
+            if (size[0] < entries.length) {
+                entries[size[0]++] = ((long) bucketOf(signature, band) << 32) | node;
+            }
+        });
+        long[] result = size[0] == entries.length ? entries : Arrays.copyOf(entries, size[0]);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * 帯ごとのバケット番号（非負の31ビット）
+     */
+    private static int bucketOf(int[] signature, int band) {
+        long h = band;
+        for (int i = band * ROWS_PER_BAND; i < (band + 1) * ROWS_PER_BAND; i++) {
+            h = h * 0x9E3779B97F4A7C15L + signature[i];
+        }
+        return (int) (mix(h) >>> 33);
+    }
+
+    private static long bandBucketKey(int band, int bucket) {
+        return ((long) band << 32) | bucket;
+    }
+
+    private static int lowerBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int toNode(String userId) {
+        if (userId == null) {
+            return -1;
+        }
+        try {
+            int node = Integer.parseInt(userId);
+            return node >= 0 ? node : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 64ビットのハッシュ値の拡散（MurmurHash3のfinalizer）
+     */
+    private static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 署名と帯ごとのバケット
+     */
+    private static final class Index {
+        /** ユーザーID → 署名（作り直し時点のユーザーIDの範囲） */
+        final AtomicReferenceArray<int[]> signatures;
+        /** 作り直し後に増えたユーザーの署名 */
+        final Map<Integer, int[]> extraSignatures = new ConcurrentHashMap<>();
+        /** 帯ごとの「バケット番号 << 32 | ユーザーID」の昇順配列 */
+        final long[][] bands = new long[BANDS][];
+        /** 作り直し後に所属するバケットが変わったユーザー（キーは 帯 << 32 | バケット番号） */
+        final Map<Long, Set<Integer>> addedBuckets = new ConcurrentHashMap<>();
+        /** 署名を持つユーザー数 */
+        private final AtomicInteger size = new AtomicInteger();
+
+        Index(int capacity) {
+            this.signatures = new AtomicReferenceArray<>(capacity);
+            Arrays.fill(bands, new long[0]);
+        }
+
+        int[] signature(int node) {
+            return node < signatures.length() ? signatures.get(node) : extraSignatures.get(node);
+        }
+
+        void setSignature(int node, int[] signature) {
+            int[] previous;
+            if (node < signatures.length()) {
+                previous = signatures.getAndSet(node, signature);
+            } else if (signature != null) {
+                previous = extraSignatures.put(node, signature);
+            } else {
+                previous = extraSignatures.remove(node);
+            }
+            if (previous == null && signature != null) {
+                size.incrementAndGet();
+            } else if (previous != null && signature == null) {
+                size.decrementAndGet();
+            }
+        }
+
+        int size() {
+            return size.get();
+        }
+
+        void forEachSignature(SignatureConsumer consumer) {
+            for (int node = 0; node < signatures.length(); node++) {
+                int[] signature = signatures.get(node);
+                if (signature != null) {
+                    consumer.accept(node, signature);
+                }
+            }
+            extraSignatures.forEach(consumer::accept);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SignatureConsumer {
+        void accept(int node, int[] signature);
+    }
+
+    /**
+     * ユーザーIDの一覧[from, to)の署名を計算するタスク
+     */
+    private final class SignatureTask extends RecursiveAction {
+        private final Index target;
+        private final int[] userIds;
+        private final int from;
+        private final int to;
+
+        SignatureTask(Index target, int[] userIds, int from, int to) {
+            this.target = target;
+            this.userIds = userIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SIGNATURE_TASK_SIZE) {
+                for (int i = from; i < to; i++) {
+                    target.setSignature(userIds[i], signatureOf(userIds[i]));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SignatureTask(target, userIds, from, mid), new SignatureTask(target, userIds, mid, to));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.application.loader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.User;
+import com.example.demo.domain.model.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * リクエスト単位のユーザー一括読み込み
+ *
+ * 読み込みたいユーザーIDを溜めておき、実際に必要になった時点でまとめて
+ * UserRepository.findByIds を1回（件数が多い場合はバッチごとに1回）だけ発行します。
+ * 一度読み込んだユーザーはリクエストの間保持し、同じIDに対しては常に同じインスタンスを返すため、
+ * 一覧に同じユーザーが何度現れてもUserオブジェクトは1つしか作られません。
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class UserBatchLoader {
+    private final UserRepository userRepository;
+
+    /** 読み込み済みのユーザー（ID → ユーザー） */
+    private final Map<String, User> resolved = new HashMap<>();
+
+    /** 読み込みを試みたが存在しなかったID */
+    private final Set<String> missing = new HashSet<>();
+
+    /** まだ読み込んでいないID */
+    private final Set<String> pending = new LinkedHashSet<>();
+
+    /**
+     * 後でまとめて読み込むIDを登録（この時点では問い合わせない）
+     *
+     * @param ids ユーザーIDのコレクション
+     */
+    public void prime(Collection<String> ids) {
+        for (String id : ids) {
+            if (id != null && !resolved.containsKey(id) && !missing.contains(id)) {
+                pending.add(id);
+            }
+        }
+    }
+
+    /**
+     * ユーザーを1件取得
+     * 登録済みの未読み込みIDがあれば、それらとまとめて読み込みます。
+     *
+     * @param id ユーザーID
+     * @return 該当ユーザーが存在すればOptional<User>、存在しなければ空
+     */
+    public Optional<User> load(String id) {
+        prime(List.of(id));
+        dispatch();
+        return Optional.ofNullable(resolved.get(id));
+    }
+
+    /**
+     * 複数のユーザーを取得
+     *
+     * @param ids ユーザーIDのコレクション
+     * @return 渡したIDの順に並んだユーザーのリスト（存在しないIDは除外）
+     */
+    public List<User> loadAll(Collection<String> ids) {
+        prime(ids);
+        dispatch();
+        List<User> users = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            User user = resolved.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * 他の経路で取得したユーザーを共有インスタンスに置き換え
+     * 既に同じIDのユーザーを保持していればそちらを返し、無ければ渡されたユーザーを登録して返します。
+     *
+     * @param user ユーザー
+     * @return 共有インスタンス
+     */
+    public User share(User user) {
+        String id = user.getId().asString();
+        pending.remove(id);
+        missing.remove(id);
+        return resolved.computeIfAbsent(id, key -> user);
+    }
+
+    /**
+     * 未読み込みのIDをバッチに分けて読み込む
+     */
+    private void dispatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(pending);
+        pending.clear();
+        for (int from = 0; from < ids.size(); from += AppConstants.User.BATCH_LOAD_SIZE) {
+            List<String> batch = ids.subList(from, Math.min(from + AppConstants.User.BATCH_LOAD_SIZE, ids.size()));
+            for (User user : userRepository.findByIds(batch)) {
+                share(user);
+            }
+            for (String id : batch) {
+                if (!resolved.containsKey(id)) {
+                    missing.add(id);
+                }
+            }
+        }
+    }
+}
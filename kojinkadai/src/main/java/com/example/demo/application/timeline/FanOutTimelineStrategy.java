@@ -0,0 +1,57 @@
+package com.example.demo.application.timeline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.FollowRepository;
+import com.example.demo.domain.model.HomeTimelineRepository;
+import com.example.demo.domain.model.Post;
+import com.example.demo.domain.model.PostWithUserDto;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * プッシュ型のタイムライン生成（ファンアウト・オン・ライト）
+ * 
+ * 投稿時に投稿者自身とすべてのフォロワーの受信箱（HOME_TIMELINE）へ投稿IDを配信し、
+ * 読み取りは受信箱の範囲スキャン1回で済ませます。
+ * フォロー時は相手の最近の投稿を補充し、フォロー解除時は相手の投稿を受信箱から取り除きます。
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.timeline", name = "strategy", havingValue = "fanout")
+public class FanOutTimelineStrategy implements TimelineStrategy {
+    private final HomeTimelineRepository homeTimelineRepository;
+    private final FollowRepository followRepository;
+
+    @Override
+    public List<PostWithUserDto> getTimeline(String userId, int limit) {
+        return homeTimelineRepository.findTimelineByOwnerId(userId, limit);
+    }
+
+    @Override
+    public void onPostCreated(Post post) {
+        String authorId = post.getUserId().asString();
+        List<String> followerIds = followRepository.findFollowerIdsByFollowingId(authorId);
+
+        // 配信先は投稿者自身 + フォロワー全員
+        List<String> ownerIds = new ArrayList<>(followerIds.size() + 1);
+        ownerIds.add(authorId);
+        ownerIds.addAll(followerIds);
+        homeTimelineRepository.appendToInboxes(post, ownerIds);
+    }
+
+    @Override
+    public void onFollow(String followerId, String followingId) {
+        homeTimelineRepository.backfill(followerId, followingId, AppConstants.Post.TIMELINE_DEFAULT_LIMIT);
+    }
+
+    @Override
+    public void onUnfollow(String followerId, String followingId) {
+        homeTimelineRepository.deleteByOwnerIdAndAuthorId(followerId, followingId);
+    }
+}
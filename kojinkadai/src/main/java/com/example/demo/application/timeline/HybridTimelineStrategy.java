@@ -0,0 +1,91 @@
+package com.example.demo.application.timeline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.TimelineProperties;
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.FollowCounterRepository;
+import com.example.demo.domain.model.FollowRepository;
+import com.example.demo.domain.model.HomeTimelineRepository;
+import com.example.demo.domain.model.Post;
+import com.example.demo.domain.model.PostRepository;
+import com.example.demo.domain.model.PostWithUserDto;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * プッシュ型とプル型を併用するタイムライン生成（ハイブリッド方式）
+ * 
+ * 投稿時点のフォロワー数がしきい値（app.timeline.fanout-follower-threshold）未満のアカウントの投稿は
+ * 受信箱へ配信し、しきい値以上のアカウントの投稿は配信せず、配信しなかったことを投稿ごとに記録します（POSTS.FANNED_OUT）。
+ * 読み取り時は受信箱の列と、フォロー中ユーザーの配信しなかった投稿の列をマージするため、
+ * 1投稿あたりの書き込み件数に上限を設けつつ読み取りコストをほぼ一定に保てます。
+ * 
+ * 読み取り時に取得する投稿は記録した値だけで決まり、投稿者の現在のフォロワー数は見ません。
+ * そのため、アカウントがしきい値を上下どちらへまたいでも、受信箱と読み取り時取得のどちらにも含まれない投稿は生じません。
+ * フォロワー数はFollowCounterRepositoryの値だけを使います。
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.timeline", name = "strategy", havingValue = "hybrid")
+public class HybridTimelineStrategy implements TimelineStrategy {
+    private final HomeTimelineRepository homeTimelineRepository;
+    private final PostRepository postRepository;
+    private final FollowRepository followRepository;
+    private final FollowCounterRepository followCounterRepository;
+    private final TimelineProperties timelineProperties;
+
+    @Override
+    public List<PostWithUserDto> getTimeline(String userId, int limit) {
+        List<PostWithUserDto> inbox = homeTimelineRepository.findTimelineByOwnerId(userId, limit);
+
+        // 受信箱へ配信しなかった投稿は読み取り時に取得する
+        List<PostWithUserDto> pulled = postRepository.findNotFannedOutTimelineWithUserByFollowerId(userId, limit);
+        if (pulled.isEmpty()) {
+            return inbox;
+        }
+        return TimelineMerger.merge(List.of(inbox, pulled), limit);
+    }
+
+    @Override
+    public void onPostCreated(Post post) {
+        String authorId = post.getUserId().asString();
+
+        // 自分の投稿は常に自分の受信箱へ入れる
+        List<String> ownerIds = new ArrayList<>();
+        ownerIds.add(authorId);
+
+        // フォロワー数がしきい値未満の場合のみフォロワーへ配信し、それ以外は読み取り時に取得する投稿として記録する
+        if (isHighFollowerAccount(authorId)) {
+            postRepository.markNotFannedOut(post.getId());
+        } else {
+            ownerIds.addAll(followRepository.findFollowerIdsByFollowingId(authorId));
+        }
+        homeTimelineRepository.appendToInboxes(post, ownerIds);
+    }
+
+    @Override
+    public void onFollow(String followerId, String followingId) {
+        // 配信した投稿だけを補充する（配信しなかった投稿は読み取り時に取得される）
+        homeTimelineRepository.backfill(followerId, followingId, AppConstants.Post.TIMELINE_DEFAULT_LIMIT);
+    }
+
+    @Override
+    public void onUnfollow(String followerId, String followingId) {
+        homeTimelineRepository.deleteByOwnerIdAndAuthorId(followerId, followingId);
+    }
+
+    /**
+     * フォロワー数がしきい値以上のアカウントかどうかを判定
+     * 
+     * @param userId 判定対象のユーザーID
+     * @return しきい値以上の場合true
+     */
+    private boolean isHighFollowerAccount(String userId) {
+        return followCounterRepository.getFollowerCount(userId) >= timelineProperties.getFanoutFollowerThreshold();
+    }
+}
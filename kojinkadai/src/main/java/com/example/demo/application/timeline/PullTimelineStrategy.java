@@ -0,0 +1,53 @@
+package com.example.demo.application.timeline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.domain.model.FollowRepository;
+import com.example.demo.domain.model.Post;
+import com.example.demo.domain.model.PostRepository;
+import com.example.demo.domain.model.PostWithUserDto;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * プル型のタイムライン生成（既定）
+ * 
+ * 読み取りのたびにフォロー中ユーザーと自分自身の投稿を POSTS から集約します。
+ * 書き込み時の追加コストはありませんが、フォロー数が多いほど読み取りが重くなります。
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.timeline", name = "strategy", havingValue = "pull", matchIfMissing = true)
+public class PullTimelineStrategy implements TimelineStrategy {
+    private final PostRepository postRepository;
+    private final FollowRepository followRepository;
+
+    @Override
+    public List<PostWithUserDto> getTimeline(String userId, int limit) {
+        // フォロー中のユーザーと自分自身の投稿のみを対象とする
+        List<String> userIds = new ArrayList<>(followRepository.findFollowingIdsByFollowerId(userId));
+        userIds.add(userId);
+
+        // 投稿と投稿者情報をJOINで1回のクエリで取得（新しい順に上位N件）
+        return postRepository.findTimelineWithUserByUserIds(userIds, limit);
+    }
+
+    @Override
+    public void onPostCreated(Post post) {
+        // 読み取り時に集約するため何もしない
+    }
+
+    @Override
+    public void onFollow(String followerId, String followingId) {
+        // 読み取り時に集約するため何もしない
+    }
+
+    @Override
+    public void onUnfollow(String followerId, String followingId) {
+        // 読み取り時に集約するため何もしない
+    }
+}
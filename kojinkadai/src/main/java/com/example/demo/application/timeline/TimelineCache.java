@@ -0,0 +1,243 @@
+package com.example.demo.application.timeline;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.TimelineProperties;
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.PostWithUserDto;
+import com.example.demo.util.StripedEpochs;
+import com.example.demo.util.TransactionUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ユーザーごとのホームタイムラインのインメモリキャッシュ
+ * 
+ * アクティブなユーザーごとに最近の投稿を固定長のリングで保持し、
+ * キャッシュ全体の上限はエントリ数ではなく概算バイト数（app.timeline.cache-max-bytes）で管理します。
+ * 投稿の作成・更新・削除、フォロー・フォロー解除の際は該当ユーザーのエントリだけを差分更新し、
+ * キャッシュ全体を破棄することはありません。差分で表現できない場合のみ該当エントリを破棄します。
+ * DBへの反映と食い違わないよう、差分更新はすべてコミット後に行います。
+ * 
+ * 読み込み中のエントリは差分更新の対象にならないため、読み込み中にコミットされた変更はそのままでは
+ * 読み込み結果に反映されません。差分更新の前にユーザーごとの世代を進め、読み込みの前後で世代が
+ * 変わっていた場合は読み込んだエントリをキャッシュに残さず、次の取得で読み込み直させます。
+ */
+@Slf4j
+@Component
+public class TimelineCache {
+    private final Cache<String, TimelineEntry> cache;
+    private final int capacity;
+    private final StripedEpochs epochs = new StripedEpochs(AppConstants.Post.TIMELINE_CACHE_EPOCH_STRIPES);
+
+    /** 差分更新の回数 */
+    private final LongAdder patchCount = new LongAdder();
+
+    /** 差分で表現できずに破棄したエントリ数 */
+    private final LongAdder invalidationCount = new LongAdder();
+
+    /** 読み込み中に変更があったため、キャッシュに残さなかった読み込みの回数 */
+    private final LongAdder discardedLoadCount = new LongAdder();
+
+    public TimelineCache(TimelineProperties timelineProperties) {
+        this.capacity = AppConstants.Post.TIMELINE_DEFAULT_LIMIT;
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(timelineProperties.getCacheMaxBytes())
+            .<String, TimelineEntry>weigher((userId, entry) -> (int) Math.min(Integer.MAX_VALUE, entry.estimatedBytes()))
+            .expireAfterAccess(timelineProperties.getCacheExpireMinutes(), TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * キャッシュからタイムラインを取得し、無ければ読み込んでキャッシュする
+     * 
+     * @param userId タイムラインを表示するユーザーID
+     * @param loader キャッシュミス時にタイムラインを読み込む処理（新しい順、容量件数まで）
+     * @return 投稿者情報付きの投稿リスト（新しい順）
+     */
+    public List<PostWithUserDto> get(String userId, Supplier<List<PostWithUserDto>> loader) {
+        // このスレッドで読み込んだ場合のみ、読み込み前の世代が入る
+        long[] loadedEpoch = {-1};
+        TimelineEntry entry;
+        try {
+            entry = cache.get(userId, () -> {
+                loadedEpoch[0] = epochs.current(userId);
+                return TimelineEntry.of(loader.get(), capacity);
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("タイムラインの読み込みに失敗しました: userId=" + userId, e.getCause());
+        }
+        // 読み込み中に差分更新が素通りしていた場合は、読み込んだ内容をキャッシュに残さない
+        if (loadedEpoch[0] >= 0 && epochs.changedSince(userId, loadedEpoch[0])
+                && cache.asMap().remove(userId, entry)) {
+            discardedLoadCount.increment();
+        }
+        return entry.snapshot();
+    }
+
+    /**
+     * キャッシュの容量（1ユーザーあたりに保持する投稿数）
+     * 
+     * @return 容量
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 投稿の作成を反映（投稿者本人とフォロワーのエントリへ追加）
+     * 
+     * @param post 作成された投稿
+     * @param audienceIds 投稿が表示されるユーザーIDの一覧
+     */
+    public void onPostCreated(PostWithUserDto post, Collection<String> audienceIds) {
+        TransactionUtil.afterCommit(() -> {
+            for (String userId : audienceIds) {
+                TimelineEntry entry = beginPatch(userId);
+                if (entry != null) {
+                    entry.add(post);
+                    patchCount.increment();
+                    reweigh(userId, entry);
+                }
+            }
+        });
+    }
+
+    /**
+     * 投稿の更新を反映（保持しているエントリの内容を差し替え）
+     * 
+     * @param post 更新後の投稿
+     * @param audienceIds 投稿が表示されるユーザーIDの一覧
+     */
+    public void onPostUpdated(PostWithUserDto post, Collection<String> audienceIds) {
+        TransactionUtil.afterCommit(() -> {
+            for (String userId : audienceIds) {
+                TimelineEntry entry = beginPatch(userId);
+                if (entry != null && entry.replace(post)) {
+                    patchCount.increment();
+                    reweigh(userId, entry);
+                }
+            }
+        });
+    }
+
+    /**
+     * 投稿の削除を反映
+     * リングに入りきらなかった古い投稿がある場合は繰り上げができないため、そのエントリを破棄します。
+     * 
+     * @param postId 削除された投稿のID
+     * @param audienceIds 投稿が表示されていたユーザーIDの一覧
+     */
+    public void onPostDeleted(String postId, Collection<String> audienceIds) {
+        TransactionUtil.afterCommit(() -> {
+            for (String userId : audienceIds) {
+                TimelineEntry entry = beginPatch(userId);
+                if (entry != null && entry.remove(postId)) {
+                    patchCount.increment();
+                    if (!invalidateIfIncomplete(userId, entry)) {
+                        reweigh(userId, entry);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * フォローを反映（フォロー先の最近の投稿をマージ）
+     * 
+     * @param followerId フォローしたユーザーのID
+     * @param followeeTimeline フォロー先の最近の投稿を読み込む処理（エントリがある場合のみ呼ばれる）
+     */
+    public void onFollow(String followerId, Supplier<List<PostWithUserDto>> followeeTimeline) {
+        TransactionUtil.afterCommit(() -> {
+            TimelineEntry entry = beginPatch(followerId);
+            if (entry != null) {
+                entry.merge(followeeTimeline.get());
+                patchCount.increment();
+                reweigh(followerId, entry);
+            }
+        });
+    }
+
+    /**
+     * フォロー解除を反映（フォロー解除した相手の投稿を取り除く）
+     * 
+     * @param followerId フォローを解除したユーザーのID
+     * @param followingId フォローを解除された相手のID
+     */
+    public void onUnfollow(String followerId, String followingId) {
+        TransactionUtil.afterCommit(() -> {
+            TimelineEntry entry = beginPatch(followerId);
+            if (entry != null && entry.removeAuthor(followingId)) {
+                patchCount.increment();
+                if (!invalidateIfIncomplete(followerId, entry)) {
+                    reweigh(followerId, entry);
+                }
+            }
+        });
+    }
+
+    /**
+     * キャッシュの統計情報を取得
+     * 
+     * @return ヒット数・ミス数・追い出し数などの統計情報
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entries", cache.size());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("patchCount", patchCount.sum());
+        result.put("invalidationCount", invalidationCount.sum());
+        result.put("discardedLoadCount", discardedLoadCount.sum());
+        return result;
+    }
+
+    /**
+     * 差分更新の前に世代を進め、統計情報に影響を与えずにエントリを参照
+     * 読み込み中の場合はnullを返しますが、進めた世代により読み込み結果はキャッシュに残りません。
+     */
+    private TimelineEntry beginPatch(String userId) {
+        epochs.advance(userId);
+        return cache.asMap().get(userId);
+    }
+
+    /**
+     * 差分更新したエントリを入れ直し、重み（概算バイト数）を計算し直させる
+     * Guavaは重みを書き込み時にしか計算しないため、その場で書き換えただけでは本文の増減が上限に反映されません。
+     * 並行して破棄・入れ替えされたエントリを復活させないよう、同じエントリが残っている場合だけ入れ直します。
+     */
+    private void reweigh(String userId, TimelineEntry entry) {
+        cache.asMap().replace(userId, entry, entry);
+    }
+
+    /**
+     * リングの外側に投稿が残っているエントリは繰り上げができないため破棄する
+     * 
+     * @return 破棄した場合true
+     */
+    private boolean invalidateIfIncomplete(String userId, TimelineEntry entry) {
+        if (!entry.isComplete() && cache.asMap().remove(userId, entry)) {
+            invalidationCount.increment();
+            log.debug("タイムラインキャッシュのエントリを破棄しました: userId={}", userId);
+            return true;
+        }
+        return false;
+    }
+}
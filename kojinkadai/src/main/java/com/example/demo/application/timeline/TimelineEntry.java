@@ -0,0 +1,209 @@
+package com.example.demo.application.timeline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.demo.domain.model.PostWithUserDto;
+
+/**
+ * 1ユーザー分のタイムラインキャッシュ（固定長のリングバッファ）
+ * 
+ * 新しい投稿の先頭追加はリングの先頭位置をずらすだけで行い、満杯の場合は最も古い投稿を押し出します。
+ * 途中の差し替え・削除は容量が小さいため並べ直しで対応します。
+ * 読み取りと更新が並行するため、すべての操作はこのインスタンスで同期します。
+ */
+class TimelineEntry {
+    /** エントリ自体の管理領域の概算バイト数 */
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    /** 1スロットあたりの概算バイト数（投稿ID + 参照） */
+    private static final long SLOT_BYTES = 16;
+
+    /** 投稿1件あたりの本文以外の概算バイト数（DTO・日時・投稿者への参照など） */
+    private static final long POST_OVERHEAD_BYTES = 160;
+
+    private final long[] postIds;
+    private final PostWithUserDto[] posts;
+    private int head;
+    private int size;
+
+    /** リングが保持している範囲がタイムライン全体かどうか（容量未満しか投稿が無い場合true） */
+    private boolean complete;
+
+    private TimelineEntry(int capacity) {
+        this.postIds = new long[capacity];
+        this.posts = new PostWithUserDto[capacity];
+    }
+
+    /**
+     * 新しい順に並んだ投稿リストからエントリを作成
+     * 
+     * @param timeline 新しい順に並んだ投稿リスト
+     * @param capacity リングの容量
+     * @return 作成したエントリ
+     */
+    static TimelineEntry of(List<PostWithUserDto> timeline, int capacity) {
+        TimelineEntry entry = new TimelineEntry(capacity);
+        entry.fill(timeline);
+        entry.complete = timeline.size() < capacity;
+        return entry;
+    }
+
+    /**
+     * 保持している投稿を新しい順に取得
+     * 
+     * @return 投稿リストのコピー
+     */
+    synchronized List<PostWithUserDto> snapshot() {
+        List<PostWithUserDto> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(posts[slot(i)]);
+        }
+        return list;
+    }
+
+    /**
+     * 新しい投稿を追加
+     * 通常は先頭への追加だけで済み、満杯の場合は最も古い投稿が押し出されます。
+     * 
+     * @param post 追加する投稿
+     */
+    synchronized void add(PostWithUserDto post) {
+        if (indexOf(Long.parseLong(post.getPostId())) >= 0) {
+            return;
+        }
+        if (size == 0 || TimelineMerger.NEWEST_FIRST.compare(post, posts[slot(0)]) <= 0) {
+            head = (head - 1 + capacity()) % capacity();
+            postIds[head] = Long.parseLong(post.getPostId());
+            posts[head] = post;
+            if (size < capacity()) {
+                size++;
+            } else {
+                complete = false;
+            }
+            return;
+        }
+        // 同時投稿などで順序が前後した場合は並べ直す
+        List<PostWithUserDto> list = snapshot();
+        list.add(post);
+        list.sort(TimelineMerger.NEWEST_FIRST);
+        if (list.size() > capacity()) {
+            complete = false;
+        }
+        fill(list);
+    }
+
+    /**
+     * 保持している投稿を同じIDの新しい内容に差し替え
+     * 
+     * @param post 更新後の投稿
+     * @return 差し替えた場合true
+     */
+    synchronized boolean replace(PostWithUserDto post) {
+        int index = indexOf(Long.parseLong(post.getPostId()));
+        if (index < 0) {
+            return false;
+        }
+        posts[slot(index)] = post;
+        return true;
+    }
+
+    /**
+     * 指定した投稿を取り除く
+     * 
+     * @param postId 取り除く投稿のID
+     * @return 取り除いた場合true
+     */
+    synchronized boolean remove(String postId) {
+        int index = indexOf(Long.parseLong(postId));
+        if (index < 0) {
+            return false;
+        }
+        List<PostWithUserDto> list = snapshot();
+        list.remove(index);
+        fill(list);
+        return true;
+    }
+
+    /**
+     * 指定した投稿者の投稿をすべて取り除く
+     * 
+     * @param authorId 投稿者のユーザーID
+     * @return 1件以上取り除いた場合true
+     */
+    synchronized boolean removeAuthor(String authorId) {
+        List<PostWithUserDto> list = snapshot();
+        boolean removed = list.removeIf(post -> authorId.equals(post.getUser().getId().asString()));
+        if (removed) {
+            fill(list);
+        }
+        return removed;
+    }
+
+    /**
+     * 新しい順に並んだ投稿リストをマージ
+     * 
+     * @param timeline 新しい順に並んだ投稿リスト（容量件数まで）
+     */
+    synchronized void merge(List<PostWithUserDto> timeline) {
+        List<PostWithUserDto> merged = TimelineMerger.merge(List.of(snapshot(), timeline), capacity());
+        // マージ元がどちらも全体を保持していた場合のみ、結果も全体を保持している
+        complete = complete && timeline.size() < capacity() && merged.size() < capacity();
+        fill(merged);
+    }
+
+    /**
+     * リングが保持している範囲がタイムライン全体かどうか
+     * 
+     * @return 全体を保持している場合true
+     */
+    synchronized boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * キャッシュの重みとして使う概算メモリ使用量（バイト）
+     * リングの領域に加えて、保持している投稿ごとに本文の実際の長さ（1文字2バイト）を数えます。
+     * 差分更新で値が変わるため、キャッシュ側は更新のたびにエントリを入れ直して重みを計算し直します。
+     * 
+     * @return 概算バイト数
+     */
+    synchronized long estimatedBytes() {
+        long bytes = ENTRY_OVERHEAD_BYTES + SLOT_BYTES * capacity();
+        for (int i = 0; i < size; i++) {
+            bytes += POST_OVERHEAD_BYTES + 2L * posts[slot(i)].getContent().length();
+        }
+        return bytes;
+    }
+
+    private void fill(List<PostWithUserDto> timeline) {
+        head = 0;
+        size = Math.min(timeline.size(), capacity());
+        for (int i = 0; i < capacity(); i++) {
+            if (i < size) {
+                postIds[i] = Long.parseLong(timeline.get(i).getPostId());
+                posts[i] = timeline.get(i);
+            } else {
+                postIds[i] = 0L;
+                posts[i] = null;
+            }
+        }
+    }
+
+    private int indexOf(long postId) {
+        for (int i = 0; i < size; i++) {
+            if (postIds[slot(i)] == postId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int slot(int index) {
+        return (head + index) % capacity();
+    }
+
+    private int capacity() {
+        return postIds.length;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.application.timeline;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import com.example.demo.domain.model.PostWithUserDto;
+
+/**
+ * 新しい順に並んだ複数のタイムライン列をk-wayマージするユーティリティ
+ * 
+ * 各列の先頭だけをヒープに載せて取り出すため、列数kに対して O(limit log k) で上位N件を得られます。
+ * 同じ投稿が複数の列に含まれる場合は最初に取り出したものだけを残します。
+ */
+public final class TimelineMerger {
+
+    /** タイムラインの並び順（作成日時の降順、同時刻は投稿IDの降順） */
+    public static final Comparator<PostWithUserDto> NEWEST_FIRST =
+        Comparator.comparing(PostWithUserDto::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(dto -> Long.parseLong(dto.getPostId()), Comparator.reverseOrder());
+
+    /** プライベートコンストラクタ（インスタンス化を防ぐ） */
+    private TimelineMerger() {
+        throw new UnsupportedOperationException("ユーティリティクラスはインスタンス化できません");
+    }
+
+    /**
+     * 新しい順に並んだ複数の列をマージして上位N件を返す
+     * 
+     * @param runs それぞれ新しい順に並んだ投稿リストの一覧
+     * @param limit 取得する最大件数
+     * @return マージ後の投稿リスト（新しい順、重複なし）
+     */
+    public static List<PostWithUserDto> merge(List<List<PostWithUserDto>> runs, int limit) {
+        PriorityQueue<RunCursor> heap = new PriorityQueue<>(Math.max(1, runs.size()),
+            (a, b) -> NEWEST_FIRST.compare(a.current(), b.current()));
+        for (List<PostWithUserDto> run : runs) {
+            if (!run.isEmpty()) {
+                heap.add(new RunCursor(run));
+            }
+        }
+
+        List<PostWithUserDto> merged = new ArrayList<>(limit);
+        Set<String> seenPostIds = new HashSet<>();
+        while (!heap.isEmpty() && merged.size() < limit) {
+            RunCursor cursor = heap.poll();
+            PostWithUserDto post = cursor.current();
+            if (seenPostIds.add(post.getPostId())) {
+                merged.add(post);
+            }
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * マージ対象の1列と、その列の読み取り位置
+     */
+    private static final class RunCursor {
+        private final List<PostWithUserDto> run;
+        private int position;
+
+        private RunCursor(List<PostWithUserDto> run) {
+            this.run = run;
+        }
+
+        private PostWithUserDto current() {
+            return run.get(position);
+        }
+
+        private boolean advance() {
+            position++;
+            return position < run.size();
+        }
+    }
+}
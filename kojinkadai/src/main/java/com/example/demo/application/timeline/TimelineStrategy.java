@@ -0,0 +1,49 @@
+package com.example.demo.application.timeline;
+
+import java.util.List;
+
+import com.example.demo.domain.model.Post;
+import com.example.demo.domain.model.PostWithUserDto;
+
+/**
+ * ホームタイムラインの生成方式を表すストラテジー。
+ * 
+ * 読み取り時にフォロー中ユーザーの投稿を集約するプル型と、
+ * 投稿時にフォロワーの受信箱へ配信するプッシュ型（ファンアウト・オン・ライト）を
+ * 設定（app.timeline.strategy）で切り替えられるようにします。
+ * 投稿・フォロー・フォロー解除の各イベントはユースケースから通知されます。
+ */
+public interface TimelineStrategy {
+
+    /**
+     * ユーザーのホームタイムラインを新しい順に取得
+     * 
+     * @param userId タイムラインを表示するユーザーID
+     * @param limit 取得する最大件数
+     * @return 投稿者情報付きの投稿リスト（作成日時の降順）
+     */
+    List<PostWithUserDto> getTimeline(String userId, int limit);
+
+    /**
+     * 投稿が作成されたことを通知
+     * 
+     * @param post 保存済み（ID採番済み）の投稿
+     */
+    void onPostCreated(Post post);
+
+    /**
+     * フォロー関係が作成されたことを通知
+     * 
+     * @param followerId フォローしたユーザーのID
+     * @param followingId フォローされたユーザーのID
+     */
+    void onFollow(String followerId, String followingId);
+
+    /**
+     * フォロー関係が解除されたことを通知
+     * 
+     * @param followerId フォローを解除したユーザーのID
+     * @param followingId フォローを解除されたユーザーのID
+     */
+    void onUnfollow(String followerId, String followingId);
+}
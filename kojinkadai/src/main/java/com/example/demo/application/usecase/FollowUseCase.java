@@ -1,14 +1,34 @@
 package com.example.demo.application.usecase;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.application.dto.RecommendedUserDto;
+import com.example.demo.application.follow.FollowBitmaps;
+import com.example.demo.application.follow.FollowRecommendation;
+import com.example.demo.application.follow.FollowRecommender;
+import com.example.demo.application.follow.FollowerMinHashIndex;
+import com.example.demo.application.loader.UserBatchLoader;
+import com.example.demo.application.timeline.TimelineCache;
+import com.example.demo.application.timeline.TimelineStrategy;
+import com.example.demo.common.KeysetCursor;
+import com.example.demo.common.PagedResponse;
+import com.example.demo.constants.AppConstants;
 import com.example.demo.domain.model.Follow;
+import com.example.demo.domain.model.FollowCounterRepository;
+import com.example.demo.domain.model.FollowPathRepository;
 import com.example.demo.domain.model.FollowRepository;
+import com.example.demo.domain.model.PostRepository;
 import com.example.demo.domain.model.User;
-import com.example.demo.domain.model.UserRepository;
+import com.example.demo.util.CompressedBitmap;
+import com.google.common.collect.Iterables;
 
 import lombok.RequiredArgsConstructor;
 
@@ -16,7 +36,15 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class FollowUseCase {
     private final FollowRepository followRepository;
-    private final UserRepository userRepository;
+    private final FollowCounterRepository followCounterRepository;
+    private final PostRepository postRepository;
+    private final TimelineStrategy timelineStrategy;
+    private final TimelineCache timelineCache;
+    private final UserBatchLoader userBatchLoader;
+    private final FollowBitmaps followBitmaps;
+    private final FollowRecommender followRecommender;
+    private final FollowerMinHashIndex followerMinHashIndex;
+    private final FollowPathRepository followPathRepository;
 
     @Transactional
     public void follow(String followerId, String followingId) {
@@ -30,6 +58,13 @@ public class FollowUseCase {
 
         Follow follow = Follow.create(followerId, followingId);
         followRepository.save(follow);
+        followCounterRepository.adjust(followerId, followingId, 1);
+        followBitmaps.onFollowChanged(followerId, followingId);
+        followRecommender.onFollowChanged(followerId);
+        followerMinHashIndex.onFollow(followerId, followingId);
+        timelineStrategy.onFollow(followerId, followingId);
+        timelineCache.onFollow(followerId, () ->
+            postRepository.findTimelineWithUserByUserIds(List.of(followingId), timelineCache.getCapacity()));
     }
 
     @Transactional
@@ -38,25 +73,148 @@ public class FollowUseCase {
             .orElseThrow(() -> new IllegalArgumentException("フォロー関係が存在しません"));
         
         followRepository.delete(follow);
+        followCounterRepository.adjust(followerId, followingId, -1);
+        followBitmaps.onFollowChanged(followerId, followingId);
+        followRecommender.onFollowChanged(followerId);
+        followerMinHashIndex.onUnfollow(followerId, followingId);
+        timelineStrategy.onUnfollow(followerId, followingId);
+        timelineCache.onUnfollow(followerId, followingId);
     }
 
     public List<User> getFollowingUsers(String userId) {
         List<String> followingIds = followRepository.findFollowingIdsByFollowerId(userId);
-        return followingIds.stream()
-            .map(id -> userRepository.findById(id).orElse(null))
-            .filter(user -> user != null)
-            .toList();
+        return userBatchLoader.loadAll(followingIds);
     }
 
     public List<User> getFollowerUsers(String userId) {
-        List<Follow> follows = followRepository.findByFollowingId(userId);
-        return follows.stream()
-            .map(follow -> userRepository.findById(follow.getFollowerId().asString()).orElse(null))
-            .filter(user -> user != null)
+        List<String> followerIds = followRepository.findByFollowingId(userId).stream()
+            .map(follow -> follow.getFollowerId().asString())
             .toList();
+        return userBatchLoader.loadAll(followerIds);
+    }
+
+    /**
+     * フォロー中のユーザーの1ページ分を、新しくフォローした順に取得
+     * 続きのページは前のページの nextCursor で取得し、総件数は数えません。
+     *
+     * @throws IllegalArgumentException カーソルの形式が正しくない場合
+     */
+    public PagedResponse<User> getFollowingUsers(String userId, String cursor) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = AppConstants.Paging.DEFAULT_PAGE_SIZE;
+        PagedResponse<Follow> page = PagedResponse.ofKeyset(
+            followRepository.findByFollowerId(userId, after, pageSize + 1), pageSize, after != null, FollowUseCase::keyOf);
+        return toUserPage(page, follow -> follow.getFollowingId().asString());
+    }
+
+    /**
+     * フォロワーの1ページ分を、新しくフォローされた順に取得
+     * 続きのページは前のページの nextCursor で取得し、総件数は数えません。
+     *
+     * @throws IllegalArgumentException カーソルの形式が正しくない場合
+     */
+    public PagedResponse<User> getFollowerUsers(String userId, String cursor) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = AppConstants.Paging.DEFAULT_PAGE_SIZE;
+        PagedResponse<Follow> page = PagedResponse.ofKeyset(
+            followRepository.findByFollowingId(userId, after, pageSize + 1), pageSize, after != null, FollowUseCase::keyOf);
+        return toUserPage(page, follow -> follow.getFollowerId().asString());
     }
 
     public boolean isFollowing(String followerId, String followingId) {
         return followRepository.existsByFollowerIdAndFollowingId(followerId, followingId);
     }
-}
\ No newline at end of file
+
+    /**
+     * 候補ユーザーのうちフォローしているユーザーのIDをまとめて取得
+     * 一覧表示で1行ごとにisFollowingを呼ぶ代わりに使います。
+     */
+    public Set<String> getFollowingIdsAmong(String followerId, Collection<String> candidateIds) {
+        Set<String> followingIds = new HashSet<>();
+        for (List<String> batch : Iterables.partition(candidateIds, AppConstants.Follow.STATUS_BATCH_MAX_SIZE)) {
+            followingIds.addAll(followRepository.findFollowingIdsAmong(followerId, batch));
+        }
+        return followingIds;
+    }
+
+    /**
+     * 2人のユーザーが相互にフォローしているかを判定
+     */
+    public boolean isMutualFollow(String userId, String otherUserId) {
+        return followBitmaps.following(userId).contains(Integer.parseInt(otherUserId))
+            && followBitmaps.followers(userId).contains(Integer.parseInt(otherUserId));
+    }
+
+    /**
+     * 相互フォローしているユーザーのID一覧を取得（フォロー中 AND フォロワー）
+     */
+    public List<String> getMutualFollowIds(String userId) {
+        return toIds(followBitmaps.following(userId).and(followBitmaps.followers(userId)));
+    }
+
+    /**
+     * 閲覧者がフォローしているユーザーのうち、対象ユーザーをフォローしているユーザーのID一覧を取得
+     */
+    public List<String> getFollowedByFollowingIds(String viewerId, String targetUserId) {
+        return toIds(followBitmaps.following(viewerId).and(followBitmaps.followers(targetUserId)));
+    }
+
+    /**
+     * 閲覧者がフォローしているユーザーのうち、対象ユーザーをフォローしている人数を取得
+     */
+    public int countFollowedByFollowing(String viewerId, String targetUserId) {
+        return followBitmaps.following(viewerId).andCardinality(followBitmaps.followers(targetUserId));
+    }
+
+    /**
+     * おすすめユーザーを取得（友達の友達の経路数・共通のフォロワー数の多い順）
+     */
+    public List<RecommendedUserDto> getRecommendedUsers(String userId, int limit) {
+        List<FollowRecommendation> recommendations = followRecommender.recommend(userId, limit);
+        userBatchLoader.prime(recommendations.stream().map(FollowRecommendation::getUserId).toList());
+        List<RecommendedUserDto> result = new ArrayList<>(recommendations.size());
+        for (FollowRecommendation recommendation : recommendations) {
+            userBatchLoader.load(recommendation.getUserId())
+                .ifPresent(user -> result.add(RecommendedUserDto.from(recommendation, user)));
+        }
+        return result;
+    }
+
+    /**
+     * フォロワー集合が似ているユーザーを取得（似ている順）
+     */
+    public List<User> getSimilarUsers(String userId, int limit) {
+        return userBatchLoader.loadAll(followerMinHashIndex.findSimilar(userId, limit));
+    }
+
+    /**
+     * 閲覧者からフォローをたどって対象ユーザーに至る最短経路を取得
+     *
+     * @return 経路上のユーザー（先頭が閲覧者、末尾が対象ユーザー）。上限までに見つからない場合は空のリスト
+     */
+    public List<User> getFollowPath(String viewerId, String targetUserId) {
+        return followPathRepository.findShortestPath(viewerId, targetUserId)
+            .map(userBatchLoader::loadAll)
+            .orElse(List.of());
+    }
+
+    private PagedResponse<User> toUserPage(PagedResponse<Follow> page, Function<Follow, String> userIdOf) {
+        return PagedResponse.<User>builder()
+            .items(userBatchLoader.loadAll(page.getItems().stream().map(userIdOf).toList()))
+            .pageInfo(page.getPageInfo())
+            .build();
+    }
+
+    private static KeysetCursor keyOf(Follow follow) {
+        return KeysetCursor.of(follow.getCreatedAt(), follow.getId());
+    }
+
+    private static List<String> toIds(CompressedBitmap bitmap) {
+        int[] values = bitmap.toArray();
+        List<String> ids = new ArrayList<>(values.length);
+        for (int value : values) {
+            ids.add(Integer.toString(value));
+        }
+        return ids;
+    }
+}
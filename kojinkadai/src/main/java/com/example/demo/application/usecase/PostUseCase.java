@@ -2,16 +2,30 @@ package com.example.demo.application.usecase;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.example.demo.application.dto.PostWithUserDto;
+import com.example.demo.application.dto.PostSearchResultDto;
+import com.example.demo.application.loader.UserBatchLoader;
+import com.example.demo.application.timeline.TimelineCache;
+import com.example.demo.application.timeline.TimelineStrategy;
+import com.example.demo.common.KeysetCursor;
+import com.example.demo.common.PagedResponse;
+import com.example.demo.constants.AppConstants;
 import com.example.demo.domain.model.FollowRepository;
 import com.example.demo.domain.model.Post;
 import com.example.demo.domain.model.PostRepository;
+import com.example.demo.domain.model.PostSearchRepository;
+import com.example.demo.domain.model.PostSearchResult;
+import com.example.demo.domain.model.PostWithUserDto;
 import com.example.demo.domain.model.User;
 import com.example.demo.domain.model.UserRepository;
+import com.example.demo.util.TransactionUtil;
+import com.google.common.collect.Lists;
 
 import lombok.RequiredArgsConstructor;
 
@@ -21,26 +35,43 @@ public class PostUseCase {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final FollowRepository followRepository;
+    private final TimelineStrategy timelineStrategy;
+    private final TimelineCache timelineCache;
+    private final PostSearchRepository postSearchRepository;
+    private final UserBatchLoader userBatchLoader;
 
     public List<PostWithUserDto> getTimeline(String userId) {
-        // 一時的に全投稿を表示（MyBatisエラー回避のため）
-        List<Post> posts = postRepository.findAll();
-        
-        // 投稿とユーザー情報を組み合わせてDTOに変換
-        return posts.stream()
-            .map(post -> {
-                User user = userRepository.findById(post.getUserId().asString())
-                    .orElse(null);
-                return PostWithUserDto.from(post, user);
-            })
-            .filter(dto -> dto.getUser() != null) // ユーザーが存在しない投稿は除外
-            .toList();
+        // キャッシュに無い場合のみ、設定された生成方式（プル型 / ファンアウト型 / ハイブリッド）で読み込む
+        return timelineCache.get(userId, () -> timelineStrategy.getTimeline(userId, timelineCache.getCapacity()));
+    }
+
+    /**
+     * タイムラインの1ページ分を取得
+     * キャッシュ済みのタイムライン（新しい順の上位 getCapacity() 件）のうち、カーソルより後ろの1ページ分を返します。
+     *
+     * @param userId ユーザーID
+     * @param cursor 前のページの nextCursor（最初のページはnull）
+     * @return 1ページ分の投稿とページング情報
+     * @throws IllegalArgumentException カーソルの形式が正しくない場合
+     */
+    public PagedResponse<PostWithUserDto> getTimelinePage(String userId, String cursor) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = AppConstants.Paging.DEFAULT_PAGE_SIZE;
+        List<PostWithUserDto> timeline = getTimeline(userId);
+        // タイムラインは新しい順に並んでいるため、続きの位置は二分探索で求める
+        int from = KeysetCursor.indexAfter(Lists.transform(timeline, PostUseCase::keyOf), after);
+        List<PostWithUserDto> fetched = timeline.subList(from, Math.min(timeline.size(), from + pageSize + 1));
+        return PagedResponse.ofKeyset(fetched, pageSize, after != null, PostUseCase::keyOf);
     }
 
     @Transactional
     public Post createPost(String userId, String content) {
         Post post = Post.create(userId, content);
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        timelineStrategy.onPostCreated(savedPost);
+        timelineCache.onPostCreated(toTimelineItem(savedPost), getAudienceIds(userId));
+        TransactionUtil.afterCommit(() -> postSearchRepository.index(savedPost));
+        return savedPost;
     }
 
     @Transactional
@@ -54,7 +85,10 @@ public class PostUseCase {
         }
         
         Post updatedPost = post.update(content);
-        return postRepository.save(updatedPost);
+        Post savedPost = postRepository.save(updatedPost);
+        timelineCache.onPostUpdated(toTimelineItem(savedPost), getAudienceIds(userId));
+        TransactionUtil.afterCommit(() -> postSearchRepository.index(savedPost));
+        return savedPost;
     }
 
     @Transactional
@@ -68,10 +102,67 @@ public class PostUseCase {
         }
         
         postRepository.deleteById(postId);
+        timelineCache.onPostDeleted(postId, getAudienceIds(userId));
+        TransactionUtil.afterCommit(() -> postSearchRepository.remove(postId));
+    }
+
+    /**
+     * 本文にキーワードを含む投稿を関連度の高い順に検索
+     * 索引から1ページ分の投稿IDを取得し、投稿と投稿者はそのIDでまとめて読み込みます。
+     *
+     * @param keyword 検索キーワード
+     * @param cursor 前のページの nextCursor（最初のページはnull）
+     * @param limit 1ページの件数
+     * @return 1ページ分の投稿と、続きを取得するためのカーソル
+     */
+    public PostSearchResultDto searchPosts(String keyword, String cursor, int limit) {
+        PostSearchResult result = postSearchRepository.search(keyword, cursor, limit);
+        Map<String, Post> postsById = postRepository.findByIds(result.getPostIds()).stream()
+            .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        List<Post> posts = new ArrayList<>(postsById.size());
+        for (String postId : result.getPostIds()) {
+            Post post = postsById.get(postId);
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+        userBatchLoader.prime(posts.stream().map(post -> post.getUserId().asString()).toList());
+
+        List<PostWithUserDto> items = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            userBatchLoader.load(post.getUserId().asString())
+                .ifPresent(user -> items.add(PostWithUserDto.from(post, user)));
+        }
+        return new PostSearchResultDto(items, result.getNextCursor());
     }
 
     public Post getPost(String postId) {
         return postRepository.findById(postId)
             .orElseThrow(() -> new IllegalArgumentException("投稿が見つかりません"));
     }
-}
\ No newline at end of file
+
+    /**
+     * 投稿者の投稿が表示されるユーザー（投稿者本人 + フォロワー）のID一覧を取得
+     */
+    private List<String> getAudienceIds(String authorId) {
+        List<String> followerIds = followRepository.findFollowerIdsByFollowingId(authorId);
+        List<String> audienceIds = new ArrayList<>(followerIds.size() + 1);
+        audienceIds.add(authorId);
+        audienceIds.addAll(followerIds);
+        return audienceIds;
+    }
+
+    /**
+     * 投稿をタイムライン表示用のDTOに変換
+     */
+    private PostWithUserDto toTimelineItem(Post post) {
+        User author = userRepository.findById(post.getUserId().asString())
+            .orElseThrow(() -> new IllegalArgumentException("ユーザーが見つかりません"));
+        return PostWithUserDto.from(post, author);
+    }
+
+    private static KeysetCursor keyOf(PostWithUserDto post) {
+        return KeysetCursor.of(post.getCreatedAt(), post.getPostId());
+    }
+}
@@ -1,15 +1,27 @@
 package com.example.demo.application.usecase;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.example.demo.domain.model.FollowRepository;
+import com.example.demo.application.auth.LoginUser;
+import com.example.demo.application.directory.UserDirectory;
+import com.example.demo.application.loader.UserBatchLoader;
+import com.example.demo.common.KeysetCursor;
+import com.example.demo.common.PagedResponse;
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.FollowCounterRepository;
 import com.example.demo.domain.model.Post;
 import com.example.demo.domain.model.PostRepository;
 import com.example.demo.domain.model.User;
+import com.example.demo.domain.model.UserFuzzySearchRepository;
 import com.example.demo.domain.model.UserRepository;
+import com.example.demo.domain.model.UserSearchRepository;
+import com.example.demo.domain.model.UserSearchResult;
+import com.example.demo.domain.model.UserSuggestRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,8 +37,18 @@ public class UserProfileUseCase {
     private final UserRepository userRepository;
     // 投稿情報の永続化に関する処理を行うリポジトリ
     private final PostRepository postRepository;
-    // フォロー情報の永続化に関する処理を行うリポジトリ
-    private final FollowRepository followRepository;
+    // フォロー数・フォロワー数のカウンタを扱うリポジトリ
+    private final FollowCounterRepository followCounterRepository;
+    // 表示名・ユーザー名の部分一致検索を行うリポジトリ
+    private final UserSearchRepository userSearchRepository;
+    // 検索欄の入力補完を行うリポジトリ
+    private final UserSuggestRepository userSuggestRepository;
+    // 入力ミスを許すユーザー検索を行うリポジトリ
+    private final UserFuzzySearchRepository userFuzzySearchRepository;
+    // リクエスト内でユーザーをまとめて読み込むローダー
+    private final UserBatchLoader userBatchLoader;
+    // キーワードなしのユーザー一覧のページング
+    private final UserDirectory userDirectory;
 
 
     /**
@@ -49,6 +71,93 @@ public class UserProfileUseCase {
             .orElseThrow(() -> new IllegalArgumentException("ユーザーが見つかりません"));
     }
 
+    /**
+     * ログイン中のユーザー情報を取得する。
+     * ログイン時に発行したプリンシパル（LoginUser）から組み立てるため、DBへの問い合わせは行わない。
+     * それ以外の認証情報の場合のみユーザー名で検索する。
+     * @param userDetails 認証情報
+     * @return ユーザー情報
+     */
+    public User getCurrentUser(UserDetails userDetails) {
+        if (userDetails instanceof LoginUser loginUser) {
+            return loginUser.toUser();
+        }
+        return getUserProfileByUsername(userDetails.getUsername());
+    }
+
+    /**
+     * 表示名またはユーザー名にキーワードを含むユーザーを検索する。
+     * 検索用の索引から該当するユーザーIDを1ページ分だけ取得し、ユーザー情報はそのIDでまとめて読み込む。
+     * 索引の準備ができていない場合はDBの部分一致検索で代用する。
+     * @param keyword 検索キーワード
+     * @param page ページ番号（0から開始）
+     * @param excludeUserId 結果から除くユーザーID（ログイン中のユーザー）。ページに分ける前に除く
+     * @return 1ページ分のユーザーとページング情報
+     */
+    public PagedResponse<User> searchUsers(String keyword, int page, String excludeUserId) {
+        String trimmed = keyword.strip();
+        if (trimmed.length() > AppConstants.Search.KEYWORD_MAX_LENGTH) {
+            trimmed = trimmed.substring(0, AppConstants.Search.KEYWORD_MAX_LENGTH);
+        }
+        int pageSize = AppConstants.Search.RESULTS_DEFAULT_LIMIT;
+        int currentPage = Math.max(0, Math.min(page, Integer.MAX_VALUE / pageSize));
+        int offset = currentPage * pageSize;
+
+        Optional<UserSearchResult> result = userSearchRepository.search(trimmed, excludeUserId, offset, pageSize);
+        if (result.isPresent()) {
+            List<User> users = userBatchLoader.loadAll(result.get().getUserIds());
+            return PagedResponse.of(users, currentPage, pageSize, result.get().getTotalCount());
+        }
+        List<User> users = userRepository.searchByDisplayName(trimmed).stream()
+            .filter(user -> !user.getId().asString().equals(excludeUserId))
+            .toList();
+        int from = Math.min(offset, users.size());
+        int to = Math.min(users.size(), from + pageSize);
+        return PagedResponse.of(users.subList(from, to), currentPage, pageSize, users.size());
+    }
+
+    /**
+     * ユーザー一覧の1ページ分を登録日時の新しい順に取得する（キーワードなしの検索画面用）。
+     * 続きのページは前のページの nextCursor で取得し、総件数は数えない。
+     * @param cursor 前のページの nextCursor（最初のページはnull）
+     * @param excludeUserId 一覧から除くユーザーID（ログイン中のユーザー）
+     * @return 1ページ分のユーザーとページング情報
+     * @throws IllegalArgumentException カーソルの形式が正しくない場合
+     */
+    public PagedResponse<User> getUserDirectory(String cursor, String excludeUserId) {
+        PagedResponse<String> page = userDirectory.page(cursor, excludeUserId);
+        return PagedResponse.<User>builder()
+            .items(userBatchLoader.loadAll(page.getItems()))
+            .pageInfo(page.getPageInfo())
+            .build();
+    }
+
+    /**
+     * ユーザー名または表示名が入力途中の文字列で始まるユーザーを、フォロワー数の多い順に取得する。
+     * @param prefix 入力途中の文字列
+     * @param limit 取得する最大件数
+     * @return ユーザーのリスト
+     */
+    public List<User> suggestUsers(String prefix, int limit) {
+        return userBatchLoader.loadAll(userSuggestRepository.suggest(prefix, limit));
+    }
+
+    /**
+     * ユーザー名または表示名がキーワードに近い（入力ミスを含む）ユーザーを検索する。
+     * 編集距離の小さい順、同じならフォロワー数の多い順に最大 RESULTS_DEFAULT_LIMIT 件を返す。
+     * @param keyword 検索キーワード
+     * @param excludeUserId 結果から除くユーザーID（ログイン中のユーザー）。上位に絞る前に除く
+     * @return ユーザーのリスト
+     */
+    public List<User> fuzzySearchUsers(String keyword, String excludeUserId) {
+        String trimmed = keyword.strip();
+        if (trimmed.length() > AppConstants.Search.KEYWORD_MAX_LENGTH) {
+            trimmed = trimmed.substring(0, AppConstants.Search.KEYWORD_MAX_LENGTH);
+        }
+        return userBatchLoader.loadAll(
+            userFuzzySearchRepository.search(trimmed, excludeUserId, AppConstants.Search.RESULTS_DEFAULT_LIMIT));
+    }
+
     /**
      * 特定ユーザーの投稿一覧を取得する。
      * @param userId ユーザーID
@@ -59,6 +168,31 @@ public class UserProfileUseCase {
         return postRepository.findByUserId(userId);
     }
 
+    /**
+     * 特定ユーザーの投稿一覧の1ページ分を新しい順に取得する（プロフィール画面用）。
+     * 続きのページは前のページの nextCursor で取得し、総件数は数えない。
+     * @param userId ユーザーID
+     * @param cursor 前のページの nextCursor（最初のページはnull）
+     * @return 1ページ分の投稿とページング情報
+     * @throws IllegalArgumentException カーソルの形式が正しくない場合
+     */
+    public PagedResponse<Post> getUserPosts(String userId, String cursor) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = AppConstants.Paging.DEFAULT_PAGE_SIZE;
+        List<Post> posts = postRepository.findByUserId(userId, after, pageSize + 1);
+        return PagedResponse.ofKeyset(posts, pageSize, after != null,
+            post -> KeysetCursor.of(post.getCreatedAt(), post.getId()));
+    }
+
+    /**
+     * 特定ユーザーの投稿数を取得する。
+     * @param userId ユーザーID
+     * @return 投稿数
+     */
+    public int getPostCount(String userId) {
+        return postRepository.countByUserId(userId);
+    }
+
 
     /**
      * ユーザーがフォローしている人数を取得する。
@@ -66,7 +200,7 @@ public class UserProfileUseCase {
      * @return フォロー中の人数
      */
     public int getFollowingCount(String userId) {
-        return followRepository.countByFollowerId(userId);
+        return followCounterRepository.getFollowingCount(userId);
     }
 
     /**
@@ -75,7 +209,7 @@ public class UserProfileUseCase {
      * @return フォロワーの人数
      */
     public int getFollowerCount(String userId) {
-        return followRepository.countByFollowingId(userId);
+        return followCounterRepository.getFollowerCount(userId);
     }
 
     /**
@@ -0,0 +1,112 @@
+package com.example.demo.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * キーセット方式のページングのカーソル
+ * 
+ * 一覧を (作成日時, ID) の新しい順に並べたときの1行の位置を表します。
+ * 続きのページは「前のページの最後の行より後ろ」を索引の途中から読んで取得するため、
+ * OFFSETのように読み飛ばす行が増えず、何ページ目でも1ページ目と同じ重さで取得できます。
+ * 画面やAPIには中身を意識させない文字列（encode）として渡し、受け取った文字列は decode で元に戻します。
+ * SQL側の条件はマッパーXMLの KeysetFragments（seekNewestFirst / orderNewestFirst）を使います。
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class KeysetCursor {
+    /** 新しい順（作成日時の降順、同じならIDの降順） */
+    public static final Comparator<KeysetCursor> NEWEST_FIRST = Comparator
+        .comparing(KeysetCursor::getCreatedAt, Comparator.reverseOrder())
+        .thenComparing(cursor -> Long.parseLong(cursor.getId()), Comparator.reverseOrder());
+
+    private final String id;
+    private final LocalDateTime createdAt;
+
+    /**
+     * コンストラクタ（MyBatisの結果マッピングでは id, created_at の順に渡す）
+     * 
+     * @param id 行のID
+     * @param createdAt 行の作成日時
+     */
+    public KeysetCursor(String id, LocalDateTime createdAt) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.createdAt = Objects.requireNonNull(createdAt, "createdAt");
+    }
+
+    /**
+     * カーソルを生成
+     * 
+     * @param createdAt 行の作成日時
+     * @param id 行のID
+     * @return カーソル
+     */
+    public static KeysetCursor of(LocalDateTime createdAt, String id) {
+        return new KeysetCursor(id, createdAt);
+    }
+
+    /**
+     * 画面やAPIに渡す文字列に変換（作成日時のUTCのエポックからのマイクロ秒とIDをURLセーフなBase64にしたもの）
+     * 
+     * @return カーソル文字列
+     */
+    public String encode() {
+        long micros = createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + createdAt.getNano() / 1_000;
+        String raw = Long.toHexString(micros) + "-" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * encode で作った文字列からカーソルを復元
+     * 
+     * @param cursor カーソル文字列（最初のページはnullまたは空）
+     * @return カーソル（最初のページはnull）
+     * @throws IllegalArgumentException カーソルの形式が正しくない場合
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = raw.indexOf('-');
+            if (separator > 0) {
+                long micros = Long.parseUnsignedLong(raw.substring(0, separator), 16);
+                String id = Long.toString(Long.parseLong(raw.substring(separator + 1)));
+                LocalDateTime createdAt = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+                return new KeysetCursor(id, createdAt);
+            }
+        } catch (RuntimeException e) {
+            // 下で例外にする
+        }
+        throw new IllegalArgumentException("カーソルの形式が正しくありません: " + cursor);
+    }
+
+    /**
+     * NEWEST_FIRST の順に並んだキーのうち、after より後ろにある最初の位置を二分探索で求める
+     * 
+     * @param keys NEWEST_FIRST の順に並んだキー（ランダムアクセスできるリスト）
+     * @param after 前のページの最後の行のカーソル（最初のページはnull）
+     * @return after より後ろの最初の位置（すべて after 以前の場合は keys.size()）
+     */
+    public static int indexAfter(List<KeysetCursor> keys, KeysetCursor after) {
+        if (after == null) {
+            return 0;
+        }
+        int index = Collections.binarySearch(keys, after, NEWEST_FIRST);
+        // 見つかった場合はその次、見つからなかった場合は挿入位置
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
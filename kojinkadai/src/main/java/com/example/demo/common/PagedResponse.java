@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * ページングレスポンスクラス
@@ -55,6 +56,9 @@ public class PagedResponse<T> {
         /** 次のページが存在するか */
         private boolean hasNext;
         
+        /** 次のページを取得するためのカーソル（カーソル方式のページングのみ。次のページが無ければnull） */
+        private String nextCursor;
+        
         /**
          * ページング情報を生成
          * 
@@ -75,6 +79,27 @@ public class PagedResponse<T> {
                     .hasNext(currentPage < totalPages - 1)
                     .build();
         }
+        
+        /**
+         * カーソル方式のページング情報を生成
+         * 総件数を数えないため、totalItems と totalPages は -1 になります。
+         * 
+         * @param pageSize 1ページあたりのアイテム数
+         * @param hasPrevious 前のページが存在するか（最初のページ以外か）
+         * @param nextCursor 次のページを取得するためのカーソル（次のページが無ければnull）
+         * @return ページング情報
+         */
+        public static PageInfo ofCursor(int pageSize, boolean hasPrevious, String nextCursor) {
+            return PageInfo.builder()
+                    .currentPage(-1)
+                    .pageSize(pageSize)
+                    .totalItems(-1)
+                    .totalPages(-1)
+                    .hasPrevious(hasPrevious)
+                    .hasNext(nextCursor != null)
+                    .nextCursor(nextCursor)
+                    .build();
+        }
     }
     
     /**
@@ -93,4 +118,42 @@ public class PagedResponse<T> {
                 .pageInfo(PageInfo.of(currentPage, pageSize, totalItems))
                 .build();
     }
+    
+    /**
+     * カーソル方式のページングレスポンスを生成
+     * 
+     * @param items データリスト
+     * @param pageSize 1ページあたりのアイテム数
+     * @param hasPrevious 前のページが存在するか（最初のページ以外か）
+     * @param nextCursor 次のページを取得するためのカーソル（次のページが無ければnull）
+     * @param <T> アイテムの型
+     * @return ページングレスポンス
+     */
+    public static <T> PagedResponse<T> ofCursor(List<T> items, int pageSize, boolean hasPrevious, String nextCursor) {
+        return PagedResponse.<T>builder()
+                .items(items)
+                .pageInfo(PageInfo.ofCursor(pageSize, hasPrevious, nextCursor))
+                .build();
+    }
+
+    /**
+     * キーセット方式のページングレスポンスを生成
+     * 呼び出し側は pageSize + 1 件を取得して渡します。pageSize 件を超えていれば次のページがあると判定し、
+     * 超えた分を除いたうえで、最後の要素のキーを次のページのカーソルにします。
+     * 
+     * @param fetched pageSize + 1 件を上限に取得したデータリスト（並び順どおり）
+     * @param pageSize 1ページあたりのアイテム数
+     * @param hasPrevious 前のページが存在するか（最初のページ以外か）
+     * @param keyOf 要素からカーソルのキーを取り出す関数
+     * @param <T> アイテムの型
+     * @return ページングレスポンス
+     */
+    public static <T> PagedResponse<T> ofKeyset(List<T> fetched, int pageSize, boolean hasPrevious,
+                                                Function<T, KeysetCursor> keyOf) {
+        if (fetched.size() <= pageSize) {
+            return ofCursor(fetched, pageSize, hasPrevious, null);
+        }
+        List<T> items = fetched.subList(0, pageSize);
+        return ofCursor(List.copyOf(items), pageSize, hasPrevious, keyOf.apply(items.get(pageSize - 1)).encode());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+
+import lombok.Data;
+
+/**
+ * フォロー数・フォロワー数カウンタの設定値（application.yml の app.follow-counter.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.follow-counter")
+public class FollowCounterProperties {
+    /** 整合性チェックで1回に処理するユーザー数 */
+    private int reconcileBatchSize = AppConstants.Follow.COUNTER_RECONCILE_BATCH_SIZE;
+}
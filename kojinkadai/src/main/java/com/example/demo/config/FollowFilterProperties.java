@@ -0,0 +1,25 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+
+import lombok.Data;
+
+/**
+ * フォロー関係のBloomフィルタの設定値（application.yml の app.follow-filter.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.follow-filter")
+public class FollowFilterProperties {
+    /** Bloomフィルタを使うかどうか */
+    private boolean enabled = true;
+
+    /** 想定するフォロー関係の件数（起動時の件数の2倍の方が大きければそちらを使う） */
+    private long expectedInsertions = AppConstants.Follow.FILTER_EXPECTED_INSERTIONS;
+
+    /** 目標の偽陽性率 */
+    private double falsePositiveRate = AppConstants.Follow.FILTER_FALSE_POSITIVE_RATE;
+}
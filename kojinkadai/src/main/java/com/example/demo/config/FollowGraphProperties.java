@@ -0,0 +1,17 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * メモリ上のフォローグラフの設定値（application.yml の app.follow-graph.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.follow-graph")
+public class FollowGraphProperties {
+    /** フォローグラフを使うかどうか（falseの場合はDBへ問い合わせる） */
+    private boolean enabled = true;
+}
@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+
+import lombok.Data;
+
+/**
+ * ユーザー間の経路探索の設定値（application.yml の app.follow-path.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.follow-path")
+public class FollowPathProperties {
+    /** 最大ステップ数 */
+    private int maxDepth = AppConstants.Follow.PATH_MAX_DEPTH;
+
+    /** 訪問する最大ユーザー数（両方向の合計） */
+    private int maxVisited = AppConstants.Follow.PATH_MAX_VISITED;
+
+    /** 探索結果のキャッシュの最大エントリ数 */
+    private long cacheMaxSize = AppConstants.Follow.PATH_CACHE_MAX_SIZE;
+
+    /** 探索結果を書き込みから保持する時間（秒） */
+    private long cacheExpireSeconds = AppConstants.Follow.PATH_CACHE_EXPIRE_SECONDS;
+}
@@ -0,0 +1,34 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+
+import lombok.Data;
+
+/**
+ * 影響力スコア（PageRank）の設定値（application.yml の app.influence.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.influence")
+public class InfluenceProperties {
+    /** 影響力スコアを計算するかどうか */
+    private boolean enabled = true;
+
+    /** 減衰係数 */
+    private double damping = AppConstants.Influence.DAMPING;
+
+    /** 最大反復回数 */
+    private int maxIterations = AppConstants.Influence.MAX_ITERATIONS;
+
+    /** 変化量（L1ノルム）がこれを下回ったら反復を打ち切る */
+    private double tolerance = AppConstants.Influence.TOLERANCE;
+
+    /** 計算に使うメモリの上限（概算バイト数）。超える場合は計算しない */
+    private long memoryBudgetBytes = AppConstants.Influence.MEMORY_BUDGET_BYTES;
+
+    /** 並列数（0以下の場合はCPUコア数） */
+    private int parallelism;
+}
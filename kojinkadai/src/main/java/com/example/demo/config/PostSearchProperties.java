@@ -0,0 +1,22 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+
+import lombok.Data;
+
+/**
+ * 投稿の全文検索の設定値（application.yml の app.post-search.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.post-search")
+public class PostSearchProperties {
+    /** BM25のパラメータ k1 */
+    private double k1 = AppConstants.Search.BM25_K1;
+
+    /** BM25のパラメータ b */
+    private double b = AppConstants.Search.BM25_B;
+}
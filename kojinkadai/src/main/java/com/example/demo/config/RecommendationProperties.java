@@ -0,0 +1,34 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+
+import lombok.Data;
+
+/**
+ * おすすめユーザーの設定値（application.yml の app.recommendation.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.recommendation")
+public class RecommendationProperties {
+    /** 表示するおすすめユーザー数 */
+    private int limit = AppConstants.Recommendation.DEFAULT_LIMIT;
+
+    /** 事前計算した結果を保持するユーザー数の上限 */
+    private int cacheMaxSize = AppConstants.Recommendation.CACHE_MAX_SIZE;
+
+    /** 事前計算した結果を最終アクセスから保持する時間（分）。これを過ぎたユーザーは計算し直しの対象から外れる */
+    private long cacheExpireMinutes = AppConstants.Recommendation.CACHE_EXPIRE_MINUTES;
+
+    /** 事前計算した結果を作り直す間隔（ミリ秒） */
+    private long refreshIntervalMs = AppConstants.Recommendation.REFRESH_INTERVAL_MS;
+
+    /** 事前計算で1つのタスクにまとめて並列に処理するユーザー数 */
+    private int refreshBatchSize = AppConstants.Recommendation.REFRESH_BATCH_SIZE;
+
+    /** フォローグラフをたどる並列数（0以下の場合はCPUコア数） */
+    private int parallelism;
+}
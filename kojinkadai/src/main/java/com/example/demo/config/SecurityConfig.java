@@ -2,9 +2,15 @@ package com.example.demo.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
 
 import lombok.RequiredArgsConstructor;
 
@@ -46,12 +52,23 @@ public class SecurityConfig {
 	  http.authorizeHttpRequests((authorize) -> authorize
 	            .requestMatchers("/h2-console/**").permitAll()
 	            .requestMatchers("/user/signup", "/user", "/", "/css/**", "/js/**", "/images/**").permitAll()
+	            .requestMatchers("/admin/**").hasRole("ADMIN") // 統計情報は管理者のみ
 	            .anyRequest().authenticated() // 認証が必要
 	        )
 	        .formLogin(form -> form
 	            .loginPage("/user").permitAll() // ログインページをすべてのユーザーに許可
 	            .defaultSuccessUrl("/board", true) // ログイン成功後にリダイレクトするデフォルトURL
 	        )
+	        .exceptionHandling(exceptions -> exceptions
+	            // 無限スクロールの続きのページはスクリプトから読むため、ログイン画面へ転送せず401を返す
+	            .defaultAuthenticationEntryPointFor(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+	                new OrRequestMatcher(
+	                    new AntPathRequestMatcher("/board/page"),
+	                    new AntPathRequestMatcher("/profile/*/posts"),
+	                    new AntPathRequestMatcher("/follow/*/page")))
+	            // それ以外は従来どおりログイン画面へ転送する
+	            .defaultAuthenticationEntryPointFor(new LoginUrlAuthenticationEntryPoint("/user"), AnyRequestMatcher.INSTANCE)
+	        )
 	        .logout(logout -> logout
 	            .logoutUrl("/user/logout")
 	            .logoutSuccessUrl("/user")
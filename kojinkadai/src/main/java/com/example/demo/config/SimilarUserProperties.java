@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+
+import lombok.Data;
+
+/**
+ * 似ているアカウントの設定値（application.yml の app.similar-users.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.similar-users")
+public class SimilarUserProperties {
+    /** 表示する似ているアカウント数 */
+    private int limit = AppConstants.Similarity.DEFAULT_LIMIT;
+
+    /** 似ているとみなすフォロワー集合の類似度の下限 */
+    private double minSimilarity = AppConstants.Similarity.MIN_SIMILARITY;
+
+    /** 索引に含めるフォロワー数の下限 */
+    private int minFollowers = AppConstants.Similarity.MIN_FOLLOWERS;
+
+    /** 索引を作り直す際の並列数（0以下の場合はCPUコア数） */
+    private int parallelism;
+}
@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+
+import lombok.Data;
+
+/**
+ * タイムライン関連の設定値（application.yml の app.timeline.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.timeline")
+public class TimelineProperties {
+    /** タイムライン生成方式（pull / fanout / hybrid） */
+    private String strategy = "pull";
+
+    /** hybrid方式で受信箱への配信を行わないフォロワー数のしきい値 */
+    private int fanoutFollowerThreshold = AppConstants.Post.FANOUT_FOLLOWER_THRESHOLD;
+
+    /** タイムラインキャッシュ全体の上限（概算バイト数） */
+    private long cacheMaxBytes = AppConstants.Post.TIMELINE_CACHE_MAX_BYTES;
+
+    /** タイムラインキャッシュのエントリを最終アクセスから保持する時間（分） */
+    private long cacheExpireMinutes = AppConstants.Post.TIMELINE_CACHE_EXPIRE_MINUTES;
+}
@@ -0,0 +1,25 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+
+import lombok.Data;
+
+/**
+ * ユーザーキャッシュの設定値（application.yml の app.user-cache.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.user-cache")
+public class UserCacheProperties {
+    /** キャッシュの最大エントリ数（ID・ユーザー名それぞれ） */
+    private long maxSize = AppConstants.User.USER_CACHE_MAX_SIZE;
+
+    /** エントリを書き込みから保持する時間（分） */
+    private long expireMinutes = AppConstants.User.USER_CACHE_EXPIRE_MINUTES;
+
+    /** 存在しないユーザーIDを記憶しておく時間（秒） */
+    private long negativeExpireSeconds = AppConstants.User.USER_CACHE_NEGATIVE_EXPIRE_SECONDS;
+}
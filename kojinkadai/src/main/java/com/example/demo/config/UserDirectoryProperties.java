@@ -0,0 +1,22 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+
+import lombok.Data;
+
+/**
+ * ユーザー一覧の設定値（application.yml の app.user-directory.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.user-directory")
+public class UserDirectoryProperties {
+    /** 1ページあたりの件数 */
+    private int pageSize = AppConstants.User.DIRECTORY_PAGE_SIZE;
+
+    /** 一覧の先頭からキーを保持しておく件数 */
+    private int snapshotSize = AppConstants.User.DIRECTORY_SNAPSHOT_SIZE;
+}
@@ -0,0 +1,19 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+
+import lombok.Data;
+
+/**
+ * 入力ミスを許すユーザー検索の設定値（application.yml の app.user-fuzzy-search.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.user-fuzzy-search")
+public class UserFuzzySearchProperties {
+    /** 許す編集距離の上限 */
+    private int maxDistance = AppConstants.Search.FUZZY_MAX_DISTANCE;
+}
@@ -0,0 +1,22 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+
+import lombok.Data;
+
+/**
+ * ユーザー検索の入力補完の設定値（application.yml の app.user-suggest.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.user-suggest")
+public class UserSuggestProperties {
+    /** 返す候補数（デフォルト） */
+    private int limit = AppConstants.Search.SUGGEST_DEFAULT_LIMIT;
+
+    /** 上位の候補をあらかじめ求めておく前方一致の件数 */
+    private int precomputeThreshold = AppConstants.Search.SUGGEST_PRECOMPUTE_THRESHOLD;
+}
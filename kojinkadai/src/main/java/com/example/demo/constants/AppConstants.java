@@ -32,6 +32,9 @@ public final class AppConstants {
         
         /** デフォルトページ番号 */
         public static final int DEFAULT_PAGE_NUMBER = 0;
+        
+        /** 一覧の項目だけを返すエンドポイントで、次のページのカーソルを返すレスポンスヘッダー */
+        public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     }
     
     /**
@@ -58,6 +61,24 @@ public final class AppConstants {
         
         /** 自己紹介最大文字数 */
         public static final int BIO_MAX_LENGTH = 500;
+        
+        /** ユーザーキャッシュの最大エントリ数 */
+        public static final long USER_CACHE_MAX_SIZE = 10_000;
+        
+        /** ユーザーキャッシュの保持時間（分） */
+        public static final long USER_CACHE_EXPIRE_MINUTES = 10;
+        
+        /** 存在しないユーザーIDを記憶しておく時間（秒） */
+        public static final long USER_CACHE_NEGATIVE_EXPIRE_SECONDS = 30;
+        
+        /** ユーザーをまとめて読み込む際の1回あたりの最大件数（IN句の要素数） */
+        public static final int BATCH_LOAD_SIZE = 500;
+        
+        /** ユーザー一覧の1ページあたりの件数 */
+        public static final int DIRECTORY_PAGE_SIZE = 20;
+        
+        /** ユーザー一覧の先頭からキーを保持しておく件数（これより後ろのページはDBから取得する） */
+        public static final int DIRECTORY_SNAPSHOT_SIZE = 200;
     }
     
     /**
@@ -75,6 +96,21 @@ public final class AppConstants {
         
         /** ユーザー投稿取得デフォルト件数 */
         public static final int USER_POSTS_DEFAULT_LIMIT = 20;
+        
+        /** 受信箱へのファンアウト時のバッチINSERT件数 */
+        public static final int FANOUT_BATCH_SIZE = 500;
+        
+        /** 受信箱への配信を行わないフォロワー数のしきい値（hybrid方式のデフォルト） */
+        public static final int FANOUT_FOLLOWER_THRESHOLD = 1000;
+        
+        /** タイムラインキャッシュ全体の上限（概算バイト数、64MB） */
+        public static final long TIMELINE_CACHE_MAX_BYTES = 64L * 1024 * 1024;
+        
+        /** タイムラインキャッシュの保持時間（分） */
+        public static final long TIMELINE_CACHE_EXPIRE_MINUTES = 30;
+        
+        /** タイムラインキャッシュの読み込み中の変更を検出する世代番号のスロット数 */
+        public static final int TIMELINE_CACHE_EPOCH_STRIPES = 4096;
     }
     
     /**
@@ -86,6 +122,114 @@ public final class AppConstants {
         
         /** フォロワー一覧取得デフォルト件数 */
         public static final int FOLLOWERS_DEFAULT_LIMIT = 50;
+        
+        /** フォロー状態を一括確認できるユーザー数の上限 */
+        public static final int STATUS_BATCH_MAX_SIZE = 500;
+        
+        /** フォローカウンタの整合性チェックで1回に処理するユーザー数 */
+        public static final int COUNTER_RECONCILE_BATCH_SIZE = 500;
+        
+        /** フォローカウンタの差分を書き出す際のJDBCバッチサイズ */
+        public static final int COUNTER_FLUSH_BATCH_SIZE = 500;
+        
+        /** フォローグラフを読み込む際のフェッチサイズ */
+        public static final int GRAPH_LOAD_FETCH_SIZE = 10_000;
+        
+        /** フォロー関係のBloomフィルタで想定する件数の下限 */
+        public static final long FILTER_EXPECTED_INSERTIONS = 1_000_000L;
+        
+        /** フォロー関係のBloomフィルタの目標偽陽性率 */
+        public static final double FILTER_FALSE_POSITIVE_RATE = 0.01;
+        
+        /** フォロー・フォロワー集合（圧縮ビットマップ）のキャッシュ全体の上限（概算バイト数、32MB） */
+        public static final long BITMAP_CACHE_MAX_BYTES = 32L * 1024 * 1024;
+        
+        /** フォロー・フォロワー集合のキャッシュの保持時間（分） */
+        public static final long BITMAP_CACHE_EXPIRE_MINUTES = 10;
+        
+        /** フォロー・フォロワー集合のキャッシュの読み込み中の変更を検出する世代番号のスロット数 */
+        public static final int BITMAP_CACHE_EPOCH_STRIPES = 4096;
+        
+        /** ユーザー間の経路を探す際の最大ステップ数 */
+        public static final int PATH_MAX_DEPTH = 6;
+        
+        /** ユーザー間の経路を探す際に訪問する最大ユーザー数（両方向の合計） */
+        public static final int PATH_MAX_VISITED = 100_000;
+        
+        /** ユーザー間の経路のキャッシュの最大エントリ数 */
+        public static final long PATH_CACHE_MAX_SIZE = 10_000;
+        
+        /** ユーザー間の経路を書き込みから保持する時間（秒） */
+        public static final long PATH_CACHE_EXPIRE_SECONDS = 60;
+    }
+    
+    /**
+     * おすすめユーザー関連定数
+     */
+    public static final class Recommendation {
+        /** 表示するおすすめユーザー数 */
+        public static final int DEFAULT_LIMIT = 10;
+        
+        /** 事前計算した結果を保持するユーザー数の上限 */
+        public static final int CACHE_MAX_SIZE = 10_000;
+        
+        /** 事前計算した結果を最終アクセスから保持する時間（分） */
+        public static final long CACHE_EXPIRE_MINUTES = 30;
+        
+        /** 事前計算した結果を作り直す間隔（ミリ秒） */
+        public static final long REFRESH_INTERVAL_MS = 5 * 60 * 1000L;
+        
+        /** 事前計算で1つのタスクにまとめて並列に処理するユーザー数 */
+        public static final int REFRESH_BATCH_SIZE = 200;
+        
+        /** 共通のフォロワー数で並べ替える候補数（表示件数に対する倍率） */
+        public static final int CANDIDATE_POOL_FACTOR = 5;
+        
+        /** フォロー中のユーザーをたどる処理をこれ以下の人数まで分割する */
+        public static final int TRAVERSAL_CHUNK_SIZE = 64;
+    }
+    
+    /**
+     * 似ているアカウント関連定数
+     */
+    public static final class Similarity {
+        /** 表示する似ているアカウント数 */
+        public static final int DEFAULT_LIMIT = 5;
+        
+        /** 似ているとみなすフォロワー集合の類似度（Jaccard係数の推定値）の下限 */
+        public static final double MIN_SIMILARITY = 0.2;
+        
+        /** 索引に含めるフォロワー数の下限 */
+        public static final int MIN_FOLLOWERS = 2;
+        
+        /** 索引を作り直す際にユーザーIDを読み込む件数 */
+        public static final int REBUILD_PAGE_SIZE = 1000;
+        
+        /** 1つのバケットから取り出す候補数の上限 */
+        public static final int MAX_BUCKET_SCAN = 1000;
+    }
+    
+    /**
+     * 影響力スコア（PageRank）関連定数
+     */
+    public static final class Influence {
+        /** 減衰係数 */
+        public static final double DAMPING = 0.85;
+        
+        /** 最大反復回数 */
+        public static final int MAX_ITERATIONS = 30;
+        
+        /** 反復を打ち切る変化量（L1ノルム） */
+        public static final double TOLERANCE = 1e-6;
+        
+        /** 計算に使うメモリの上限（概算バイト数、512MB） */
+        public static final long MEMORY_BUDGET_BYTES = 512L * 1024 * 1024;
+        
+        /** 前回保存した値からの変化がこれ以下のユーザーは書き込まない */
+        public static final double WRITE_THRESHOLD = 1e-3;
+        
+        /** 1回のバッチ更新で書き込むユーザー数 */
+        public static final int WRITE_BATCH_SIZE = 1000;
     }
     
     /**
@@ -100,6 +244,34 @@ public final class AppConstants {
         
         /** 検索結果デフォルト件数 */
         public static final int RESULTS_DEFAULT_LIMIT = 20;
+        
+        /** ユーザー名索引の構築時にAPP_USERSを読み込む際のフェッチサイズ */
+        public static final int INDEX_LOAD_FETCH_SIZE = 10_000;
+        
+        /** 入力補完の候補数（デフォルト） */
+        public static final int SUGGEST_DEFAULT_LIMIT = 8;
+        
+        /** 入力補完の候補数の上限 */
+        public static final int SUGGEST_MAX_LIMIT = 20;
+        
+        /** 入力補完で上位の候補をあらかじめ求めておく前方一致の件数（これ以下なら該当範囲を都度走査する） */
+        public static final int SUGGEST_PRECOMPUTE_THRESHOLD = 256;
+        
+        /** 投稿検索のBM25のパラメータ k1（語の出現回数の効き方） */
+        public static final double BM25_K1 = 1.2;
+        
+        /** 投稿検索のBM25のパラメータ b（本文の長さによる補正の強さ） */
+        public static final double BM25_B = 0.75;
+        
+        /** あいまい検索で許す編集距離の上限 */
+        public static final int FUZZY_MAX_DISTANCE = 2;
+        
+        /** あいまい検索で編集距離1を許すキーワードの最小文字数（これ未満は完全一致のみ） */
+        public static final int FUZZY_ONE_EDIT_MIN_LENGTH = 3;
+        
+        /** あいまい検索で編集距離2を許すキーワードの最小文字数 */
+        public static final int FUZZY_TWO_EDITS_MIN_LENGTH = 6;
+        
     }
     
     /**
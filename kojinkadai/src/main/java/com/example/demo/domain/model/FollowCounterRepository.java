@@ -0,0 +1,68 @@
+package com.example.demo.domain.model;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FollowCounterRepository インターフェイス
+ * ----------------------------------
+ * APP_USERS に非正規化して持たせたフォロー数（FOLLOWING_COUNT）・フォロワー数（FOLLOWER_COUNT）を扱うリポジトリ。
+ * フォローの追加・削除と同じトランザクションで更新することで、プロフィール表示時に
+ * FOLLOWS を数え直さず主キー検索だけで件数を取得できる。
+ */
+public interface FollowCounterRepository {
+    /**
+     * フォローの追加・削除に合わせて、フォローする側のフォロー数とされる側のフォロワー数を増減する。
+     * DBへ直接書き込む実装では、互いに逆向きのフォローを行ってもデッドロックしないよう
+     * 行の更新はユーザーIDの昇順で行う。差分をメモリ上に溜めて後からまとめて書き出す実装もある。
+     *
+     * @param followerId フォローする側のユーザーID
+     * @param followingId フォローされる側のユーザーID
+     * @param delta 増減値（フォロー時は1、フォロー解除時は-1）
+     */
+    void adjust(String followerId, String followingId, int delta);
+
+    /**
+     * 複数ユーザーのフォロー数・フォロワー数にまとめて差分を加算する。
+     * 1つのトランザクション内でバッチUPDATEとして発行し、行の更新はユーザーIDの昇順で行う。
+     *
+     * @param followingDeltas ユーザーIDごとのフォロー数の差分
+     * @param followerDeltas ユーザーIDごとのフォロワー数の差分
+     */
+    void addCounts(Map<String, Long> followingDeltas, Map<String, Long> followerDeltas);
+
+    /**
+     * 指定ユーザーのフォロー数を取得する。
+     *
+     * @param userId ユーザーID
+     * @return フォロー中の人数（ユーザーが存在しない場合は0）
+     */
+    int getFollowingCount(String userId);
+
+    /**
+     * 指定ユーザーのフォロワー数を取得する。
+     *
+     * @param userId ユーザーID
+     * @return フォロワーの人数（ユーザーが存在しない場合は0）
+     */
+    int getFollowerCount(String userId);
+
+    /**
+     * 指定IDより大きいユーザーIDを昇順で取得する。
+     * カウンタの整合性チェックを一定件数ずつ進めるために使う。
+     *
+     * @param afterId このIDより後ろから取得する（nullの場合は先頭から）
+     * @param limit 取得する最大件数
+     * @return ユーザーIDのリスト（昇順）
+     */
+    List<String> findUserIdsAfter(String afterId, int limit);
+
+    /**
+     * 指定ユーザーのカウンタを FOLLOWS の実件数と突き合わせ、ずれている行だけを修正する。
+     *
+     * @param userIds 対象のユーザーID
+     * @return 修正した行数
+     */
+    int reconcile(Collection<String> userIds);
+}
@@ -0,0 +1,21 @@
+package com.example.demo.domain.model;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * FollowPathRepository インターフェイス
+ * ----------------------------------
+ * フォロー関係をたどったユーザー間の最短経路（相手まで何ステップ離れているか）を扱うリポジトリ。
+ * 探索するステップ数と訪問するユーザー数には上限があり、上限までに見つからない場合は経路なしとして扱う。
+ */
+public interface FollowPathRepository {
+    /**
+     * fromUserId からフォローをたどって toUserId に至る最短経路を取得する。
+     *
+     * @param fromUserId 起点のユーザーID
+     * @param toUserId 終点のユーザーID
+     * @return 経路上のユーザーID（先頭が起点、末尾が終点）。見つからない場合は空
+     */
+    Optional<List<String>> findShortestPath(String fromUserId, String toUserId);
+}
@@ -1,8 +1,11 @@
 package com.example.demo.domain.model;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import com.example.demo.common.KeysetCursor;
+
 /**
  * FollowRepository インターフェイス
  * ----------------------------------
@@ -34,6 +37,26 @@ public interface FollowRepository {
      * @return Follow（フォロー関係）オブジェクトのリスト
      */
     List<Follow> findByFollowingId(String followingId);
+
+    /**
+     * 指定されたユーザーのフォロー関係を新しくフォローした順に、カーソルより後ろから最大 limit 件だけ取得（キーセット方式のページング）。
+     *
+     * @param followerId フォローしているユーザーのID
+     * @param after 前のページの最後のフォロー関係のカーソル（最初のページはnull）
+     * @param limit 取得する最大件数
+     * @return Follow（フォロー関係）オブジェクトのリスト（作成日時の降順、同じならIDの降順）
+     */
+    List<Follow> findByFollowerId(String followerId, KeysetCursor after, int limit);
+
+    /**
+     * 指定されたユーザーへのフォロー関係を新しくフォローされた順に、カーソルより後ろから最大 limit 件だけ取得（キーセット方式のページング）。
+     *
+     * @param followingId フォローされているユーザーのID
+     * @param after 前のページの最後のフォロー関係のカーソル（最初のページはnull）
+     * @param limit 取得する最大件数
+     * @return Follow（フォロー関係）オブジェクトのリスト（作成日時の降順、同じならIDの降順）
+     */
+    List<Follow> findByFollowingId(String followingId, KeysetCursor after, int limit);
     
     /**
      * 指定ユーザーがフォローしているユーザーID一覧を取得。
@@ -44,6 +67,25 @@ public interface FollowRepository {
      */
     List<String> findFollowingIdsByFollowerId(String followerId);
     
+    /**
+     * 指定ユーザーをフォローしているユーザーID一覧を取得。
+     * タイムラインの配信先やフォロワー集合の構築に使う。
+     *
+     * @param followingId フォローされている側のユーザーID
+     * @return フォロワーのユーザーIDリスト
+     */
+    List<String> findFollowerIdsByFollowingId(String followingId);
+    
+    /**
+     * 候補ユーザーのうち、指定ユーザーがフォローしているユーザーのID一覧を取得。
+     * 検索結果など一覧表示時のフォロー状態をまとめて判定するために使う。
+     *
+     * @param followerId フォロワーのユーザーID
+     * @param candidateIds 判定したいユーザーIDのコレクション
+     * @return 候補のうちフォローしている相手のユーザーIDリスト
+     */
+    List<String> findFollowingIdsAmong(String followerId, Collection<String> candidateIds);
+    
     /**
      * 指定ユーザーがフォローしている人数をカウント。
      *
@@ -0,0 +1,49 @@
+package com.example.demo.domain.model;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * HomeTimelineRepository インターフェイス
+ * ----------------------------------
+ * ユーザーごとのホームタイムライン受信箱（HOME_TIMELINE）を扱うリポジトリ。
+ * 投稿時にフォロワーの受信箱へ投稿IDを書き込み（ファンアウト・オン・ライト）、
+ * 読み取り時は受信箱を所有者単位で新しい順に読むだけでタイムラインを構築できる。
+ */
+public interface HomeTimelineRepository {
+    /**
+     * 指定した所有者たちの受信箱へ投稿を追加する。
+     * 件数が多くても一定件数ごとのバッチINSERTで書き込む。
+     *
+     * @param post 配信する投稿（ID採番済み）
+     * @param ownerIds 配信先となる受信箱の所有者IDの一覧
+     */
+    void appendToInboxes(Post post, Collection<String> ownerIds);
+
+    /**
+     * 受信箱から投稿者情報付きの投稿を新しい順に取得する。
+     *
+     * @param ownerId 受信箱の所有者ID
+     * @param limit 取得する最大件数
+     * @return 投稿者情報付きの投稿リスト（作成日時の降順）
+     */
+    List<PostWithUserDto> findTimelineByOwnerId(String ownerId, int limit);
+
+    /**
+     * フォロー開始時に、フォロー先ユーザーの最近の投稿を受信箱へ補充する。
+     * 受信箱へ配信しなかった投稿（読み取り時に取得する投稿）は補充しない。
+     *
+     * @param ownerId 受信箱の所有者ID（フォローした側）
+     * @param authorId 投稿者ID（フォローされた側）
+     * @param limit 補充する最大件数
+     */
+    void backfill(String ownerId, String authorId, int limit);
+
+    /**
+     * フォロー解除時に、受信箱から指定した投稿者の投稿を取り除く。
+     *
+     * @param ownerId 受信箱の所有者ID
+     * @param authorId 取り除く投稿の投稿者ID
+     */
+    void deleteByOwnerIdAndAuthorId(String ownerId, String authorId);
+}
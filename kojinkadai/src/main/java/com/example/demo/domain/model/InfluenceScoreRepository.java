@@ -0,0 +1,18 @@
+package com.example.demo.domain.model;
+
+/**
+ * InfluenceScoreRepository インターフェイス
+ * ----------------------------------
+ * フォローグラフのPageRankから求めたユーザーごとの影響力スコアを扱うリポジトリ。
+ * スコアは定期的に計算し直され、APP_USERS.INFLUENCE にも保存して検索結果の並び順に使う。
+ * 全ユーザーの平均が1になるよう調整しており、影響力のあるユーザーに多くフォローされているユーザーほど大きくなる。
+ */
+public interface InfluenceScoreRepository {
+    /**
+     * 最後に計算した影響力スコアを取得する。
+     *
+     * @param userId ユーザーID
+     * @return スコア（未計算の場合や、フォロー関係に一度も現れないユーザーは0）
+     */
+    double getInfluence(String userId);
+}
@@ -1,8 +1,11 @@
 package com.example.demo.domain.model;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import com.example.demo.common.KeysetCursor;
+
 /**
  * PostRepository インターフェイス
  * ----------------------------------
@@ -17,6 +20,14 @@ public interface PostRepository {
      * @return 該当する投稿が存在すれば Optional<Post>、存在しなければ空
      */
     Optional<Post> findById(String id);
+
+    /**
+     * 複数の投稿IDを指定して投稿をまとめて取得する（主キーでの検索のみ）。
+     *
+     * @param ids 投稿IDのコレクション
+     * @return 該当する投稿のリスト（順序は保証しない。存在しないIDは含まれない）
+     */
+    List<Post> findByIds(Collection<String> ids);
     
     /**
      * 特定のユーザーが投稿した全投稿を取得する。
@@ -25,6 +36,25 @@ public interface PostRepository {
      * @return 投稿のリスト
      */
     List<Post> findByUserId(String userId);
+
+    /**
+     * 特定のユーザーの投稿を新しい順に、カーソルより後ろから最大 limit 件だけ取得する（キーセット方式のページング）。
+     * (user_id, created_at, id) の索引の途中から読むため、何ページ目でも取得コストは件数に比例する。
+     *
+     * @param userId ユーザーID
+     * @param after 前のページの最後の投稿のカーソル（最初のページはnull）
+     * @param limit 取得する最大件数
+     * @return 投稿のリスト（作成日時の降順、同じならIDの降順）
+     */
+    List<Post> findByUserId(String userId, KeysetCursor after, int limit);
+
+    /**
+     * 特定のユーザーの投稿数を数える。
+     *
+     * @param userId ユーザーID
+     * @return 投稿数
+     */
+    int countByUserId(String userId);
     
     /**
      * 登録されているすべての投稿を取得する。
@@ -34,12 +64,41 @@ public interface PostRepository {
     List<Post> findAll();
  
     /**
-     * タイムライン用に、複数ユーザー（フォロー中など）の投稿をまとめて取得する。
+     * タイムライン用に、複数ユーザー（フォロー中など）の投稿を新しい順に上位N件だけ取得する。
+     * 件数の絞り込みはSQL側（LIMIT）で行うため、投稿総数に関係なく取得コストは件数に比例する。
      *
      * @param userIds 投稿を取得したいユーザーIDのリスト
-     * @return 該当ユーザーたちの投稿のリスト（時系列でソートされることが多い）
+     * @param limit 取得する最大件数
+     * @return 該当ユーザーたちの投稿のリスト（作成日時の降順）
+     */
+    List<Post> findTimelineByUserIds(List<String> userIds, int limit);
+
+    /**
+     * タイムライン表示用に、投稿と投稿者情報をJOINして1回のクエリでまとめて取得する。
+     * 投稿ごとに投稿者を検索する必要がないため、ラウンドトリップは件数に関係なく1回で済む。
+     *
+     * @param userIds 投稿を取得したいユーザーIDのリスト
+     * @param limit 取得する最大件数
+     * @return 投稿者情報付きの投稿リスト（作成日時の降順）
+     */
+    List<PostWithUserDto> findTimelineWithUserByUserIds(List<String> userIds, int limit);
+
+    /**
+     * フォロー中ユーザーの投稿のうち、受信箱へ配信しなかった投稿を投稿者情報付きで新しい順に取得する。
+     * 配信したかどうかは投稿ごとに記録した値で判定するため、投稿者の現在のフォロワー数には左右されない。
+     *
+     * @param followerId タイムラインを表示するユーザーID
+     * @param limit 取得する最大件数
+     * @return 投稿者情報付きの投稿リスト（作成日時の降順）
+     */
+    List<PostWithUserDto> findNotFannedOutTimelineWithUserByFollowerId(String followerId, int limit);
+
+    /**
+     * 投稿を受信箱へ配信しなかったことを記録する（読み取り時に取得する対象になる）。
+     *
+     * @param id 投稿ID
      */
-    List<Post> findTimelineByUserIds(List<String> userIds);
+    void markNotFannedOut(String id);
     
     /**
      * 投稿を保存または更新する。
@@ -0,0 +1,35 @@
+package com.example.demo.domain.model;
+
+/**
+ * PostSearchRepository インターフェイス
+ * ----------------------------------
+ * 投稿本文の全文検索を扱うリポジトリ。
+ * 検索はPOSTSテーブルを走査せず、投稿の作成・更新・削除のたびに更新される索引だけを使う。
+ * 結果は関連度（BM25）の高い順に並び、続きはカーソルで取得する。
+ */
+public interface PostSearchRepository {
+    /**
+     * 本文にキーワードを含む投稿を関連度の高い順に検索する。
+     *
+     * @param query 検索キーワード（空白区切りの語はすべて含むものだけが該当する）
+     * @param cursor 前のページの nextCursor（最初のページはnull）
+     * @param limit 取得する最大件数
+     * @return 検索結果
+     * @throws IllegalArgumentException カーソルの形式が正しくない場合
+     */
+    PostSearchResult search(String query, String cursor, int limit);
+
+    /**
+     * 作成・更新された投稿を索引に反映する。
+     *
+     * @param post 投稿
+     */
+    void index(Post post);
+
+    /**
+     * 削除された投稿を索引から除く。
+     *
+     * @param postId 投稿ID
+     */
+    void remove(String postId);
+}
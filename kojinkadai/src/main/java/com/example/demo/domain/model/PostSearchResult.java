@@ -0,0 +1,17 @@
+package com.example.demo.domain.model;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 投稿検索の結果（1ページ分の投稿IDと、続きを取得するためのカーソル）
+ */
+@Getter
+@RequiredArgsConstructor
+public class PostSearchResult {
+    private final List<String> postIds;
+    /** 続きが無い場合はnull */
+    private final String nextCursor;
+}
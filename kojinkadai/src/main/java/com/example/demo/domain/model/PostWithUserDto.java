@@ -1,14 +1,15 @@
-package com.example.demo.application.dto;
+package com.example.demo.domain.model;
 
 import java.time.LocalDateTime;
 
-import com.example.demo.domain.model.Post;
-import com.example.demo.domain.model.User;
-
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * 投稿と投稿者をまとめた読み取りモデル（タイムライン表示用）
+ * リポジトリがJOINの結果から直接組み立てて返すため、ドメイン層に置いています。
+ */
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 @Getter
 public class PostWithUserDto {
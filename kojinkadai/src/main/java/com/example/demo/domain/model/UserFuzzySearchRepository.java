@@ -0,0 +1,23 @@
+package com.example.demo.domain.model;
+
+import java.util.List;
+
+/**
+ * UserFuzzySearchRepository インターフェイス
+ * ----------------------------------
+ * 入力ミスを許すユーザー検索を扱うリポジトリ。
+ * ユーザー名または表示名とキーワードの編集距離（文字の挿入・削除・置換の回数）が小さいユーザーを探す。
+ * 検索はAPP_USERSテーブルを走査せず、ユーザーの保存・削除のたびに更新される索引だけを使う。
+ */
+public interface UserFuzzySearchRepository {
+    /**
+     * ユーザー名または表示名がキーワードに近いユーザーを検索する。
+     * 許す編集距離はキーワードの長さで決まる（短いほど小さく、最大 app.user-fuzzy-search.max-distance）。
+     *
+     * @param keyword 検索キーワード（大文字・小文字、全角・半角の違いは区別しない）
+     * @param excludeUserId 結果から除くユーザーID（ログイン中のユーザー。nullの場合は除かない）。上位 limit 件に絞る前に除く
+     * @param limit 取得する最大件数
+     * @return ユーザーIDのリスト（編集距離の小さい順、同じならフォロワー数の多い順）。準備ができていない場合は空
+     */
+    List<String> search(String keyword, String excludeUserId, int limit);
+}
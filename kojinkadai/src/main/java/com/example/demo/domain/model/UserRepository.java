@@ -1,8 +1,11 @@
 package com.example.demo.domain.model;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import com.example.demo.common.KeysetCursor;
+
 /**
  * UserRepository インターフェイス
  * ----------------------------------
@@ -27,6 +30,15 @@ public interface UserRepository {
      */
     Optional<User> findByUsername(String username);
     
+    /**
+     * 指定されたIDのいずれかに一致するユーザーをまとめて検索する。
+     * 存在しないIDは無視され、返却順は保証しない。
+     *
+     * @param ids ユーザーIDのコレクション
+     * @return 該当したユーザーのリスト（空のコレクションを渡した場合は空リスト）
+     */
+    List<User> findByIds(Collection<String> ids);
+    
     /**
      * 登録されているすべてのユーザーを取得する。
      *
@@ -34,6 +46,16 @@ public interface UserRepository {
      */
     List<User> findAll();
     
+    /**
+     * ユーザー一覧の1ページ分のキーを、登録日時の新しい順（同じならIDの大きい順）に取得する。
+     * (登録日時, ID) の索引をたどるだけなので、何ページ目であっても問い合わせの重さは変わらない。
+     *
+     * @param after 前のページの最後のユーザーのキー（最初のページはnull）
+     * @param limit 取得する最大件数
+     * @return after より後ろのユーザーのキー（ユーザーIDと登録日時）のリスト
+     */
+    List<KeysetCursor> findDirectoryKeys(KeysetCursor after, int limit);
+    
     /**
      * 表示名に特定のキーワードが含まれるユーザーを検索する。
      *
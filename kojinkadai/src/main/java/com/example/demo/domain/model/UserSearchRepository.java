@@ -0,0 +1,22 @@
+package com.example.demo.domain.model;
+
+import java.util.Optional;
+
+/**
+ * UserSearchRepository インターフェイス
+ * ----------------------------------
+ * 表示名・ユーザー名の部分一致によるユーザー検索を扱うリポジトリ。
+ * 該当したユーザーは影響力スコアの高い順（同じ場合は新しいユーザー順）に並べ、指定した範囲のIDだけを返す。
+ */
+public interface UserSearchRepository {
+    /**
+     * キーワードを表示名またはユーザー名に含むユーザーを検索する。
+     *
+     * @param keyword 検索キーワード（大文字・小文字、全角・半角の違いは区別しない）
+     * @param excludeUserId 結果と総件数から除くユーザーID（ログイン中のユーザー。nullの場合は除かない）
+     * @param offset 先頭から読み飛ばす件数
+     * @param limit 取得する最大件数
+     * @return 検索結果。検索の準備ができていない場合は空
+     */
+    Optional<UserSearchResult> search(String keyword, String excludeUserId, int offset, int limit);
+}
@@ -0,0 +1,16 @@
+package com.example.demo.domain.model;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * ユーザー検索の結果（指定した範囲のユーザーIDと、該当したユーザーの総数）
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserSearchResult {
+    private final List<String> userIds;
+    private final int totalCount;
+}
@@ -0,0 +1,20 @@
+package com.example.demo.domain.model;
+
+import java.util.List;
+
+/**
+ * UserSuggestRepository インターフェイス
+ * ----------------------------------
+ * 検索欄の入力補完のため、ユーザー名または表示名が入力途中の文字列で始まるユーザーを扱うリポジトリ。
+ * 候補はフォロワー数の多い順に並べる。
+ */
+public interface UserSuggestRepository {
+    /**
+     * ユーザー名または表示名が prefix で始まるユーザーを取得する。
+     *
+     * @param prefix 入力途中の文字列（大文字・小文字、全角・半角の違いは区別しない）
+     * @param limit 取得する最大件数
+     * @return ユーザーIDのリスト（フォロワー数の多い順）。準備ができていない場合は空
+     */
+    List<String> suggest(String prefix, int limit);
+}
@@ -0,0 +1,226 @@
+package com.example.demo.infrastructure.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.config.UserCacheProperties;
+import com.example.demo.common.KeysetCursor;
+import com.example.demo.domain.model.User;
+import com.example.demo.domain.model.UserRepository;
+import com.example.demo.infrastructure.datasource.UserDatasourceImpl;
+import com.example.demo.util.TransactionUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * キャッシュ付きのUserRepository実装
+ *
+ * UserDatasourceImplをラップし、ID・ユーザー名の両方のキーでユーザーを引けるようにします。
+ * ユーザー名からはIDだけを引き、ユーザー本体はIDキーのキャッシュにのみ保持するため、
+ * 同じユーザーが二重に保持されたり、片方だけ古い内容が残ったりすることはありません。
+ * 存在しないIDは短時間だけ記憶し、同じIDでの空振りの問い合わせを抑えます。
+ * 保存・削除時は該当ユーザーのエントリを即座に破棄し、コミット後にもう一度破棄します
+ * （トランザクション中に他のリクエストが古い内容を読み込んでしまった場合への対策です）。
+ */
+@Slf4j
+@Primary
+@Repository
+public class CachedUserRepository implements UserRepository {
+    private final UserDatasourceImpl delegate;
+
+    /** ID → ユーザー */
+    private final Cache<String, User> usersById;
+
+    /** ユーザー名 → ID */
+    private final Cache<String, String> idsByUsername;
+
+    /** 存在しないことが分かっているID */
+    private final Cache<String, Boolean> missingIds;
+
+    public CachedUserRepository(UserDatasourceImpl delegate, UserCacheProperties userCacheProperties) {
+        this.delegate = delegate;
+        this.usersById = CacheBuilder.newBuilder()
+            .maximumSize(userCacheProperties.getMaxSize())
+            .expireAfterWrite(userCacheProperties.getExpireMinutes(), TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+        this.idsByUsername = CacheBuilder.newBuilder()
+            .maximumSize(userCacheProperties.getMaxSize())
+            .expireAfterWrite(userCacheProperties.getExpireMinutes(), TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+        this.missingIds = CacheBuilder.newBuilder()
+            .maximumSize(userCacheProperties.getMaxSize())
+            .expireAfterWrite(userCacheProperties.getNegativeExpireSeconds(), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        User cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (missingIds.getIfPresent(id) != null) {
+            return Optional.empty();
+        }
+
+        Optional<User> loaded = delegate.findById(id);
+        if (loaded.isPresent()) {
+            put(loaded.get());
+        } else {
+            missingIds.put(id, Boolean.TRUE);
+        }
+        return loaded;
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        String id = idsByUsername.getIfPresent(username);
+        if (id != null) {
+            Optional<User> user = findById(id);
+            // ユーザー名が変わっていた場合は対応付けを捨てて読み直す
+            if (user.isPresent() && username.equals(user.get().getUsername())) {
+                return user;
+            }
+            idsByUsername.invalidate(username);
+        }
+
+        Optional<User> loaded = delegate.findByUsername(username);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    @Override
+    public List<User> findByIds(Collection<String> ids) {
+        List<User> result = new ArrayList<>(ids.size());
+        Set<String> toLoad = new HashSet<>();
+        for (String id : ids) {
+            User cached = usersById.getIfPresent(id);
+            if (cached != null) {
+                result.add(cached);
+            } else if (missingIds.getIfPresent(id) == null) {
+                toLoad.add(id);
+            }
+        }
+        if (toLoad.isEmpty()) {
+            return result;
+        }
+
+        for (User user : delegate.findByIds(toLoad)) {
+            put(user);
+            toLoad.remove(user.getId().asString());
+            result.add(user);
+        }
+        // 問い合わせても見つからなかったIDは存在しないものとして記憶する
+        toLoad.forEach(id -> missingIds.put(id, Boolean.TRUE));
+        return result;
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<KeysetCursor> findDirectoryKeys(KeysetCursor after, int limit) {
+        return delegate.findDirectoryKeys(after, limit);
+    }
+
+    @Override
+    public List<User> searchByDisplayName(String keyword) {
+        return delegate.searchByDisplayName(keyword);
+    }
+
+    @Override
+    public User save(User user) {
+        User saved = delegate.save(user);
+        String id = saved.getId() != null ? saved.getId().asString() : null;
+        if (id != null) {
+            invalidate(id, saved.getUsername());
+            TransactionUtil.afterCommit(() -> invalidate(id, saved.getUsername()));
+        }
+        return saved;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+        invalidate(id, null);
+        TransactionUtil.afterCommit(() -> invalidate(id, null));
+    }
+
+    /**
+     * キャッシュの統計情報（キャッシュごとのヒット率など）
+     *
+     * @return キャッシュ名をキーとした統計情報
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("byId", stats(usersById));
+        result.put("byUsername", stats(idsByUsername));
+        result.put("missingIds", stats(missingIds));
+        return result;
+    }
+
+    private void put(User user) {
+        String id = user.getId().asString();
+        usersById.put(id, user);
+        missingIds.invalidate(id);
+        if (user.getUsername() != null) {
+            idsByUsername.put(user.getUsername(), id);
+        }
+    }
+
+    /**
+     * ユーザーのエントリを破棄する
+     * ユーザー名側は、キャッシュ中のユーザーが持つ変更前の名前と、保存後の名前の両方を破棄します。
+     * キャッシュから追い出された後に名前が変わった場合の古い対応付けは、findByUsernameの読み込み時の照合で捨てられます。
+     *
+     * @param id ユーザーID
+     * @param username 保存後のユーザー名（削除時はnull）
+     */
+    private void invalidate(String id, String username) {
+        User cached = usersById.getIfPresent(id);
+        if (cached != null && cached.getUsername() != null) {
+            idsByUsername.invalidate(cached.getUsername());
+        }
+        if (username != null) {
+            idsByUsername.invalidate(username);
+        }
+        usersById.invalidate(id);
+        missingIds.invalidate(id);
+        log.debug("ユーザーキャッシュを破棄しました: userId={}", id);
+    }
+
+    private static Map<String, Object> stats(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entries", cache.size());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.demo.infrastructure.counter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntSupplier;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.domain.model.FollowCounterRepository;
+import com.example.demo.infrastructure.datasource.FollowCounterDatasourceImpl;
+import com.example.demo.util.StripedCounter;
+import com.example.demo.util.TransactionUtil;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * メモリ上で差分を溜めるFollowCounterRepository実装
+ *
+ * フォロワーの多いアカウントが同時に大量にフォローされると、APP_USERSの同じ行への更新が
+ * 行ロックで直列化されます。そこでフォロー・フォロー解除による増減はユーザーIDごとの
+ * StripedCounterに加算するだけにし、一定間隔（app.follow-counter.flush-interval-ms）で
+ * ユーザーごとにまとめた差分を1回のバッチUPDATEで書き出します。
+ * 件数の読み取りはDBの値に未書き出しの差分を足して返すため、このプロセス内では常に最新の件数が見えます。
+ * 差分は書き出しがコミットされた後に差し引くため、書き出しに失敗した差分はそのまま次回に持ち越されます。
+ *
+ * 差分はフォロー操作のコミット後に加算するため、ロールバックされた操作が件数に反映されることはありません。
+ * 書き出し前にプロセスが異常終了した場合の差分は失われますが、FollowCounterReconcilerが実件数に修正します。
+ * 実件数との突き合わせは、未書き出しの差分があるユーザーと、フォロー操作のトランザクションが
+ * 完了していないユーザーを飛ばして行います（突き合わせた後に差分が書き出され、二重に数えられるのを防ぐため）。
+ * 差分の加算と突き合わせ・空になったセルの削除は、読み書きロックで排他します。
+ * 書き出しのコミットの直前から差分を差し引き終えるまでは件数の読み取りを待たせ、書き出した差分が
+ * DBの値と未書き出しの差分の両方に数えられないようにします（行ロックは取得済みのため、待たせるのはコミットの間だけです）。
+ */
+@Slf4j
+@Primary
+@Repository
+@RequiredArgsConstructor
+public class BufferedFollowCounterRepository implements FollowCounterRepository {
+    private final FollowCounterDatasourceImpl delegate;
+    private final TransactionTemplate transactionTemplate;
+
+    /** 未書き出しのフォロー数の差分（ユーザーIDごと） */
+    private final StripedCounter<String> pendingFollowing = new StripedCounter<>();
+
+    /** 未書き出しのフォロワー数の差分（ユーザーIDごと） */
+    private final StripedCounter<String> pendingFollowers = new StripedCounter<>();
+
+    /** 完了していないフォロー操作のトランザクション数（ユーザーIDごと） */
+    private final StripedCounter<String> inFlight = new StripedCounter<>();
+
+    /** 差分の加算（読み取りロック）と、突き合わせ・セルの削除（書き込みロック）の排他 */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** 件数の読み取り（読み取りロック）と、書き出しのコミットから差分の差し引きまで（書き込みロック）の排他 */
+    private final ReentrantReadWriteLock publishLock = new ReentrantReadWriteLock();
+
+    @Override
+    public void adjust(String followerId, String followingId, int delta) {
+        withReadLock(() -> {
+            inFlight.add(followerId, 1);
+            inFlight.add(followingId, 1);
+        });
+        TransactionUtil.afterCommit(() -> withReadLock(() -> {
+            pendingFollowing.add(followerId, delta);
+            pendingFollowers.add(followingId, delta);
+        }));
+        TransactionUtil.afterCompletion(() -> withReadLock(() -> {
+            inFlight.add(followerId, -1);
+            inFlight.add(followingId, -1);
+        }));
+    }
+
+    @Override
+    public void addCounts(Map<String, Long> followingDeltas, Map<String, Long> followerDeltas) {
+        delegate.addCounts(followingDeltas, followerDeltas);
+    }
+
+    @Override
+    public int getFollowingCount(String userId) {
+        return readCount(() -> (int) (delegate.getFollowingCount(userId) + pendingFollowing.get(userId)));
+    }
+
+    @Override
+    public int getFollowerCount(String userId) {
+        return readCount(() -> (int) (delegate.getFollowerCount(userId) + pendingFollowers.get(userId)));
+    }
+
+    @Override
+    public List<String> findUserIdsAfter(String afterId, int limit) {
+        return delegate.findUserIdsAfter(afterId, limit);
+    }
+
+    /**
+     * 実件数と突き合わせる
+     * 溜まっている差分を先に書き出し、書き込みロックの下で差分もトランザクションも残っていないユーザーだけを修正します。
+     * 飛ばしたユーザーは次回の突き合わせで修正されます。
+     */
+    @Override
+    public synchronized int reconcile(Collection<String> userIds) {
+        flush();
+        lock.writeLock().lock();
+        try {
+            List<String> settled = userIds.stream()
+                .filter(userId -> pendingFollowing.get(userId) == 0
+                               && pendingFollowers.get(userId) == 0
+                               && inFlight.get(userId) == 0)
+                .toList();
+            if (settled.size() < userIds.size()) {
+                log.debug("フォロー操作の反映待ちのため突き合わせを見送りました: users={}", userIds.size() - settled.size());
+            }
+            return delegate.reconcile(settled);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 溜まっている差分をDBへ書き出す
+     * 書き出しがコミットされた直後に、書き出した分だけ差分から差し引きます。
+     * 書き出しに失敗した場合は差分をそのまま残し、次回の書き出しで再試行します。
+     */
+    @Scheduled(fixedDelayString = "${app.follow-counter.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Map<String, Long> following = pendingFollowing.snapshot();
+        Map<String, Long> followers = pendingFollowers.snapshot();
+        if (!following.isEmpty() || !followers.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    delegate.addCounts(following, followers);
+                    subtractOnCommit(following, followers);
+                });
+            } catch (RuntimeException e) {
+                log.error("フォローカウンタの差分の書き出しに失敗しました。次回再試行します", e);
+                return;
+            }
+            log.debug("フォローカウンタの差分を書き出しました: following={}, followers={}",
+                      following.size(), followers.size());
+        }
+
+        lock.writeLock().lock();
+        try {
+            // 0になったセルを削除する（加算は読み取りロックの下で行うため、削除したセルへの加算は起きない）
+            pendingFollowing.prune();
+            pendingFollowers.prune();
+            inFlight.prune();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 終了時に溜まっている差分を書き出す
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * 書き出しのコミットの直前から差分を差し引き終えるまで、件数の読み取りを待たせる
+     */
+    private void subtractOnCommit(Map<String, Long> following, Map<String, Long> followers) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                publishLock.writeLock().lock();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!publishLock.isWriteLockedByCurrentThread()) {
+                    return;
+                }
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        withWriteLock(() -> {
+                            pendingFollowing.subtract(following);
+                            pendingFollowers.subtract(followers);
+                        });
+                    }
+                } finally {
+                    publishLock.writeLock().unlock();
+                }
+            }
+        });
+    }
+
+    private int readCount(IntSupplier count) {
+        publishLock.readLock().lock();
+        try {
+            return count.getAsInt();
+        } finally {
+            publishLock.readLock().unlock();
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void withReadLock(Runnable action) {
+        lock.readLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.infrastructure.datasource;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.provisioning.JdbcUserDetailsManager;
+
+import com.example.demo.application.auth.LoginUser;
+
+/**
+ * ログイン時にプロフィール付きのプリンシパルを発行する UserDetailsManager
+ * 
+ * JdbcUserDetailsManager の認証情報の読み込みはそのままに、
+ * ログインの時点で APP_USERS を1回だけ検索し、{@link LoginUser} として返します。
+ * プロフィールがまだ存在しない場合は通常の認証情報をそのまま返します。
+ */
+public class AppUserDetailsManager extends JdbcUserDetailsManager {
+    private final UserMapper userMapper;
+
+    public AppUserDetailsManager(DataSource dataSource, UserMapper userMapper) {
+        super(dataSource);
+        this.userMapper = userMapper;
+    }
+
+    @Override
+    protected UserDetails createUserDetails(String username, UserDetails userFromUserQuery,
+                                            List<GrantedAuthority> combinedAuthorities) {
+        UserDetails userDetails = super.createUserDetails(username, userFromUserQuery, combinedAuthorities);
+        return userMapper.findByUsername(userDetails.getUsername())
+            .<UserDetails>map(profile -> LoginUser.of(userDetails, profile))
+            .orElse(userDetails);
+    }
+}
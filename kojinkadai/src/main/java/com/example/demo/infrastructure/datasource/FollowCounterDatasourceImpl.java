@@ -0,0 +1,83 @@
+package com.example.demo.infrastructure.datasource;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.FollowCounterRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+public class FollowCounterDatasourceImpl implements FollowCounterRepository {
+    private static final String ADD_COUNTS_SQL =
+        "UPDATE APP_USERS SET FOLLOWING_COUNT = FOLLOWING_COUNT + ?, FOLLOWER_COUNT = FOLLOWER_COUNT + ? WHERE ID = ?";
+
+    private final FollowCounterMapper followCounterMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void adjust(String followerId, String followingId, int delta) {
+        // 行ロックの取得順をユーザーIDの昇順に揃える
+        if (Long.parseLong(followerId) <= Long.parseLong(followingId)) {
+            followCounterMapper.addFollowingCount(followerId, delta);
+            followCounterMapper.addFollowerCount(followingId, delta);
+        } else {
+            followCounterMapper.addFollowerCount(followingId, delta);
+            followCounterMapper.addFollowingCount(followerId, delta);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void addCounts(Map<String, Long> followingDeltas, Map<String, Long> followerDeltas) {
+        // ユーザーごとに1行へまとめ、行ロックの取得順をユーザーIDの昇順に揃える
+        TreeMap<Long, long[]> rows = new TreeMap<>();
+        followingDeltas.forEach((userId, delta) ->
+            rows.computeIfAbsent(Long.parseLong(userId), id -> new long[2])[0] += delta);
+        followerDeltas.forEach((userId, delta) ->
+            rows.computeIfAbsent(Long.parseLong(userId), id -> new long[2])[1] += delta);
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(ADD_COUNTS_SQL, rows.entrySet(), AppConstants.Follow.COUNTER_FLUSH_BATCH_SIZE,
+            (ps, row) -> {
+                ps.setLong(1, row.getValue()[0]);
+                ps.setLong(2, row.getValue()[1]);
+                ps.setLong(3, row.getKey());
+            });
+    }
+
+    @Override
+    public int getFollowingCount(String userId) {
+        Integer count = followCounterMapper.findFollowingCount(userId);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public int getFollowerCount(String userId) {
+        Integer count = followCounterMapper.findFollowerCount(userId);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public List<String> findUserIdsAfter(String afterId, int limit) {
+        return followCounterMapper.findUserIdsAfter(afterId, limit);
+    }
+
+    @Override
+    public int reconcile(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        return followCounterMapper.reconcile(userIds);
+    }
+}
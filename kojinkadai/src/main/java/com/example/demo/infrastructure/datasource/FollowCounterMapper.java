@@ -0,0 +1,17 @@
+package com.example.demo.infrastructure.datasource;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+@Mapper
+public interface FollowCounterMapper {
+    void addFollowingCount(@Param("userId") String userId, @Param("delta") int delta);
+    void addFollowerCount(@Param("userId") String userId, @Param("delta") int delta);
+    Integer findFollowingCount(@Param("userId") String userId);
+    Integer findFollowerCount(@Param("userId") String userId);
+    List<String> findUserIdsAfter(@Param("afterId") String afterId, @Param("limit") int limit);
+    int reconcile(@Param("userIds") Collection<String> userIds);
+}
@@ -1,10 +1,12 @@
 package com.example.demo.infrastructure.datasource;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.stereotype.Repository;
 
+import com.example.demo.common.KeysetCursor;
 import com.example.demo.domain.model.Follow;
 import com.example.demo.domain.model.FollowRepository;
 
@@ -30,11 +32,34 @@ public class FollowDatasourceImpl implements FollowRepository {
         return followMapper.findByFollowingId(followingId);
     }
 
+    @Override
+    public List<Follow> findByFollowerId(String followerId, KeysetCursor after, int limit) {
+        return followMapper.findPageByFollowerId(followerId, after, limit);
+    }
+
+    @Override
+    public List<Follow> findByFollowingId(String followingId, KeysetCursor after, int limit) {
+        return followMapper.findPageByFollowingId(followingId, after, limit);
+    }
+
     @Override
     public List<String> findFollowingIdsByFollowerId(String followerId) {
         return followMapper.findFollowingIdsByFollowerId(followerId);
     }
 
+    @Override
+    public List<String> findFollowerIdsByFollowingId(String followingId) {
+        return followMapper.findFollowerIdsByFollowingId(followingId);
+    }
+
+    @Override
+    public List<String> findFollowingIdsAmong(String followerId, Collection<String> candidateIds) {
+        if (candidateIds.isEmpty()) {
+            return List.of();
+        }
+        return followMapper.findFollowingIdsAmong(followerId, candidateIds);
+    }
+
     @Override
     public int countByFollowerId(String followerId) {
         return followMapper.countByFollowerId(followerId);
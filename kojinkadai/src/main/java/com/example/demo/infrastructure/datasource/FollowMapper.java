@@ -1,11 +1,13 @@
 package com.example.demo.infrastructure.datasource;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import com.example.demo.common.KeysetCursor;
 import com.example.demo.domain.model.Follow;
 
 @Mapper
@@ -13,7 +15,11 @@ public interface FollowMapper {
     Optional<Follow> findByFollowerIdAndFollowingId(@Param("followerId") String followerId, @Param("followingId") String followingId);
     List<Follow> findByFollowerId(@Param("followerId") String followerId);
     List<Follow> findByFollowingId(@Param("followingId") String followingId);
+    List<Follow> findPageByFollowerId(@Param("followerId") String followerId, @Param("cursor") KeysetCursor cursor, @Param("limit") int limit);
+    List<Follow> findPageByFollowingId(@Param("followingId") String followingId, @Param("cursor") KeysetCursor cursor, @Param("limit") int limit);
     List<String> findFollowingIdsByFollowerId(@Param("followerId") String followerId);
+    List<String> findFollowerIdsByFollowingId(@Param("followingId") String followingId);
+    List<String> findFollowingIdsAmong(@Param("followerId") String followerId, @Param("candidateIds") Collection<String> candidateIds);
     int countByFollowerId(@Param("followerId") String followerId);
     int countByFollowingId(@Param("followingId") String followingId);
     void insert(Follow follow);
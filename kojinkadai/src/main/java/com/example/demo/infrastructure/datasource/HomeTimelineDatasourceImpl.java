@@ -0,0 +1,59 @@
+package com.example.demo.infrastructure.datasource;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.HomeTimelineRepository;
+import com.example.demo.domain.model.Post;
+import com.example.demo.domain.model.PostWithUserDto;
+
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+public class HomeTimelineDatasourceImpl implements HomeTimelineRepository {
+    private static final String INSERT_INBOX_SQL =
+        "INSERT INTO HOME_TIMELINE (OWNER_ID, POST_ID, AUTHOR_ID, CREATED_AT) VALUES (?, ?, ?, ?)";
+
+    private final HomeTimelineMapper homeTimelineMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void appendToInboxes(Post post, Collection<String> ownerIds) {
+        if (ownerIds == null || ownerIds.isEmpty()) {
+            return;
+        }
+        long postId = Long.parseLong(post.getId());
+        long authorId = Long.parseLong(post.getUserId().asString());
+        Timestamp createdAt = Timestamp.valueOf(post.getCreatedAt());
+
+        // 1件ずつではなくJDBCバッチでまとめて書き込む（呼び出し元のトランザクションに参加する）
+        jdbcTemplate.batchUpdate(INSERT_INBOX_SQL, ownerIds, AppConstants.Post.FANOUT_BATCH_SIZE,
+            (ps, ownerId) -> {
+                ps.setLong(1, Long.parseLong(ownerId));
+                ps.setLong(2, postId);
+                ps.setLong(3, authorId);
+                ps.setTimestamp(4, createdAt);
+            });
+    }
+
+    @Override
+    public List<PostWithUserDto> findTimelineByOwnerId(String ownerId, int limit) {
+        return homeTimelineMapper.findTimelineByOwnerId(ownerId, limit);
+    }
+
+    @Override
+    public void backfill(String ownerId, String authorId, int limit) {
+        homeTimelineMapper.backfill(ownerId, authorId, limit);
+    }
+
+    @Override
+    public void deleteByOwnerIdAndAuthorId(String ownerId, String authorId) {
+        homeTimelineMapper.deleteByOwnerIdAndAuthorId(ownerId, authorId);
+    }
+}
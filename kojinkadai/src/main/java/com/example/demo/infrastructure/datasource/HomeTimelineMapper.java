@@ -0,0 +1,15 @@
+package com.example.demo.infrastructure.datasource;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.example.demo.domain.model.PostWithUserDto;
+
+@Mapper
+public interface HomeTimelineMapper {
+    List<PostWithUserDto> findTimelineByOwnerId(@Param("ownerId") String ownerId, @Param("limit") int limit);
+    void backfill(@Param("ownerId") String ownerId, @Param("authorId") String authorId, @Param("limit") int limit);
+    void deleteByOwnerIdAndAuthorId(@Param("ownerId") String ownerId, @Param("authorId") String authorId);
+}
@@ -1,12 +1,15 @@
 package com.example.demo.infrastructure.datasource;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.stereotype.Repository;
 
+import com.example.demo.common.KeysetCursor;
 import com.example.demo.domain.model.Post;
 import com.example.demo.domain.model.PostRepository;
+import com.example.demo.domain.model.PostWithUserDto;
 
 import lombok.RequiredArgsConstructor;
 
@@ -20,19 +23,58 @@ public class PostDatasourceImpl implements PostRepository {
         return postMapper.findById(id);
     }
 
+    @Override
+    public List<Post> findByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return postMapper.findByIds(ids);
+    }
+
     @Override
     public List<Post> findByUserId(String userId) {
         return postMapper.findByUserId(userId);
     }
 
+    @Override
+    public List<Post> findByUserId(String userId, KeysetCursor after, int limit) {
+        return postMapper.findPageByUserId(userId, after, limit);
+    }
+
+    @Override
+    public int countByUserId(String userId) {
+        return postMapper.countByUserId(userId);
+    }
+
     @Override
     public List<Post> findAll() {
         return postMapper.findAll();
     }
 
     @Override
-    public List<Post> findTimelineByUserIds(List<String> userIds) {
-        return postMapper.findTimelineByUserIds(userIds);
+    public List<Post> findTimelineByUserIds(List<String> userIds, int limit) {
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of();
+        }
+        return postMapper.findTimelineByUserIds(userIds, limit);
+    }
+
+    @Override
+    public List<PostWithUserDto> findTimelineWithUserByUserIds(List<String> userIds, int limit) {
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of();
+        }
+        return postMapper.findTimelineWithUserByUserIds(userIds, limit);
+    }
+
+    @Override
+    public List<PostWithUserDto> findNotFannedOutTimelineWithUserByFollowerId(String followerId, int limit) {
+        return postMapper.findNotFannedOutTimelineWithUserByFollowerId(followerId, limit);
+    }
+
+    @Override
+    public void markNotFannedOut(String id) {
+        postMapper.markNotFannedOut(id);
     }
 
     @Override
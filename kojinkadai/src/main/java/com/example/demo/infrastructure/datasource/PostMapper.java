@@ -1,20 +1,29 @@
 package com.example.demo.infrastructure.datasource;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import com.example.demo.common.KeysetCursor;
 import com.example.demo.domain.model.Post;
+import com.example.demo.domain.model.PostWithUserDto;
 
 @Mapper
 public interface PostMapper {
     Optional<Post> findById(@Param("id") String id);
+    List<Post> findByIds(@Param("ids") Collection<String> ids);
     List<Post> findByUserId(@Param("userId") String userId);
+    List<Post> findPageByUserId(@Param("userId") String userId, @Param("cursor") KeysetCursor cursor, @Param("limit") int limit);
+    int countByUserId(@Param("userId") String userId);
     List<Post> findAll();
-    List<Post> findTimelineByUserIds(@Param("userIds") List<String> userIds);
+    List<Post> findTimelineByUserIds(@Param("userIds") List<String> userIds, @Param("limit") int limit);
+    List<PostWithUserDto> findTimelineWithUserByUserIds(@Param("userIds") List<String> userIds, @Param("limit") int limit);
+    List<PostWithUserDto> findNotFannedOutTimelineWithUserByFollowerId(@Param("followerId") String followerId, @Param("limit") int limit);
     void insert(Post post);
     void update(Post post);
+    void markNotFannedOut(@Param("id") String id);
     void deleteById(@Param("id") String id);
 }
\ No newline at end of file
@@ -1,12 +1,20 @@
 package com.example.demo.infrastructure.datasource;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Repository;
 
+import com.example.demo.application.directory.UserDirectory;
+import com.example.demo.common.KeysetCursor;
 import com.example.demo.domain.model.User;
 import com.example.demo.domain.model.UserRepository;
+import com.example.demo.infrastructure.search.UserFuzzyIndex;
+import com.example.demo.infrastructure.search.UserNameIndex;
+import com.example.demo.infrastructure.search.UserPrefixIndex;
+import com.example.demo.util.TransactionUtil;
 
 import lombok.RequiredArgsConstructor;
 
@@ -14,6 +22,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class UserDatasourceImpl implements UserRepository {
     private final UserMapper userMapper;
+    private final UserNameIndex userNameIndex;
+    private final UserPrefixIndex userPrefixIndex;
+    private final UserFuzzyIndex userFuzzyIndex;
+    // ユーザー一覧は UserRepository を使って読み直すため、循環しないよう使うときに取得する
+    private final ObjectProvider<UserDirectory> userDirectory;
 
     @Override
     public Optional<User> findById(String id) {
@@ -25,11 +38,24 @@ public class UserDatasourceImpl implements UserRepository {
         return userMapper.findByUsername(username);
     }
 
+    @Override
+    public List<User> findByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userMapper.findByIds(ids);
+    }
+
     @Override
     public List<User> findAll() {
         return userMapper.findAll();
     }
 
+    @Override
+    public List<KeysetCursor> findDirectoryKeys(KeysetCursor after, int limit) {
+        return userMapper.findDirectoryKeys(after, limit);
+    }
+
     @Override
     public List<User> searchByDisplayName(String keyword) {
         return userMapper.searchByDisplayName(keyword);
@@ -37,16 +63,33 @@ public class UserDatasourceImpl implements UserRepository {
 
     @Override
     public User save(User user) {
-        if (user.getId() == null || user.getId().getValue() == null) {
+        boolean inserted = user.getId() == null || user.getId().getValue() == null;
+        if (inserted) {
             userMapper.insert(user);
         } else {
             userMapper.update(user);
         }
+        // 表示名・ユーザー名の索引はコミット後に反映する
+        TransactionUtil.afterCommit(() -> {
+            userNameIndex.put(user);
+            userPrefixIndex.put(user);
+            userFuzzyIndex.put(user);
+            // ユーザー一覧の並びが変わるのは登録時だけ
+            if (inserted) {
+                userDirectory.getObject().refresh();
+            }
+        });
         return user;
     }
 
     @Override
     public void deleteById(String id) {
         userMapper.deleteById(id);
+        TransactionUtil.afterCommit(() -> {
+            userNameIndex.remove(id);
+            userPrefixIndex.remove(id);
+            userFuzzyIndex.remove(id);
+            userDirectory.getObject().refresh();
+        });
     }
 }
\ No newline at end of file
@@ -1,18 +1,22 @@
 package com.example.demo.infrastructure.datasource;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import com.example.demo.common.KeysetCursor;
 import com.example.demo.domain.model.User;
 
 @Mapper
 public interface UserMapper {
     Optional<User> findById(@Param("id") String id);
     Optional<User> findByUsername(@Param("username") String username);
+    List<User> findByIds(@Param("ids") Collection<String> ids);
     List<User> findAll();
+    List<KeysetCursor> findDirectoryKeys(@Param("cursor") KeysetCursor cursor, @Param("limit") int limit);
     List<User> searchByDisplayName(@Param("keyword") String keyword);
     void insert(User user);
     void update(User user);
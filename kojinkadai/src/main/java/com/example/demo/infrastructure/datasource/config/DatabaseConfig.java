@@ -6,19 +6,23 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.JdbcUserDetailsManager;
 import org.springframework.security.provisioning.UserDetailsManager;
 
+import com.example.demo.infrastructure.datasource.AppUserDetailsManager;
+import com.example.demo.infrastructure.datasource.UserMapper;
+
 import lombok.RequiredArgsConstructor;
 
 @Configuration
 @RequiredArgsConstructor
 public class DatabaseConfig {
   private final DataSource dataSource;
+  private final UserMapper userMapper;
 
   @Bean
   public UserDetailsManager userDetailsManager() {
-    return new JdbcUserDetailsManager(dataSource);
+    // ログイン時にAPP_USERSのIDと表示項目を持つプリンシパルを発行する
+    return new AppUserDetailsManager(dataSource, userMapper);
   }
 
   @Bean
@@ -0,0 +1,144 @@
+package com.example.demo.infrastructure.graph;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 圧縮行形式（CSR）の有向グラフ
+ *
+ * 頂点uの隣接先は targets[offsets[u]] から targets[offsets[u + 1] - 1] までに昇順で並びます。
+ * 辺ごとのオブジェクトやボクシングを持たず、int配列2本だけで表現する不変オブジェクトです。
+ */
+final class CsrGraph {
+    static final CsrGraph EMPTY = new CsrGraph(new int[1], new int[0]);
+
+    private static final int[] NO_NEIGHBORS = new int[0];
+
+    private final int[] offsets;
+    private final int[] targets;
+
+    private CsrGraph(int[] offsets, int[] targets) {
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * 辺の一覧からグラフを構築（計数ソートで行ごとに振り分けた後、各行を昇順に整列）
+     *
+     * @param sources 各辺の始点
+     * @param destinations 各辺の終点
+     * @param edgeCount 辺の数（配列の先頭からこの数だけを使う）
+     * @param nodeCount 頂点数（全ての頂点番号より大きい値）
+     * @return 構築したグラフ
+     */
+    static CsrGraph build(int[] sources, int[] destinations, int edgeCount, int nodeCount) {
+        int[] offsets = new int[nodeCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[sources[i] + 1]++;
+        }
+        for (int u = 0; u < nodeCount; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        int[] cursor = Arrays.copyOf(offsets, nodeCount);
+        int[] targets = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            targets[cursor[sources[i]]++] = destinations[i];
+        }
+        for (int u = 0; u < nodeCount; u++) {
+            Arrays.sort(targets, offsets[u], offsets[u + 1]);
+        }
+        return new CsrGraph(offsets, targets);
+    }
+
+    /**
+     * 行ごとに振り分け済みの配列からグラフを作成（各行を昇順に整列し、配列はそのまま保持する）
+     *
+     * @param offsets 行の開始位置（長さは頂点数 + 1）
+     * @param targets 隣接先
+     * @return 作成したグラフ
+     */
+    static CsrGraph fromRows(int[] offsets, int[] targets) {
+        int nodeCount = offsets.length - 1;
+        for (int u = 0; u < nodeCount; u++) {
+            Arrays.sort(targets, offsets[u], offsets[u + 1]);
+        }
+        return new CsrGraph(offsets, targets);
+    }
+
+    int nodeCount() {
+        return offsets.length - 1;
+    }
+
+    int edgeCount() {
+        return targets.length;
+    }
+
+    int degree(int u) {
+        if (u < 0 || u >= nodeCount()) {
+            return 0;
+        }
+        return offsets[u + 1] - offsets[u];
+    }
+
+    boolean contains(int u, int v) {
+        if (u < 0 || u >= nodeCount()) {
+            return false;
+        }
+        return Arrays.binarySearch(targets, offsets[u], offsets[u + 1], v) >= 0;
+    }
+
+    /**
+     * 頂点uの隣接先（昇順）
+     */
+    int[] neighbors(int u) {
+        if (u < 0 || u >= nodeCount()) {
+            return NO_NEIGHBORS;
+        }
+        return Arrays.copyOfRange(targets, offsets[u], offsets[u + 1]);
+    }
+
+    /**
+     * 頂点uの隣接先を走査（配列のコピーを作らない）
+     */
+    void forEachNeighbor(int u, IntConsumer action) {
+        if (u < 0 || u >= nodeCount()) {
+            return;
+        }
+        for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+            action.accept(targets[i]);
+        }
+    }
+
+    /**
+     * 頂点uの隣接先vについて values[v] の合計を求める
+     */
+    double sumOverNeighbors(int u, double[] values) {
+        if (u < 0 || u >= nodeCount()) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+            sum += values[targets[i]];
+        }
+        return sum;
+    }
+
+    /**
+     * 隣接先として現れる回数を頂点ごとに数える（逆向きのグラフでは元の向きの出次数になる）
+     *
+     * @param counts 頂点ごとの回数を加算する配列
+     */
+    void countTargets(int[] counts) {
+        for (int target : targets) {
+            counts[target]++;
+        }
+    }
+
+    /**
+     * 概算メモリ使用量（バイト）
+     */
+    long estimatedBytes() {
+        return 4L * offsets.length + 4L * targets.length;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.infrastructure.graph;
+
+import java.util.Arrays;
+
+/**
+ * CSRグラフ構築用の辺の一時バッファ（始点・終点をそれぞれint配列で保持）
+ *
+ * 両方向のグラフは同じ頂点数で構築します（隣接先の頂点番号が頂点数を超えないようにするため）。
+ */
+final class EdgeBuffer {
+    private int[] sources;
+    private int[] destinations;
+    private int size;
+    private int maxNode = -1;
+
+    EdgeBuffer(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        this.sources = new int[capacity];
+        this.destinations = new int[capacity];
+    }
+
+    void add(int source, int destination) {
+        if (size == sources.length) {
+            int capacity = sources.length + (sources.length >> 1);
+            sources = Arrays.copyOf(sources, capacity);
+            destinations = Arrays.copyOf(destinations, capacity);
+        }
+        sources[size] = source;
+        destinations[size] = destination;
+        size++;
+        maxNode = Math.max(maxNode, Math.max(source, destination));
+    }
+
+    /**
+     * 始点→終点の向きのグラフを構築
+     */
+    CsrGraph toOutGraph() {
+        return CsrGraph.build(sources, destinations, size, maxNode + 1);
+    }
+
+    /**
+     * 終点→始点の向き（逆向き）のグラフを構築
+     */
+    CsrGraph toInGraph() {
+        return CsrGraph.build(destinations, sources, size, maxNode + 1);
+    }
+}
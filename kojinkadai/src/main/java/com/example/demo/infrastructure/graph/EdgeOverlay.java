@@ -0,0 +1,134 @@
+package com.example.demo.infrastructure.graph;
+
+import java.util.Arrays;
+
+/**
+ * CSRグラフに対する差分（前回の構築・圧縮以降に変更された辺）
+ *
+ * 辺(u, v)を上位32ビットにu、下位32ビットにvを詰めたlongで表し、
+ * 「存在するべき辺」と「存在しないべき辺」をそれぞれ昇順のlong配列で持ちます。
+ * 変更された辺は最新の状態だけを記録し、土台のグラフに一致するかどうかに関わらず残すため、
+ * 土台を新しいグラフに差し替えた後もrebaseで正しく差分を引き継げます。
+ * 不変オブジェクトで、変更のたびに新しいインスタンスを返します（差分は圧縮により小さく保たれる前提です）。
+ */
+final class EdgeOverlay {
+    static final EdgeOverlay EMPTY = new EdgeOverlay(new long[0], new long[0]);
+
+    private final long[] added;
+    private final long[] removed;
+
+    private EdgeOverlay(long[] added, long[] removed) {
+        this.added = added;
+        this.removed = removed;
+    }
+
+    static long key(int u, int v) {
+        return ((long) u << 32) | (v & 0xFFFFFFFFL);
+    }
+
+    static int source(long key) {
+        return (int) (key >>> 32);
+    }
+
+    static int target(long key) {
+        return (int) key;
+    }
+
+    boolean isEmpty() {
+        return added.length == 0 && removed.length == 0;
+    }
+
+    int size() {
+        return added.length + removed.length;
+    }
+
+    /**
+     * 辺の状態を記録した新しい差分を返す
+     *
+     * @param present 辺が存在するべきならtrue
+     */
+    EdgeOverlay with(int u, int v, boolean present) {
+        long key = key(u, v);
+        return present
+            ? new EdgeOverlay(insert(added, key), delete(removed, key))
+            : new EdgeOverlay(delete(added, key), insert(removed, key));
+    }
+
+    boolean isAdded(int u, int v) {
+        return Arrays.binarySearch(added, key(u, v)) >= 0;
+    }
+
+    boolean isRemoved(int u, int v) {
+        return Arrays.binarySearch(removed, key(u, v)) >= 0;
+    }
+
+    /**
+     * 頂点uについて「存在するべき」と記録された辺の終点（昇順）
+     */
+    int[] addedTargets(int u) {
+        return targetsOf(added, u);
+    }
+
+    /**
+     * 頂点uについて「存在しないべき」と記録された辺の終点（昇順）
+     */
+    int[] removedTargets(int u) {
+        return targetsOf(removed, u);
+    }
+
+    long[] addedKeys() {
+        return added;
+    }
+
+    /**
+     * 新しい土台のグラフと一致する記録を取り除いた差分を返す
+     */
+    EdgeOverlay rebase(CsrGraph base) {
+        long[] keptAdded = Arrays.stream(added)
+            .filter(key -> !base.contains(source(key), target(key)))
+            .toArray();
+        long[] keptRemoved = Arrays.stream(removed)
+            .filter(key -> base.contains(source(key), target(key)))
+            .toArray();
+        return new EdgeOverlay(keptAdded, keptRemoved);
+    }
+
+    private static int[] targetsOf(long[] keys, int u) {
+        int from = lowerBound(keys, key(u, 0));
+        int to = lowerBound(keys, key(u + 1, 0));
+        int[] targets = new int[to - from];
+        for (int i = from; i < to; i++) {
+            targets[i - from] = target(keys[i]);
+        }
+        return targets;
+    }
+
+    private static int lowerBound(long[] keys, long key) {
+        int index = Arrays.binarySearch(keys, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static long[] insert(long[] keys, long key) {
+        int index = Arrays.binarySearch(keys, key);
+        if (index >= 0) {
+            return keys;
+        }
+        int at = -index - 1;
+        long[] result = new long[keys.length + 1];
+        System.arraycopy(keys, 0, result, 0, at);
+        result[at] = key;
+        System.arraycopy(keys, at, result, at + 1, keys.length - at);
+        return result;
+    }
+
+    private static long[] delete(long[] keys, long key) {
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            return keys;
+        }
+        long[] result = new long[keys.length - 1];
+        System.arraycopy(keys, 0, result, 0, index);
+        System.arraycopy(keys, index + 1, result, index, keys.length - index - 1);
+        return result;
+    }
+}
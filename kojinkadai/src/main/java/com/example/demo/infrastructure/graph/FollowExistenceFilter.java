@@ -0,0 +1,202 @@
+package com.example.demo.infrastructure.graph;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.FollowFilterProperties;
+import com.example.demo.constants.AppConstants;
+import com.example.demo.util.BlockedBloomFilter;
+import com.example.demo.util.TransactionUtil;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * フォロー関係（フォローする人, フォローされる人）のBloomフィルタ
+ *
+ * フォローグラフを使わない構成や読み込み完了前に、「フォローしていない」ことが確実な問い合わせをDBへ流さないために使います。
+ * 起動時にFOLLOWSから構築し、フォロー時に追加します。Bloomフィルタは削除できないため、フォロー解除は反映されず
+ * 偽陽性（DBへ問い合わせる）として扱われるだけです。
+ * 見積もりの偽陽性率が目標の2倍を超えた場合は、FOLLOWSから作り直します。
+ *
+ * 追加はコミットを待たずに行い、コミット後にもう一度行います。ロールバックされても偽陽性が1件増えるだけですが、
+ * コミット後にだけ追加するとコミットから追加までの間に「フォローしていない」と誤判定してしまうためです。
+ * コミット後の追加は、作り直しの読み込みに間に合わなかったフォローを構築中（または構築直後）のフィルタへ入れるためのものです。
+ * 作り直し中のフィルタの公開・切り替えと追加は読み書きロックで排他し、どちらのフィルタにも入らない追加が起きないようにします。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FollowExistenceFilter {
+    private static final String LOAD_EDGES_SQL = "SELECT FOLLOWER_ID, FOLLOWING_ID FROM FOLLOWS";
+    private static final String COUNT_EDGES_SQL = "SELECT COUNT(*) FROM FOLLOWS";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FollowFilterProperties followFilterProperties;
+
+    private final Object buildLock = new Object();
+    /** 追加（読み取りロック）と、フィルタの切り替え（書き込みロック）の排他 */
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder negatives = new LongAdder();
+
+    /** 問い合わせに使うフィルタ（構築が完了するまではnull） */
+    private volatile BlockedBloomFilter filter;
+    /** 構築中のフィルタ（構築中に行われたフォローも追加する） */
+    private volatile BlockedBloomFilter building;
+    private volatile long lastBuildMillis;
+
+    /**
+     * 起動完了時にFOLLOWSからフィルタを構築
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!followFilterProperties.isEnabled()) {
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * 見積もりの偽陽性率が目標の2倍を超えていればフィルタを作り直す
+     */
+    @Scheduled(fixedDelayString = "${app.follow-filter.check-interval-ms:600000}")
+    public void checkFalsePositiveRate() {
+        BlockedBloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        double estimated = current.estimatedFalsePositiveRate();
+        if (estimated > followFilterProperties.getFalsePositiveRate() * 2) {
+            log.info("フォロー関係のBloomフィルタを作り直します: estimatedFalsePositiveRate={}", estimated);
+            rebuild();
+        }
+    }
+
+    /**
+     * フォロー関係を追加（すぐに追加し、トランザクション中であればコミット後にもう一度追加する）
+     */
+    public void put(String followerId, String followingId) {
+        int follower = FollowGraph.toNode(followerId);
+        int following = FollowGraph.toNode(followingId);
+        if (follower < 0 || following < 0) {
+            return;
+        }
+        long key = key(follower, following);
+        put(key);
+        TransactionUtil.afterCommit(() -> put(key));
+    }
+
+    private void put(long key) {
+        swapLock.readLock().lock();
+        try {
+            BlockedBloomFilter current = filter;
+            if (current != null) {
+                current.put(key);
+            }
+            BlockedBloomFilter next = building;
+            if (next != null) {
+                next.put(key);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * フォローしていないことが確実かどうか
+     *
+     * @return trueならフォローしていない。falseの場合はフォローしているかどうか分からない（構築前・数値でないIDを含む）
+     */
+    public boolean definitelyNotFollowing(String followerId, String followingId) {
+        BlockedBloomFilter current = filter;
+        int follower = FollowGraph.toNode(followerId);
+        int following = FollowGraph.toNode(followingId);
+        if (current == null || follower < 0 || following < 0) {
+            return false;
+        }
+        checks.increment();
+        if (current.mightContain(key(follower, following))) {
+            return false;
+        }
+        negatives.increment();
+        return true;
+    }
+
+    /**
+     * 統計情報
+     */
+    public Map<String, Object> stats() {
+        BlockedBloomFilter current = filter;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ready", current != null);
+        result.put("checks", checks.sum());
+        result.put("negatives", negatives.sum());
+        result.put("targetFalsePositiveRate", followFilterProperties.getFalsePositiveRate());
+        if (current != null) {
+            result.put("insertions", current.insertions());
+            result.put("bits", current.bitSize());
+            result.put("estimatedBytes", current.bitSize() / 8);
+            result.put("hashFunctions", current.hashFunctions());
+            result.put("estimatedFalsePositiveRate", current.estimatedFalsePositiveRate());
+        }
+        result.put("lastBuildMillis", lastBuildMillis);
+        return result;
+    }
+
+    private void rebuild() {
+        synchronized (buildLock) {
+            long started = System.currentTimeMillis();
+            Long count = jdbcTemplate.queryForObject(COUNT_EDGES_SQL, Long.class);
+            long expected = Math.max(followFilterProperties.getExpectedInsertions(), (count != null ? count : 0) * 2);
+            BlockedBloomFilter next = BlockedBloomFilter.create(expected, followFilterProperties.getFalsePositiveRate());
+            // 読み込みの開始前に公開し、読み込み中にコミットされたフォローも追加されるようにする
+            setBuilding(next);
+            try {
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(
+                        LOAD_EDGES_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(AppConstants.Follow.GRAPH_LOAD_FETCH_SIZE);
+                    return ps;
+                }, (RowCallbackHandler) rs -> next.put(key(rs.getInt(1), rs.getInt(2))));
+                swapLock.writeLock().lock();
+                try {
+                    filter = next;
+                    building = null;
+                } finally {
+                    swapLock.writeLock().unlock();
+                }
+            } finally {
+                setBuilding(null);
+            }
+            lastBuildMillis = System.currentTimeMillis() - started;
+            log.info("フォロー関係のBloomフィルタを構築しました: insertions={}, bits={}, hashFunctions={}, elapsedMs={}",
+                next.insertions(), next.bitSize(), next.hashFunctions(), lastBuildMillis);
+        }
+    }
+
+    private void setBuilding(BlockedBloomFilter next) {
+        swapLock.writeLock().lock();
+        try {
+            building = next;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private static long key(int follower, int following) {
+        return ((long) follower << 32) | (following & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.demo.infrastructure.graph;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.FollowGraphProperties;
+import com.example.demo.constants.AppConstants;
+import com.example.demo.util.TransactionUtil;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * メモリ上のフォローグラフ
+ *
+ * 起動時にFOLLOWSを読み込み、フォローする向き（follower → following）と
+ * フォローされる向き（following → follower）の2つのCSRグラフとして保持します。
+ * 頂点番号にはユーザーIDをそのまま使います。
+ * 起動後のフォロー・フォロー解除はコミット後に小さな差分（EdgeOverlay）へ記録し、
+ * 一定間隔（app.follow-graph.compact-interval-ms）で土台のグラフへ取り込みます。
+ *
+ * 読み取りはロックを取らず、volatileなスナップショットを参照するだけです。
+ * 書き込みはスナップショットを差し替える短い同期区間のみで、グラフの再構築は同期区間の外で行います。
+ * 読み込みが完了するまではisReadyがfalseを返すため、呼び出し側はDBへ問い合わせてください。
+ * app.follow-graph.enabled がfalseの場合は読み込みも記録も行わず、isReadyは常にfalseです。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FollowGraph {
+    private static final String LOAD_EDGES_SQL = "SELECT FOLLOWER_ID, FOLLOWING_ID FROM FOLLOWS";
+    private static final String COUNT_EDGES_SQL = "SELECT COUNT(*) FROM FOLLOWS";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FollowGraphProperties followGraphProperties;
+
+    private final Object writeLock = new Object();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean ready;
+    private volatile long lastBuildMillis;
+
+    /**
+     * 起動完了時にFOLLOWSを読み込んでグラフを構築
+     * 読み込み中に行われたフォロー操作は差分として記録されており、構築後のグラフに引き継がれます。
+     * フォロー関係を全件たどる他の起動時処理がグラフを使えるよう、最初に実行します。
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!followGraphProperties.isEnabled()) {
+            log.info("フォローグラフは無効です");
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Integer expected = jdbcTemplate.queryForObject(COUNT_EDGES_SQL, Integer.class);
+        EdgeBuffer edges = new EdgeBuffer(expected != null ? expected : 0);
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                LOAD_EDGES_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(AppConstants.Follow.GRAPH_LOAD_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> edges.add(rs.getInt(1), rs.getInt(2)));
+
+        swap(edges.toOutGraph(), edges.toInGraph());
+        ready = true;
+        lastBuildMillis = System.currentTimeMillis() - started;
+        log.info("フォローグラフを読み込みました: edges={}, elapsedMs={}", snapshot.out.edgeCount(), lastBuildMillis);
+    }
+
+    /**
+     * 差分を土台のグラフへ取り込む
+     */
+    @Scheduled(fixedDelayString = "${app.follow-graph.compact-interval-ms:60000}")
+    public void compact() {
+        Snapshot current = snapshot;
+        if (!ready || current.outDelta.isEmpty()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        CsrGraph base = current.out;
+        EdgeOverlay delta = current.outDelta;
+
+        EdgeBuffer edges = new EdgeBuffer(base.edgeCount() + delta.size());
+        for (int u = 0; u < base.nodeCount(); u++) {
+            final int source = u;
+            base.forEachNeighbor(u, v -> {
+                if (!delta.isRemoved(source, v)) {
+                    edges.add(source, v);
+                }
+            });
+        }
+        for (long key : delta.addedKeys()) {
+            int u = EdgeOverlay.source(key);
+            int v = EdgeOverlay.target(key);
+            if (!base.contains(u, v)) {
+                edges.add(u, v);
+            }
+        }
+
+        swap(edges.toOutGraph(), edges.toInGraph());
+        lastBuildMillis = System.currentTimeMillis() - started;
+        log.debug("フォローグラフの差分を取り込みました: delta={}, elapsedMs={}", delta.size(), lastBuildMillis);
+    }
+
+    /**
+     * 読み込みが完了しているかどうか
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * ユーザーIDを頂点番号に変換
+     *
+     * @param userId ユーザーID
+     * @return 頂点番号（数値として扱えないIDの場合は-1）
+     */
+    public static int toNode(String userId) {
+        if (userId == null) {
+            return -1;
+        }
+        try {
+            int node = Integer.parseInt(userId);
+            return node >= 0 ? node : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * フォロー後に辺を追加（コミット後に反映）
+     */
+    public void onFollow(String followerId, String followingId) {
+        record(followerId, followingId, true);
+    }
+
+    /**
+     * フォロー解除後に辺を削除（コミット後に反映）
+     */
+    public void onUnfollow(String followerId, String followingId) {
+        record(followerId, followingId, false);
+    }
+
+    public boolean isFollowing(int follower, int following) {
+        Snapshot s = snapshot;
+        if (s.outDelta.isAdded(follower, following)) {
+            return true;
+        }
+        if (s.outDelta.isRemoved(follower, following)) {
+            return false;
+        }
+        return s.out.contains(follower, following);
+    }
+
+    /**
+     * フォローしているユーザーの頂点番号（昇順とは限らない）
+     */
+    public int[] following(int follower) {
+        Snapshot s = snapshot;
+        return neighbors(s.out, s.outDelta, follower);
+    }
+
+    /**
+     * フォロワーの頂点番号（昇順とは限らない）
+     */
+    public int[] followers(int following) {
+        Snapshot s = snapshot;
+        return neighbors(s.in, s.inDelta, following);
+    }
+
+    public int followingCount(int follower) {
+        Snapshot s = snapshot;
+        return degree(s.out, s.outDelta, follower);
+    }
+
+    public int followerCount(int following) {
+        Snapshot s = snapshot;
+        return degree(s.in, s.inDelta, following);
+    }
+
+    /**
+     * 最後に取り込んだ時点のフォローされる向きのグラフ（まだ取り込んでいない差分は含まない）
+     * グラフ全体を対象にする集計処理が、グラフを作り直さずに使うためのものです。
+     */
+    CsrGraph baseFollowerGraph() {
+        return snapshot.in;
+    }
+
+    /**
+     * 統計情報
+     */
+    public Map<String, Object> stats() {
+        Snapshot s = snapshot;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ready", ready);
+        result.put("nodes", Math.max(s.out.nodeCount(), s.in.nodeCount()));
+        result.put("edges", s.out.edgeCount());
+        result.put("deltaEdges", s.outDelta.size());
+        result.put("estimatedBytes", s.out.estimatedBytes() + s.in.estimatedBytes());
+        result.put("lastBuildMillis", lastBuildMillis);
+        return result;
+    }
+
+    private void record(String followerId, String followingId, boolean present) {
+        int follower = toNode(followerId);
+        int following = toNode(followingId);
+        if (!followGraphProperties.isEnabled() || follower < 0 || following < 0) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> {
+            synchronized (writeLock) {
+                Snapshot s = snapshot;
+                snapshot = new Snapshot(s.out, s.in,
+                    s.outDelta.with(follower, following, present),
+                    s.inDelta.with(following, follower, present));
+            }
+        });
+    }
+
+    /**
+     * 土台のグラフを差し替え、差し替え前に記録された差分のうち新しい土台に含まれないものを引き継ぐ
+     */
+    private void swap(CsrGraph out, CsrGraph in) {
+        synchronized (writeLock) {
+            Snapshot s = snapshot;
+            snapshot = new Snapshot(out, in, s.outDelta.rebase(out), s.inDelta.rebase(in));
+        }
+    }
+
+    private static int[] neighbors(CsrGraph base, EdgeOverlay delta, int u) {
+        int[] row = base.neighbors(u);
+        if (delta.isEmpty()) {
+            return row;
+        }
+        int[] added = delta.addedTargets(u);
+        int[] result = new int[row.length + added.length];
+        int size = 0;
+        for (int v : row) {
+            if (!delta.isRemoved(u, v)) {
+                result[size++] = v;
+            }
+        }
+        for (int v : added) {
+            if (!base.contains(u, v)) {
+                result[size++] = v;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static int degree(CsrGraph base, EdgeOverlay delta, int u) {
+        int degree = base.degree(u);
+        if (delta.isEmpty()) {
+            return degree;
+        }
+        for (int v : delta.removedTargets(u)) {
+            if (base.contains(u, v)) {
+                degree--;
+            }
+        }
+        for (int v : delta.addedTargets(u)) {
+            if (!base.contains(u, v)) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * ある時点のグラフ全体（土台のグラフ + 差分）。不変オブジェクトとして丸ごと差し替える。
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(CsrGraph.EMPTY, CsrGraph.EMPTY, EdgeOverlay.EMPTY, EdgeOverlay.EMPTY);
+
+        final CsrGraph out;
+        final CsrGraph in;
+        final EdgeOverlay outDelta;
+        final EdgeOverlay inDelta;
+
+        Snapshot(CsrGraph out, CsrGraph in, EdgeOverlay outDelta, EdgeOverlay inDelta) {
+            this.out = out;
+            this.in = in;
+            this.outDelta = outDelta;
+            this.inDelta = inDelta;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.demo.infrastructure.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.config.FollowPathProperties;
+import com.example.demo.domain.model.FollowPathRepository;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * メモリ上のフォローグラフを双方向の幅優先探索でたどるFollowPathRepository実装
+ *
+ * 起点からはフォローする向き、終点からはフォローされる向きに、その時点で小さい方の探索範囲を1段ずつ広げ、
+ * 両方の訪問済み集合が出会ったところで最短経路とします。訪問済み集合はユーザーIDを添字にしたBitSetで持ち、
+ * 経路は段ごとの頂点の配列（昇順）から逆にたどって復元するため、親への対応表は持ちません。
+ * 探索するステップ数（app.follow-path.max-depth）と訪問するユーザー数（app.follow-path.max-visited）には上限があり、
+ * 結果は起点と終点の組ごとに短時間キャッシュします。グラフの読み込みが完了するまでは経路なしとして扱います。
+ */
+@Repository
+public class GraphFollowPathRepository implements FollowPathRepository {
+    private static final int[] NO_PATH = new int[0];
+
+    private final FollowGraph followGraph;
+    private final FollowPathProperties followPathProperties;
+    private final Cache<Long, int[]> cache;
+
+    private final LongAdder searchCount = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAdder cappedCount = new LongAdder();
+
+    public GraphFollowPathRepository(FollowGraph followGraph, FollowPathProperties followPathProperties) {
+        this.followGraph = followGraph;
+        this.followPathProperties = followPathProperties;
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(followPathProperties.getCacheMaxSize())
+            .expireAfterWrite(followPathProperties.getCacheExpireSeconds(), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    }
+
+    @Override
+    public Optional<List<String>> findShortestPath(String fromUserId, String toUserId) {
+        int source = FollowGraph.toNode(fromUserId);
+        int target = FollowGraph.toNode(toUserId);
+        if (source < 0 || target < 0 || !followGraph.isReady()) {
+            return Optional.empty();
+        }
+        long key = ((long) source << 32) | target;
+        int[] path = cache.getIfPresent(key);
+        if (path == null) {
+            long started = System.nanoTime();
+            path = search(source, target);
+            searchCount.increment();
+            searchNanos.add(System.nanoTime() - started);
+            cache.put(key, path);
+        }
+        if (path.length == 0) {
+            return Optional.empty();
+        }
+        List<String> ids = new ArrayList<>(path.length);
+        for (int node : path) {
+            ids.add(Integer.toString(node));
+        }
+        return Optional.of(ids);
+    }
+
+    /**
+     * 統計情報
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.size());
+        result.put("hitCount", cache.stats().hitCount());
+        result.put("missCount", cache.stats().missCount());
+        long count = searchCount.sum();
+        result.put("searchCount", count);
+        result.put("cappedCount", cappedCount.sum());
+        result.put("averageSearchMicros", count == 0 ? 0 : searchNanos.sum() / count / 1000);
+        return result;
+    }
+
+    private int[] search(int source, int target) {
+        if (source == target) {
+            return new int[] {source};
+        }
+        Side forward = new Side(source, true);
+        Side backward = new Side(target, false);
+        int visited = 2;
+
+        for (int step = 0; step < followPathProperties.getMaxDepth(); step++) {
+            Side side = forward.frontier().length <= backward.frontier().length ? forward : backward;
+            Side other = side == forward ? backward : forward;
+            int depth = side.depth();
+
+            // 段全体を調べ、出会った頂点のうち経路が最も短くなるものを選ぶ
+            int bestLength = Integer.MAX_VALUE;
+            int meetFrom = -1;
+            int meetTo = -1;
+            int meetOtherDepth = -1;
+            int[] next = new int[16];
+            int nextSize = 0;
+            boolean capped = false;
+            for (int u : side.frontier()) {
+                for (int v : side.neighbors(u)) {
+                    if (other.visited.get(v)) {
+                        int otherDepth = other.depthOf(v);
+                        if (depth + 1 + otherDepth < bestLength) {
+                            bestLength = depth + 1 + otherDepth;
+                            meetFrom = u;
+                            meetTo = v;
+                            meetOtherDepth = otherDepth;
+                        }
+                    } else if (!capped && !side.visited.get(v)) {
+                        side.visited.set(v);
+                        if (nextSize == next.length) {
+                            next = Arrays.copyOf(next, nextSize * 2);
+                        }
+                        next[nextSize++] = v;
+                        capped = ++visited > followPathProperties.getMaxVisited();
+                    }
+                }
+            }
+
+            if (meetFrom >= 0) {
+                return side == forward
+                    ? join(forward, meetFrom, depth, backward, meetTo, meetOtherDepth)
+                    : join(forward, meetTo, meetOtherDepth, backward, meetFrom, depth);
+            }
+            if (capped) {
+                cappedCount.increment();
+                return NO_PATH;
+            }
+            if (nextSize == 0) {
+                return NO_PATH;
+            }
+            side.addLevel(Arrays.copyOf(next, nextSize));
+        }
+        return NO_PATH;
+    }
+
+    /**
+     * 起点側の頂点（forwardNode）と終点側の頂点（backwardNode）を結ぶ辺を挟んで、両側の経路を段から復元して連結
+     */
+    private int[] join(Side forward, int forwardNode, int forwardDepth, Side backward, int backwardNode, int backwardDepth) {
+        int[] path = new int[forwardDepth + backwardDepth + 2];
+        int current = forwardNode;
+        path[forwardDepth] = current;
+        for (int level = forwardDepth - 1; level >= 0; level--) {
+            current = forward.predecessor(level, current);
+            if (current < 0) {
+                return NO_PATH;
+            }
+            path[level] = current;
+        }
+        current = backwardNode;
+        path[forwardDepth + 1] = current;
+        for (int level = backwardDepth - 1; level >= 0; level--) {
+            current = backward.predecessor(level, current);
+            if (current < 0) {
+                return NO_PATH;
+            }
+            path[path.length - 1 - level] = current;
+        }
+        return path;
+    }
+
+    /**
+     * 片側の探索状態（訪問済み集合と、段ごとの頂点の昇順配列）
+     */
+    private final class Side {
+        final BitSet visited = new BitSet();
+        final List<int[]> levels = new ArrayList<>();
+        /** trueならフォローする向き（起点側）、falseならフォローされる向き（終点側）にたどる */
+        final boolean outgoing;
+
+        Side(int start, boolean outgoing) {
+            this.outgoing = outgoing;
+            visited.set(start);
+            levels.add(new int[] {start});
+        }
+
+        int depth() {
+            return levels.size() - 1;
+        }
+
+        int[] frontier() {
+            return levels.get(levels.size() - 1);
+        }
+
+        int[] neighbors(int u) {
+            return outgoing ? followGraph.following(u) : followGraph.followers(u);
+        }
+
+        void addLevel(int[] nodes) {
+            Arrays.sort(nodes);
+            levels.add(nodes);
+        }
+
+        int depthOf(int node) {
+            for (int level = 0; level < levels.size(); level++) {
+                if (Arrays.binarySearch(levels.get(level), node) >= 0) {
+                    return level;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * 指定した段のうち、nodeと辺でつながる頂点（起点側なら node をフォローしている頂点、終点側なら node がフォローしている頂点）
+         */
+        int predecessor(int level, int node) {
+            for (int candidate : levels.get(level)) {
+                boolean connected = outgoing
+                    ? followGraph.isFollowing(candidate, node)
+                    : followGraph.isFollowing(node, candidate);
+                if (connected) {
+                    return candidate;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.demo.infrastructure.graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.common.KeysetCursor;
+import com.example.demo.domain.model.Follow;
+import com.example.demo.domain.model.FollowRepository;
+import com.example.demo.infrastructure.datasource.FollowDatasourceImpl;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * メモリ上のフォローグラフを使うFollowRepository実装
+ *
+ * フォロー関係の有無・フォロー中のID一覧・件数の問い合わせはFollowGraphから返し、DBへは問い合わせません。
+ * フォロー日時が必要なFollowオブジェクトの取得と、追加・削除はFollowDatasourceImplに委譲します。
+ * 追加・削除はFollowGraphにも記録し、コミット後にグラフへ反映します。
+ * グラフの読み込みが完了するまで、または数値として扱えないIDが渡された場合もDBへ問い合わせます。
+ * その際、フォロー関係の有無の問い合わせはFollowExistenceFilterで「フォローしていない」ことが確実なものを除いてから行います。
+ */
+@Primary
+@Repository
+@RequiredArgsConstructor
+public class GraphFollowRepository implements FollowRepository {
+    private final FollowDatasourceImpl delegate;
+    private final FollowGraph followGraph;
+    private final FollowExistenceFilter followExistenceFilter;
+
+    @Override
+    public Optional<Follow> findByFollowerIdAndFollowingId(String followerId, String followingId) {
+        return delegate.findByFollowerIdAndFollowingId(followerId, followingId);
+    }
+
+    @Override
+    public List<Follow> findByFollowerId(String followerId) {
+        return delegate.findByFollowerId(followerId);
+    }
+
+    @Override
+    public List<Follow> findByFollowingId(String followingId) {
+        return delegate.findByFollowingId(followingId);
+    }
+
+    @Override
+    public List<Follow> findByFollowerId(String followerId, KeysetCursor after, int limit) {
+        return delegate.findByFollowerId(followerId, after, limit);
+    }
+
+    @Override
+    public List<Follow> findByFollowingId(String followingId, KeysetCursor after, int limit) {
+        return delegate.findByFollowingId(followingId, after, limit);
+    }
+
+    @Override
+    public List<String> findFollowingIdsByFollowerId(String followerId) {
+        int follower = FollowGraph.toNode(followerId);
+        if (!followGraph.isReady() || follower < 0) {
+            return delegate.findFollowingIdsByFollowerId(followerId);
+        }
+        return toIds(followGraph.following(follower));
+    }
+
+    @Override
+    public List<String> findFollowerIdsByFollowingId(String followingId) {
+        int following = FollowGraph.toNode(followingId);
+        if (!followGraph.isReady() || following < 0) {
+            return delegate.findFollowerIdsByFollowingId(followingId);
+        }
+        return toIds(followGraph.followers(following));
+    }
+
+    @Override
+    public List<String> findFollowingIdsAmong(String followerId, Collection<String> candidateIds) {
+        int follower = FollowGraph.toNode(followerId);
+        if (!followGraph.isReady() || follower < 0) {
+            List<String> maybeFollowing = new ArrayList<>(candidateIds.size());
+            for (String candidateId : candidateIds) {
+                if (!followExistenceFilter.definitelyNotFollowing(followerId, candidateId)) {
+                    maybeFollowing.add(candidateId);
+                }
+            }
+            return delegate.findFollowingIdsAmong(followerId, maybeFollowing);
+        }
+        List<String> ids = new ArrayList<>();
+        for (String candidateId : candidateIds) {
+            int following = FollowGraph.toNode(candidateId);
+            if (following >= 0 && followGraph.isFollowing(follower, following)) {
+                ids.add(candidateId);
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public int countByFollowerId(String followerId) {
+        int follower = FollowGraph.toNode(followerId);
+        if (!followGraph.isReady() || follower < 0) {
+            return delegate.countByFollowerId(followerId);
+        }
+        return followGraph.followingCount(follower);
+    }
+
+    @Override
+    public int countByFollowingId(String followingId) {
+        int following = FollowGraph.toNode(followingId);
+        if (!followGraph.isReady() || following < 0) {
+            return delegate.countByFollowingId(followingId);
+        }
+        return followGraph.followerCount(following);
+    }
+
+    @Override
+    public Follow save(Follow follow) {
+        followExistenceFilter.put(follow.getFollowerId().asString(), follow.getFollowingId().asString());
+        Follow saved = delegate.save(follow);
+        followGraph.onFollow(follow.getFollowerId().asString(), follow.getFollowingId().asString());
+        return saved;
+    }
+
+    @Override
+    public void delete(Follow follow) {
+        delegate.delete(follow);
+        followGraph.onUnfollow(follow.getFollowerId().asString(), follow.getFollowingId().asString());
+    }
+
+    @Override
+    public boolean existsByFollowerIdAndFollowingId(String followerId, String followingId) {
+        int follower = FollowGraph.toNode(followerId);
+        int following = FollowGraph.toNode(followingId);
+        if (!followGraph.isReady() || follower < 0 || following < 0) {
+            if (followExistenceFilter.definitelyNotFollowing(followerId, followingId)) {
+                return false;
+            }
+            return delegate.existsByFollowerIdAndFollowingId(followerId, followingId);
+        }
+        return followGraph.isFollowing(follower, following);
+    }
+
+    private static List<String> toIds(int[] nodes) {
+        List<String> ids = new ArrayList<>(nodes.length);
+        for (int node : nodes) {
+            ids.add(Integer.toString(node));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.demo.infrastructure.graph;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.InfluenceProperties;
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.InfluenceScoreRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * フォローグラフのPageRankによる影響力スコアの計算
+ *
+ * 一定間隔（app.influence.interval-ms）でFOLLOWS全体のPageRankを計算し、平均が1になるよう頂点数を掛けた値を
+ * APP_USERS.INFLUENCE に書き込みます。前回書き込んだ値からほとんど変わらないユーザーは書き込みません。
+ * メモリ上のフォローグラフが読み込み済みならそのCSRグラフをそのまま使い、そうでなければFOLLOWSを2回読んで
+ * フォローされる向きのCSRグラフだけを組み立てます（辺あたり4バイト）。
+ * 計算に必要なメモリの見積もりが app.influence.memory-budget-bytes を超える場合は計算しません。
+ * 反復ごとの所要時間は統計情報として参照できます。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InfluenceScorer implements InfluenceScoreRepository {
+    private static final String MAX_NODE_SQL =
+        "SELECT GREATEST(COALESCE(MAX(FOLLOWER_ID), -1), COALESCE(MAX(FOLLOWING_ID), -1)) FROM FOLLOWS";
+    private static final String COUNT_EDGES_SQL = "SELECT COUNT(*) FROM FOLLOWS";
+    private static final String LOAD_EDGES_SQL = "SELECT FOLLOWER_ID, FOLLOWING_ID FROM FOLLOWS";
+    private static final String UPDATE_INFLUENCE_SQL = "UPDATE APP_USERS SET INFLUENCE = ? WHERE ID = ?";
+
+    /** 頂点あたりのメモリ（PageRankの作業用 double 3本と int 1本、保持するスコアの double と書き込み済みの float） */
+    private static final long BYTES_PER_NODE = 3 * 8 + 4 + 8 + 4;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FollowGraph followGraph;
+    private final InfluenceProperties influenceProperties;
+
+    /** 最後に計算したスコア（頂点番号 = ユーザーID） */
+    private volatile double[] scores = new double[0];
+    /** 最後にDBへ書き込んだスコア（runの中でのみ使う） */
+    private float[] written = new float[0];
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    /**
+     * 起動完了時に計算（フォローグラフの読み込みより後に実行される）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        run();
+    }
+
+    /**
+     * PageRankを計算し、変化したユーザーの影響力スコアを書き込む
+     */
+    @Scheduled(fixedDelayString = "${app.influence.interval-ms:3600000}",
+               initialDelayString = "${app.influence.interval-ms:3600000}")
+    public synchronized void run() {
+        if (!influenceProperties.isEnabled()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+
+        CsrGraph followers;
+        String source;
+        if (followGraph.isReady()) {
+            followers = followGraph.baseFollowerGraph();
+            source = "followGraph";
+            if (!withinBudget(followers.nodeCount(), 0)) {
+                return;
+            }
+        } else {
+            Integer maxNode = jdbcTemplate.queryForObject(MAX_NODE_SQL, Integer.class);
+            Long edges = jdbcTemplate.queryForObject(COUNT_EDGES_SQL, Long.class);
+            int nodeCount = maxNode != null ? maxNode + 1 : 0;
+            // 行の開始位置と書き込み位置（int 2本）、隣接先（辺あたりint 1つ）
+            if (!withinBudget(nodeCount, 8L * nodeCount + 4L * (edges != null ? edges : 0))) {
+                return;
+            }
+            followers = loadFollowerGraph(nodeCount);
+            source = "database";
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(influenceProperties.getParallelism() > 0
+            ? influenceProperties.getParallelism()
+            : Runtime.getRuntime().availableProcessors());
+        PageRank.Result result;
+        try {
+            result = PageRank.compute(followers, pool, influenceProperties.getDamping(),
+                influenceProperties.getMaxIterations(), influenceProperties.getTolerance());
+        } finally {
+            pool.shutdown();
+        }
+
+        int n = result.ranks.length;
+        double[] scaled = new double[n];
+        for (int v = 0; v < n; v++) {
+            scaled[v] = result.ranks[v] * n;
+        }
+        int writtenRows = write(scaled);
+        scores = scaled;
+
+        long elapsed = System.currentTimeMillis() - started;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("source", source);
+        stats.put("nodes", n);
+        stats.put("edges", followers.edgeCount());
+        stats.put("iterations", result.iterationMillis.length);
+        stats.put("iterationMillis", Arrays.stream(result.iterationMillis).boxed().toList());
+        stats.put("delta", result.delta);
+        stats.put("writtenRows", writtenRows);
+        stats.put("elapsedMs", elapsed);
+        lastRun = stats;
+        log.info("影響力スコアを計算しました: nodes={}, edges={}, iterations={}, iterationMillis={}, writtenRows={}, elapsedMs={}",
+            n, followers.edgeCount(), result.iterationMillis.length, Arrays.toString(result.iterationMillis),
+            writtenRows, elapsed);
+    }
+
+    @Override
+    public double getInfluence(String userId) {
+        int node = FollowGraph.toNode(userId);
+        double[] current = scores;
+        return node >= 0 && node < current.length ? current[node] : 0;
+    }
+
+    /**
+     * 統計情報（最後の計算の頂点数・辺数・反復ごとの所要時間など）
+     */
+    public Map<String, Object> stats() {
+        return lastRun;
+    }
+
+    private boolean withinBudget(int nodeCount, long graphBytes) {
+        long estimated = BYTES_PER_NODE * nodeCount + graphBytes;
+        if (estimated > influenceProperties.getMemoryBudgetBytes()) {
+            log.warn("影響力スコアの計算に必要なメモリが上限を超えるため計算しません: estimatedBytes={}, budgetBytes={}",
+                estimated, influenceProperties.getMemoryBudgetBytes());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * FOLLOWSを2回読み、1回目でフォロワー数を数えて行の開始位置を決め、2回目でフォロワーを書き込む
+     * 2回の間にフォローが増減した場合は、1回目に数えた範囲に収まる分だけを使います。
+     */
+    private CsrGraph loadFollowerGraph(int nodeCount) {
+        int[] offsets = new int[nodeCount + 1];
+        streamEdges((follower, following) -> {
+            if (follower < nodeCount && following < nodeCount) {
+                offsets[following + 1]++;
+            }
+        });
+        for (int v = 0; v < nodeCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] cursor = Arrays.copyOf(offsets, nodeCount);
+        int[] targets = new int[offsets[nodeCount]];
+        streamEdges((follower, following) -> {
+            if (follower < nodeCount && following < nodeCount && cursor[following] < offsets[following + 1]) {
+                targets[cursor[following]++] = follower;
+            }
+        });
+
+        // 埋まらなかった位置を詰める
+        int size = 0;
+        for (int v = 0; v < nodeCount; v++) {
+            int start = offsets[v];
+            int filled = cursor[v] - start;
+            System.arraycopy(targets, start, targets, size, filled);
+            offsets[v] = size;
+            size += filled;
+        }
+        offsets[nodeCount] = size;
+        return CsrGraph.fromRows(offsets, size == targets.length ? targets : Arrays.copyOf(targets, size));
+    }
+
+    private void streamEdges(EdgeConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                LOAD_EDGES_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(AppConstants.Follow.GRAPH_LOAD_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getInt(1), rs.getInt(2)));
+    }
+
+    /**
+     * 前回書き込んだ値から変化したユーザーだけを一定件数ずつ書き込む
+     */
+    private int write(double[] values) {
+        float[] previous = written;
+        float[] next = Arrays.copyOf(previous, values.length);
+        List<Integer> batch = new ArrayList<>(AppConstants.Influence.WRITE_BATCH_SIZE);
+        int[] rows = {0};
+        IntConsumer flush = size -> {
+            jdbcTemplate.batchUpdate(UPDATE_INFLUENCE_SQL, batch, size, (ps, node) -> {
+                ps.setDouble(1, values[node]);
+                ps.setLong(2, node);
+            });
+            rows[0] += size;
+            batch.clear();
+        };
+        for (int v = 0; v < values.length; v++) {
+            if (v >= previous.length || Math.abs(values[v] - previous[v]) > AppConstants.Influence.WRITE_THRESHOLD) {
+                batch.add(v);
+                next[v] = (float) values[v];
+                if (batch.size() == AppConstants.Influence.WRITE_BATCH_SIZE) {
+                    flush.accept(batch.size());
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush.accept(batch.size());
+        }
+        written = next;
+        return rows[0];
+    }
+
+    @FunctionalInterface
+    private interface EdgeConsumer {
+        void accept(int follower, int following);
+    }
+}
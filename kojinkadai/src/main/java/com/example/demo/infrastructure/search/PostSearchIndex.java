@@ -0,0 +1,607 @@
+package com.example.demo.infrastructure.search;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.PostSearchProperties;
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.Post;
+import com.example.demo.domain.model.PostSearchRepository;
+import com.example.demo.domain.model.PostSearchResult;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 投稿本文の転置索引とBM25による全文検索（PostSearchRepository実装）
+ *
+ * 本文をPostTokenizerでトークンに分け、トークンごとに「投稿IDの差分と出現回数」を可変長整数で詰めた
+ * バイト列（圧縮したポスティングリスト）を保持します。検索はキーワードのトークンをすべて含む投稿に絞り込み、
+ * BM25で点数を付けて高い順（同じ点数なら新しい順）に返します。POSTSテーブルを読むのは起動時の構築だけです。
+ *
+ * 起動後の作成・更新・削除はコミット後に差分（Delta）へ記録し、差分に記録した投稿は土台の索引では
+ * 無かったものとして扱います。一定間隔（app.post-search.compact-interval-ms）で差分を土台の索引へ取り込みます。
+ * 取り込み中の変更は新しい差分に記録するため、取り込みで書き込みが止まることはありません。
+ * BM25の文書数と平均の長さは、差分を含めた概算値を使います。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostSearchIndex implements PostSearchRepository {
+    private static final String LOAD_POSTS_SQL = "SELECT ID, CONTENT FROM POSTS ORDER BY ID";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostSearchProperties postSearchProperties;
+
+    private final Object writeLock = new Object();
+
+    private volatile State state = new State(Base.EMPTY, null, new Delta());
+    private volatile boolean ready;
+
+    private final LongAdder searchCount = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAdder matchCount = new LongAdder();
+    private volatile long lastBuildMillis;
+
+    /**
+     * 起動完了時にPOSTSから土台の索引を構築
+     * 構築中の変更は差分に記録されており、構築後の索引より優先されます。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.currentTimeMillis();
+        Map<String, PostingWriter> writers = new HashMap<>();
+        int[][] lengths = {new int[1024]};
+        long[] totals = {0, 0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                LOAD_POSTS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(AppConstants.Search.INDEX_LOAD_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            int id = rs.getInt(1);
+            PostTokenizer.Tokens tokens = PostTokenizer.tokenize(rs.getString(2));
+            // IDの昇順に読むため、各ポスティングリストには末尾への追加だけが起きる
+            tokens.frequencies().forEach((term, tf) ->
+                writers.computeIfAbsent(term, key -> new PostingWriter()).add(id, tf));
+            if (id >= lengths[0].length) {
+                lengths[0] = Arrays.copyOf(lengths[0], Math.max(id + 1, lengths[0].length * 2));
+            }
+            lengths[0][id] = tokens.length();
+            if (tokens.length() > 0) {
+                totals[0]++;
+                totals[1] += tokens.length();
+            }
+        });
+        Base built = Base.of(writers, lengths[0], (int) totals[0], totals[1]);
+
+        synchronized (writeLock) {
+            State current = state;
+            state = new State(built, current.frozen, current.active);
+            ready = true;
+        }
+        lastBuildMillis = System.currentTimeMillis() - started;
+        log.info("投稿検索の索引を構築しました: posts={}, terms={}, elapsedMs={}",
+            built.docCount, built.terms.size(), lastBuildMillis);
+    }
+
+    /**
+     * 差分を土台の索引へ取り込む
+     */
+    @Scheduled(fixedDelayString = "${app.post-search.compact-interval-ms:60000}")
+    public synchronized void compact() {
+        State frozen;
+        synchronized (writeLock) {
+            State current = state;
+            if (!ready || current.active.docs.isEmpty()) {
+                return;
+            }
+            // 以降の変更は新しい差分へ記録する
+            frozen = new State(current.base, current.active, new Delta());
+            state = frozen;
+        }
+        long started = System.currentTimeMillis();
+        Base merged = Base.merge(frozen.base, frozen.frozen);
+        synchronized (writeLock) {
+            state = new State(merged, null, state.active);
+        }
+        lastBuildMillis = System.currentTimeMillis() - started;
+        log.debug("投稿検索の索引に差分を取り込みました: delta={}, elapsedMs={}",
+            frozen.frozen.docs.size(), lastBuildMillis);
+    }
+
+    @Override
+    public void index(Post post) {
+        int id = parseId(post.getId());
+        if (id < 0) {
+            return;
+        }
+        PostTokenizer.Tokens tokens = PostTokenizer.tokenize(post.getContent().getValue());
+        synchronized (writeLock) {
+            state.active.put(id, new Doc(tokens.frequencies(), tokens.length()));
+        }
+    }
+
+    @Override
+    public void remove(String postId) {
+        int id = parseId(postId);
+        if (id < 0) {
+            return;
+        }
+        synchronized (writeLock) {
+            state.active.put(id, Doc.DELETED);
+        }
+    }
+
+    @Override
+    public PostSearchResult search(String query, String cursor, int limit) {
+        Cursor after = Cursor.parse(cursor);
+        Set<String> terms = PostTokenizer.queryTerms(query);
+        if (!ready || terms.isEmpty() || limit <= 0) {
+            return new PostSearchResult(List.of(), null);
+        }
+        long started = System.nanoTime();
+        State s = state;
+
+        List<Hits> hits = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Hits termHits = s.collect(term);
+            if (termHits.size == 0) {
+                return new PostSearchResult(List.of(), null);
+            }
+            hits.add(termHits);
+        }
+        hits.sort((x, y) -> Integer.compare(x.size, y.size));
+
+        // 文書数と平均の長さ（差分を含めた概算）
+        long docCount = Math.max(1, s.docCount());
+        double averageLength = Math.max(1.0, (double) s.totalLength() / docCount);
+        double k1 = postSearchProperties.getK1();
+        double b = postSearchProperties.getB();
+
+        // 出現する投稿の少ないトークンから順に、すべてのトークンを含む投稿に絞り込みながら点数を足す
+        Hits first = hits.get(0);
+        int[] docs = Arrays.copyOf(first.docs, first.size);
+        double[] scores = new double[first.size];
+        int size = first.size;
+        for (int t = 0; t < hits.size(); t++) {
+            Hits h = hits.get(t);
+            double idf = Math.log(1 + (docCount - h.size + 0.5) / (h.size + 0.5));
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = docs[i];
+                while (j < h.size && h.docs[j] < doc) {
+                    j++;
+                }
+                if (j == h.size) {
+                    break;
+                }
+                if (h.docs[j] == doc) {
+                    int tf = h.tfs[j];
+                    double norm = k1 * (1 - b + b * s.length(doc) / averageLength);
+                    docs[kept] = doc;
+                    scores[kept] = scores[i] + idf * tf * (k1 + 1) / (tf + norm);
+                    kept++;
+                }
+            }
+            size = kept;
+            if (size == 0) {
+                break;
+            }
+        }
+
+        // カーソルより後ろの投稿から上位 limit + 1 件を選ぶ（1件多く取って続きの有無を判定する）
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 2,
+            (x, y) -> compare(scores[x], docs[x], scores[y], docs[y]));
+        for (int i = 0; i < size; i++) {
+            if (after != null && compare(scores[i], docs[i], after.score, after.postId) >= 0) {
+                continue;
+            }
+            if (heap.size() <= limit) {
+                heap.add(i);
+            } else if (compare(scores[i], docs[i], scores[heap.peek()], docs[heap.peek()]) > 0) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        boolean hasNext = heap.size() > limit;
+        if (hasNext) {
+            heap.poll();
+        }
+        int[] page = new int[heap.size()];
+        for (int i = page.length - 1; i >= 0; i--) {
+            page[i] = heap.poll();
+        }
+        List<String> postIds = new ArrayList<>(page.length);
+        for (int index : page) {
+            postIds.add(Integer.toString(docs[index]));
+        }
+        String nextCursor = hasNext && page.length > 0
+            ? new Cursor(scores[page[page.length - 1]], docs[page[page.length - 1]]).format()
+            : null;
+
+        matchCount.add(size);
+        searchCount.increment();
+        searchNanos.add(System.nanoTime() - started);
+        return new PostSearchResult(postIds, nextCursor);
+    }
+
+    /**
+     * 統計情報
+     */
+    public Map<String, Object> stats() {
+        State s = state;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ready", ready);
+        result.put("posts", s.base.docCount);
+        result.put("terms", s.base.terms.size());
+        result.put("postingBytes", s.base.postingBytes);
+        result.put("deltaPosts", s.active.docs.size() + (s.frozen != null ? s.frozen.docs.size() : 0));
+        result.put("lastBuildMillis", lastBuildMillis);
+        long count = searchCount.sum();
+        result.put("searchCount", count);
+        result.put("averageMatches", count == 0 ? 0 : matchCount.sum() / count);
+        result.put("averageSearchMicros", count == 0 ? 0 : searchNanos.sum() / count / 1000);
+        return result;
+    }
+
+    /**
+     * 点数の高い順、同じ点数ならIDの大きい（新しい）順に並べたときの比較（前にあるものが大きい）
+     */
+    private static int compare(double score, int doc, double otherScore, int otherDoc) {
+        int byScore = Double.compare(score, otherScore);
+        return byScore != 0 ? byScore : Integer.compare(doc, otherDoc);
+    }
+
+    private static int parseId(String postId) {
+        if (postId == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(postId);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 続きを取得するためのカーソル（前のページの最後の投稿の点数とID）
+     */
+    private record Cursor(double score, int postId) {
+        static Cursor parse(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            int separator = cursor.indexOf('-');
+            try {
+                if (separator > 0) {
+                    return new Cursor(Double.longBitsToDouble(Long.parseUnsignedLong(cursor.substring(0, separator), 16)),
+                        Integer.parseInt(cursor.substring(separator + 1)));
+                }
+            } catch (NumberFormatException e) {
+                // 下で例外にする
+            }
+            throw new IllegalArgumentException("カーソルの形式が正しくありません: " + cursor);
+        }
+
+        String format() {
+            return Long.toHexString(Double.doubleToLongBits(score)) + "-" + postId;
+        }
+    }
+
+    /**
+     * 1つのトークンを含む投稿（IDの昇順）と出現回数
+     */
+    private static final class Hits {
+        int[] docs;
+        int[] tfs;
+        int size;
+
+        Hits(int capacity) {
+            docs = new int[Math.max(4, capacity)];
+            tfs = new int[docs.length];
+        }
+
+        void add(int doc, int tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = doc;
+            tfs[size] = tf;
+            size++;
+        }
+
+        /**
+         * IDの昇順に並べ直す（差分の投稿を追加した場合のみ必要）
+         */
+        void sort() {
+            long[] packed = new long[size];
+            for (int i = 0; i < size; i++) {
+                packed[i] = ((long) docs[i] << 32) | tfs[i];
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < size; i++) {
+                docs[i] = (int) (packed[i] >>> 32);
+                tfs[i] = (int) packed[i];
+            }
+        }
+    }
+
+    /**
+     * 差分に記録した投稿（削除された投稿は DELETED）
+     */
+    private record Doc(Map<String, Integer> frequencies, int length) {
+        static final Doc DELETED = new Doc(Map.of(), 0);
+    }
+
+    /**
+     * 土台の索引、取り込み中の差分（無ければnull）、記録中の差分の組
+     * 同じ投稿は記録中の差分、取り込み中の差分、土台の索引の順に優先します。
+     */
+    private record State(Base base, Delta frozen, Delta active) {
+        boolean shadowed(int doc, boolean inFrozen) {
+            return active.docs.containsKey(doc) || (!inFrozen && frozen != null && frozen.docs.containsKey(doc));
+        }
+
+        Hits collect(String term) {
+            Postings postings = base.terms.get(term);
+            Map<Integer, Integer> frozenHits = frozen != null ? frozen.postings.get(term) : null;
+            Map<Integer, Integer> activeHits = active.postings.get(term);
+            Hits hits = new Hits((postings != null ? postings.docFreq : 0)
+                + (frozenHits != null ? frozenHits.size() : 0) + (activeHits != null ? activeHits.size() : 0));
+            boolean checkShadow = !active.docs.isEmpty() || frozen != null;
+            if (postings != null) {
+                postings.forEach((doc, tf) -> {
+                    if (!checkShadow || !shadowed(doc, false)) {
+                        hits.add(doc, tf);
+                    }
+                });
+            }
+            int sorted = hits.size;
+            if (frozenHits != null) {
+                frozenHits.forEach((doc, tf) -> {
+                    if (!shadowed(doc, true)) {
+                        hits.add(doc, tf);
+                    }
+                });
+            }
+            if (activeHits != null) {
+                activeHits.forEach(hits::add);
+            }
+            if (hits.size != sorted) {
+                hits.sort();
+            }
+            return hits;
+        }
+
+        int length(int doc) {
+            if (active.docs.isEmpty() && frozen == null) {
+                return doc < base.lengths.length ? base.lengths[doc] : 0;
+            }
+            Doc latest = active.docs.get(doc);
+            if (latest == null && frozen != null) {
+                latest = frozen.docs.get(doc);
+            }
+            if (latest != null) {
+                return latest.length();
+            }
+            return doc < base.lengths.length ? base.lengths[doc] : 0;
+        }
+
+        long docCount() {
+            return base.docCount + active.docs.size() + (frozen != null ? frozen.docs.size() : 0);
+        }
+
+        long totalLength() {
+            return base.totalLength + active.totalLength() + (frozen != null ? frozen.totalLength() : 0);
+        }
+    }
+
+    /**
+     * 起動後に作成・更新・削除された投稿（書き込みはwriteLockの中でのみ行う）
+     */
+    private static final class Delta {
+        final Map<Integer, Doc> docs = new ConcurrentHashMap<>();
+        /** トークン → 投稿ID → 出現回数 */
+        final Map<String, Map<Integer, Integer>> postings = new ConcurrentHashMap<>();
+
+        void put(int id, Doc doc) {
+            Doc previous = docs.put(id, doc);
+            if (previous != null) {
+                for (String term : previous.frequencies().keySet()) {
+                    postings.computeIfPresent(term, (key, hits) -> {
+                        hits.remove(id);
+                        return hits.isEmpty() ? null : hits;
+                    });
+                }
+            }
+            doc.frequencies().forEach((term, tf) ->
+                postings.computeIfAbsent(term, key -> new ConcurrentHashMap<>()).put(id, tf));
+        }
+
+        long totalLength() {
+            long total = 0;
+            for (Doc doc : docs.values()) {
+                total += doc.length();
+            }
+            return total;
+        }
+    }
+
+    /**
+     * 土台の索引（構築後は変更しない）
+     */
+    private static final class Base {
+        static final Base EMPTY = new Base(Map.of(), new int[0], 0, 0);
+
+        final Map<String, Postings> terms;
+        /** 投稿ID → 本文の長さ（トークン数。トークンの無い投稿は検索に現れないため文書数に数えない） */
+        final int[] lengths;
+        final int docCount;
+        final long totalLength;
+        final long postingBytes;
+
+        private Base(Map<String, Postings> terms, int[] lengths, int docCount, long totalLength) {
+            this.terms = terms;
+            this.lengths = lengths;
+            this.docCount = docCount;
+            this.totalLength = totalLength;
+            long bytes = 0;
+            for (Postings postings : terms.values()) {
+                bytes += postings.data.length;
+            }
+            this.postingBytes = bytes;
+        }
+
+        static Base of(Map<String, PostingWriter> writers, int[] lengths, int docCount, long totalLength) {
+            Map<String, Postings> terms = new HashMap<>(writers.size() * 4 / 3 + 1);
+            writers.forEach((term, writer) -> terms.put(term, writer.finish()));
+            return new Base(terms, lengths, docCount, totalLength);
+        }
+
+        /**
+         * 土台の索引に差分を取り込んだ索引を作る（差分に記録した投稿は差分の内容に置き換える）
+         */
+        static Base merge(Base base, Delta delta) {
+            Map<Integer, Doc> changed = delta.docs;
+            int maxId = base.lengths.length - 1;
+            for (int id : changed.keySet()) {
+                maxId = Math.max(maxId, id);
+            }
+            int[] lengths = Arrays.copyOf(base.lengths, maxId + 1);
+            int docCount = base.docCount;
+            long totalLength = base.totalLength;
+            for (Map.Entry<Integer, Doc> entry : changed.entrySet()) {
+                int id = entry.getKey();
+                if (id < base.lengths.length && base.lengths[id] > 0) {
+                    docCount--;
+                    totalLength -= base.lengths[id];
+                }
+                lengths[id] = entry.getValue().length();
+                if (entry.getValue().length() > 0) {
+                    docCount++;
+                    totalLength += entry.getValue().length();
+                }
+            }
+
+            Map<String, PostingWriter> writers = new HashMap<>();
+            base.terms.forEach((term, postings) -> {
+                Map<Integer, Integer> added = delta.postings.get(term);
+                int[] addedDocs = added != null
+                    ? added.keySet().stream().mapToInt(Integer::intValue).sorted().toArray()
+                    : new int[0];
+                PostingWriter writer = new PostingWriter();
+                int[] next = {0};
+                postings.forEach((doc, tf) -> {
+                    while (next[0] < addedDocs.length && addedDocs[next[0]] < doc) {
+                        writer.add(addedDocs[next[0]], added.get(addedDocs[next[0]]));
+                        next[0]++;
+                    }
+                    if (!changed.containsKey(doc)) {
+                        writer.add(doc, tf);
+                    }
+                });
+                for (int i = next[0]; i < addedDocs.length; i++) {
+                    writer.add(addedDocs[i], added.get(addedDocs[i]));
+                }
+                if (writer.docFreq > 0) {
+                    writers.put(term, writer);
+                }
+            });
+            delta.postings.forEach((term, added) -> {
+                if (!base.terms.containsKey(term)) {
+                    PostingWriter writer = new PostingWriter();
+                    added.keySet().stream().mapToInt(Integer::intValue).sorted()
+                        .forEach(doc -> writer.add(doc, added.get(doc)));
+                    writers.put(term, writer);
+                }
+            });
+            return of(writers, lengths, docCount, totalLength);
+        }
+    }
+
+    /**
+     * 圧縮したポスティングリスト（投稿IDの差分と出現回数を交互に可変長整数で詰めたもの。IDの昇順）
+     */
+    private record Postings(byte[] data, int docFreq) {
+        void forEach(PostingConsumer consumer) {
+            int position = 0;
+            int doc = 0;
+            while (position < data.length) {
+                int delta = 0;
+                int shift = 0;
+                byte value;
+                do {
+                    value = data[position++];
+                    delta |= (value & 0x7F) << shift;
+                    shift += 7;
+                } while (value < 0);
+                int tf = 0;
+                shift = 0;
+                do {
+                    value = data[position++];
+                    tf |= (value & 0x7F) << shift;
+                    shift += 7;
+                } while (value < 0);
+                doc += delta;
+                consumer.accept(doc, tf);
+            }
+        }
+    }
+
+    /**
+     * ポスティングリストの書き込み（IDの昇順に追加する）
+     */
+    private static final class PostingWriter {
+        private byte[] data = new byte[8];
+        private int size;
+        private int lastDoc;
+        private int docFreq;
+
+        void add(int doc, int tf) {
+            writeVarint(doc - lastDoc);
+            writeVarint(tf);
+            lastDoc = doc;
+            docFreq++;
+        }
+
+        Postings finish() {
+            return new Postings(Arrays.copyOf(data, size), docFreq);
+        }
+
+        private void writeVarint(int value) {
+            if (size + 5 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PostingConsumer {
+        void accept(int doc, int tf);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.infrastructure.search;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 投稿本文の分かち書き
+ *
+ * 正規化した本文を、英数字などの語（空白や記号で区切られた連続部分）と、日本語などの分かち書きのない連続部分に分けます。
+ * 前者は1語を1トークン、後者は連続する2文字ごとに1トークン（1文字だけの場合はその1文字）とします。
+ * 日本語の1文字のキーワードでも検索できるよう、索引には各文字の1文字のトークンも登録しますが、
+ * 本文の長さ（BM25の長さ補正に使う値）には数えません。
+ */
+final class PostTokenizer {
+    /** これより小さい文字コードの文字・数字は空白区切りの語として扱う（英数字、ギリシャ文字、キリル文字など） */
+    private static final int WORD_CHAR_LIMIT = 0x3000;
+
+    private static final int TYPE_SEPARATOR = 0;
+    private static final int TYPE_WORD = 1;
+    private static final int TYPE_CJK = 2;
+
+    private PostTokenizer() {
+    }
+
+    /**
+     * 索引に登録するトークン
+     */
+    record Tokens(Map<String, Integer> frequencies, int length) {
+    }
+
+    /**
+     * 本文のトークンと出現回数
+     */
+    static Tokens tokenize(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int[] length = {0};
+        split(SearchText.normalize(text), (token, counted) -> {
+            frequencies.merge(token, 1, Integer::sum);
+            if (counted) {
+                length[0]++;
+            }
+        }, true);
+        return new Tokens(frequencies, length[0]);
+    }
+
+    /**
+     * 検索キーワードのトークン（重複を除く）
+     */
+    static Set<String> queryTerms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        split(SearchText.normalize(query), (token, counted) -> terms.add(token), false);
+        return terms;
+    }
+
+    private static void split(String text, TokenConsumer consumer, boolean indexUnigrams) {
+        int[] codePoints = text.codePoints().toArray();
+        int i = 0;
+        while (i < codePoints.length) {
+            int type = type(codePoints[i]);
+            int start = i;
+            while (i < codePoints.length && type(codePoints[i]) == type) {
+                i++;
+            }
+            if (type == TYPE_WORD) {
+                consumer.accept(new String(codePoints, start, i - start), true);
+            } else if (type == TYPE_CJK) {
+                int runLength = i - start;
+                if (runLength == 1) {
+                    consumer.accept(new String(codePoints, start, 1), true);
+                    continue;
+                }
+                for (int j = start; j + 1 < i; j++) {
+                    consumer.accept(new String(codePoints, j, 2), true);
+                }
+                if (indexUnigrams) {
+                    for (int j = start; j < i; j++) {
+                        consumer.accept(new String(codePoints, j, 1), false);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int type(int codePoint) {
+        if (!Character.isLetterOrDigit(codePoint)) {
+            return TYPE_SEPARATOR;
+        }
+        return codePoint < WORD_CHAR_LIMIT ? TYPE_WORD : TYPE_CJK;
+    }
+
+    @FunctionalInterface
+    private interface TokenConsumer {
+        /**
+         * @param token トークン
+         * @param counted 本文の長さに数えるか
+         */
+        void accept(String token, boolean counted);
+    }
+}
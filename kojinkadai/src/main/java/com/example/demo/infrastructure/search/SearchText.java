@@ -0,0 +1,35 @@
+package com.example.demo.infrastructure.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * 検索用の文字列の正規化
+ * 全角・半角や大文字・小文字の違いで検索結果が変わらないよう、索引に登録する文字列と検索キーワードの両方に適用します。
+ */
+final class SearchText {
+    private SearchText() {
+    }
+
+    /**
+     * NFKC正規化して小文字化（nullは空文字列）
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * ユーザー1人分の検索キー（正規化したユーザー名と表示名。空や重複は除く）
+     */
+    static String[] userKeys(String username, String displayName) {
+        String first = normalize(username);
+        String second = normalize(displayName);
+        if (second.isEmpty() || second.equals(first)) {
+            return first.isEmpty() ? new String[0] : new String[] {first};
+        }
+        return first.isEmpty() ? new String[] {second} : new String[] {first, second};
+    }
+}
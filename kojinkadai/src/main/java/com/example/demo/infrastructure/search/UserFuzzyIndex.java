@@ -0,0 +1,549 @@
+package com.example.demo.infrastructure.search;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.UserFuzzySearchProperties;
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.User;
+import com.example.demo.domain.model.UserFuzzySearchRepository;
+import com.example.demo.infrastructure.graph.FollowGraph;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 編集距離によるユーザー名・表示名のあいまい検索（UserFuzzySearchRepository実装）
+ *
+ * 正規化したユーザー名と表示名を重複なく昇順に並べた辞書を持ち、キーの文字列は1本のchar配列に詰めて保持します。
+ * 並べたキーはトライ木を配列に展開したものと同じで、検索時はこれを先頭から1文字ずつたどりながら、
+ * キーワードとの編集距離の表（レーベンシュタイン・オートマトンの状態）を1行ずつ求めます。
+ * 表の最小値が許す距離を超えた時点でその文字列で始まるキーをまとめて読み飛ばすため、辞書全体とは照合しません。
+ *
+ * 起動完了時にAPP_USERSから構築し、ユーザーの保存・削除（UserDatasourceImpl）のコミット後に小さな差分へ
+ * 記録します。差分に記録したユーザーは辞書では無かったものとして扱い、差分側のキーと直接照合します
+ * （削除されたユーザーはキーを持たない差分として記録します）。一定間隔（app.user-fuzzy-search.compact-interval-ms）で差分を辞書へ併合しますが、
+ * 併合はメモリ上の辞書と差分だけで行い、APP_USERSは読み直しません。
+ * 読み取りはロックを取らず、volatileなスナップショットを参照するだけです。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserFuzzyIndex implements UserFuzzySearchRepository {
+    private static final String LOAD_USERS_SQL = "SELECT ID, USERNAME, DISPLAY_NAME FROM APP_USERS";
+
+    /** 並び順に使うフォロワー数の上限（編集距離と合わせて31ビットに収める） */
+    private static final int MAX_RANKED_FOLLOWERS = (1 << 27) - 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FollowGraph followGraph;
+    private final UserFuzzySearchProperties userFuzzySearchProperties;
+
+    private final Object writeLock = new Object();
+
+    private volatile Dictionary dictionary = Dictionary.EMPTY;
+    /** 辞書を作った後に登録・更新されたユーザー → 現在のキー（変更のたびに新しいMapに差し替える） */
+    private volatile Map<Integer, String[]> overlay = Map.of();
+    private volatile boolean ready;
+    /** 構築中に登録・更新されたユーザーのキー。構築中でなければnull */
+    private Map<Integer, String[]> changedDuringLoad;
+
+    private final LongAdder searchCount = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAdder visitedNodes = new LongAdder();
+    private volatile long maxSearchNanos;
+    private volatile long loadMillis;
+    private volatile long lastCompactMillis;
+
+    /**
+     * 起動完了時にAPP_USERSから辞書を構築
+     * 構築中に登録・更新されたユーザーは、差分として引き継ぎます。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long started = System.currentTimeMillis();
+        synchronized (writeLock) {
+            changedDuringLoad = new HashMap<>();
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                LOAD_USERS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(AppConstants.Search.INDEX_LOAD_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            int id = rs.getInt(1);
+            for (String key : SearchText.userKeys(rs.getString(2), rs.getString(3))) {
+                entries.add(new Entry(key, id));
+            }
+        });
+        Dictionary built = Dictionary.build(entries);
+
+        synchronized (writeLock) {
+            // 検索は差分 → 辞書の順に読むため、辞書を先に差し替える
+            dictionary = built;
+            overlay = Map.copyOf(changedDuringLoad);
+            changedDuringLoad = null;
+            ready = true;
+        }
+        loadMillis = System.currentTimeMillis() - started;
+        log.info("あいまい検索の辞書を構築しました: terms={}, postings={}, elapsedMs={}",
+            built.size(), built.ids.length, loadMillis);
+    }
+
+    /**
+     * 差分を辞書へ併合（APP_USERSは読み直さない）
+     * 併合中に記録された差分は、併合後の辞書に対する差分として残します。
+     */
+    @Scheduled(fixedDelayString = "${app.user-fuzzy-search.compact-interval-ms:60000}",
+               initialDelayString = "${app.user-fuzzy-search.compact-interval-ms:60000}")
+    public synchronized void compact() {
+        Map<Integer, String[]> merging = overlay;
+        if (!ready || merging.isEmpty()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Dictionary merged = dictionary.merge(merging);
+
+        synchronized (writeLock) {
+            Map<Integer, String[]> rest = new HashMap<>(overlay);
+            // 併合した時点から差し替えられていないものだけを除く
+            rest.entrySet().removeIf(changed -> merging.get(changed.getKey()) == changed.getValue());
+            dictionary = merged;
+            overlay = rest;
+        }
+        lastCompactMillis = System.currentTimeMillis() - started;
+        log.debug("あいまい検索の差分を併合しました: users={}, terms={}, elapsedMs={}",
+            merging.size(), merged.size(), lastCompactMillis);
+    }
+
+    /**
+     * 保存されたユーザーを索引に反映（コミット後に呼ぶ）
+     */
+    public void put(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        int id = FollowGraph.toNode(user.getId().asString());
+        if (id < 0) {
+            return;
+        }
+        String displayName = user.getDisplayName() != null ? user.getDisplayName().getValue() : null;
+        record(id, SearchText.userKeys(user.getUsername(), displayName));
+    }
+
+    /**
+     * 削除されたユーザーを索引から除く（コミット後に呼ぶ）
+     */
+    public void remove(String userId) {
+        int id = FollowGraph.toNode(userId);
+        if (id >= 0) {
+            record(id, new String[0]);
+        }
+    }
+
+    private void record(int id, String[] keys) {
+        synchronized (writeLock) {
+            Map<Integer, String[]> next = new HashMap<>(overlay);
+            next.put(id, keys);
+            overlay = next;
+            if (changedDuringLoad != null) {
+                changedDuringLoad.put(id, keys);
+            }
+        }
+    }
+
+    @Override
+    public List<String> search(String keyword, String excludeUserId, int limit) {
+        if (!ready || limit <= 0) {
+            return List.of();
+        }
+        String query = SearchText.normalize(keyword);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        long started = System.nanoTime();
+        // 差分を先に読む（併合の直後でも、差分にあるユーザーは新しい辞書にも入っている）
+        Map<Integer, String[]> o = overlay;
+        Dictionary d = dictionary;
+        int maxDistance = maxDistance(query.length());
+
+        Hits hits = new Hits(followGraph.isReady(), FollowGraph.toNode(excludeUserId));
+        Matcher matcher = new Matcher(d, query.toCharArray(), maxDistance);
+        matcher.run((term, distance) -> {
+            for (int i = d.postingOffsets[term]; i < d.postingOffsets[term + 1]; i++) {
+                if (o.isEmpty() || !o.containsKey(d.ids[i])) {
+                    hits.add(d.ids[i], distance);
+                }
+            }
+        });
+        for (Map.Entry<Integer, String[]> changed : o.entrySet()) {
+            for (String key : changed.getValue()) {
+                int distance = matcher.distance(key);
+                if (distance <= maxDistance) {
+                    hits.add(changed.getKey(), distance);
+                }
+            }
+        }
+        List<String> result = hits.top(limit);
+
+        long elapsed = System.nanoTime() - started;
+        searchCount.increment();
+        searchNanos.add(elapsed);
+        visitedNodes.add(matcher.visited);
+        if (elapsed > maxSearchNanos) {
+            maxSearchNanos = elapsed;
+        }
+        return result;
+    }
+
+    /**
+     * 統計情報
+     */
+    public Map<String, Object> stats() {
+        Dictionary d = dictionary;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ready", ready);
+        result.put("terms", d.size());
+        result.put("postings", d.ids.length);
+        result.put("estimatedBytes", d.estimatedBytes());
+        result.put("overlayUsers", overlay.size());
+        result.put("loadMillis", loadMillis);
+        result.put("lastCompactMillis", lastCompactMillis);
+        long count = searchCount.sum();
+        result.put("searchCount", count);
+        result.put("averageVisitedNodes", count == 0 ? 0 : visitedNodes.sum() / count);
+        result.put("averageSearchMicros", count == 0 ? 0 : searchNanos.sum() / count / 1000);
+        result.put("maxSearchMicros", maxSearchNanos / 1000);
+        return result;
+    }
+
+    /**
+     * キーワードの長さに応じて許す編集距離（短いキーワードほど、ほとんどのキーが近くなってしまうため小さくする）
+     */
+    private int maxDistance(int length) {
+        int distance;
+        if (length >= AppConstants.Search.FUZZY_TWO_EDITS_MIN_LENGTH) {
+            distance = 2;
+        } else if (length >= AppConstants.Search.FUZZY_ONE_EDIT_MIN_LENGTH) {
+            distance = 1;
+        } else {
+            distance = 0;
+        }
+        return Math.max(0, Math.min(distance, userFuzzySearchProperties.getMaxDistance()));
+    }
+
+    private record Entry(String key, int id) {
+    }
+
+    @FunctionalInterface
+    private interface MatchConsumer {
+        /**
+         * @param term 辞書のキーの番号
+         * @param distance キーワードとの編集距離
+         */
+        void accept(int term, int distance);
+    }
+
+    /**
+     * 一致したユーザー（ユーザー名と表示名の両方が一致したユーザーは2回数える）
+     */
+    private final class Hits {
+        final boolean live;
+        /** 結果から除くユーザー（除かない場合は-1） */
+        final int excluded;
+        long[] ranked = new long[64];
+        int size;
+
+        Hits(boolean live, int excluded) {
+            this.live = live;
+            this.excluded = excluded;
+        }
+
+        void add(int id, int distance) {
+            if (id == excluded) {
+                return;
+            }
+            int followers = live ? Math.min(followGraph.followerCount(id), MAX_RANKED_FOLLOWERS) : 0;
+            // 編集距離の小さい順・フォロワー数の多い順・IDの大きい順に並ぶよう、上位32ビットに
+            // （編集距離の反転, フォロワー数）、下位32ビットにIDを詰めて大きい順に読む
+            long rank = ((long) (AppConstants.Search.FUZZY_MAX_DISTANCE - distance) << 27) | followers;
+            if (size == ranked.length) {
+                ranked = Arrays.copyOf(ranked, size * 2);
+            }
+            ranked[size++] = (rank << 32) | id;
+        }
+
+        /**
+         * 並び順の上位 limit 人のユーザーID（2回数えたユーザーは近い方のキーで並べる）
+         */
+        List<String> top(int limit) {
+            Arrays.sort(ranked, 0, size);
+            List<String> result = new ArrayList<>(Math.min(limit, size));
+            Set<Integer> seen = new HashSet<>();
+            for (int i = size - 1; i >= 0 && result.size() < limit; i--) {
+                int id = (int) ranked[i];
+                if (seen.add(id)) {
+                    result.add(Integer.toString(id));
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * キーワードから編集距離 maxDistance 以内のキーを辞書から探す
+     * 辞書をトライ木としてたどり、たどった文字列とキーワードの各接頭辞との編集距離を1行ずつ求めます。
+     */
+    private static final class Matcher {
+        final Dictionary dictionary;
+        final char[] query;
+        final int maxDistance;
+        /** 深さごとの編集距離の行（深さ d の行は、たどった先頭 d 文字とキーワードの各接頭辞との距離） */
+        final int[][] rows;
+        int visited;
+
+        Matcher(Dictionary dictionary, char[] query, int maxDistance) {
+            this.dictionary = dictionary;
+            this.query = query;
+            this.maxDistance = maxDistance;
+            // 距離の行の最小値は深さとキーワードの長さの差以上なので、これより深くはたどらない
+            this.rows = new int[query.length + maxDistance + 2][query.length + 1];
+            for (int j = 0; j <= query.length; j++) {
+                rows[0][j] = j;
+            }
+        }
+
+        void run(MatchConsumer consumer) {
+            if (dictionary.size() > 0) {
+                walk(0, dictionary.size(), 0, consumer);
+            }
+        }
+
+        /**
+         * 先頭 depth 文字が共通するキーの範囲 [from, to) をたどる（rows[depth] は計算済み）
+         */
+        private void walk(int from, int to, int depth, MatchConsumer consumer) {
+            visited++;
+            int[] row = rows[depth];
+            int i = from;
+            // キーは重複しないため、ちょうど depth 文字のキーは範囲の先頭に高々1つ
+            if (dictionary.length(i) == depth) {
+                if (row[query.length] <= maxDistance) {
+                    consumer.accept(i, row[query.length]);
+                }
+                i++;
+            }
+            while (i < to) {
+                char c = dictionary.charAt(i, depth);
+                int end = dictionary.endOfChar(i, to, depth, c);
+                if (step(row, rows[depth + 1], c)) {
+                    walk(i, end, depth + 1, consumer);
+                }
+                i = end;
+            }
+        }
+
+        /**
+         * 1文字進めた行を next に求め、まだ maxDistance 以内に収まる可能性があるかを返す
+         */
+        private boolean step(int[] row, int[] next, char c) {
+            next[0] = row[0] + 1;
+            int min = next[0];
+            for (int j = 1; j <= query.length; j++) {
+                int replace = row[j - 1] + (query[j - 1] == c ? 0 : 1);
+                int value = Math.min(Math.min(row[j] + 1, next[j - 1] + 1), replace);
+                next[j] = value;
+                if (value < min) {
+                    min = value;
+                }
+            }
+            return min <= maxDistance;
+        }
+
+        /**
+         * キーワードと key の編集距離（maxDistance を超えることが分かった時点で maxDistance + 1 を返す）
+         */
+        int distance(String key) {
+            if (Math.abs(key.length() - query.length) > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] row = new int[query.length + 1];
+            int[] next = new int[query.length + 1];
+            for (int j = 0; j <= query.length; j++) {
+                row[j] = j;
+            }
+            for (int i = 0; i < key.length(); i++) {
+                if (!step(row, next, key.charAt(i))) {
+                    return maxDistance + 1;
+                }
+                int[] swap = row;
+                row = next;
+                next = swap;
+            }
+            return row[query.length];
+        }
+    }
+
+    /**
+     * 重複なく昇順に並べたキーと、キーごとのユーザーID（構築後は変更しない）
+     */
+    private static final class Dictionary {
+        static final Dictionary EMPTY = new Dictionary(new char[0], new int[1], new int[1], new int[0]);
+
+        /** キーの文字列を昇順に連結したもの */
+        final char[] text;
+        /** キーごとの text 上の開始位置（末尾に全体の長さ） */
+        final int[] offsets;
+        /** キーごとの ids 上の開始位置（末尾に全体の件数） */
+        final int[] postingOffsets;
+        final int[] ids;
+
+        private Dictionary(char[] text, int[] offsets, int[] postingOffsets, int[] ids) {
+            this.text = text;
+            this.offsets = offsets;
+            this.postingOffsets = postingOffsets;
+            this.ids = ids;
+        }
+
+        static Dictionary build(List<Entry> list) {
+            Entry[] entries = list.toArray(new Entry[0]);
+            Arrays.parallelSort(entries, Comparator.comparing(Entry::key).thenComparingInt(Entry::id));
+            Builder builder = new Builder(entries.length);
+            for (Entry entry : entries) {
+                builder.add(entry.key(), entry.id());
+            }
+            return builder.build();
+        }
+
+        /**
+         * 差分を取り込んだ辞書を作る
+         * どちらも昇順に並んでいるため、先頭から突き合わせるだけで並べ直しは不要です。
+         */
+        Dictionary merge(Map<Integer, String[]> changes) {
+            List<Entry> added = new ArrayList<>();
+            changes.forEach((id, keys) -> {
+                for (String key : keys) {
+                    added.add(new Entry(key, id));
+                }
+            });
+            added.sort(Comparator.comparing(Entry::key).thenComparingInt(Entry::id));
+
+            Builder builder = new Builder(ids.length + added.size());
+            int next = 0;
+            for (int term = 0; term < size(); term++) {
+                String key = new String(text, offsets[term], length(term));
+                while (next < added.size() && added.get(next).key().compareTo(key) < 0) {
+                    builder.add(added.get(next).key(), added.get(next).id());
+                    next++;
+                }
+                for (int i = postingOffsets[term]; i < postingOffsets[term + 1]; i++) {
+                    if (!changes.containsKey(ids[i])) {
+                        builder.add(key, ids[i]);
+                    }
+                }
+                while (next < added.size() && added.get(next).key().equals(key)) {
+                    builder.add(key, added.get(next).id());
+                    next++;
+                }
+            }
+            for (; next < added.size(); next++) {
+                builder.add(added.get(next).key(), added.get(next).id());
+            }
+            return builder.build();
+        }
+
+        int size() {
+            return offsets.length - 1;
+        }
+
+        int length(int term) {
+            return offsets[term + 1] - offsets[term];
+        }
+
+        char charAt(int term, int index) {
+            return text[offsets[term] + index];
+        }
+
+        /**
+         * [from, to) のうち depth 文字目が c である範囲の終わり（範囲内のキーはすべて depth 文字より長く、
+         * 先頭 depth 文字が共通していること）
+         */
+        int endOfChar(int from, int to, int depth, char c) {
+            int low = from + 1;
+            int high = to;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (charAt(mid, depth) <= c) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        long estimatedBytes() {
+            return 2L * text.length + 4L * (offsets.length + postingOffsets.length + ids.length);
+        }
+    }
+
+    /**
+     * キーの昇順に (キー, ユーザーID) を受け取って辞書を組み立てる
+     */
+    private static final class Builder {
+        private final StringBuilder text = new StringBuilder();
+        private int[] offsets = new int[16];
+        private int[] postingOffsets = new int[16];
+        private final int[] ids;
+        private int terms;
+        private int count;
+        private String lastKey;
+
+        Builder(int capacity) {
+            this.ids = new int[capacity];
+        }
+
+        void add(String key, int id) {
+            if (!key.equals(lastKey)) {
+                if (terms + 1 >= offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                    postingOffsets = Arrays.copyOf(postingOffsets, postingOffsets.length * 2);
+                }
+                offsets[terms] = text.length();
+                postingOffsets[terms] = count;
+                text.append(key);
+                terms++;
+                lastKey = key;
+            }
+            ids[count++] = id;
+        }
+
+        Dictionary build() {
+            offsets[terms] = text.length();
+            postingOffsets[terms] = count;
+            char[] chars = new char[text.length()];
+            text.getChars(0, chars.length, chars, 0);
+            return new Dictionary(chars, Arrays.copyOf(offsets, terms + 1),
+                Arrays.copyOf(postingOffsets, terms + 1), Arrays.copyOf(ids, count));
+        }
+    }
+}
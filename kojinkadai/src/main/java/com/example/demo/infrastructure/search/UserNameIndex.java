@@ -0,0 +1,297 @@
+package com.example.demo.infrastructure.search;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.InfluenceScoreRepository;
+import com.example.demo.domain.model.User;
+import com.example.demo.domain.model.UserSearchRepository;
+import com.example.demo.domain.model.UserSearchResult;
+import com.example.demo.infrastructure.graph.FollowGraph;
+import com.example.demo.util.CompressedBitmap;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 表示名・ユーザー名の文字N-gramによる転置索引（UserSearchRepository実装）
+ *
+ * 表示名とユーザー名をNFKC正規化・小文字化し、1文字と連続する2文字ごとに、それを含むユーザーIDの集合を
+ * 圧縮ビットマップで保持します。検索時はキーワードの2文字（1文字のキーワードなら1文字）ごとの集合の共通部分を
+ * 要素数の少ない順に求め、残った候補だけを元の文字列と照合するため、APP_USERS全体を LIKE '%…%' で走査しません。
+ * 起動完了時にAPP_USERSから構築し、以降は UserRepository.save / deleteById のコミット後に差分を反映します。
+ * 集合は書き換えずに新しいインスタンスへ差し替えるため、検索はロックを取りません。
+ * 構築が完了するまでは検索結果を返さず（Optional.empty）、呼び出し側でDBの検索に切り替えます。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserNameIndex implements UserSearchRepository {
+    private static final String LOAD_USERS_SQL = "SELECT ID, USERNAME, DISPLAY_NAME FROM APP_USERS ORDER BY ID";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InfluenceScoreRepository influenceScoreRepository;
+
+    /** N-gram → そのN-gramを含むユーザーIDの集合 */
+    private volatile Map<String, CompressedBitmap> postings = new ConcurrentHashMap<>();
+    /** ユーザーID → 正規化した [表示名, ユーザー名] */
+    private volatile Map<Integer, String[]> documents = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    private final Object writeLock = new Object();
+    /** 構築中に保存・削除されたユーザー（値がnullなら削除）。構築中でなければnull */
+    private Map<Integer, String[]> changedDuringLoad;
+
+    private final LongAdder searchCount = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAdder candidateCount = new LongAdder();
+    private volatile long loadMillis;
+
+    /**
+     * 起動完了時にAPP_USERSから索引を構築
+     * 構築中に保存・削除されたユーザーは、構築した索引を公開する前に反映し直します。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.currentTimeMillis();
+        synchronized (writeLock) {
+            changedDuringLoad = new HashMap<>();
+        }
+
+        Map<String, CompressedBitmap> builtPostings = new ConcurrentHashMap<>();
+        Map<Integer, String[]> builtDocuments = new ConcurrentHashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                LOAD_USERS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(AppConstants.Search.INDEX_LOAD_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            int id = rs.getInt(1);
+            String[] document = document(rs.getString(3), rs.getString(2));
+            builtDocuments.put(id, document);
+            // IDの昇順に読むため、構築中のビットマップには末尾への追加だけが起きる
+            for (String gram : grams(document)) {
+                builtPostings.computeIfAbsent(gram, key -> new CompressedBitmap()).add(id);
+            }
+        });
+
+        synchronized (writeLock) {
+            changedDuringLoad.forEach((id, document) -> apply(builtPostings, builtDocuments, id, document));
+            changedDuringLoad = null;
+            postings = builtPostings;
+            documents = builtDocuments;
+            ready = true;
+        }
+        loadMillis = System.currentTimeMillis() - started;
+        log.info("ユーザー名索引を構築しました: users={}, grams={}, elapsedMs={}",
+            builtDocuments.size(), builtPostings.size(), loadMillis);
+    }
+
+    /**
+     * 保存されたユーザーを索引に反映（コミット後に呼ぶ）
+     */
+    public void put(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        int id = FollowGraph.toNode(user.getId().asString());
+        if (id < 0) {
+            return;
+        }
+        String displayName = user.getDisplayName() != null ? user.getDisplayName().getValue() : null;
+        update(id, document(displayName, user.getUsername()));
+    }
+
+    /**
+     * 削除されたユーザーを索引から除く（コミット後に呼ぶ）
+     */
+    public void remove(String userId) {
+        int id = FollowGraph.toNode(userId);
+        if (id >= 0) {
+            update(id, null);
+        }
+    }
+
+    @Override
+    public Optional<UserSearchResult> search(String keyword, String excludeUserId, int offset, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        long started = System.nanoTime();
+        String query = SearchText.normalize(keyword);
+        int[] matched = query.isEmpty() ? new int[0] : match(query);
+        // 除くユーザーはページに分ける前に外し、ページの件数と総件数がずれないようにする
+        int excluded = FollowGraph.toNode(excludeUserId);
+        if (excluded >= 0) {
+            matched = Arrays.stream(matched).filter(id -> id != excluded).toArray();
+        }
+
+        // 影響力スコア（float）を上位32ビット、IDを下位32ビットに詰めて並べ、末尾から読むと
+        // 影響力の高い順・同じならIDの大きい（新しい）順になる
+        long[] keys = new long[matched.length];
+        for (int i = 0; i < matched.length; i++) {
+            float influence = (float) Math.max(0, influenceScoreRepository.getInfluence(Integer.toString(matched[i])));
+            keys[i] = ((long) Float.floatToIntBits(influence) << 32) | matched[i];
+        }
+        Arrays.sort(keys);
+
+        int from = Math.max(0, Math.min(offset, keys.length));
+        int to = Math.min(keys.length, from + Math.max(0, limit));
+        List<String> userIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            userIds.add(Integer.toString((int) keys[keys.length - 1 - i]));
+        }
+        searchCount.increment();
+        searchNanos.add(System.nanoTime() - started);
+        return Optional.of(new UserSearchResult(userIds, keys.length));
+    }
+
+    /**
+     * 統計情報
+     */
+    public Map<String, Object> stats() {
+        Map<String, CompressedBitmap> currentPostings = postings;
+        long bytes = 0;
+        for (CompressedBitmap list : currentPostings.values()) {
+            bytes += list.estimatedBytes();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ready", ready);
+        result.put("users", documents.size());
+        result.put("grams", currentPostings.size());
+        result.put("estimatedBytes", bytes);
+        result.put("loadMillis", loadMillis);
+        long count = searchCount.sum();
+        result.put("searchCount", count);
+        result.put("averageCandidates", count == 0 ? 0 : candidateCount.sum() / count);
+        result.put("averageSearchMicros", count == 0 ? 0 : searchNanos.sum() / count / 1000);
+        return result;
+    }
+
+    /**
+     * キーワードのN-gramをすべて含み、実際にキーワードを部分文字列として含むユーザーID
+     */
+    private int[] match(String query) {
+        Map<String, CompressedBitmap> currentPostings = postings;
+        Map<Integer, String[]> currentDocuments = documents;
+
+        List<CompressedBitmap> lists = new ArrayList<>();
+        for (String gram : queryGrams(query)) {
+            CompressedBitmap list = currentPostings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(CompressedBitmap::cardinality));
+        CompressedBitmap candidates = lists.get(0);
+        for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+            candidates = candidates.and(lists.get(i));
+        }
+
+        // 2文字ずつの一致だけでは並び順までは保証されないため、元の文字列と照合する
+        int[] ids = candidates.toArray();
+        candidateCount.add(ids.length);
+        int size = 0;
+        for (int id : ids) {
+            String[] document = currentDocuments.get(id);
+            if (document != null && (document[0].contains(query) || document[1].contains(query))) {
+                ids[size++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, size);
+    }
+
+    private void update(int id, String[] document) {
+        synchronized (writeLock) {
+            apply(postings, documents, id, document);
+            if (changedDuringLoad != null) {
+                changedDuringLoad.put(id, document);
+            }
+        }
+    }
+
+    /**
+     * 1ユーザー分の差分を反映（documentがnullなら削除）
+     * 既存の集合は書き換えず、要素を増減した新しい集合に差し替えます。
+     */
+    private static void apply(Map<String, CompressedBitmap> postings, Map<Integer, String[]> documents,
+                              int id, String[] document) {
+        String[] previous = document != null ? documents.put(id, document) : documents.remove(id);
+        Set<String> oldGrams = grams(previous);
+        Set<String> newGrams = grams(document);
+        CompressedBitmap single = CompressedBitmap.of(id);
+        for (String gram : oldGrams) {
+            if (!newGrams.contains(gram)) {
+                postings.computeIfPresent(gram, (key, list) -> {
+                    CompressedBitmap removed = list.andNot(single);
+                    return removed.isEmpty() ? null : removed;
+                });
+            }
+        }
+        for (String gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                postings.merge(gram, single, CompressedBitmap::or);
+            }
+        }
+    }
+
+    private static String[] document(String displayName, String username) {
+        return new String[] {SearchText.normalize(displayName), SearchText.normalize(username)};
+    }
+
+    /**
+     * 索引に登録するN-gram（表示名・ユーザー名それぞれの1文字と連続する2文字）
+     */
+    private static Set<String> grams(String[] document) {
+        Set<String> grams = new HashSet<>();
+        if (document == null) {
+            return grams;
+        }
+        for (String text : document) {
+            int[] codePoints = text.codePoints().toArray();
+            for (int i = 0; i < codePoints.length; i++) {
+                grams.add(new String(codePoints, i, 1));
+                if (i + 1 < codePoints.length) {
+                    grams.add(new String(codePoints, i, 2));
+                }
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * 検索に使うN-gram（1文字のキーワードならその1文字、それ以外は連続する2文字）
+     */
+    private static Set<String> queryGrams(String query) {
+        int[] codePoints = query.codePoints().toArray();
+        Set<String> grams = new HashSet<>();
+        if (codePoints.length == 1) {
+            grams.add(query);
+            return grams;
+        }
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            grams.add(new String(codePoints, i, 2));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,454 @@
+package com.example.demo.infrastructure.search;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.UserSuggestProperties;
+import com.example.demo.constants.AppConstants;
+import com.example.demo.domain.model.User;
+import com.example.demo.domain.model.UserSuggestRepository;
+import com.example.demo.infrastructure.graph.FollowGraph;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ユーザー名・表示名の前方一致による入力補完（UserSuggestRepository実装）
+ *
+ * 正規化したユーザー名と表示名をキーとして昇順に並べ、キーの文字列は1本のchar配列に詰めて保持します。
+ * 並べたキーはトライ木を配列に展開したものと同じで、ある文字列で始まるキーは連続した範囲になるため、
+ * 二分探索でその範囲を求めます。該当件数が app.user-suggest.precompute-threshold を超える前方一致（トライ木の
+ * 上位の節）については、フォロワー数の多い候補を構築時に求めておき、それ以外は範囲を都度走査します。
+ *
+ * 起動完了時にAPP_USERSから構築し、ユーザーの作成・更新・削除はコミット後に小さな差分（Overlay）へ記録します。
+ * 差分に記録したユーザーは土台の索引では無かったものとして扱い、差分側のキーで検索します。
+ * 一定間隔（app.user-suggest.compact-interval-ms）で索引全体を作り直し、差分とフォロワー数を取り込みます。
+ * 候補の並び順は、フォローグラフが読み込み済みなら現在のフォロワー数、そうでなければ構築時のフォロワー数です。
+ * 読み取りはロックを取らず、volatileなスナップショットを参照するだけです。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserPrefixIndex implements UserSuggestRepository {
+    private static final String LOAD_USERS_SQL = "SELECT ID, USERNAME, DISPLAY_NAME, FOLLOWER_COUNT FROM APP_USERS";
+
+    /** 上位の候補として求めておく件数（差分に記録されたユーザーを除いても足りるよう、候補数の上限の2倍） */
+    private static final int PRECOMPUTED_SIZE = AppConstants.Search.SUGGEST_MAX_LIMIT * 2;
+
+    /** 差分のキーとユーザーIDの区切り（正規化後の文字列には現れない） */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FollowGraph followGraph;
+    private final UserSuggestProperties userSuggestProperties;
+
+    private final Object writeLock = new Object();
+
+    private volatile Base base = Base.EMPTY;
+    private volatile Overlay overlay = Overlay.EMPTY;
+    private volatile boolean ready;
+    /** 構築中に作成・更新・削除されたユーザーのキー（削除なら空配列）。構築中でなければnull */
+    private Map<Integer, String[]> changedDuringBuild;
+
+    private final LongAdder suggestCount = new LongAdder();
+    private final LongAdder suggestNanos = new LongAdder();
+    private final LongAdder scanCount = new LongAdder();
+    private volatile long maxSuggestNanos;
+    private volatile long lastBuildMillis;
+
+    /**
+     * 起動完了時にAPP_USERSから索引を構築
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * 索引全体を作り直し、差分と最新のフォロワー数を取り込む
+     */
+    @Scheduled(fixedDelayString = "${app.user-suggest.compact-interval-ms:600000}",
+               initialDelayString = "${app.user-suggest.compact-interval-ms:600000}")
+    public void compact() {
+        if (ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 作成・更新されたユーザーを差分に記録（コミット後に呼ぶ）
+     */
+    public void put(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        int id = FollowGraph.toNode(user.getId().asString());
+        if (id >= 0) {
+            String displayName = user.getDisplayName() != null ? user.getDisplayName().getValue() : null;
+            update(id, SearchText.userKeys(user.getUsername(), displayName));
+        }
+    }
+
+    /**
+     * 削除されたユーザーを差分に記録（コミット後に呼ぶ）
+     */
+    public void remove(String userId) {
+        int id = FollowGraph.toNode(userId);
+        if (id >= 0) {
+            update(id, new String[0]);
+        }
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        if (!ready || limit <= 0) {
+            return List.of();
+        }
+        String key = SearchText.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        long started = System.nanoTime();
+        Base b = base;
+        Overlay o = overlay;
+        int size = Math.min(limit, AppConstants.Search.SUGGEST_MAX_LIMIT);
+
+        // ユーザーID → 並び順に使うフォロワー数（構築時の値）
+        Map<Integer, Integer> candidates = new HashMap<>();
+        int from = b.lowerBound(key);
+        int to = b.upperBound(key, from);
+        int[] precomputed = to - from > b.threshold ? b.precomputed.get(key) : null;
+        if (precomputed != null) {
+            collect(b, o, precomputed, candidates);
+        }
+        if (precomputed == null || (candidates.size() < size && precomputed.length < to - from)) {
+            // 上位の候補が差分に記録されたユーザーで減りすぎた場合は範囲全体を走査する
+            if (precomputed != null) {
+                scanCount.increment();
+            }
+            for (int entry = from; entry < to; entry++) {
+                if (!o.keysByUser.containsKey(b.ids[entry])) {
+                    candidates.putIfAbsent(b.ids[entry], b.counts[entry]);
+                }
+            }
+        }
+        for (int id : o.entries.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            candidates.putIfAbsent(id, 0);
+        }
+
+        boolean live = followGraph.isReady();
+        long[] ranked = new long[candidates.size()];
+        int count = 0;
+        for (Map.Entry<Integer, Integer> candidate : candidates.entrySet()) {
+            int id = candidate.getKey();
+            int followers = live ? followGraph.followerCount(id) : candidate.getValue();
+            // フォロワー数を上位32ビット、IDを下位32ビットに詰め、大きい順に並べる
+            ranked[count++] = ((long) followers << 32) | id;
+        }
+        Arrays.sort(ranked);
+        List<String> result = new ArrayList<>(Math.min(size, count));
+        for (int i = count - 1; i >= 0 && result.size() < size; i--) {
+            result.add(Integer.toString((int) ranked[i]));
+        }
+
+        long elapsed = System.nanoTime() - started;
+        suggestCount.increment();
+        suggestNanos.add(elapsed);
+        if (elapsed > maxSuggestNanos) {
+            maxSuggestNanos = elapsed;
+        }
+        return result;
+    }
+
+    /**
+     * 統計情報
+     */
+    public Map<String, Object> stats() {
+        Base b = base;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ready", ready);
+        result.put("keys", b.ids.length);
+        result.put("precomputedPrefixes", b.precomputed.size());
+        result.put("estimatedBytes", b.estimatedBytes());
+        result.put("overlayUsers", overlay.keysByUser.size());
+        result.put("lastBuildMillis", lastBuildMillis);
+        long count = suggestCount.sum();
+        result.put("suggestCount", count);
+        result.put("fullScanCount", scanCount.sum());
+        result.put("averageSuggestMicros", count == 0 ? 0 : suggestNanos.sum() / count / 1000);
+        result.put("maxSuggestMicros", maxSuggestNanos / 1000);
+        return result;
+    }
+
+    private void collect(Base b, Overlay o, int[] entries, Map<Integer, Integer> candidates) {
+        for (int entry : entries) {
+            if (!o.keysByUser.containsKey(b.ids[entry])) {
+                candidates.putIfAbsent(b.ids[entry], b.counts[entry]);
+            }
+        }
+    }
+
+    private void update(int id, String[] keys) {
+        synchronized (writeLock) {
+            overlay = overlay.with(id, keys);
+            if (changedDuringBuild != null) {
+                changedDuringBuild.put(id, keys);
+            }
+        }
+    }
+
+    /**
+     * APP_USERSを読み込んで土台の索引を作り直す
+     * 構築中に記録された差分は、新しい索引に対する差分として引き継ぎます。
+     */
+    private synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        synchronized (writeLock) {
+            changedDuringBuild = new HashMap<>();
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                LOAD_USERS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(AppConstants.Search.INDEX_LOAD_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            int id = rs.getInt(1);
+            int followers = rs.getInt(4);
+            for (String key : SearchText.userKeys(rs.getString(2), rs.getString(3))) {
+                entries.add(new Entry(key, id, followers));
+            }
+        });
+        Base built = Base.build(entries, userSuggestProperties.getPrecomputeThreshold());
+
+        synchronized (writeLock) {
+            Overlay next = Overlay.EMPTY;
+            for (Map.Entry<Integer, String[]> changed : changedDuringBuild.entrySet()) {
+                next = next.with(changed.getKey(), changed.getValue());
+            }
+            changedDuringBuild = null;
+            base = built;
+            overlay = next;
+            ready = true;
+        }
+        lastBuildMillis = System.currentTimeMillis() - started;
+        log.info("入力補完の索引を構築しました: keys={}, precomputedPrefixes={}, elapsedMs={}",
+            built.ids.length, built.precomputed.size(), lastBuildMillis);
+    }
+
+    private record Entry(String key, int id, int followers) {
+    }
+
+    /**
+     * 土台の索引（構築後は変更しない）
+     */
+    private static final class Base {
+        static final Base EMPTY = new Base(new char[0], new int[1], new int[0], new int[0], Map.of(), 0);
+
+        /** キーの文字列を昇順に連結したもの */
+        final char[] text;
+        /** キーごとの text 上の開始位置（末尾に全体の長さ） */
+        final int[] offsets;
+        final int[] ids;
+        /** 構築時のフォロワー数 */
+        final int[] counts;
+        /** 前方一致 → フォロワー数の多いキーの番号（該当件数がしきい値を超える前方一致のみ） */
+        final Map<String, int[]> precomputed;
+        final int threshold;
+
+        private Base(char[] text, int[] offsets, int[] ids, int[] counts, Map<String, int[]> precomputed, int threshold) {
+            this.text = text;
+            this.offsets = offsets;
+            this.ids = ids;
+            this.counts = counts;
+            this.precomputed = precomputed;
+            this.threshold = threshold;
+        }
+
+        static Base build(List<Entry> list, int threshold) {
+            Entry[] entries = list.toArray(new Entry[0]);
+            Arrays.parallelSort(entries, Comparator.comparing(Entry::key).thenComparingInt(Entry::id));
+            int n = entries.length;
+            int[] offsets = new int[n + 1];
+            int[] ids = new int[n];
+            int[] counts = new int[n];
+            for (int i = 0; i < n; i++) {
+                offsets[i + 1] = offsets[i] + entries[i].key().length();
+                ids[i] = entries[i].id();
+                counts[i] = entries[i].followers();
+            }
+            char[] text = new char[offsets[n]];
+            for (int i = 0; i < n; i++) {
+                entries[i].key().getChars(0, offsets[i + 1] - offsets[i], text, offsets[i]);
+            }
+            Map<String, int[]> precomputed = new HashMap<>();
+            Base base = new Base(text, offsets, ids, counts, precomputed, Math.max(1, threshold));
+            base.precompute(0, n, 0);
+            return base;
+        }
+
+        /**
+         * 先頭 depth 文字が共通する範囲 [from, to) について、件数がしきい値を超えていれば上位の候補を求め、
+         * depth 文字目で分けた範囲（トライ木の子）へ進む
+         */
+        private void precompute(int from, int to, int depth) {
+            if (to - from <= threshold) {
+                return;
+            }
+            if (depth > 0) {
+                precomputed.put(new String(text, offsets[from], depth), top(from, to));
+            }
+            int i = from;
+            while (i < to && length(i) == depth) {
+                i++;
+            }
+            while (i < to) {
+                char c = charAt(i, depth);
+                int j = i + 1;
+                while (j < to && charAt(j, depth) == c) {
+                    j++;
+                }
+                precompute(i, j, depth + 1);
+                i = j;
+            }
+        }
+
+        /**
+         * 範囲 [from, to) のうちフォロワー数の多いキーの番号（多い順）
+         */
+        private int[] top(int from, int to) {
+            Comparator<Integer> order = Comparator.<Integer>comparingInt(entry -> counts[entry])
+                .thenComparingInt(entry -> ids[entry]);
+            PriorityQueue<Integer> heap = new PriorityQueue<>(PRECOMPUTED_SIZE + 1, order);
+            for (int entry = from; entry < to; entry++) {
+                if (heap.size() < PRECOMPUTED_SIZE) {
+                    heap.add(entry);
+                } else if (counts[entry] >= counts[heap.peek()] && order.compare(entry, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(entry);
+                }
+            }
+            int[] result = new int[heap.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = heap.poll();
+            }
+            return result;
+        }
+
+        /**
+         * 先頭 prefix.length() 文字を prefix と比べた結果（キーが短い場合は足りない文字を最小として扱う）
+         */
+        private int comparePrefix(int entry, String prefix) {
+            int start = offsets[entry];
+            int length = Math.min(length(entry), prefix.length());
+            for (int i = 0; i < length; i++) {
+                int diff = text[start + i] - prefix.charAt(i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return length < prefix.length() ? -1 : 0;
+        }
+
+        /**
+         * prefix で始まる最初のキーの番号（無ければ prefix より大きい最初のキー）
+         */
+        int lowerBound(String prefix) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparePrefix(mid, prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * from 以降で prefix で始まらない最初のキーの番号
+         */
+        int upperBound(String prefix, int from) {
+            int low = from;
+            int high = ids.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparePrefix(mid, prefix) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int length(int entry) {
+            return offsets[entry + 1] - offsets[entry];
+        }
+
+        private char charAt(int entry, int index) {
+            return text[offsets[entry] + index];
+        }
+
+        long estimatedBytes() {
+            long bytes = 2L * text.length + 4L * (offsets.length + ids.length + counts.length);
+            for (Map.Entry<String, int[]> entry : precomputed.entrySet()) {
+                bytes += 64 + 2L * entry.getKey().length() + 4L * entry.getValue().length;
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * 土台の索引を作った後に作成・更新・削除されたユーザー（変更のたびに新しいインスタンスに差し替える）
+     */
+    private static final class Overlay {
+        static final Overlay EMPTY = new Overlay(new TreeMap<>(), Map.of());
+
+        /** キー + 区切り文字 + ユーザーID → ユーザーID */
+        final NavigableMap<String, Integer> entries;
+        /** ユーザーID → 現在のキー（削除されたユーザーは空配列） */
+        final Map<Integer, String[]> keysByUser;
+
+        private Overlay(NavigableMap<String, Integer> entries, Map<Integer, String[]> keysByUser) {
+            this.entries = entries;
+            this.keysByUser = keysByUser;
+        }
+
+        Overlay with(int id, String[] keys) {
+            TreeMap<String, Integer> nextEntries = new TreeMap<>(entries);
+            Map<Integer, String[]> nextKeys = new HashMap<>(keysByUser);
+            String[] previous = nextKeys.put(id, keys);
+            if (previous != null) {
+                for (String key : previous) {
+                    nextEntries.remove(key + KEY_SEPARATOR + id);
+                }
+            }
+            for (String key : keys) {
+                nextEntries.put(key + KEY_SEPARATOR + id, id);
+            }
+            return new Overlay(nextEntries, nextKeys);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.demo.service;
 
 import com.example.demo.domain.model.Post;
-import com.example.demo.application.dto.PostWithUserDto;
+import com.example.demo.domain.model.PostWithUserDto;
 import com.example.demo.exception.BusinessException;
 
 import java.util.List;
@@ -2,7 +2,7 @@ package com.example.demo.service.impl;
 
 import com.example.demo.service.PostService;
 import com.example.demo.domain.model.Post;
-import com.example.demo.application.dto.PostWithUserDto;
+import com.example.demo.domain.model.PostWithUserDto;
 import com.example.demo.application.usecase.PostUseCase;
 import com.example.demo.application.usecase.UserProfileUseCase;
 import com.example.demo.exception.BusinessException;
@@ -0,0 +1,166 @@
+package com.example.demo.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ブロック化Bloomフィルタ（longキー用）
+ *
+ * ビット列を512ビット（long 8個 = 一般的なCPUのキャッシュライン1本分）のブロックに分け、
+ * 1つのキーに対するビットはすべて同じブロック内に立てます。1回の判定で触れるメモリがキャッシュライン1本で済むため、
+ * 通常のBloomフィルタより高速です。同じビット数では偽陽性率が高くなるため、ブロックごとの要素数のばらつきを考慮して
+ * 目標の偽陽性率を満たすビット数を確保します。
+ * 追加はロックを取らずに並行して行えます。削除はできません。
+ */
+public final class BlockedBloomFilter {
+    private static final int BLOCK_WORDS = 8;
+    private static final int BLOCK_BITS = BLOCK_WORDS * 64;
+    /** ブロック内のビット位置1つに使うハッシュのビット数と、64ビットのハッシュ1つから取り出せる位置の数 */
+    private static final int BLOCK_BIT_WIDTH = Integer.numberOfTrailingZeros(BLOCK_BITS);
+    private static final int BITS_PER_HASH = 64 / BLOCK_BIT_WIDTH;
+
+    private static final int MAX_BLOCKS = Integer.MAX_VALUE / BLOCK_WORDS;
+    private static final int MAX_HASH_FUNCTIONS = 16;
+
+    /**
+     * ブロック内のビット位置を決めるハッシュを、ブロックの選択に使うハッシュと独立させるための値
+     * ブロック内の位置は小さな範囲に集中するため、ダブルハッシングではなく再拡散したハッシュから9ビットずつ取り出します。
+     */
+    private static final long BIT_HASH_SEED = 0x9E3779B97F4A7C15L;
+
+    private final AtomicLongArray words;
+    private final int blockCount;
+    private final int hashFunctions;
+    private final LongAdder insertions = new LongAdder();
+
+    private BlockedBloomFilter(int blockCount, int hashFunctions) {
+        this.words = new AtomicLongArray(blockCount * BLOCK_WORDS);
+        this.blockCount = blockCount;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * 想定要素数と目標の偽陽性率からフィルタを作成
+     *
+     * @param expectedInsertions 想定要素数
+     * @param falsePositiveRate 目標の偽陽性率（0より大きく1未満）
+     * @return 作成したフィルタ
+     */
+    public static BlockedBloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("偽陽性率は0より大きく1未満で指定してください: " + falsePositiveRate);
+        }
+        long n = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        // 通常のBloomフィルタの式で初期値を求め、ブロック化を考慮した偽陽性率が目標以下になるまでビット数を増やす
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int blocks;
+        int k;
+        while (true) {
+            blocks = (int) Math.min(MAX_BLOCKS, Math.max(1, (bits + BLOCK_BITS - 1) / BLOCK_BITS));
+            k = (int) Math.max(1, Math.min(MAX_HASH_FUNCTIONS, Math.round((double) blocks * BLOCK_BITS / n * ln2)));
+            if (blocks == MAX_BLOCKS || blockedFalsePositiveRate(n, blocks, k) <= falsePositiveRate) {
+                break;
+            }
+            bits += bits / 10 + BLOCK_BITS;
+        }
+        return new BlockedBloomFilter(blocks, k);
+    }
+
+    /**
+     * キーを追加
+     */
+    public void put(long key) {
+        long hash = mix(key);
+        int base = blockIndex(hash) * BLOCK_WORDS;
+        long bitHash = hash;
+        for (int i = 0; i < hashFunctions; i++) {
+            if (i % BITS_PER_HASH == 0) {
+                bitHash = mix(bitHash + BIT_HASH_SEED);
+            }
+            int bit = (int) (bitHash >>> (i % BITS_PER_HASH * BLOCK_BIT_WIDTH)) & (BLOCK_BITS - 1);
+            long mask = 1L << bit;
+            int index = base + (bit >>> 6);
+            if ((words.get(index) & mask) == 0) {
+                words.getAndAccumulate(index, mask, (current, m) -> current | m);
+            }
+        }
+        insertions.increment();
+    }
+
+    /**
+     * キーが含まれている可能性があるか
+     *
+     * @return falseなら確実に含まれていない
+     */
+    public boolean mightContain(long key) {
+        long hash = mix(key);
+        int base = blockIndex(hash) * BLOCK_WORDS;
+        long bitHash = hash;
+        for (int i = 0; i < hashFunctions; i++) {
+            if (i % BITS_PER_HASH == 0) {
+                bitHash = mix(bitHash + BIT_HASH_SEED);
+            }
+            int bit = (int) (bitHash >>> (i % BITS_PER_HASH * BLOCK_BIT_WIDTH)) & (BLOCK_BITS - 1);
+            if ((words.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return (long) blockCount * BLOCK_BITS;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    public long insertions() {
+        return insertions.sum();
+    }
+
+    /**
+     * 現在の要素数から見積もった偽陽性率
+     */
+    public double estimatedFalsePositiveRate() {
+        return blockedFalsePositiveRate(insertions(), blockCount, hashFunctions);
+    }
+
+    /**
+     * ブロック化Bloomフィルタの偽陽性率の見積もり
+     * 1ブロックあたりの要素数がポアソン分布に従うとして、ブロックごとの偽陽性率を平均します。
+     */
+    static double blockedFalsePositiveRate(long insertions, int blocks, int hashFunctions) {
+        double lambda = (double) insertions / blocks;
+        int maxCount = (int) Math.ceil(lambda + 10 * Math.sqrt(lambda) + 10);
+        double logProbability = -lambda;
+        double rate = 0;
+        for (int j = 0; j <= maxCount; j++) {
+            if (j > 0) {
+                logProbability += Math.log(lambda) - Math.log(j);
+            }
+            double fill = 1 - Math.pow(1 - 1.0 / BLOCK_BITS, (double) j * hashFunctions);
+            rate += Math.exp(logProbability) * Math.pow(fill, hashFunctions);
+        }
+        return rate;
+    }
+
+    private int blockIndex(long hash) {
+        return (int) (((hash >>> 32) * blockCount) >>> 32);
+    }
+
+    /**
+     * 64ビットのハッシュ値の拡散（MurmurHash3のfinalizer）
+     */
+    private static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
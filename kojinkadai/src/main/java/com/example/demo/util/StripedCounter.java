@@ -0,0 +1,89 @@
+package com.example.demo.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * キーごとの加算カウンタ
+ *
+ * キーごとにLongAdderのセルを持ち、同じキーへの同時加算が1か所のロックやCASで直列化されないようにします。
+ * 溜まった値はsnapshotで読み取って永続化し、成功した後にsubtractで差し引きます。
+ * 読み取りから差し引きまでの間に加算された値はセルに残り、次回のsnapshotで読み取られます。
+ *
+ * 0になったセルはpruneで削除します。セルの削除と加算が競合すると加算が失われるため、
+ * pruneはaddと同時に呼ばれないよう、呼び出し側で排他する必要があります。
+ *
+ * @param <K> キーの型
+ */
+public class StripedCounter<K> {
+    private final ConcurrentHashMap<K, LongAdder> cells = new ConcurrentHashMap<>();
+
+    /**
+     * 値を加算
+     *
+     * @param key キー
+     * @param delta 加算する値（負数も可）
+     */
+    public void add(K key, long delta) {
+        LongAdder cell = cells.get(key);
+        if (cell == null) {
+            cell = cells.computeIfAbsent(key, k -> new LongAdder());
+        }
+        cell.add(delta);
+    }
+
+    /**
+     * 未取り出しの値を取得
+     *
+     * @param key キー
+     * @return 前回のdrain以降に加算された値の合計
+     */
+    public long get(K key) {
+        LongAdder cell = cells.get(key);
+        return cell != null ? cell.sum() : 0L;
+    }
+
+    /**
+     * 溜まっている値をすべて読み取る（セルの値は変更しない）
+     *
+     * @return キーごとの値（0のキーは含まない）
+     */
+    public Map<K, Long> snapshot() {
+        Map<K, Long> values = new HashMap<>();
+        cells.forEach((key, cell) -> {
+            long value = cell.sum();
+            if (value != 0) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * 永続化した値を差し引く
+     *
+     * @param values snapshotで読み取った値
+     */
+    public void subtract(Map<K, Long> values) {
+        values.forEach((key, value) -> add(key, -value));
+    }
+
+    /**
+     * 値が0のセルを削除する
+     * addと同時に呼ばないこと（削除したセルへの加算が失われるため）。
+     */
+    public void prune() {
+        cells.values().removeIf(cell -> cell.sum() == 0);
+    }
+
+    /**
+     * 値を保持しているキーの数
+     *
+     * @return セルの数
+     */
+    public int size() {
+        return cells.size();
+    }
+}
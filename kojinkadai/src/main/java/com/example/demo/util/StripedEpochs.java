@@ -0,0 +1,61 @@
+package com.example.demo.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * キーごとの世代番号（キャッシュの読み込み中に変更があったかの検出用）
+ *
+ * 変更を反映する側はadvanceで世代を進め、読み込む側は読み込みの前にcurrentで世代を控えておき、
+ * 読み込み後にchangedSinceで変わっていればその結果をキャッシュに残さないようにします。
+ * キーはハッシュ値で固定数のスロットに割り当てるため、メモリ使用量はキーの数に関係なく一定です。
+ * 別のキーと同じスロットになった場合は変更が無くても「変わった」と判定しますが、
+ * その場合は読み込み結果を捨てるだけなので、判定は安全側に倒れます。
+ */
+public class StripedEpochs {
+    private final AtomicLongArray epochs;
+    private final int mask;
+
+    /**
+     * @param stripes スロットの数（2のべき乗に切り上げる）
+     */
+    public StripedEpochs(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes) * 2 - 1);
+        this.epochs = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 現在の世代を取得
+     *
+     * @param key キー
+     * @return 世代番号
+     */
+    public long current(Object key) {
+        return epochs.get(slot(key));
+    }
+
+    /**
+     * 世代を進める（変更を反映する前に呼ぶ）
+     *
+     * @param key キー
+     */
+    public void advance(Object key) {
+        epochs.incrementAndGet(slot(key));
+    }
+
+    /**
+     * 控えておいた世代から変わったかを判定
+     *
+     * @param key キー
+     * @param epoch currentで控えた世代番号
+     * @return 変わっていればtrue
+     */
+    public boolean changedSince(Object key, long epoch) {
+        return epochs.get(slot(key)) != epoch;
+    }
+
+    private int slot(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
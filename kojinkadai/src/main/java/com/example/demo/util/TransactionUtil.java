@@ -0,0 +1,57 @@
+package com.example.demo.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * トランザクションユーティリティクラス
+ * 
+ * インメモリのキャッシュやインデックスへの反映を、DBのコミット後に行うための補助メソッドを提供します。
+ * ロールバックされた変更がメモリ上にだけ残ることを防ぎます。
+ */
+public final class TransactionUtil {
+    
+    /** プライベートコンストラクタ（インスタンス化を防ぐ） */
+    private TransactionUtil() {
+        throw new UnsupportedOperationException("ユーティリティクラスはインスタンス化できません");
+    }
+    
+    /**
+     * 現在のトランザクションがコミットされた後に処理を実行
+     * トランザクション外で呼ばれた場合は即座に実行します。
+     * 
+     * @param action コミット後に実行する処理
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 現在のトランザクションが完了した後に処理を実行（コミット・ロールバックのどちらでも実行）
+     * 同じトランザクションに登録したafterCommitの処理はすべて、この処理より先に実行されます。
+     * トランザクション外で呼ばれた場合は即座に実行します。
+     * 
+     * @param action 完了後に実行する処理
+     */
+    public static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
@@ -29,3 +29,14 @@ INSERT INTO FOLLOWS (FOLLOWER_ID, FOLLOWING_ID) VALUES
 (3, 1), -- user2がadminをフォロー
 (3, 2); -- user2がuser1をフォロー
 
+-- フォロー数・フォロワー数カウンタの初期値
+UPDATE APP_USERS U SET
+    FOLLOWING_COUNT = (SELECT COUNT(*) FROM FOLLOWS F WHERE F.FOLLOWER_ID = U.ID),
+    FOLLOWER_COUNT = (SELECT COUNT(*) FROM FOLLOWS F WHERE F.FOLLOWING_ID = U.ID);
+
+-- ホームタイムライン受信箱の初期データ（自分の投稿 + フォロー中ユーザーの投稿）
+INSERT INTO HOME_TIMELINE (OWNER_ID, POST_ID, AUTHOR_ID, CREATED_AT)
+SELECT P.USER_ID, P.ID, P.USER_ID, P.CREATED_AT FROM POSTS P
+UNION ALL
+SELECT F.FOLLOWER_ID, P.ID, P.USER_ID, P.CREATED_AT FROM POSTS P
+INNER JOIN FOLLOWS F ON F.FOLLOWING_ID = P.USER_ID;
@@ -23,10 +23,18 @@ CREATE TABLE IF NOT EXISTS APP_USERS (
     AVATAR_URL VARCHAR2(255),
     CREATED_AT TIMESTAMP DEFAULT NOW() NOT NULL,
     UPDATED_AT TIMESTAMP DEFAULT NOW() NOT NULL,
+    -- フォロー数・フォロワー数の非正規化カウンタ（FOLLOWSへの追加・削除と同じトランザクションで更新）
+    FOLLOWING_COUNT NUMBER(10) DEFAULT 0 NOT NULL,
+    FOLLOWER_COUNT NUMBER(10) DEFAULT 0 NOT NULL,
+    -- フォローグラフのPageRankによる影響力スコア（平均が1、定期的に計算し直す）
+    INFLUENCE DOUBLE DEFAULT 0 NOT NULL,
     CONSTRAINT APP_USERS_PK PRIMARY KEY(ID),
     CONSTRAINT FK_APP_USERS_USERNAME FOREIGN KEY(USERNAME) REFERENCES USERS(USERNAME)
 );
 
+-- ユーザー一覧のキーセット方式のページング用インデックス（登録日時の新しい順）
+CREATE INDEX IF NOT EXISTS IDX_APP_USERS_CREATED ON APP_USERS(CREATED_AT, ID);
+
 -- 投稿テーブル（既存のUSER_COMMENTを置き換え）
 CREATE TABLE IF NOT EXISTS POSTS (
     ID NUMBER(10) AUTO_INCREMENT,
@@ -34,10 +42,18 @@ CREATE TABLE IF NOT EXISTS POSTS (
     CONTENT VARCHAR2(400) NOT NULL,
     CREATED_AT TIMESTAMP DEFAULT NOW() NOT NULL,
     UPDATED_AT TIMESTAMP DEFAULT NOW() NOT NULL,
+    -- フォロワーの受信箱（HOME_TIMELINE）へ配信したか（ハイブリッド方式で配信しなかった投稿はFALSE。読み取り時に取得する）
+    FANNED_OUT BOOLEAN DEFAULT TRUE NOT NULL,
     CONSTRAINT POSTS_PK PRIMARY KEY(ID),
     CONSTRAINT POSTS_USER_FK FOREIGN KEY(USER_ID) REFERENCES APP_USERS(ID)
 );
 
+-- タイムライン取得用インデックス（ユーザーごとの新着順取得。IDまで含めてキーセット方式のページングにも使う）
+CREATE INDEX IF NOT EXISTS IDX_POSTS_USER_CREATED ON POSTS(USER_ID, CREATED_AT, ID);
+
+-- 受信箱へ配信しなかった投稿の読み取り時取得用インデックス（フォロー中ユーザーごとの新着順取得）
+CREATE INDEX IF NOT EXISTS IDX_POSTS_USER_FANNED_OUT_CREATED ON POSTS(USER_ID, FANNED_OUT, CREATED_AT, ID);
+
 -- フォロー関係テーブル
 CREATE TABLE IF NOT EXISTS FOLLOWS (
     ID NUMBER(10) AUTO_INCREMENT,
@@ -50,3 +66,21 @@ CREATE TABLE IF NOT EXISTS FOLLOWS (
     CONSTRAINT FOLLOWS_UNIQUE UNIQUE(FOLLOWER_ID, FOLLOWING_ID)
 );
 
+-- フォロー中・フォロワー一覧のキーセット方式のページング用インデックス（新しくフォローした順）
+CREATE INDEX IF NOT EXISTS IDX_FOLLOWS_FOLLOWER_CREATED ON FOLLOWS(FOLLOWER_ID, CREATED_AT, ID);
+CREATE INDEX IF NOT EXISTS IDX_FOLLOWS_FOLLOWING_CREATED ON FOLLOWS(FOLLOWING_ID, CREATED_AT, ID);
+
+-- ホームタイムライン受信箱テーブル（ファンアウト・オン・ライト方式用）
+-- 投稿時にフォロワーごとの受信箱へ投稿IDを配信し、読み取りはOWNER_ID単位の範囲スキャンで行う
+CREATE TABLE IF NOT EXISTS HOME_TIMELINE (
+    OWNER_ID NUMBER(10) NOT NULL,
+    POST_ID NUMBER(10) NOT NULL,
+    AUTHOR_ID NUMBER(10) NOT NULL,
+    CREATED_AT TIMESTAMP NOT NULL,
+    CONSTRAINT HOME_TIMELINE_PK PRIMARY KEY(OWNER_ID, POST_ID),
+    CONSTRAINT HOME_TIMELINE_OWNER_FK FOREIGN KEY(OWNER_ID) REFERENCES APP_USERS(ID),
+    CONSTRAINT HOME_TIMELINE_POST_FK FOREIGN KEY(POST_ID) REFERENCES POSTS(ID) ON DELETE CASCADE
+);
+
+-- 受信箱の新着順取得用インデックス
+CREATE INDEX IF NOT EXISTS IDX_HOME_TIMELINE_OWNER_CREATED ON HOME_TIMELINE(OWNER_ID, CREATED_AT);
@@ -0,0 +1,61 @@
+// 一覧の無限スクロール
+// data-infinite-scroll（続きのページの項目だけを返すURL）と data-next-cursor を持つ要素について、
+// 末尾が画面に近づいたら次のページの項目を読み込んで追加する。次のページのカーソルは X-Next-Cursor ヘッダーで受け取る。
+// スクリプトが動かない場合のために置いている「次へ」のリンク（data-pager-for に一覧の id を指定した要素）は隠す。
+(function() {
+    if (!('IntersectionObserver' in window)) {
+        return;
+    }
+    document.querySelectorAll('[data-infinite-scroll]').forEach(list => {
+        let cursor = list.dataset.nextCursor;
+        if (!cursor) {
+            return;
+        }
+        document.querySelectorAll(`[data-pager-for="${list.id}"]`).forEach(pager => pager.hidden = true);
+
+        const sentinel = document.createElement('div');
+        list.after(sentinel);
+        let loading = false;
+
+        const observer = new IntersectionObserver(entries => {
+            if (loading || !entries.some(entry => entry.isIntersecting)) {
+                return;
+            }
+            loading = true;
+            const url = new URL(list.dataset.infiniteScroll, window.location.href);
+            url.searchParams.set('cursor', cursor);
+            fetch(url, { headers: { 'Accept': 'text/html' } })
+            .then(response => {
+                // ログイン画面などへ転送された場合は、転送先のページを項目として追加しない
+                if (!response.ok || response.redirected) {
+                    throw new Error(`HTTP ${response.status}${response.redirected ? ' (redirected)' : ''}`);
+                }
+                cursor = response.headers.get('X-Next-Cursor');
+                return response.text();
+            })
+            .then(html => {
+                list.insertAdjacentHTML('beforeend', html);
+                if (!cursor) {
+                    observer.disconnect();
+                    sentinel.remove();
+                }
+                loading = false;
+            })
+            .catch(error => {
+                // 読み込めなかった場合は、読み込めなかったページを指す「次へ」のリンクに戻す
+                console.error('Error:', error);
+                observer.disconnect();
+                sentinel.remove();
+                document.querySelectorAll(`[data-pager-for="${list.id}"]`).forEach(pager => {
+                    pager.querySelectorAll('a[href*="cursor="]').forEach(link => {
+                        const next = new URL(link.href);
+                        next.searchParams.set('cursor', cursor);
+                        link.href = next;
+                    });
+                    pager.hidden = false;
+                });
+            });
+        }, { rootMargin: '400px' });
+        observer.observe(sentinel);
+    });
+})();
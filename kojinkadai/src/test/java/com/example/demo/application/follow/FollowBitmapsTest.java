@@ -0,0 +1,73 @@
+package com.example.demo.application.follow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.domain.model.FollowRepository;
+import com.example.demo.util.CompressedBitmap;
+
+/**
+ * FollowBitmapsのテスト
+ *
+ * フォロー関係の変更で集合が読み込み直され、読み込み中にコミットされた変更は
+ * 読み込んだ集合をキャッシュに残さないことで次の取得に反映されることを確認します。
+ */
+class FollowBitmapsTest {
+    private final FollowRepository followRepository = mock(FollowRepository.class);
+    private final FollowBitmaps followBitmaps = new FollowBitmaps(followRepository);
+
+    @Test
+    void onFollowChanged_reloadsAffectedSets() {
+        when(followRepository.findFollowingIdsByFollowerId("1")).thenReturn(List.of("2"));
+        when(followRepository.findFollowerIdsByFollowingId("3")).thenReturn(List.of());
+        assertThat(followBitmaps.following("1").contains(3)).isFalse();
+        assertThat(followBitmaps.followers("3").contains(1)).isFalse();
+
+        when(followRepository.findFollowingIdsByFollowerId("1")).thenReturn(List.of("2", "3"));
+        when(followRepository.findFollowerIdsByFollowingId("3")).thenReturn(List.of("1"));
+        followBitmaps.onFollowChanged("1", "3");
+
+        assertThat(followBitmaps.following("1").contains(3)).isTrue();
+        assertThat(followBitmaps.followers("3").contains(1)).isTrue();
+    }
+
+    @Test
+    void following_discardsSetLoadedBeforeFollowCommittedDuringLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        // 読み込み中（フォローのコミット前の一覧を読んだ後）にフォローがコミットされる
+        when(followRepository.findFollowingIdsByFollowerId("1"))
+            .thenAnswer(invocation -> {
+                loading.countDown();
+                await(committed);
+                return List.of("2");
+            })
+            .thenReturn(List.of("2", "3"));
+
+        CompletableFuture<CompressedBitmap> firstLoad = CompletableFuture.supplyAsync(() -> followBitmaps.following("1"));
+        await(loading);
+        followBitmaps.onFollowChanged("1", "3");
+        committed.countDown();
+
+        assertThat(firstLoad.get(10, TimeUnit.SECONDS).contains(3)).isFalse();
+        // コミット前の一覧はキャッシュに残らず、次の取得で読み込み直される
+        assertThat(followBitmaps.following("1").contains(3)).isTrue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.application.follow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.config.SimilarUserProperties;
+import com.example.demo.domain.model.FollowCounterRepository;
+import com.example.demo.domain.model.FollowRepository;
+
+/**
+ * FollowerMinHashIndexのテスト
+ *
+ * フォロワー集合をメモリ上に持つリポジトリを使い、フォロワー集合が重なるユーザーだけが似ているアカウントとして返り、
+ * フォロー・フォロー解除の後も索引がフォロワー集合と食い違わないことを確認します。
+ */
+class FollowerMinHashIndexTest {
+    /** ユーザーID → フォロワーのユーザーID */
+    private final Map<String, Set<String>> followers = new HashMap<>();
+
+    private FollowerMinHashIndex index;
+
+    @BeforeEach
+    void setUp() {
+        setFollowers("10", 1, 40);
+        setFollowers("11", 1, 40);
+        // 10と39人が共通（Jaccard係数 39/41）
+        setFollowers("12", 2, 41);
+        // 10とは共通のフォロワーがいない
+        setFollowers("13", 100, 140);
+        // フォロワー数が下限（2人）に満たない
+        setFollowers("14", 1, 1);
+
+        FollowRepository followRepository = mock(FollowRepository.class);
+        when(followRepository.findFollowerIdsByFollowingId(anyString()))
+            .thenAnswer(invocation -> new ArrayList<>(followersOf(invocation.getArgument(0))));
+        when(followRepository.countByFollowingId(anyString()))
+            .thenAnswer(invocation -> followersOf(invocation.getArgument(0)).size());
+        FollowCounterRepository followCounterRepository = mock(FollowCounterRepository.class);
+        when(followCounterRepository.findUserIdsAfter(isNull(), anyInt()))
+            .thenReturn(List.of("10", "11", "12", "13", "14"));
+        when(followCounterRepository.findUserIdsAfter(anyString(), anyInt())).thenReturn(List.of());
+
+        SimilarUserProperties properties = new SimilarUserProperties();
+        properties.setMinSimilarity(0.2);
+        properties.setMinFollowers(2);
+        properties.setParallelism(2);
+        index = new FollowerMinHashIndex(followRepository, followCounterRepository, properties);
+        index.rebuild();
+    }
+
+    @Test
+    void findSimilar_returnsUsersWithOverlappingFollowersMostSimilarFirst() {
+        List<String> similar = index.findSimilar("10", 5);
+
+        assertThat(similar).startsWith("11").contains("12").doesNotContain("10", "13", "14");
+        assertThat(index.stats()).containsEntry("users", 4);
+    }
+
+    @Test
+    void findSimilar_returnsEmptyForUserOutsideIndex() {
+        assertThat(index.findSimilar("14", 5)).isEmpty();
+        assertThat(index.findSimilar("999", 5)).isEmpty();
+        assertThat(index.findSimilar("abc", 5)).isEmpty();
+    }
+
+    @Test
+    void findSimilar_respectsLimit() {
+        assertThat(index.findSimilar("10", 1)).containsExactly("11");
+    }
+
+    @Test
+    void onFollow_addsUserWhoReachesMinFollowers() {
+        // 作り直した時点のユーザーIDの範囲外の新しいユーザーが、10と同じフォロワーを集める
+        for (int follower = 1; follower <= 40; follower++) {
+            followersOf("50").add(Integer.toString(follower));
+            index.onFollow(Integer.toString(follower), "50");
+        }
+
+        assertThat(index.findSimilar("50", 5)).contains("10", "11");
+        assertThat(index.findSimilar("10", 5)).contains("50");
+    }
+
+    @Test
+    void onFollow_updatesSignatureOfIndexedUser() {
+        // 13のフォロワーを10と同じ集合に入れ替える
+        for (int follower = 1; follower <= 40; follower++) {
+            followersOf("13").add(Integer.toString(follower));
+            index.onFollow(Integer.toString(follower), "13");
+        }
+        for (int follower = 100; follower <= 140; follower++) {
+            followersOf("13").remove(Integer.toString(follower));
+            index.onUnfollow(Integer.toString(follower), "13");
+        }
+
+        assertThat(index.findSimilar("10", 5)).contains("13");
+    }
+
+    @Test
+    void onUnfollow_removesUserBelowMinFollowers() {
+        for (int follower = 2; follower <= 40; follower++) {
+            followersOf("11").remove(Integer.toString(follower));
+            index.onUnfollow(Integer.toString(follower), "11");
+        }
+
+        assertThat(index.findSimilar("11", 5)).isEmpty();
+        assertThat(index.findSimilar("10", 5)).doesNotContain("11");
+        assertThat(index.stats()).containsEntry("users", 3);
+    }
+
+    @Test
+    void rebuild_keepsResultsForUnchangedFollowers() {
+        List<String> before = index.findSimilar("10", 5);
+
+        index.rebuild();
+
+        assertThat(index.findSimilar("10", 5)).isEqualTo(before);
+    }
+
+    private void setFollowers(String userId, int from, int to) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (int follower = from; follower <= to; follower++) {
+            ids.add(Integer.toString(follower));
+        }
+        followers.put(userId, ids);
+    }
+
+    private Set<String> followersOf(String userId) {
+        return followers.computeIfAbsent(userId, key -> new LinkedHashSet<>());
+    }
+}
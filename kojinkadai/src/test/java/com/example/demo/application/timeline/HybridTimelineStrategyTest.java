@@ -0,0 +1,112 @@
+package com.example.demo.application.timeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.application.usecase.FollowUseCase;
+import com.example.demo.application.usecase.PostUseCase;
+import com.example.demo.domain.model.PostWithUserDto;
+
+/**
+ * HybridTimelineStrategyのテスト
+ *
+ * 初期データのadmin（1）はuser1（2）とuser2（3）にフォローされているため、しきい値を2にすると大規模アカウントになります。
+ * 受信箱へ配信しなかった投稿が、投稿者のフォロワー数がしきい値を下回った後もフォロワーのタイムラインに残ることを確認します。
+ */
+@SpringBootTest(properties = {
+    // 設定の異なるコンテキストが同じインメモリDBに初期データを二重に投入しないよう、専用のDBを使う
+    "spring.datasource.url=jdbc:h2:mem:hybrid-timeline;MODE=MYSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "app.timeline.strategy=hybrid",
+    "app.timeline.fanout-follower-threshold=2",
+    "app.follow-counter.flush-interval-ms=3600000"
+})
+class HybridTimelineStrategyTest {
+    private static final String AUTHOR_ID = "1";
+    private static final String READER_ID = "2";
+    private static final String OTHER_FOLLOWER_ID = "3";
+
+    @Autowired
+    private HybridTimelineStrategy strategy;
+
+    @Autowired
+    private PostUseCase postUseCase;
+
+    @Autowired
+    private FollowUseCase followUseCase;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<String> createdPostIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (String postId : createdPostIds) {
+            jdbcTemplate.update("DELETE FROM POSTS WHERE ID = ?", Long.parseLong(postId));
+        }
+        if (!followUseCase.isFollowing(OTHER_FOLLOWER_ID, AUTHOR_ID)) {
+            followUseCase.follow(OTHER_FOLLOWER_ID, AUTHOR_ID);
+        }
+    }
+
+    @Test
+    void onPostCreated_recordsPostsOfHighFollowerAccountsAsNotFannedOut() {
+        String postId = post("大規模アカウントの投稿");
+
+        assertThat(inboxContains(READER_ID, postId)).isFalse();
+        assertThat(fannedOut(postId)).isFalse();
+        assertThat(timelinePostIds(READER_ID)).contains(postId);
+    }
+
+    @Test
+    void getTimeline_keepsNotFannedOutPostsAfterAuthorDropsBelowThreshold() {
+        String pulledPostId = post("しきい値以上のときの投稿");
+
+        followUseCase.unfollow(OTHER_FOLLOWER_ID, AUTHOR_ID);
+        String fannedOutPostId = post("しきい値未満になった後の投稿");
+
+        assertThat(inboxContains(READER_ID, fannedOutPostId)).isTrue();
+        assertThat(timelinePostIds(READER_ID)).contains(pulledPostId, fannedOutPostId);
+        // フォローを外したユーザーには読み取り時に取得する投稿も表示されない
+        assertThat(timelinePostIds(OTHER_FOLLOWER_ID)).doesNotContain(pulledPostId, fannedOutPostId);
+    }
+
+    @Test
+    void onFollow_backfillsOnlyFannedOutPosts() {
+        followUseCase.unfollow(OTHER_FOLLOWER_ID, AUTHOR_ID);
+        String fannedOutPostId = post("配信される投稿");
+        followUseCase.follow(OTHER_FOLLOWER_ID, AUTHOR_ID);
+        String pulledPostId = post("配信されない投稿");
+
+        assertThat(inboxContains(OTHER_FOLLOWER_ID, fannedOutPostId)).isTrue();
+        assertThat(inboxContains(OTHER_FOLLOWER_ID, pulledPostId)).isFalse();
+        assertThat(timelinePostIds(OTHER_FOLLOWER_ID)).contains(fannedOutPostId, pulledPostId);
+    }
+
+    private String post(String content) {
+        String postId = postUseCase.createPost(AUTHOR_ID, content).getId();
+        createdPostIds.add(postId);
+        return postId;
+    }
+
+    private List<String> timelinePostIds(String userId) {
+        return strategy.getTimeline(userId, 100).stream().map(PostWithUserDto::getPostId).toList();
+    }
+
+    private boolean inboxContains(String ownerId, String postId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM HOME_TIMELINE WHERE OWNER_ID = ? AND POST_ID = ?",
+            Integer.class, Long.parseLong(ownerId), Long.parseLong(postId)) > 0;
+    }
+
+    private boolean fannedOut(String postId) {
+        return jdbcTemplate.queryForObject("SELECT FANNED_OUT FROM POSTS WHERE ID = ?", Boolean.class, Long.parseLong(postId));
+    }
+}
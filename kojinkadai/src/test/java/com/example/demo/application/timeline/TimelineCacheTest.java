@@ -0,0 +1,104 @@
+package com.example.demo.application.timeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.config.TimelineProperties;
+import com.example.demo.domain.model.Post;
+import com.example.demo.domain.model.PostWithUserDto;
+import com.example.demo.domain.model.User;
+
+/**
+ * TimelineCacheのテスト
+ *
+ * キャッシュ済みのエントリは差分更新され、読み込み中にコミットされた投稿は
+ * 読み込み結果をキャッシュに残さないことで次の取得に反映されることを確認します。
+ */
+class TimelineCacheTest {
+    private static final String USER_ID = "1";
+
+    private final TimelineCache cache = new TimelineCache(new TimelineProperties());
+
+    @Test
+    void get_reusesLoadedTimeline() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(USER_ID, () -> {
+            loads.incrementAndGet();
+            return List.of(post("1", 0));
+        });
+        List<PostWithUserDto> cached = cache.get(USER_ID, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertThat(loads).hasValue(1);
+        assertThat(postIds(cached)).containsExactly("1");
+    }
+
+    @Test
+    void onPostCreated_patchesCachedTimeline() {
+        cache.get(USER_ID, () -> List.of(post("1", 0)));
+
+        cache.onPostCreated(post("2", 1), List.of(USER_ID));
+
+        assertThat(postIds(cache.get(USER_ID, List::of))).containsExactly("2", "1");
+        assertThat(cache.stats()).containsEntry("discardedLoadCount", 0L);
+    }
+
+    @Test
+    void get_discardsTimelineLoadedBeforePostCommittedDuringLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+
+        // 読み込み中（DBから投稿2のコミット前の内容を読んだ後）に投稿2がコミットされる
+        CompletableFuture<List<PostWithUserDto>> firstLoad = CompletableFuture.supplyAsync(() ->
+            cache.get(USER_ID, () -> {
+                List<PostWithUserDto> beforeCommit = List.of(post("1", 0));
+                loading.countDown();
+                await(committed);
+                return beforeCommit;
+            }));
+        await(loading);
+        cache.onPostCreated(post("2", 1), List.of(USER_ID));
+        committed.countDown();
+
+        assertThat(postIds(firstLoad.get(10, TimeUnit.SECONDS))).containsExactly("1");
+        // コミット前の内容はキャッシュに残らず、次の取得で読み込み直される
+        List<PostWithUserDto> reloaded = cache.get(USER_ID, () -> List.of(post("2", 1), post("1", 0)));
+        assertThat(postIds(reloaded)).containsExactly("2", "1");
+        assertThat(cache.stats()).containsEntry("discardedLoadCount", 1L);
+        // 読み込み直した内容はキャッシュされる
+        assertThat(postIds(cache.get(USER_ID, List::of))).containsExactly("2", "1");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> postIds(List<PostWithUserDto> posts) {
+        return posts.stream().map(PostWithUserDto::getPostId).toList();
+    }
+
+    /**
+     * 基準時刻から minutes 分後に作成された投稿
+     */
+    private static PostWithUserDto post(String id, int minutes) {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(minutes);
+        User author = User.from("2", "author", "author@example.com", "投稿者", null, null, createdAt, createdAt);
+        return PostWithUserDto.from(Post.from(id, "2", "投稿" + id, createdAt, createdAt), author);
+    }
+}
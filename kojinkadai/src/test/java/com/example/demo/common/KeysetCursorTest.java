@@ -0,0 +1,98 @@
+package com.example.demo.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * KeysetCursorのテスト
+ *
+ * 文字列への変換と復元で同じカーソルに戻り、形式の正しくない文字列は IllegalArgumentException になり、
+ * 新しい順に並んだキーの中で前のページの続きの位置を正しく求めることを確認します。
+ */
+class KeysetCursorTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+
+    @Test
+    void decode_restoresEncodedCursor() {
+        for (KeysetCursor cursor : List.of(
+                KeysetCursor.of(BASE, "42"),
+                KeysetCursor.of(LocalDateTime.of(1970, 1, 1, 0, 0), "1"),
+                KeysetCursor.of(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000), "7"),
+                KeysetCursor.of(BASE, Long.toString(Long.MAX_VALUE)))) {
+            assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+        }
+    }
+
+    @Test
+    void decode_keepsMicrosecondsOnly() {
+        KeysetCursor cursor = KeysetCursor.of(BASE.withNano(123_456_789), "1");
+
+        assertThat(KeysetCursor.decode(cursor.encode()).getCreatedAt()).isEqualTo(BASE);
+    }
+
+    @Test
+    void decode_returnsNullForFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("")).isNull();
+        assertThat(KeysetCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void decode_rejectsMalformedCursor() {
+        for (String cursor : List.of("!!!", "abc", encodeRaw("nohyphen"), encodeRaw("-1"),
+                encodeRaw("zz-1"), encodeRaw("10-abc"), encodeRaw("10-"))) {
+            assertThatThrownBy(() -> KeysetCursor.decode(cursor))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("カーソルの形式が正しくありません: ");
+        }
+    }
+
+    @Test
+    void newestFirst_ordersByCreatedAtThenIdDescending() {
+        KeysetCursor older = KeysetCursor.of(BASE.minusSeconds(1), "100");
+        KeysetCursor newer = KeysetCursor.of(BASE, "2");
+        KeysetCursor newerLargerId = KeysetCursor.of(BASE, "10");
+
+        List<KeysetCursor> keys = new ArrayList<>(List.of(older, newer, newerLargerId));
+        keys.sort(KeysetCursor.NEWEST_FIRST);
+
+        // IDは文字列ではなく数値として比べる
+        assertThat(keys).containsExactly(newerLargerId, newer, older);
+    }
+
+    @Test
+    void indexAfter_findsPositionFollowingCursor() {
+        List<KeysetCursor> keys = List.of(
+            KeysetCursor.of(BASE, "9"),
+            KeysetCursor.of(BASE, "8"),
+            KeysetCursor.of(BASE.minusMinutes(1), "7"),
+            KeysetCursor.of(BASE.minusMinutes(2), "6"));
+
+        assertThat(KeysetCursor.indexAfter(keys, null)).isZero();
+        // カーソルの行が残っている場合はその次
+        assertThat(KeysetCursor.indexAfter(keys, KeysetCursor.of(BASE, "8"))).isEqualTo(2);
+        // カーソルの行が削除されている場合も、その行があった位置の次
+        assertThat(KeysetCursor.indexAfter(keys, KeysetCursor.of(BASE.minusSeconds(30), "5"))).isEqualTo(2);
+        // 先頭より新しいカーソルは先頭から
+        assertThat(KeysetCursor.indexAfter(keys, KeysetCursor.of(BASE.plusMinutes(1), "10"))).isZero();
+        // 末尾以降は keys.size()
+        assertThat(KeysetCursor.indexAfter(keys, KeysetCursor.of(BASE.minusMinutes(2), "6"))).isEqualTo(4);
+        assertThat(KeysetCursor.indexAfter(keys, KeysetCursor.of(BASE.minusDays(1), "1"))).isEqualTo(4);
+        assertThat(KeysetCursor.indexAfter(List.of(), KeysetCursor.of(BASE, "1"))).isZero();
+    }
+
+    /**
+     * 任意の文字列を encode と同じ方法でBase64にする
+     */
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+}
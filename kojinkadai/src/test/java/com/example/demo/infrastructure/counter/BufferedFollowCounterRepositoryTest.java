@@ -0,0 +1,183 @@
+package com.example.demo.infrastructure.counter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * BufferedFollowCounterRepositoryのテスト
+ *
+ * 初期データのユーザー（1: admin, 2: user1）を使い、user1をadminがフォローする操作で
+ * 差分の書き出しと実件数との突き合わせがDBの値と食い違わないことを確認します。
+ */
+@SpringBootTest(properties = "app.follow-counter.flush-interval-ms=3600000")
+class BufferedFollowCounterRepositoryTest {
+    private static final String FOLLOWER_ID = "1";
+    private static final String FOLLOWING_ID = "2";
+
+    @Autowired
+    private BufferedFollowCounterRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        repository.flush();
+        jdbcTemplate.update("DELETE FROM FOLLOWS WHERE FOLLOWER_ID = ? AND FOLLOWING_ID = ?", FOLLOWER_ID, FOLLOWING_ID);
+        repository.reconcile(List.of(FOLLOWER_ID, FOLLOWING_ID));
+    }
+
+    @Test
+    void flush_writesPendingDeltasToDatabase() {
+        int following = storedFollowingCount(FOLLOWER_ID);
+        int followers = storedFollowerCount(FOLLOWING_ID);
+
+        follow();
+
+        // 書き出し前はDBの値に差分を足して返す
+        assertThat(storedFollowingCount(FOLLOWER_ID)).isEqualTo(following);
+        assertThat(repository.getFollowingCount(FOLLOWER_ID)).isEqualTo(following + 1);
+        assertThat(repository.getFollowerCount(FOLLOWING_ID)).isEqualTo(followers + 1);
+
+        repository.flush();
+
+        assertThat(storedFollowingCount(FOLLOWER_ID)).isEqualTo(following + 1);
+        assertThat(storedFollowerCount(FOLLOWING_ID)).isEqualTo(followers + 1);
+        // 書き出した差分は二重に足されない
+        assertThat(repository.getFollowingCount(FOLLOWER_ID)).isEqualTo(following + 1);
+        assertThat(repository.getFollowerCount(FOLLOWING_ID)).isEqualTo(followers + 1);
+    }
+
+    @Test
+    void adjust_ignoresRolledBackOperation() {
+        int following = repository.getFollowingCount(FOLLOWER_ID);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            insertFollow();
+            repository.adjust(FOLLOWER_ID, FOLLOWING_ID, 1);
+            status.setRollbackOnly();
+        });
+        repository.flush();
+
+        assertThat(repository.getFollowingCount(FOLLOWER_ID)).isEqualTo(following);
+        assertThat(storedFollowingCount(FOLLOWER_ID)).isEqualTo(following);
+    }
+
+    @Test
+    void reconcile_repairsDriftedCounts() {
+        follow();
+        repository.flush();
+        jdbcTemplate.update("UPDATE APP_USERS SET FOLLOWING_COUNT = 100 WHERE ID = ?", FOLLOWER_ID);
+
+        int repaired = repository.reconcile(List.of(FOLLOWER_ID, FOLLOWING_ID));
+
+        assertThat(repaired).isEqualTo(1);
+        assertThat(storedFollowingCount(FOLLOWER_ID)).isEqualTo(actualFollowingCount(FOLLOWER_ID));
+    }
+
+    @Test
+    void reconcile_skipsUsersWhoseOperationIsNotYetBuffered() {
+        int[] repaired = new int[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            insertFollow();
+            // フォローの行はコミット済みだが、差分はまだ加算されていない時点で突き合わせる
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    repaired[0] = repository.reconcile(List.of(FOLLOWER_ID, FOLLOWING_ID));
+                }
+            });
+            repository.adjust(FOLLOWER_ID, FOLLOWING_ID, 1);
+        });
+        repository.flush();
+
+        assertThat(repaired[0]).isZero();
+        assertThat(storedFollowingCount(FOLLOWER_ID)).isEqualTo(actualFollowingCount(FOLLOWER_ID));
+        assertThat(storedFollowerCount(FOLLOWING_ID)).isEqualTo(actualFollowerCount(FOLLOWING_ID));
+    }
+
+    @Test
+    void reconcile_flushesPendingDeltasFirst() {
+        follow();
+
+        int repaired = repository.reconcile(List.of(FOLLOWER_ID, FOLLOWING_ID));
+
+        assertThat(repaired).isZero();
+        assertThat(storedFollowingCount(FOLLOWER_ID)).isEqualTo(actualFollowingCount(FOLLOWER_ID));
+        assertThat(repository.getFollowingCount(FOLLOWER_ID)).isEqualTo(actualFollowingCount(FOLLOWER_ID));
+    }
+
+    @Test
+    void getFollowerCount_neverCountsFlushedDeltaTwice() throws Exception {
+        int followers = repository.getFollowerCount(FOLLOWING_ID);
+        AtomicInteger expected = new AtomicInteger(followers);
+        AtomicInteger maxOvercount = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        // 書き出しと並行して読み取り、書き出した差分をDBの値と未書き出しの差分の両方で数えていないかを調べる
+        CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+            while (running.get()) {
+                int read = repository.getFollowerCount(FOLLOWING_ID);
+                maxOvercount.accumulateAndGet(read - expected.get(), Math::max);
+            }
+        });
+        try {
+            for (int i = 0; i < 100; i++) {
+                // 読み取り側が「加算前」と「加算後」のどちらを見ても正しいよう、期待値を先に上げる
+                expected.incrementAndGet();
+                repository.adjust(FOLLOWER_ID, FOLLOWING_ID, 1);
+                repository.flush();
+            }
+        } finally {
+            running.set(false);
+            reader.get(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(maxOvercount.get()).isLessThanOrEqualTo(0);
+        assertThat(repository.getFollowerCount(FOLLOWING_ID)).isEqualTo(followers + 100);
+    }
+
+    private void follow() {
+        transactionTemplate.executeWithoutResult(status -> {
+            insertFollow();
+            repository.adjust(FOLLOWER_ID, FOLLOWING_ID, 1);
+        });
+    }
+
+    private void insertFollow() {
+        jdbcTemplate.update("INSERT INTO FOLLOWS (FOLLOWER_ID, FOLLOWING_ID) VALUES (?, ?)", FOLLOWER_ID, FOLLOWING_ID);
+    }
+
+    private int storedFollowingCount(String userId) {
+        return jdbcTemplate.queryForObject("SELECT FOLLOWING_COUNT FROM APP_USERS WHERE ID = ?", Integer.class, userId);
+    }
+
+    private int storedFollowerCount(String userId) {
+        return jdbcTemplate.queryForObject("SELECT FOLLOWER_COUNT FROM APP_USERS WHERE ID = ?", Integer.class, userId);
+    }
+
+    private int actualFollowingCount(String userId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM FOLLOWS WHERE FOLLOWER_ID = ?", Integer.class, userId);
+    }
+
+    private int actualFollowerCount(String userId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM FOLLOWS WHERE FOLLOWING_ID = ?", Integer.class, userId);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.infrastructure.counter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.domain.model.FollowCounterRepository;
+import com.example.demo.infrastructure.datasource.FollowCounterDatasourceImpl;
+
+/**
+ * フォローカウンタの競合ベンチマーク
+ *
+ * 64スレッドが初期データのuser1（2）を同時にフォローし続けた場合の、カウンタ更新のスループットを比較します。
+ * - 行ロック: FollowCounterDatasourceImplでAPP_USERSの同じ行を1操作1トランザクションで更新する
+ * - ストライプ: BufferedFollowCounterRepositoryでメモリ上のセルに加算し、最後にまとめて書き出す
+ * フォローする側は存在しないユーザーIDにして、競合をフォローされる側の行に絞ります。
+ * 時間がかかるため通常のテストからは除外しています（実行: mvn test -Pbenchmark）。
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "app.follow-counter.flush-interval-ms=3600000")
+class FollowCounterContentionBenchmarkTest {
+    private static final String HOT_USER_ID = "2";
+    private static final long FOLLOWER_ID_BASE = 1_000_000L;
+    private static final int THREADS = 64;
+    private static final int OPS_PER_THREAD = 200;
+
+    @Autowired
+    private FollowCounterDatasourceImpl rowLockRepository;
+
+    @Autowired
+    private BufferedFollowCounterRepository stripedRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        stripedRepository.reconcile(List.of(HOT_USER_ID));
+    }
+
+    @Test
+    void adjust_comparesRowLockWithStripedCounter() throws Exception {
+        // JITのウォームアップを兼ねて2回実行し、2回目の結果を表示する
+        for (int round = 1; round <= 2; round++) {
+            boolean print = round == 2;
+            run("行ロック", rowLockRepository, print);
+            run("ストライプ", stripedRepository, print);
+        }
+    }
+
+    /**
+     * THREADS スレッドから OPS_PER_THREAD 回ずつフォローし、スループットを表示して件数の増分を確認する
+     */
+    private void run(String name, FollowCounterRepository repository, boolean print) throws Exception {
+        int before = storedFollowerCount();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        long began;
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                String followerId = Long.toString(FOLLOWER_ID_BASE + i);
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int n = 0; n < OPS_PER_THREAD; n++) {
+                        transactionTemplate.executeWithoutResult(
+                            status -> repository.adjust(followerId, HOT_USER_ID, 1));
+                    }
+                    return null;
+                }));
+            }
+
+            began = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(5, TimeUnit.MINUTES);
+            }
+            // ストライプは書き出しまで含めて計測する
+            if (repository instanceof BufferedFollowCounterRepository buffered) {
+                buffered.flush();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - began;
+
+        assertThat(storedFollowerCount()).isEqualTo(before + THREADS * OPS_PER_THREAD);
+        if (print) {
+            double opsPerSecond = (double) THREADS * OPS_PER_THREAD / (elapsed / 1_000_000_000.0);
+            System.out.printf("%-8s threads=%d elapsed=%,dms throughput=%,.0f ops/s%n",
+                              name, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsed), opsPerSecond);
+        }
+    }
+
+    private int storedFollowerCount() {
+        return jdbcTemplate.queryForObject("SELECT FOLLOWER_COUNT FROM APP_USERS WHERE ID = ?", Integer.class,
+            Long.parseLong(HOT_USER_ID));
+    }
+}
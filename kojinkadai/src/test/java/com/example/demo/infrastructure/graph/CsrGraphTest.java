@@ -0,0 +1,99 @@
+package com.example.demo.infrastructure.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * CsrGraph / EdgeBufferのテスト
+ *
+ * 辺を順不同に追加しても、頂点ごとの隣接先が昇順に並び、両方向のグラフが同じ頂点数で構築されることを確認します。
+ */
+class CsrGraphTest {
+
+    @Test
+    void toOutGraph_sortsNeighborsOfEachNode() {
+        EdgeBuffer buffer = new EdgeBuffer(0);
+        buffer.add(1, 3);
+        buffer.add(0, 2);
+        buffer.add(1, 0);
+        buffer.add(1, 2);
+
+        CsrGraph graph = buffer.toOutGraph();
+
+        assertThat(graph.edgeCount()).isEqualTo(4);
+        assertThat(graph.neighbors(0)).containsExactly(2);
+        assertThat(graph.neighbors(1)).containsExactly(0, 2, 3);
+        assertThat(graph.neighbors(2)).isEmpty();
+        assertThat(graph.degree(1)).isEqualTo(3);
+        assertThat(graph.contains(1, 2)).isTrue();
+        assertThat(graph.contains(2, 1)).isFalse();
+    }
+
+    @Test
+    void toInGraph_reversesEdges() {
+        EdgeBuffer buffer = new EdgeBuffer(0);
+        buffer.add(1, 3);
+        buffer.add(0, 2);
+        buffer.add(1, 2);
+
+        CsrGraph graph = buffer.toInGraph();
+
+        assertThat(graph.neighbors(2)).containsExactly(0, 1);
+        assertThat(graph.neighbors(3)).containsExactly(1);
+        assertThat(graph.contains(3, 1)).isTrue();
+        assertThat(graph.contains(1, 3)).isFalse();
+    }
+
+    @Test
+    void bothDirections_shareNodeCount() {
+        // 終点の番号が始点より大きい場合でも、逆向きのグラフの隣接先が頂点数を超えない
+        EdgeBuffer buffer = new EdgeBuffer(0);
+        buffer.add(0, 9);
+
+        CsrGraph out = buffer.toOutGraph();
+        CsrGraph in = buffer.toInGraph();
+
+        assertThat(out.nodeCount()).isEqualTo(10);
+        assertThat(in.nodeCount()).isEqualTo(10);
+        int[] counts = new int[in.nodeCount()];
+        in.countTargets(counts);
+        assertThat(counts[0]).isEqualTo(1);
+    }
+
+    @Test
+    void outOfRangeNode_hasNoNeighbors() {
+        EdgeBuffer buffer = new EdgeBuffer(0);
+        buffer.add(0, 1);
+        CsrGraph graph = buffer.toOutGraph();
+
+        assertThat(graph.neighbors(-1)).isEmpty();
+        assertThat(graph.neighbors(100)).isEmpty();
+        assertThat(graph.degree(100)).isZero();
+        assertThat(graph.contains(100, 0)).isFalse();
+        assertThat(CsrGraph.EMPTY.nodeCount()).isZero();
+    }
+
+    @Test
+    void forEachNeighbor_andSumOverNeighbors_visitEveryEdge() {
+        EdgeBuffer buffer = new EdgeBuffer(1);
+        // 初期容量を超えて追加しても辺を失わない
+        for (int v = 1; v <= 40; v++) {
+            buffer.add(0, v);
+        }
+        CsrGraph graph = buffer.toOutGraph();
+        double[] values = new double[graph.nodeCount()];
+        for (int v = 0; v < values.length; v++) {
+            values[v] = v;
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        graph.forEachNeighbor(0, visited::add);
+
+        assertThat(visited).hasSize(40).isSorted();
+        assertThat(graph.sumOverNeighbors(0, values)).isEqualTo(820.0);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.demo.infrastructure.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.config.FollowGraphProperties;
+import com.example.demo.config.FollowPathProperties;
+
+/**
+ * GraphFollowPathRepositoryのテスト
+ *
+ * 空の状態から読み込んだフォローグラフにフォロー操作で辺を加え、双方向の幅優先探索で求めた経路が
+ * 実在するフォロー関係だけからなり、片方向の幅優先探索と同じ長さになることを確認します。
+ */
+class GraphFollowPathRepositoryTest {
+    private FollowGraph followGraph;
+    private FollowPathProperties followPathProperties;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(0);
+        followGraph = new FollowGraph(jdbcTemplate, new FollowGraphProperties());
+        followGraph.load();
+        followPathProperties = new FollowPathProperties();
+        followPathProperties.setMaxDepth(6);
+        followPathProperties.setMaxVisited(100_000);
+    }
+
+    @Test
+    void findShortestPath_prefersShorterRoute() {
+        follow(1, 2);
+        follow(2, 3);
+        follow(3, 4);
+        follow(4, 5);
+        follow(1, 6);
+        follow(6, 5);
+
+        assertThat(repository().findShortestPath("1", "5")).contains(List.of("1", "6", "5"));
+    }
+
+    @Test
+    void findShortestPath_followsEdgeDirection() {
+        follow(1, 2);
+        follow(2, 3);
+        GraphFollowPathRepository repository = repository();
+
+        assertThat(repository.findShortestPath("1", "3")).contains(List.of("1", "2", "3"));
+        assertThat(repository.findShortestPath("3", "1")).isEmpty();
+        assertThat(repository.findShortestPath("1", "2")).contains(List.of("1", "2"));
+        assertThat(repository.findShortestPath("2", "2")).contains(List.of("2"));
+    }
+
+    @Test
+    void findShortestPath_stopsAtMaxDepth() {
+        for (int u = 1; u < 10; u++) {
+            follow(u, u + 1);
+        }
+        followPathProperties.setMaxDepth(3);
+        GraphFollowPathRepository repository = repository();
+
+        assertThat(repository.findShortestPath("1", "4")).isPresent();
+        assertThat(repository.findShortestPath("1", "5")).isEmpty();
+    }
+
+    @Test
+    void findShortestPath_stopsAtMaxVisited() {
+        // 1 が多数のユーザーをフォローし、その先でだけ 2 に届く
+        for (int v = 100; v < 200; v++) {
+            follow(1, v);
+        }
+        follow(199, 3);
+        follow(3, 2);
+        followPathProperties.setMaxVisited(10);
+        GraphFollowPathRepository repository = repository();
+
+        assertThat(repository.findShortestPath("1", "2")).isEmpty();
+        assertThat(repository.stats()).containsEntry("cappedCount", 1L);
+    }
+
+    @Test
+    void findShortestPath_returnsEmptyForInvalidUser() {
+        follow(1, 2);
+        GraphFollowPathRepository repository = repository();
+
+        assertThat(repository.findShortestPath("1", "abc")).isEmpty();
+        assertThat(repository.findShortestPath(null, "2")).isEmpty();
+        assertThat(repository.findShortestPath("1", "999")).isEmpty();
+    }
+
+    @Test
+    void findShortestPath_matchesOneSidedBreadthFirstSearch() {
+        int n = 300;
+        Random random = new Random(11);
+        List<List<Integer>> following = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            following.add(new ArrayList<>());
+        }
+        for (int i = 0; i < 600; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (u != v && !following.get(u).contains(v)) {
+                following.get(u).add(v);
+                follow(u, v);
+            }
+            // 途中で差分を土台のグラフへ取り込み、土台と差分の両方にある辺をたどる
+            if (i == 300) {
+                followGraph.compact();
+            }
+        }
+        GraphFollowPathRepository repository = repository();
+
+        int found = 0;
+        for (int pair = 0; pair < 200; pair++) {
+            int source = random.nextInt(n);
+            int target = random.nextInt(n);
+            int expected = distance(following, source, target);
+            Optional<List<String>> path = repository.findShortestPath(Integer.toString(source), Integer.toString(target));
+
+            if (expected < 0 || expected > followPathProperties.getMaxDepth()) {
+                assertThat(path).as("%d -> %d", source, target).isEmpty();
+                continue;
+            }
+            assertThat(path).as("%d -> %d", source, target).isPresent();
+            found++;
+            List<String> ids = path.get();
+            assertThat(ids).hasSize(expected + 1);
+            assertThat(ids.get(0)).isEqualTo(Integer.toString(source));
+            assertThat(ids.get(ids.size() - 1)).isEqualTo(Integer.toString(target));
+            for (int i = 0; i + 1 < ids.size(); i++) {
+                assertThat(followGraph.isFollowing(Integer.parseInt(ids.get(i)), Integer.parseInt(ids.get(i + 1))))
+                    .as("%s -> %s", ids.get(i), ids.get(i + 1)).isTrue();
+            }
+        }
+        assertThat(found).isPositive();
+    }
+
+    private GraphFollowPathRepository repository() {
+        return new GraphFollowPathRepository(followGraph, followPathProperties);
+    }
+
+    private void follow(int follower, int following) {
+        followGraph.onFollow(Integer.toString(follower), Integer.toString(following));
+    }
+
+    /**
+     * 起点からフォローする向きに1段ずつたどった距離（届かない場合は-1）
+     */
+    private static int distance(List<List<Integer>> following, int source, int target) {
+        int[] distances = new int[following.size()];
+        Arrays.fill(distances, -1);
+        distances[source] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>(List.of(source));
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            if (u == target) {
+                return distances[u];
+            }
+            for (int v : following.get(u)) {
+                if (distances[v] < 0) {
+                    distances[v] = distances[u] + 1;
+                    queue.add(v);
+                }
+            }
+        }
+        return -1;
+    }
+}
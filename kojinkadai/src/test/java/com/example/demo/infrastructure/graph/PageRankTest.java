@@ -0,0 +1,137 @@
+package com.example.demo.infrastructure.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * PageRankのテスト
+ *
+ * 並列に計算した値が、1本のループで素直に求めた値と一致し、合計が1に保たれることを確認します。
+ */
+class PageRankTest {
+    private static final double DAMPING = 0.85;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void compute_ranksMostFollowedUserHighest() {
+        // 1, 2, 3 が 0 をフォローし、0 は 1 をフォローする
+        EdgeBuffer edges = new EdgeBuffer(0);
+        edges.add(1, 0);
+        edges.add(2, 0);
+        edges.add(3, 0);
+        edges.add(0, 1);
+
+        PageRank.Result result = PageRank.compute(edges.toInGraph(), pool, DAMPING, 100, 1e-12);
+
+        assertThat(result.ranks[0]).isGreaterThan(result.ranks[1]);
+        assertThat(result.ranks[1]).isGreaterThan(result.ranks[2]);
+        assertThat(result.ranks[2]).isCloseTo(result.ranks[3], within(1e-12));
+        assertThat(Arrays.stream(result.ranks).sum()).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void compute_givesEqualRanksOnCycle() {
+        EdgeBuffer edges = new EdgeBuffer(0);
+        for (int u = 0; u < 5; u++) {
+            edges.add(u, (u + 1) % 5);
+        }
+
+        PageRank.Result result = PageRank.compute(edges.toInGraph(), pool, DAMPING, 100, 1e-12);
+
+        for (double rank : result.ranks) {
+            assertThat(rank).isCloseTo(0.2, within(1e-9));
+        }
+    }
+
+    @Test
+    void compute_matchesSequentialPowerIteration() {
+        // 範囲の分割が起きる頂点数で、誰もフォローしていない頂点も含める
+        int n = 10_000;
+        Random random = new Random(7);
+        EdgeBuffer edges = new EdgeBuffer(0);
+        int[][] following = new int[n][];
+        for (int u = 0; u < n; u++) {
+            int degree = u % 10 == 0 ? 0 : 1 + random.nextInt(5);
+            following[u] = new int[degree];
+            for (int i = 0; i < degree; i++) {
+                int v = random.nextInt(n);
+                following[u][i] = v;
+                edges.add(u, v);
+            }
+        }
+        // 最後の頂点まで頂点数に含める
+        edges.add(n - 1, n - 1);
+        following[n - 1] = Arrays.copyOf(following[n - 1], following[n - 1].length + 1);
+        following[n - 1][following[n - 1].length - 1] = n - 1;
+
+        PageRank.Result result = PageRank.compute(edges.toInGraph(), pool, DAMPING, 30, 0);
+
+        double[] expected = sequential(following, 30);
+        assertThat(result.iterationMillis).hasSize(30);
+        for (int v = 0; v < n; v++) {
+            assertThat(result.ranks[v]).as("node %d", v).isCloseTo(expected[v], within(1e-12));
+        }
+        assertThat(Arrays.stream(result.ranks).sum()).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void compute_stopsWhenBelowTolerance() {
+        EdgeBuffer edges = new EdgeBuffer(0);
+        edges.add(0, 1);
+        edges.add(1, 0);
+
+        PageRank.Result result = PageRank.compute(edges.toInGraph(), pool, DAMPING, 100, 1e-6);
+
+        assertThat(result.iterationMillis.length).isLessThan(100);
+        assertThat(result.delta).isLessThan(1e-6);
+    }
+
+    @Test
+    void compute_returnsEmptyResultForEmptyGraph() {
+        PageRank.Result result = PageRank.compute(CsrGraph.EMPTY, pool, DAMPING, 10, 1e-6);
+
+        assertThat(result.ranks).isEmpty();
+        assertThat(result.iterationMillis).isEmpty();
+    }
+
+    /**
+     * フォロー先の一覧から、誰もフォローしていない頂点の値を均等に配るPageRankを1本のループで求める
+     */
+    private static double[] sequential(int[][] following, int iterations) {
+        int n = following.length;
+        double[] ranks = new double[n];
+        Arrays.fill(ranks, 1.0 / n);
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            double dangling = 0;
+            double[] next = new double[n];
+            for (int u = 0; u < n; u++) {
+                if (following[u].length == 0) {
+                    dangling += ranks[u];
+                    continue;
+                }
+                for (int v : following[u]) {
+                    next[v] += DAMPING * ranks[u] / following[u].length;
+                }
+            }
+            double base = (1 - DAMPING + DAMPING * dangling) / n;
+            for (int v = 0; v < n; v++) {
+                next[v] += base;
+            }
+            ranks = next;
+        }
+        return ranks;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.demo.infrastructure.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.config.PostSearchProperties;
+import com.example.demo.domain.model.Post;
+import com.example.demo.domain.model.PostSearchResult;
+import com.example.demo.util.TestJdbcRows;
+
+/**
+ * PostSearchIndexのテスト
+ *
+ * キーワードのトークンをすべて含む投稿だけがBM25の点数の高い順に返り、カーソルで重複なく続きを取得でき、
+ * 起動後の作成・更新・削除が差分の取り込みの前後で同じ結果になることを確認します。
+ */
+class PostSearchIndexTest {
+    private static final String[] WORDS = {"java", "spring", "boot", "mybatis", "h2", "guava", "lombok", "test"};
+
+    private JdbcTemplate jdbcTemplate;
+    private PostSearchProperties properties;
+    private PostSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        properties = new PostSearchProperties();
+        index = new PostSearchIndex(jdbcTemplate, properties);
+    }
+
+    @Test
+    void search_returnsEmptyUntilLoaded() {
+        index.index(post("1", "java spring"));
+
+        assertThat(index.search("java", null, 10).getPostIds()).isEmpty();
+    }
+
+    @Test
+    void search_requiresEveryTerm() {
+        load(new Object[] {1, "java spring boot"},
+             new Object[] {2, "java mybatis"},
+             new Object[] {3, "東京で勉強会"});
+
+        assertThat(index.search("java", null, 10).getPostIds()).containsExactlyInAnyOrder("1", "2");
+        assertThat(index.search("java spring", null, 10).getPostIds()).containsExactly("1");
+        assertThat(index.search("java guava", null, 10).getPostIds()).isEmpty();
+        assertThat(index.search("勉強", null, 10).getPostIds()).containsExactly("3");
+        assertThat(index.search("京", null, 10).getPostIds()).containsExactly("3");
+    }
+
+    @Test
+    void search_ranksByTermFrequencyRarityThenNewest() {
+        load(new Object[] {1, "java java spring"},
+             new Object[] {2, "java boot spring"},
+             new Object[] {3, "java spring spring"},
+             new Object[] {4, "java boot lombok"},
+             new Object[] {5, "java boot lombok"},
+             new Object[] {6, "java boot lombok"});
+
+        // 同じ長さなら出現回数の多い投稿が上、同じ点数なら新しい（IDの大きい）順
+        assertThat(index.search("spring", null, 10).getPostIds()).containsExactly("3", "2", "1");
+        // 多くの投稿に現れる java より、少ない spring を多く含む投稿が上
+        assertThat(index.search("java spring", null, 10).getPostIds()).containsExactly("3", "1", "2");
+        assertThat(index.search("lombok", null, 10).getPostIds()).containsExactly("6", "5", "4");
+    }
+
+    @Test
+    void search_matchesBruteForceBm25() {
+        Random random = new Random(42);
+        Object[][] rows = new Object[300][];
+        for (int i = 0; i < rows.length; i++) {
+            StringBuilder content = new StringBuilder();
+            int length = 1 + random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                content.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            rows[i] = new Object[] {i + 1, content.toString()};
+        }
+        load(rows);
+
+        for (String query : List.of("java", "spring boot", "h2 guava lombok", "test java")) {
+            Map<Integer, Double> expected = bm25(rows, query);
+            List<String> actual = index.search(query, null, rows.length).getPostIds();
+
+            assertThat(actual).hasSize(expected.size());
+            double previous = Double.POSITIVE_INFINITY;
+            for (String id : actual) {
+                double score = expected.get(Integer.parseInt(id));
+                assertThat(score).isLessThanOrEqualTo(previous + 1e-9);
+                previous = score;
+            }
+        }
+    }
+
+    @Test
+    void search_pagesWithCursorWithoutDuplicates() {
+        Object[][] rows = new Object[25][];
+        for (int i = 0; i < rows.length; i++) {
+            // 点数の同じ投稿を含める
+            rows[i] = new Object[] {i + 1, "java " + "spring ".repeat(i % 4)};
+        }
+        load(rows);
+        List<String> all = index.search("java", null, rows.length).getPostIds();
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            PostSearchResult page = index.search("java", cursor, 4);
+            assertThat(page.getPostIds()).hasSizeLessThanOrEqualTo(4);
+            paged.addAll(page.getPostIds());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(paged).containsExactlyElementsOf(all);
+        assertThat(new HashSet<>(paged)).hasSize(rows.length);
+    }
+
+    @Test
+    void search_rejectsMalformedCursor() {
+        load(new Object[] {1, "java"});
+
+        assertThatThrownBy(() -> index.search("java", "abc", 10))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("カーソルの形式が正しくありません: ");
+    }
+
+    @Test
+    void indexAndRemove_areVisibleBeforeAndAfterCompact() {
+        load(new Object[] {1, "java spring"},
+             new Object[] {2, "java boot"},
+             new Object[] {3, "java lombok"});
+
+        index.index(post("2", "guava boot"));
+        index.index(post("4", "java guava"));
+        index.remove("3");
+
+        List<String> before = index.search("java", null, 10).getPostIds();
+        assertThat(before).containsExactlyInAnyOrder("1", "4");
+        assertThat(index.search("guava", null, 10).getPostIds()).containsExactlyInAnyOrder("2", "4");
+        assertThat(index.search("lombok", null, 10).getPostIds()).isEmpty();
+
+        index.compact();
+
+        assertThat(index.search("java", null, 10).getPostIds()).containsExactlyElementsOf(before);
+        assertThat(index.search("guava", null, 10).getPostIds()).containsExactlyInAnyOrder("2", "4");
+        assertThat(index.search("lombok", null, 10).getPostIds()).isEmpty();
+        assertThat(index.stats()).containsEntry("posts", 3).containsEntry("deltaPosts", 0);
+    }
+
+    /**
+     * POSTSの行（ID, CONTENT）を返すようにして索引を構築
+     */
+    private void load(Object[]... rows) {
+        TestJdbcRows.stubRows(jdbcTemplate, rows);
+        index.load();
+    }
+
+    /**
+     * すべての投稿を1件ずつ調べて、キーワードのトークンをすべて含む投稿のBM25の点数を求める
+     */
+    private Map<Integer, Double> bm25(Object[][] rows, String query) {
+        Map<Integer, PostTokenizer.Tokens> docs = new HashMap<>();
+        long totalLength = 0;
+        for (Object[] row : rows) {
+            PostTokenizer.Tokens tokens = PostTokenizer.tokenize((String) row[1]);
+            docs.put((Integer) row[0], tokens);
+            totalLength += tokens.length();
+        }
+        double averageLength = (double) totalLength / docs.size();
+        Set<String> terms = PostTokenizer.queryTerms(query);
+        Map<String, Integer> docFreqs = new HashMap<>();
+        for (String term : terms) {
+            docFreqs.put(term, (int) docs.values().stream().filter(d -> d.frequencies().containsKey(term)).count());
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+        docs.forEach((id, tokens) -> {
+            if (!tokens.frequencies().keySet().containsAll(terms)) {
+                return;
+            }
+            double score = 0;
+            for (String term : terms) {
+                int n = docFreqs.get(term);
+                double idf = Math.log(1 + (docs.size() - n + 0.5) / (n + 0.5));
+                int tf = tokens.frequencies().get(term);
+                double norm = properties.getK1()
+                    * (1 - properties.getB() + properties.getB() * tokens.length() / averageLength);
+                score += idf * tf * (properties.getK1() + 1) / (tf + norm);
+            }
+            scores.put(id, score);
+        });
+        return scores;
+    }
+
+    private static Post post(String id, String content) {
+        LocalDateTime now = LocalDateTime.now();
+        return Post.from(id, "1", content, now, now);
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.demo.infrastructure.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.config.FollowGraphProperties;
+import com.example.demo.config.UserFuzzySearchProperties;
+import com.example.demo.constants.AppConstants;
+import com.example.demo.infrastructure.graph.FollowGraph;
+import com.example.demo.util.TestJdbcRows;
+import com.example.demo.util.TestUserFactory;
+
+/**
+ * UserFuzzyIndexのテスト
+ *
+ * キーワードの長さに応じた編集距離以内のユーザーだけが、距離の小さい順・フォロワー数の多い順に返り、
+ * 除外するユーザーは上位に絞る前に除かれ、保存・削除の差分が併合の前後で同じ結果になることを確認します。
+ * 結果は全ユーザーと1件ずつ編集距離を求めた結果と突き合わせます。
+ */
+class UserFuzzyIndexTest {
+    private JdbcTemplate jdbcTemplate;
+    private FollowGraph followGraph;
+    private UserFuzzySearchProperties properties;
+    private UserFuzzyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        JdbcTemplate graphJdbcTemplate = mock(JdbcTemplate.class);
+        when(graphJdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(0);
+        followGraph = new FollowGraph(graphJdbcTemplate, new FollowGraphProperties());
+        properties = new UserFuzzySearchProperties();
+        index = new UserFuzzyIndex(jdbcTemplate, followGraph, properties);
+    }
+
+    @Test
+    void search_returnsEmptyUntilLoaded() {
+        index.put(TestUserFactory.createUser("1", "tanaka", null));
+
+        assertThat(index.search("tanaka", null, 10)).isEmpty();
+    }
+
+    @Test
+    void search_allowsMoreEditsForLongerKeywords() {
+        load(new Object[] {1, "ab", null},
+             new Object[] {2, "ac", null},
+             new Object[] {3, "abcd", null},
+             new Object[] {4, "tanaka", null},
+             new Object[] {5, "tanake", null},
+             new Object[] {6, "tonake", null},
+             new Object[] {7, "tonoke", null});
+
+        // 短いキーワードは完全一致のみ
+        assertThat(index.search("ab", null, 10)).containsExactly("1");
+        // FUZZY_ONE_EDIT_MIN_LENGTH 文字以上は1文字違いまで
+        assertThat(index.search("abc", null, 10)).containsExactly("3", "2", "1");
+        // FUZZY_TWO_EDITS_MIN_LENGTH 文字以上は2文字違いまで
+        assertThat(index.search("tanaka", null, 10)).containsExactly("4", "5", "6");
+    }
+
+    @Test
+    void search_capsDistanceWithProperty() {
+        properties.setMaxDistance(1);
+        load(new Object[] {4, "tanaka", null},
+             new Object[] {5, "tanake", null},
+             new Object[] {6, "tonake", null});
+
+        assertThat(index.search("tanaka", null, 10)).containsExactly("4", "5");
+    }
+
+    @Test
+    void search_ordersByDistanceThenFollowers() {
+        followGraph.load();
+        load(new Object[] {1, "suzuki", null},
+             new Object[] {2, "suzuka", null},
+             new Object[] {3, "suzuku", "鈴木"},
+             new Object[] {4, "other", "suzuki"});
+        followGraph.onFollow("1", "3");
+        followGraph.onFollow("2", "3");
+        followGraph.onFollow("1", "2");
+
+        // 距離0の 1 と 4、距離1の 2 と 3（3 は 2 よりフォロワーが多い）
+        assertThat(index.search("suzuki", null, 10)).containsExactly("4", "1", "3", "2");
+    }
+
+    @Test
+    void search_excludesUserBeforeLimit() {
+        load(new Object[] {1, "yamada", null},
+             new Object[] {2, "yamadb", null},
+             new Object[] {3, "yamadc", null});
+
+        assertThat(index.search("yamada", "1", 2)).containsExactly("3", "2");
+    }
+
+    @Test
+    void putAndRemove_areVisibleBeforeAndAfterCompact() {
+        load(new Object[] {1, "tanaka", null},
+             new Object[] {2, "suzuki", null});
+
+        index.put(TestUserFactory.createUser("1", "sato", "佐藤"));
+        index.put(TestUserFactory.createUser("3", "tanaka", null));
+        index.remove("2");
+
+        List<String> tanaka = index.search("tanaka", null, 10);
+        assertThat(tanaka).containsExactly("3");
+        assertThat(index.search("sato", null, 10)).containsExactly("1");
+        assertThat(index.search("suzuki", null, 10)).isEmpty();
+
+        index.compact();
+
+        assertThat(index.search("tanaka", null, 10)).containsExactlyElementsOf(tanaka);
+        assertThat(index.search("sato", null, 10)).containsExactly("1");
+        assertThat(index.search("suzuki", null, 10)).isEmpty();
+        assertThat(index.stats()).containsEntry("overlayUsers", 0);
+    }
+
+    @Test
+    void search_matchesBruteForceBeforeAndAfterCompact() {
+        Random random = new Random(7);
+        Map<Integer, String> names = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= 400; id++) {
+            String name = randomName(random);
+            names.put(id, name);
+            rows.add(new Object[] {id, name, null});
+        }
+        load(rows.toArray(new Object[0][]));
+        for (int i = 0; i < 50; i++) {
+            int id = 1 + random.nextInt(450);
+            if (random.nextInt(4) == 0) {
+                names.remove(id);
+                index.remove(Integer.toString(id));
+            } else {
+                String name = randomName(random);
+                names.put(id, name);
+                index.put(TestUserFactory.createUser(Integer.toString(id), name, null));
+            }
+        }
+
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            queries.add(randomName(random));
+        }
+        for (String query : queries) {
+            assertThat(index.search(query, null, 20)).as(query).containsExactlyElementsOf(bruteForce(names, query, 20));
+        }
+        index.compact();
+        for (String query : queries) {
+            assertThat(index.search(query, null, 20)).as(query).containsExactlyElementsOf(bruteForce(names, query, 20));
+        }
+    }
+
+    /**
+     * APP_USERSの行（ID, USERNAME, DISPLAY_NAME）を返すようにして索引を構築
+     */
+    private void load(Object[]... rows) {
+        TestJdbcRows.stubRows(jdbcTemplate, rows);
+        index.load();
+    }
+
+    /**
+     * 全ユーザーと1件ずつ編集距離を求め、距離の小さい順・IDの大きい順に上位 limit 人を返す（フォロワー数は使わない）
+     */
+    private static List<String> bruteForce(Map<Integer, String> names, String query, int limit) {
+        int maxDistance = query.length() >= AppConstants.Search.FUZZY_TWO_EDITS_MIN_LENGTH ? 2
+            : query.length() >= AppConstants.Search.FUZZY_ONE_EDIT_MIN_LENGTH ? 1 : 0;
+        Map<Integer, Integer> distances = new HashMap<>();
+        names.forEach((id, name) -> {
+            int distance = levenshtein(query, name);
+            if (distance <= maxDistance) {
+                distances.put(id, distance);
+            }
+        });
+        return distances.keySet().stream()
+            .sorted(Comparator.<Integer>comparingInt(distances::get).thenComparing(Comparator.reverseOrder()))
+            .limit(limit)
+            .map(String::valueOf)
+            .toList();
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] table = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    table[i][j] = i + j;
+                } else {
+                    int replace = table[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                    table[i][j] = Math.min(replace, Math.min(table[i - 1][j], table[i][j - 1]) + 1);
+                }
+            }
+        }
+        return table[a.length()][b.length()];
+    }
+
+    /**
+     * 近い名前が多くできるよう、少ない文字から2〜7文字の名前を作る
+     */
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 2 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            name.append((char) ('a' + random.nextInt(3)));
+        }
+        return name.toString();
+    }
+}
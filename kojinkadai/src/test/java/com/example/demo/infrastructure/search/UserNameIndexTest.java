@@ -0,0 +1,121 @@
+package com.example.demo.infrastructure.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.domain.model.InfluenceScoreRepository;
+import com.example.demo.domain.model.UserSearchResult;
+import com.example.demo.util.TestJdbcRows;
+import com.example.demo.util.TestUserFactory;
+
+/**
+ * UserNameIndexのテスト
+ *
+ * 2文字ごとの集合で絞り込んだ候補のうち、実際にキーワードを含むユーザーだけが返り、
+ * 保存・削除の差分が索引に反映されることを確認します。
+ */
+class UserNameIndexTest {
+    private final Map<String, Double> influence = new HashMap<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private UserNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        InfluenceScoreRepository influenceScoreRepository = mock(InfluenceScoreRepository.class);
+        when(influenceScoreRepository.getInfluence(anyString()))
+            .thenAnswer(invocation -> influence.getOrDefault(invocation.<String>getArgument(0), 0.0));
+        index = new UserNameIndex(jdbcTemplate, influenceScoreRepository);
+    }
+
+    @Test
+    void search_returnsEmptyUntilLoaded() {
+        assertThat(index.search("abc", null, 0, 10)).isEmpty();
+    }
+
+    @Test
+    void search_matchesSubstringOfDisplayNameOrUsername() {
+        load(new Object[] {1, "tanaka", "田中太郎"},
+             new Object[] {2, "suzuki", "鈴木花子"},
+             new Object[] {3, "taro_k", "Kato"});
+
+        assertThat(ids(index.search("太郎", null, 0, 10))).containsExactly("1");
+        assertThat(ids(index.search("taro", null, 0, 10))).containsExactly("3");
+        assertThat(ids(index.search("zuk", null, 0, 10))).containsExactly("2");
+        assertThat(ids(index.search("鈴", null, 0, 10))).containsExactly("2");
+        assertThat(ids(index.search("yamada", null, 0, 10))).isEmpty();
+    }
+
+    @Test
+    void search_ignoresCaseAndWidth() {
+        load(new Object[] {1, "Alice", "ＡＬＩＣＥ"});
+
+        assertThat(ids(index.search("ＬＩＣ", null, 0, 10))).containsExactly("1");
+        assertThat(ids(index.search("ALI", null, 0, 10))).containsExactly("1");
+    }
+
+    @Test
+    void search_dropsCandidatesThatContainEveryBigramButNotKeyword() {
+        // "abxbc" は "ab" と "bc" を両方含むが "abc" は含まない
+        load(new Object[] {1, "abxbc", null},
+             new Object[] {2, "xabcx", null});
+
+        assertThat(ids(index.search("abc", null, 0, 10))).containsExactly("2");
+    }
+
+    @Test
+    void search_ordersByInfluenceThenNewestAndPagesAfterExcluding() {
+        load(new Object[] {1, "user1", null},
+             new Object[] {2, "user2", null},
+             new Object[] {3, "user3", null},
+             new Object[] {4, "user4", null});
+        influence.put("2", 0.5);
+
+        UserSearchResult first = index.search("user", "4", 0, 2).orElseThrow();
+        UserSearchResult second = index.search("user", "4", 2, 2).orElseThrow();
+
+        assertThat(first.getUserIds()).containsExactly("2", "3");
+        assertThat(second.getUserIds()).containsExactly("1");
+        assertThat(first.getTotalCount()).isEqualTo(3);
+    }
+
+    @Test
+    void put_replacesOldNameAndRemoveDropsUser() {
+        load(new Object[] {1, "tanaka", "田中"});
+
+        index.put(TestUserFactory.createUser("1", "tanaka", "佐藤"));
+        assertThat(ids(index.search("田中", null, 0, 10))).isEmpty();
+        assertThat(ids(index.search("佐藤", null, 0, 10))).containsExactly("1");
+
+        index.put(TestUserFactory.createUser("5", "newcomer", "新人"));
+        assertThat(ids(index.search("新人", null, 0, 10))).containsExactly("5");
+
+        index.remove("1");
+        assertThat(ids(index.search("tanaka", null, 0, 10))).isEmpty();
+        assertThat(index.stats()).containsEntry("users", 1);
+    }
+
+    /**
+     * APP_USERSの行（ID, USERNAME, DISPLAY_NAME）を返すようにして索引を構築
+     */
+    private void load(Object[]... rows) {
+        TestJdbcRows.stubRows(jdbcTemplate, rows);
+        index.load();
+    }
+
+    private static List<String> ids(Optional<UserSearchResult> result) {
+        return result.orElseThrow().getUserIds();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.demo.infrastructure.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.config.FollowGraphProperties;
+import com.example.demo.config.UserSuggestProperties;
+import com.example.demo.infrastructure.graph.FollowGraph;
+import com.example.demo.util.TestJdbcRows;
+import com.example.demo.util.TestUserFactory;
+
+/**
+ * UserPrefixIndexのテスト
+ *
+ * 前方一致の候補がフォロワー数の多い順に返り、構築時に求めておいた上位の候補を使った場合も範囲を走査した場合と
+ * 同じ結果になること、作成・更新・削除の差分が反映されることを確認します。
+ * フォローグラフは読み込まず、並び順には構築時のフォロワー数を使います。
+ */
+class UserPrefixIndexTest {
+
+    @Test
+    void suggest_returnsEmptyUntilLoaded() {
+        UserPrefixIndex index = new UserPrefixIndex(mock(JdbcTemplate.class), followGraph(), properties(256));
+
+        assertThat(index.suggest("a", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_matchesPrefixOfUsernameOrDisplayNameByFollowerCount() {
+        UserPrefixIndex index = load(256, List.of(
+            new Row(1, "tanaka", "田中", 5),
+            new Row(2, "tamura", "田村", 50),
+            new Row(3, "suzuki", "Taro", 20),
+            new Row(4, "yamada", "山田", 100)));
+
+        assertThat(index.suggest("ta", 10)).containsExactly("2", "3", "1");
+        assertThat(index.suggest("TA", 2)).containsExactly("2", "3");
+        assertThat(index.suggest("田", 10)).containsExactly("2", "1");
+        assertThat(index.suggest("tanaka", 10)).containsExactly("1");
+        assertThat(index.suggest("tanakax", 10)).isEmpty();
+        assertThat(index.suggest(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_precomputedTopMatchesFullScan() {
+        List<Row> rows = randomRows(500, new Random(3));
+        UserPrefixIndex precomputed = load(4, rows);
+        UserPrefixIndex scanned = load(Integer.MAX_VALUE, rows);
+
+        for (String prefix : List.of("a", "b", "ab", "ba", "abc", "c", "cab", "aaa")) {
+            List<String> expected = bruteForce(rows, prefix, 10);
+            assertThat(precomputed.suggest(prefix, 10)).as(prefix).isEqualTo(expected);
+            assertThat(scanned.suggest(prefix, 10)).as(prefix).isEqualTo(expected);
+        }
+        assertThat((int) precomputed.stats().get("precomputedPrefixes")).isPositive();
+    }
+
+    @Test
+    void put_andRemove_areReflectedWithoutRebuild() {
+        UserPrefixIndex index = load(256, List.of(
+            new Row(1, "tanaka", null, 5),
+            new Row(2, "tamura", null, 50)));
+
+        index.put(TestUserFactory.createUser("1", "kimura", null));
+        index.put(TestUserFactory.createUser("9", "takeda", null));
+        index.remove("2");
+
+        assertThat(index.suggest("ta", 10)).containsExactly("9");
+        assertThat(index.suggest("ki", 10)).containsExactly("1");
+        assertThat(index.stats()).containsEntry("overlayUsers", 3);
+    }
+
+    @Test
+    void suggest_scansRangeWhenOverlayHidesPrecomputedCandidates() {
+        List<Row> rows = new ArrayList<>();
+        for (int id = 1; id <= 100; id++) {
+            rows.add(new Row(id, "user" + id, null, id));
+        }
+        UserPrefixIndex index = load(4, rows);
+
+        // 構築時に求めておいた上位の候補（フォロワー数の多い40人）をすべて削除する
+        for (int id = 61; id <= 100; id++) {
+            index.remove(Integer.toString(id));
+        }
+
+        assertThat(index.suggest("user", 3)).containsExactly("60", "59", "58");
+        assertThat((long) index.stats().get("fullScanCount")).isPositive();
+    }
+
+    /**
+     * APP_USERSの行を返すようにして索引を構築
+     */
+    private static UserPrefixIndex load(int precomputeThreshold, List<Row> rows) {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        TestJdbcRows.stubRows(jdbcTemplate, rows.stream()
+            .map(row -> new Object[] {row.id(), row.username(), row.displayName(), row.followers()})
+            .toArray(Object[][]::new));
+        UserPrefixIndex index = new UserPrefixIndex(jdbcTemplate, followGraph(), properties(precomputeThreshold));
+        index.load();
+        return index;
+    }
+
+    /**
+     * 読み込んでいないフォローグラフ（並び順には構築時のフォロワー数を使う）
+     */
+    private static FollowGraph followGraph() {
+        return new FollowGraph(mock(JdbcTemplate.class), new FollowGraphProperties());
+    }
+
+    private static UserSuggestProperties properties(int precomputeThreshold) {
+        UserSuggestProperties properties = new UserSuggestProperties();
+        properties.setPrecomputeThreshold(precomputeThreshold);
+        return properties;
+    }
+
+    private static List<Row> randomRows(int count, Random random) {
+        List<Row> rows = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            StringBuilder name = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int i = 0; i < length; i++) {
+                name.append((char) ('a' + random.nextInt(3)));
+            }
+            rows.add(new Row(id, name.toString(), null, random.nextInt(50)));
+        }
+        return rows;
+    }
+
+    /**
+     * 全ユーザーを照合して、フォロワー数の多い順・同じならIDの大きい順に並べる
+     */
+    private static List<String> bruteForce(List<Row> rows, String prefix, int limit) {
+        return rows.stream()
+            .filter(row -> row.username().startsWith(prefix))
+            .sorted(Comparator.comparingInt(Row::followers).thenComparingInt(Row::id).reversed())
+            .limit(limit)
+            .map(row -> Integer.toString(row.id()))
+            .toList();
+    }
+
+    private record Row(int id, String username, String displayName, int followers) {
+    }
+}
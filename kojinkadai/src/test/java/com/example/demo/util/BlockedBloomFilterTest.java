@@ -0,0 +1,79 @@
+package com.example.demo.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * BlockedBloomFilterのテスト
+ *
+ * 追加したキーは必ず「含む可能性あり」と判定され（偽陰性がない）、偽陽性率が目標から大きく外れないことを確認します。
+ */
+class BlockedBloomFilterTest {
+
+    @Test
+    void mightContain_neverReturnsFalseForAddedKey() {
+        BlockedBloomFilter filter = BlockedBloomFilter.create(100_000, 0.01);
+        Random random = new Random(1);
+        long[] keys = random.longs(100_000).toArray();
+        for (long key : keys) {
+            filter.put(key);
+        }
+
+        for (long key : keys) {
+            assertThat(filter.mightContain(key)).as("key=%d", key).isTrue();
+        }
+        assertThat(filter.insertions()).isEqualTo(keys.length);
+    }
+
+    @Test
+    void mightContain_staysNearTargetFalsePositiveRate() {
+        int n = 50_000;
+        double target = 0.01;
+        BlockedBloomFilter filter = BlockedBloomFilter.create(n, target);
+        // フォロー関係のキーと同じく、連続した値を追加する
+        LongStream.range(0, n).forEach(filter::put);
+
+        int probes = 200_000;
+        long falsePositives = LongStream.range(n, n + probes).filter(filter::mightContain).count();
+
+        assertThat((double) falsePositives / probes).isLessThan(target * 2);
+        assertThat(filter.estimatedFalsePositiveRate()).isLessThanOrEqualTo(target);
+    }
+
+    @Test
+    void emptyFilter_containsNothing() {
+        BlockedBloomFilter filter = BlockedBloomFilter.create(0, 0.01);
+
+        assertThat(filter.mightContain(0)).isFalse();
+        assertThat(filter.mightContain(42)).isFalse();
+        assertThat(filter.bitSize()).isPositive();
+        assertThat(filter.hashFunctions()).isPositive();
+    }
+
+    @Test
+    void create_rejectsInvalidFalsePositiveRate() {
+        assertThatThrownBy(() -> BlockedBloomFilter.create(10, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BlockedBloomFilter.create(10, 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void blockedFalsePositiveRate_growsWithInsertions() {
+        BlockedBloomFilter filter = BlockedBloomFilter.create(1_000, 0.01);
+        int blocks = (int) (filter.bitSize() / 512);
+
+        double half = BlockedBloomFilter.blockedFalsePositiveRate(500, blocks, filter.hashFunctions());
+        double full = BlockedBloomFilter.blockedFalsePositiveRate(1_000, blocks, filter.hashFunctions());
+        double over = BlockedBloomFilter.blockedFalsePositiveRate(4_000, blocks, filter.hashFunctions());
+
+        assertThat(half).isLessThan(full);
+        assertThat(full).isLessThanOrEqualTo(0.01);
+        assertThat(over).isGreaterThan(full);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.demo.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * CompressedBitmapのテスト
+ *
+ * 配列コンテナとビットマップコンテナの切り替えの前後で、集合演算の結果が通常の集合と一致することを確認します。
+ */
+class CompressedBitmapTest {
+    /** 配列コンテナで保持する最大要素数（CompressedBitmap.ARRAY_MAX_SIZE） */
+    private static final int ARRAY_MAX_SIZE = 4096;
+
+    @Test
+    void of_ignoresDuplicatesAndOrder() {
+        CompressedBitmap bitmap = CompressedBitmap.of(70000, 3, 1, 3, 65536);
+
+        assertThat(bitmap.toArray()).containsExactly(1, 3, 65536, 70000);
+        assertThat(bitmap.cardinality()).isEqualTo(4);
+        assertThat(bitmap.contains(3)).isTrue();
+        assertThat(bitmap.contains(2)).isFalse();
+        assertThat(bitmap.contains(65537)).isFalse();
+    }
+
+    @Test
+    void add_switchesToBitmapContainerPastArrayLimit() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value = 0; value < ARRAY_MAX_SIZE; value++) {
+            bitmap.add(value * 2);
+        }
+
+        bitmap.add(1);
+        long bitmapBytes = bitmap.estimatedBytes();
+        int added = 0;
+        for (int value = 3; value < 20000; value += 2) {
+            bitmap.add(value);
+            added++;
+        }
+
+        // ビットマップコンテナに切り替わった後は、要素が増えてもメモリ使用量は変わらない
+        assertThat(bitmap.estimatedBytes()).isEqualTo(bitmapBytes);
+        assertThat(bitmap.cardinality()).isEqualTo(ARRAY_MAX_SIZE + 1 + added);
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(bitmap.contains(2 * (ARRAY_MAX_SIZE - 1))).isTrue();
+        assertThat(bitmap.contains(20001)).isFalse();
+        // 同じ値を追加しても要素数は変わらない
+        int cardinality = bitmap.cardinality();
+        bitmap.add(1);
+        assertThat(bitmap.cardinality()).isEqualTo(cardinality);
+    }
+
+    @Test
+    void andNot_convertsSmallResultBackToArrayContainer() {
+        CompressedBitmap dense = range(0, 10000);
+        CompressedBitmap most = range(0, 9990);
+
+        CompressedBitmap rest = dense.andNot(most);
+
+        assertThat(rest.toArray()).hasSize(10).startsWith(9990).endsWith(9999);
+        assertThat(rest.estimatedBytes()).isLessThan(1024);
+    }
+
+    @Test
+    void and_dropsEmptyContainers() {
+        CompressedBitmap left = CompressedBitmap.of(1, 2, 65536);
+        CompressedBitmap right = CompressedBitmap.of(3, 131072);
+
+        CompressedBitmap result = left.and(right);
+
+        assertThat(result.isEmpty()).isTrue();
+        assertThat(result.toArray()).isEmpty();
+        assertThat(left.andCardinality(right)).isZero();
+    }
+
+    @Test
+    void setOperations_matchReferenceSetAcrossContainerKinds() {
+        Random random = new Random(42);
+        for (int round = 0; round < 5; round++) {
+            // 疎な集合（配列コンテナ）と密な集合（ビットマップコンテナ）を複数のコンテナにまたがって作る
+            TreeSet<Integer> expectedLeft = new TreeSet<>();
+            TreeSet<Integer> expectedRight = new TreeSet<>();
+            CompressedBitmap left = randomBitmap(random, expectedLeft);
+            CompressedBitmap right = randomBitmap(random, expectedRight);
+
+            TreeSet<Integer> and = new TreeSet<>(expectedLeft);
+            and.retainAll(expectedRight);
+            TreeSet<Integer> or = new TreeSet<>(expectedLeft);
+            or.addAll(expectedRight);
+            TreeSet<Integer> andNot = new TreeSet<>(expectedLeft);
+            andNot.removeAll(expectedRight);
+
+            assertThat(left.toArray()).containsExactly(toArray(expectedLeft));
+            assertThat(left.and(right).toArray()).containsExactly(toArray(and));
+            assertThat(left.andCardinality(right)).isEqualTo(and.size());
+            assertThat(left.or(right).toArray()).containsExactly(toArray(or));
+            assertThat(left.andNot(right).toArray()).containsExactly(toArray(andNot));
+        }
+    }
+
+    @Test
+    void setOperations_doNotModifyOperands() {
+        CompressedBitmap left = range(0, 5000);
+        CompressedBitmap right = range(2500, 7500);
+
+        left.or(right).add(100000);
+        left.and(right);
+        left.andNot(right);
+
+        assertThat(left.cardinality()).isEqualTo(5000);
+        assertThat(right.cardinality()).isEqualTo(5000);
+        assertThat(left.contains(100000)).isFalse();
+    }
+
+    private static CompressedBitmap range(int from, int to) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value = from; value < to; value++) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    private static CompressedBitmap randomBitmap(Random random, TreeSet<Integer> expected) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int high = 0; high < 3; high++) {
+            int count = random.nextBoolean() ? random.nextInt(100) : ARRAY_MAX_SIZE + random.nextInt(8000);
+            for (int i = 0; i < count; i++) {
+                int value = (high << 16) | random.nextInt(1 << 16);
+                bitmap.add(value);
+                expected.add(value);
+            }
+        }
+        return bitmap;
+    }
+
+    private static int[] toArray(TreeSet<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.util;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * モックのJdbcTemplateに、行ごとにRowCallbackHandlerへ渡す結果を設定するヘルパー
+ *
+ * インメモリの索引が起動時に query(PreparedStatementCreator, RowCallbackHandler) で全件を読み込む処理を、
+ * DBを使わずに指定した行で動かすために使います。
+ */
+public class TestJdbcRows {
+
+    /**
+     * query(PreparedStatementCreator, RowCallbackHandler) が rows を1行ずつ処理するよう設定する。
+     * 各行の値は1列目から順に、Integer は getInt、Long は getLong、それ以外は getString で返す
+     * （null の列は設定せず、getString は null、getInt は 0 を返す）。
+     *
+     * @param jdbcTemplate モックのJdbcTemplate
+     * @param rows 行ごとの列の値
+     */
+    public static void stubRows(JdbcTemplate jdbcTemplate, Object[]... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] row : rows) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private static ResultSet resultSet(Object[] row) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        for (int i = 0; i < row.length; i++) {
+            int column = i + 1;
+            if (row[i] instanceof Integer value) {
+                when(rs.getInt(column)).thenReturn(value);
+            } else if (row[i] instanceof Long value) {
+                when(rs.getLong(column)).thenReturn(value);
+            } else if (row[i] != null) {
+                when(rs.getString(column)).thenReturn(row[i].toString());
+            }
+        }
+        return rs;
+    }
+}
@@ -21,6 +21,11 @@ public class TestUserFactory {
         );
     }
     
+    public static User createUser(String id, String username, String displayName) {
+        LocalDateTime now = LocalDateTime.now();
+        return User.from(id, username, username + "@example.com", displayName, null, null, now, now);
+    }
+    
     public static Post createMockPost(String userId, String content) {
         return Post.from(
             UUID.randomUUID().toString(),